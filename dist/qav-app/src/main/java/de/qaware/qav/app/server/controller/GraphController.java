@@ -67,9 +67,9 @@ public class GraphController {
         LOGGER.info("Reading Graph from file: {}", FileNameUtil.getCanonicalPath(filename));
         File graphFile = new File(filename);
         assertFileExists(graphFile);
-        dependencyGraph = GraphReaderWriter.read(filename);
+        dependencyGraph = GraphReaderWriter.read(filename).freeze();
         LOGGER.info("Graph with: {} nodes and {} edges",
-                dependencyGraph.getAllNodes().size(), dependencyGraph.getAllEdges().size());
+                dependencyGraph.nodeCount(), dependencyGraph.edgeCount());
 
         index = new DependencyGraphIndex(dependencyGraph);
     }
@@ -88,7 +88,7 @@ public class GraphController {
     @GetMapping(value = "/info")
     public GraphInfoDTO getInfo() {
         String info = String.format("Graph with: %d nodes and %d edges. Filename: %s",
-                dependencyGraph.getAllNodes().size(), dependencyGraph.getAllEdges().size(),
+                dependencyGraph.nodeCount(), dependencyGraph.edgeCount(),
                 FileNameUtil.getCanonicalPath(filename));
 
         LOGGER.info("Request to /info: {}", info);
@@ -4,11 +4,10 @@ import com.google.common.collect.Maps;
 import de.qaware.qav.app.server.model.DependencyDTO;
 import de.qaware.qav.graph.api.Dependency;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -39,22 +38,22 @@ public final class DependencyMapper {
         result.setTargetName(dependency.getTarget().getName());
         result.setTypeName(dependency.getDependencyType().name());
 
-        result.setBaseDependencies(mapBaseDependencies(dependency.getBaseDependencies()));
-        result.setProperties(mapProperties(dependency.getProperties()));
+        result.setBaseDependencies(mapBaseDependencies(dependency));
+        result.setProperties(mapProperties(dependency));
 
         return result;
     }
 
-    private static List<DependencyDTO> mapBaseDependencies(Set<Dependency> baseDependencies) {
-        return baseDependencies.stream()
-                .map(DependencyMapper::toDTO)
-                .sorted(Comparator.comparing(DependencyDTO::getSourceName))
-                .collect(Collectors.toList());
+    private static List<DependencyDTO> mapBaseDependencies(Dependency dependency) {
+        List<DependencyDTO> result = new ArrayList<>(dependency.getBaseDependencyCount());
+        dependency.forEachBaseDependency(baseDependency -> result.add(toDTO(baseDependency)));
+        result.sort(Comparator.comparing(DependencyDTO::getSourceName));
+        return result;
     }
 
-    private static Map<String, Object> mapProperties(Map<String, Object> properties) {
+    private static Map<String, Object> mapProperties(Dependency dependency) {
         Map<String, Object> result = Maps.newTreeMap();
-        result.putAll(properties);
+        dependency.forEachProperty(result::put);
         return result;
     }
 }
@@ -52,7 +52,7 @@ public final class NodeMapper {
     private static void mapProperties(Node node, NodeDTO result) {
         result.setName(node.getName());
         result.setProperties(Maps.newTreeMap());
-        result.getProperties().putAll(node.getProperties());
+        node.forEachProperty(result.getProperties()::put);
         result.getProperties().remove("name");
     }
 
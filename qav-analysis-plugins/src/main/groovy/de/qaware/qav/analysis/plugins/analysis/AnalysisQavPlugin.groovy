@@ -43,6 +43,7 @@ class AnalysisQavPlugin extends BasePlugin {
         analysis.context.IN_CYCLE = CycleFinder.IN_CYCLE
 
         analysis.register("findCycles", this.&findCycles)
+        analysis.register("findCycleComponents", this.&findCycleComponents)
         analysis.register("checkArchitectureRules", this.&checkArchitectureRules)
         analysis.register("checkDependencyRules", this.&checkDependencyRules)
         analysis.register("findDependenciesTo", this.&findDependenciesTo)
@@ -82,6 +83,63 @@ class AnalysisQavPlugin extends BasePlugin {
         DependencyGraph relevantGraph = filterContains ? graph.filter(new DependencyTypeEdgeOutFilter(DependencyType.CONTAINS)) : graph
 
         CycleFinder cycleFinder = new CycleFinderImpl(relevantGraph)
+        return reportCycles(cycleFinder, graph, scope)
+    }
+
+    /**
+     * Checks the input graph for cycles, and reports the strongly connected components instead of all cycles.
+     *
+     * @param graph the {@link DependencyGraph} to find the cycles in
+     * @param scope name of the scope, used for error messages
+     * @param maxCyclesPerComponent number of elementary cycles to list per component; 0 to list none
+     * @param maxMillis time limit for listing the elementary cycles; 0 for no limit
+     * @param filterContains if <tt>true</tt>, filters out all dependencies of type CONTAINS
+     * @return the given graph, filtered to only those nodes which are part of a cycle
+     *
+     * @since 1.2.16
+     */
+    @QavCommand(name = "findCycleComponents",
+            description = """
+                    Checks the input graph for cycles, like `findCycles`, but in linear time:
+                    Finds the strongly connected components of the graph, and reports each component which contains a
+                    cycle, instead of each elementary cycle. All nodes in one component get the same cycle label.
+                    Use this on large, tangled graphs where the number of elementary cycles explodes.
+
+                    Optionally, lists some elementary cycles per component in the log, limited by count and time.
+                    """,
+            parameters = [
+                    @QavCommand.Param(name = "graph", description = "the DependencyGraph to find the cycles in"),
+                    @QavCommand.Param(name = "scope", description = "name of the scope, used for error messages"),
+                    @QavCommand.Param(name = "maxCyclesPerComponent", description = """
+                            number of elementary cycles to list per component in the log.
+                            Defaults to 0, i.e. don't list any.
+                            """),
+                    @QavCommand.Param(name = "maxMillis", description = """
+                            time limit in milliseconds for listing the elementary cycles.
+                            Defaults to 0, i.e. no time limit.
+                            """),
+                    @QavCommand.Param(name = "filterContains", description = """
+                            if `true`, filters out all dependencies of type CONTAINS. Defaults to `true`.
+                            """)
+            ],
+            result = """
+                    The given graph, filtered to only those nodes which are part of a cycle. 
+                    I.e., if the resulting graph is empty, then the original graph is free of cycles.
+                    If it is not free of cycles, QAvalidator issues a violation and marks the analysis step as _failed_.
+                    """
+    )
+    DependencyGraph findCycleComponents(DependencyGraph graph, String scope, int maxCyclesPerComponent = 0, long maxMillis = 0,
+                                        boolean filterContains = true) {
+        Preconditions.checkNotNull(graph, "graph")
+        Preconditions.checkNotNull(scope, "scope")
+
+        DependencyGraph relevantGraph = filterContains ? graph.filter(new DependencyTypeEdgeOutFilter(DependencyType.CONTAINS)) : graph
+
+        CycleFinder cycleFinder = new CycleFinderImpl(relevantGraph, CycleFinderImpl.Mode.COMPONENTS, maxCyclesPerComponent, maxMillis)
+        return reportCycles(cycleFinder, graph, scope)
+    }
+
+    private DependencyGraph reportCycles(CycleFinder cycleFinder, DependencyGraph graph, String scope) {
         if (cycleFinder.hasCycles()) {
             cycleFinder.cycles.each {
                 analysis.sonarError("${scope.toUpperCase()} CYCLE with ${it.size()} nodes: ${it.toString()}")
@@ -121,14 +179,17 @@ class AnalysisQavPlugin extends BasePlugin {
             ]
     )
     void checkArchitectureRules(DependencyGraph architectureGraph, Architecture architecture) {
-        List<Checker> checkers = [new DependencyChecker(architectureGraph, architecture),
+        def lookupStats = architecture.lookupCacheStats
+        DependencyChecker dependencyChecker = new DependencyChecker(architectureGraph, architecture)
+        List<Checker> checkers = [dependencyChecker,
                                   new AllComponentsImplementedChecker(architectureGraph, architecture),
-                                  new AllExplicitRulesUsedChecker(architectureGraph, architecture)
+                                  new AllExplicitRulesUsedChecker(architectureGraph, architecture, dependencyChecker.ruleMatrix)
         ]
 
         checkers
                 .grep {checker -> !checker.isOk()}
                 .each {checker -> reportCheckerViolation(checker, architecture)}
+        architecture.logLookupCacheStats("checkArchitectureRules", lookupStats)
     }
 
     /**
@@ -156,7 +217,9 @@ class AnalysisQavPlugin extends BasePlugin {
             ]
     )
     void checkDependencyRules(DependencyGraph architectureGraph, Architecture architecture) {
+        def lookupStats = architecture.lookupCacheStats
         Checker checker = new DependencyChecker(architectureGraph, architecture)
+        architecture.logLookupCacheStats("checkDependencyRules", lookupStats)
 
         if (!checker.isOk()) {
             reportCheckerViolation(checker, architecture)
@@ -207,9 +270,9 @@ class AnalysisQavPlugin extends BasePlugin {
 
         DependencyGraph unwantedGraph = graph.filter(nodeHasDependencyToFilter)
 
-        if (!unwantedGraph.getAllNodes().isEmpty()) {
+        if (unwantedGraph.nodeCount() > 0) {
             DependencyGraph unwantedSourceNodes = unwantedGraph.filter(new NotFilter(targetFilter))
-            analysis.violation("There are unwanted imports from ${unwantedSourceNodes.getAllNodes().size()} classes.")
+            analysis.violation("There are unwanted imports from ${unwantedSourceNodes.nodeCount()} classes.")
         }
 
         return unwantedGraph
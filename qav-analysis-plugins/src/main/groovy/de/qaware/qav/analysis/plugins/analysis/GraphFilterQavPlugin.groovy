@@ -4,8 +4,10 @@ import de.qaware.qav.analysis.dsl.model.Analysis
 import de.qaware.qav.analysis.plugins.base.BasePlugin
 import de.qaware.qav.doc.QavCommand
 import de.qaware.qav.doc.QavPluginDoc
+import de.qaware.qav.graph.alg.impl.ReachabilityIndex
 import de.qaware.qav.graph.api.DependencyGraph
 import de.qaware.qav.graph.api.DependencyType
+import de.qaware.qav.graph.api.Node
 import de.qaware.qav.graph.api.NodeFilter
 import de.qaware.qav.graph.filter.*
 import groovy.util.logging.Slf4j
@@ -47,6 +49,9 @@ class GraphFilterQavPlugin extends BasePlugin {
         analysis.register("dependencyTypeEdgeOutFilter", this.&dependencyTypeEdgeOutFilter)
 
         analysis.register("nodeHasDependencyToFilter", this.&nodeHasDependencyToFilter)
+        analysis.register("nodeReachesFilter", this.&nodeReachesFilter)
+        analysis.register("nodeReachedFromFilter", this.&nodeReachedFromFilter)
+        analysis.register("reaches", this.&reaches)
         analysis.register("nodeHasIncomingDependencyTypeFilter", this.&nodeHasIncomingDependencyTypeFilter)
         analysis.register("nodeHasOutgoingDependencyTypeFilter", this.&nodeHasOutgoingDependencyTypeFilter)
         analysis.register("nodeNameInFilter", this.&nodeNameInFilter)
@@ -219,6 +224,81 @@ class GraphFilterQavPlugin extends BasePlugin {
         return new NodeHasDependencyToFilter(graph, baseFilter)
     }
 
+    /**
+     * Creates a new {@link NodeReachesFilter}. Accepts all nodes which have direct or transitive dependencies to nodes
+     * which are accepted by the given base filter.
+     *
+     * @param graph the graph to work on
+     * @param baseFilter the node filter
+     * @return the new {@link NodeReachesFilter}
+     */
+    @QavCommand(name = "nodeReachesFilter",
+            description = """
+                Creates a new {@link NodeReachesFilter}. Accepts all nodes which are accepted by the given base filter,
+                or which have direct or transitive dependencies to nodes which are accepted by the given base filter.
+                This is the transitive version of `nodeHasDependencyToFilter`.
+            """,
+            parameters = [
+                    @QavCommand.Param(name = "graph", description = "the graph to work on"),
+                    @QavCommand.Param(name = "baseFilter", description = "the node filter for the target nodes")
+            ],
+            result = "the new {@link NodeReachesFilter}"
+    )
+    static NodeReachesFilter nodeReachesFilter(DependencyGraph graph, NodeFilter baseFilter) {
+        return new NodeReachesFilter(graph, baseFilter)
+    }
+
+    /**
+     * Creates a new {@link NodeReachedFromFilter}. Accepts all nodes which are direct or transitive dependencies of
+     * nodes which are accepted by the given base filter.
+     *
+     * @param graph the graph to work on
+     * @param baseFilter the node filter
+     * @return the new {@link NodeReachedFromFilter}
+     */
+    @QavCommand(name = "nodeReachedFromFilter",
+            description = """
+                Creates a new {@link NodeReachedFromFilter}. Accepts all nodes which are accepted by the given base
+                filter, or which are direct or transitive dependencies of nodes which are accepted by the given base
+                filter.
+            """,
+            parameters = [
+                    @QavCommand.Param(name = "graph", description = "the graph to work on"),
+                    @QavCommand.Param(name = "baseFilter", description = "the node filter for the source nodes")
+            ],
+            result = "the new {@link NodeReachedFromFilter}"
+    )
+    static NodeReachedFromFilter nodeReachedFromFilter(DependencyGraph graph, NodeFilter baseFilter) {
+        return new NodeReachedFromFilter(graph, baseFilter)
+    }
+
+    /**
+     * Checks if any node accepted by the first filter has a direct or transitive dependency to any node accepted by
+     * the second filter.
+     *
+     * @param graph the graph to work on
+     * @param fromFilter the node filter for the source nodes
+     * @param toFilter the node filter for the target nodes
+     * @return <tt>true</tt> if there is such a path
+     */
+    @QavCommand(name = "reaches",
+            description = """
+                Checks if any node accepted by the first filter has a direct or transitive dependency to any node
+                accepted by the second filter. E.g.: `reaches(packageGraph, nodeNameInFilter("web.**"),
+                nodeNameInFilter("persistence.**"))`.
+            """,
+            parameters = [
+                    @QavCommand.Param(name = "graph", description = "the graph to work on"),
+                    @QavCommand.Param(name = "fromFilter", description = "the node filter for the source nodes"),
+                    @QavCommand.Param(name = "toFilter", description = "the node filter for the target nodes")
+            ],
+            result = "`true` if there is such a path, `false` if not"
+    )
+    static boolean reaches(DependencyGraph graph, NodeFilter fromFilter, NodeFilter toFilter) {
+        Set<Node> reachingNodes = new ReachabilityIndex(graph).findNodesReaching(toFilter)
+        return reachingNodes.any { fromFilter.isAccepted(it) }
+    }
+
     /**
      * Creates a new {@link NodeHasIncomingDependencyTypeFilter}.
      * This is an "IN" filter.
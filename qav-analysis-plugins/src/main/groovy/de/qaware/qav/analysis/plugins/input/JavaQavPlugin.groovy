@@ -135,12 +135,28 @@ class JavaQavPlugin extends BasePlugin {
                     @QavCommand.Param(name = "parameters",
                             description = """
                         Accepts a map with `includes` and `excludes` patterns which work in Ant-style; this defines
-                        where it recursively searches all `*.class` files.                        
-                         
+                        where it recursively searches all `*.class` files.
+
                         This command may be called multiple times. The directory names are added (not replaced).
-                        For each call, it is possible to tell whether inner classes should be collapsed, i.e. folded 
+                        For each call, it is possible to tell whether inner classes should be collapsed, i.e. folded
                         onto the outer class, or not.
 
+                        With `parallel: true`, the class files are analyzed on all available processors. The resulting
+                        graph is exactly the same as with the default, sequential reading.
+
+                        With `cacheDir: "some/dir"`, the dependencies found in each class file are cached in that
+                        directory, keyed by the content of the class file. Unchanged classes are then not analyzed
+                        again in later runs.
+
+                        With `artifactCacheDir: "some/dir"`, the dependencies found in each JAR file are cached in that
+                        directory, keyed by the content of the JAR file. Unchanged JAR files, e.g. third-party
+                        libraries, are then neither unpacked nor analyzed again in later runs.
+
+                        With `inputMode: "classes"`, only dependencies between classes are read: no method nodes and
+                        no line numbers. This is faster and needs much less memory, and it is enough for architecture
+                        checks. `inputMode: "signatures"` goes further and only reads the declarations (super types,
+                        fields, method signatures, annotations), but not the method bodies. The default is `"full"`.
+
                         The `JavaQavPlugin` reads all the class files and analyzes them (using ASM). For each class, it
                         creates a node in the `context.dependencyGraph`, and for each dependency it creates an edge in
                         that graph. A dependency can be a method call to another class, or a class implementing an
@@ -9,9 +9,17 @@ import de.qaware.qav.analysis.result.model.ResultType
 import de.qaware.qav.architecture.dsl.model.Architecture
 import de.qaware.qav.doc.QavCommand
 import de.qaware.qav.doc.QavPluginDoc
+import de.qaware.qav.graph.alg.api.GraphDiff
+import de.qaware.qav.graph.alg.impl.FeedbackArcSetFinder
+import de.qaware.qav.graph.alg.impl.GraphDiffCalculator
+import de.qaware.qav.graph.api.Dependency
 import de.qaware.qav.graph.api.DependencyGraph
 import de.qaware.qav.graph.api.DependencyType
 import de.qaware.qav.graph.factory.DependencyGraphFactory
+import de.qaware.qav.graph.filter.DependencyTypeEdgeOutFilter
+import de.qaware.qav.graph.impl.DependencyGraphMappedImpl
+import de.qaware.qav.graph.io.FeedbackArcSetWriter
+import de.qaware.qav.graph.io.GraphDiffWriter
 import de.qaware.qav.graph.io.GraphReaderWriter
 import de.qaware.qav.graph.io.NodePrinter
 import de.qaware.qav.graphdb.persistence.GraphService
@@ -45,9 +53,13 @@ class IOQavPlugin extends BasePlugin {
         analysis.register("printNodes", this.&printNodes)
         analysis.register("writeFile", this.&writeFile)
         analysis.register("readFile", this.&readFile)
+        analysis.register("writeMappedFile", this.&writeMappedFile)
+        analysis.register("readMappedFile", this.&readMappedFile)
         analysis.register("writeDot", this.&writeDot)
         analysis.register("writeGraphLegend", this.&writeGraphLegend)
         analysis.register("writeNeo4j", this.&writeNeo4j)
+        analysis.register("writeDiff", this.&writeDiff)
+        analysis.register("writeCycleBreakers", this.&writeCycleBreakers)
         analysis.register("outputDir", this.&setOutputDir)
     }
 
@@ -92,9 +104,9 @@ class IOQavPlugin extends BasePlugin {
                             """)
             ])
     void printNodes(DependencyGraph dependencyGraph, String filename, boolean printIfEmpty = true) {
-        if (!dependencyGraph.getAllNodes().isEmpty() || printIfEmpty) {
+        if (dependencyGraph.nodeCount() > 0 || printIfEmpty) {
             new NodePrinter(dependencyGraph, this.outputDir + "/" + filename).printNodes()
-            analysisResultWriter.addResult(new Result(ResultType.TEXT, filename, dependencyGraph.getAllNodes().size(), dependencyGraph.getAllEdges().size()))
+            analysisResultWriter.addResult(new Result(ResultType.TEXT, filename, dependencyGraph.nodeCount(), dependencyGraph.edgeCount()))
         }
     }
 
@@ -113,7 +125,7 @@ class IOQavPlugin extends BasePlugin {
             ])
     void writeFile(DependencyGraph dependencyGraph, String filename) {
         GraphReaderWriter.write(dependencyGraph, this.outputDir + "/" + filename)
-        analysisResultWriter.addResult(new Result(ResultType.GRAPH, filename, dependencyGraph.getAllNodes().size(), dependencyGraph.getAllEdges().size()))
+        analysisResultWriter.addResult(new Result(ResultType.GRAPH, filename, dependencyGraph.nodeCount(), dependencyGraph.edgeCount()))
     }
 
     /**
@@ -160,6 +172,128 @@ class IOQavPlugin extends BasePlugin {
         return dependencyGraph
     }
 
+    /**
+     * Writes the given graph to a binary file with the given filename in the directory defined as outputDir, which
+     * can be opened with {@link #readMappedFile(java.lang.String)}.
+     *
+     * @param dependencyGraph the graph
+     * @param filename the filename
+     */
+    @QavCommand(name = "writeMappedFile",
+            description = """
+                        Writes the given graph to a binary file with the given filename in the directory defined as
+                        outputDir, which can be opened with `readMappedFile`.
+
+                        The file format is meant for caches of a single version of QAvalidator; use `writeFile` to
+                        keep graphs for longer.
+                        """,
+            parameters = [
+                    @QavCommand.Param(name = "dependencyGraph", description = "the graph"),
+                    @QavCommand.Param(name = "filename", description = "the filename")
+            ])
+    void writeMappedFile(DependencyGraph dependencyGraph, String filename) {
+        DependencyGraphMappedImpl.write(dependencyGraph, this.outputDir + "/" + filename)
+        analysisResultWriter.addResult(new Result(ResultType.GRAPH, filename, dependencyGraph.nodeCount(), dependencyGraph.edgeCount()))
+    }
+
+    /**
+     * Opens the graph in the given file, written by {@link #writeMappedFile(DependencyGraph, java.lang.String)}.
+     *
+     * The file is memory-mapped instead of read into the heap; nodes and edges are read when they are accessed.
+     * The graph is read-only.
+     *
+     * @param filename the filename
+     * @return the graph
+     */
+    @QavCommand(name = "readMappedFile",
+            description = """
+                        Opens the graph in the given file, written by `writeMappedFile`.
+
+                        The file is memory-mapped instead of read into the heap, and nodes and edges are only read when
+                        they are accessed. So opening is fast, and graphs larger than the heap can be analyzed.
+                        The graph is read-only.
+
+                        TIP: Use this for large graphs which are only read, e.g. for the old graph in `writeDiff`.
+                        """,
+            parameters = [
+                    @QavCommand.Param(name = "filename", description = "the filename")
+            ],
+            result = "the read-only graph")
+    DependencyGraph readMappedFile(String filename) {
+        return DependencyGraphFactory.openMappedGraph(filename)
+    }
+
+    /**
+     * Compares the two graphs and writes the differences to a text file with the given filename in the directory
+     * defined as outputDir: added and removed nodes and edges, changed dependency types, and changed properties.
+     *
+     * @param oldGraph the old graph, e.g. read from the dependency graph file of the main branch
+     * @param newGraph the new graph
+     * @param filename the filename
+     * @return the differences
+     */
+    @QavCommand(name = "writeDiff",
+            description = """
+                        Compares the two graphs and writes the differences to a text file with the given filename in
+                        the directory defined as outputDir: added and removed nodes and edges, changed dependency types,
+                        and changed properties. One line per change.
+
+                        TIP: Use `readFile` to read the old graph, e.g. the dependency graph file of the main branch,
+                        to see the dependencies which a pull request adds or removes.
+                        """,
+            parameters = [
+                    @QavCommand.Param(name = "oldGraph", description = "the old graph"),
+                    @QavCommand.Param(name = "newGraph", description = "the new graph"),
+                    @QavCommand.Param(name = "filename", description = "the filename")
+            ],
+            result = "the differences")
+    GraphDiff writeDiff(DependencyGraph oldGraph, DependencyGraph newGraph, String filename) {
+        GraphDiff graphDiff = GraphDiffCalculator.diff(oldGraph, newGraph)
+        GraphDiffWriter.write(graphDiff, this.outputDir + "/" + filename)
+        analysisResultWriter.addResult(new Result(ResultType.TEXT, filename,
+                graphDiff.addedNodes.size() + graphDiff.removedNodes.size(),
+                graphDiff.addedEdges.size() + graphDiff.removedEdges.size() + graphDiff.typeChanges.size()))
+        return graphDiff
+    }
+
+    /**
+     * Suggests edges to remove to break all cycles in the given graph, and writes them with their base relations to a
+     * text file with the given filename in the directory defined as outputDir.
+     *
+     * @param dependencyGraph the graph, e.g. the package graph
+     * @param filename the filename
+     * @param filterContains if <tt>true</tt>, filters out all dependencies of type CONTAINS
+     * @return the suggested edges
+     */
+    @QavCommand(name = "writeCycleBreakers",
+            description = """
+                        Suggests a small set of edges which break all cycles in the given graph if they are removed,
+                        and writes them with their base relations to a text file with the given filename in the
+                        directory defined as outputDir.
+
+                        Uses a fast heuristic (Eades, Lin, Smyth) per strongly connected component, so it also works
+                        on large and tangled graphs. It prefers edges with few base relations, i.e. it weights the
+                        edges by the `baseRelCount` property of architecture views, or else by the number of base
+                        dependencies.
+
+                        TIP: Use this instead of the list of all cycles to find the cheapest dependencies to cut.
+                        """,
+            parameters = [
+                    @QavCommand.Param(name = "dependencyGraph", description = "the graph, e.g. the package graph"),
+                    @QavCommand.Param(name = "filename", description = "the filename"),
+                    @QavCommand.Param(name = "filterContains", description = """
+                            if `true`, filters out all dependencies of type CONTAINS. Defaults to `true`.
+                            """)
+            ],
+            result = "the suggested edges")
+    List<Dependency> writeCycleBreakers(DependencyGraph dependencyGraph, String filename, boolean filterContains = true) {
+        DependencyGraph relevantGraph = filterContains ? dependencyGraph.filter(new DependencyTypeEdgeOutFilter(DependencyType.CONTAINS)) : dependencyGraph
+        List<Dependency> edges = FeedbackArcSetFinder.findFeedbackArcSet(relevantGraph)
+        FeedbackArcSetWriter.write(edges, this.outputDir + "/" + filename)
+        analysisResultWriter.addResult(new Result(ResultType.TEXT, filename, 0, edges.size()))
+        return edges
+    }
+
     /**
      * Writes the given graph to a DOT (GraphViz) file with the given filename in the directory defined as outputDir.
      * Then calls dot (GraphViz) to create a .png file from it.
@@ -196,7 +330,7 @@ class IOQavPlugin extends BasePlugin {
             ])
     void writeDot(DependencyGraph dependencyGraph, String filenameBase, Architecture architecture, boolean createEdgeLabels = true) {
         GraphExporter.export(dependencyGraph, this.outputDir + "/" + filenameBase, architecture, this.abbreviations, createEdgeLabels)
-        analysisResultWriter.addResult(new Result(ResultType.IMAGE, filenameBase, dependencyGraph.getAllNodes().size(), dependencyGraph.getAllEdges().size()))
+        analysisResultWriter.addResult(new Result(ResultType.IMAGE, filenameBase, dependencyGraph.nodeCount(), dependencyGraph.edgeCount()))
     }
 
     /**
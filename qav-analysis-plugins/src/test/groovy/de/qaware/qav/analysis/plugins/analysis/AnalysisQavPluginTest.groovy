@@ -29,7 +29,7 @@ class AnalysisQavPluginTest {
 
     @Test
     void testApply() {
-        assert analysis.closureMap.size() == 5
+        assert analysis.closureMap.size() == 6
     }
 
     @Test
@@ -48,6 +48,18 @@ class AnalysisQavPluginTest {
         assert cycles.allNodes.size() == 3
     }
 
+    @Test
+    void testFindCycleComponents() {
+        assert analysisQavPlugin.findCycleComponents(createSampleGraph(false), "my scope").allNodes.isEmpty()
+        assert analysis.violationMessages.isEmpty()
+
+        DependencyGraph cycles = analysisQavPlugin.findCycleComponents(createSampleGraph(true), "my scope", 10, 1000)
+
+        assert cycles.allNodes.size() == 3
+        assert analysis.calledMethodsArgs["sonarError"].size() == 1
+        assert analysis.violationMessages == ["Cycles: 1 cylces with 3 nodes"]
+    }
+
     @Test
     void testCheckArchitectureRules() {
         DependencyGraph graph = createGraphWithUnwantedRelations()
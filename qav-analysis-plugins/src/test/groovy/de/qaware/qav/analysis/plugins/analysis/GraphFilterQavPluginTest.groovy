@@ -1,7 +1,11 @@
 package de.qaware.qav.analysis.plugins.analysis
 
 import de.qaware.qav.analysis.plugins.test.TestAnalysis
+import de.qaware.qav.graph.api.DependencyGraph
+import de.qaware.qav.graph.api.DependencyType
 import de.qaware.qav.graph.api.NodeFilter
+import de.qaware.qav.graph.factory.DependencyGraphFactory
+import de.qaware.qav.graph.filter.NodeNameInFilter
 import de.qaware.qav.graph.filter.NotFilter
 import org.junit.Before
 import org.junit.Test
@@ -24,7 +28,7 @@ class GraphFilterQavPluginTest {
 
     @Test
     void testApply() {
-        assert analysis.closureMap.size() == 16
+        assert analysis.closureMap.size() == 19
     }
 
     @Test
@@ -39,4 +43,19 @@ class GraphFilterQavPluginTest {
         assert graphFilterQavPlugin.getFilter("myFilter") == filter
     }
 
-}
\ No newline at end of file
+    @Test
+    void testReaches() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph()
+        def web = graph.getOrCreateNodeByName("web.Controller")
+        def service = graph.getOrCreateNodeByName("service.Service")
+        def persistence = graph.getOrCreateNodeByName("persistence.Repository")
+        graph.addDependency(web, service, DependencyType.READ_ONLY)
+        graph.addDependency(service, persistence, DependencyType.READ_WRITE)
+
+        assert GraphFilterQavPlugin.reaches(graph, new NodeNameInFilter("web.**"), new NodeNameInFilter("persistence.**"))
+        assert !GraphFilterQavPlugin.reaches(graph, new NodeNameInFilter("persistence.**"), new NodeNameInFilter("web.**"))
+
+        assert graph.filter(GraphFilterQavPlugin.nodeReachesFilter(graph, new NodeNameInFilter("persistence.**"))).nodeCount() == 3
+        assert graph.filter(GraphFilterQavPlugin.nodeReachedFromFilter(graph, new NodeNameInFilter("service.**"))).nodeCount() == 2
+    }
+}
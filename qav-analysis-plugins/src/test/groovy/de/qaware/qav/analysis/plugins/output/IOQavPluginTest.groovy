@@ -3,6 +3,7 @@ package de.qaware.qav.analysis.plugins.output
 import de.qaware.qav.analysis.plugins.output.impl.SonarLogUtil
 import de.qaware.qav.analysis.plugins.test.TestAnalysis
 import de.qaware.qav.architecture.dsl.model.Architecture
+import de.qaware.qav.graph.api.Constants
 import de.qaware.qav.graph.api.DependencyGraph
 import de.qaware.qav.graph.api.DependencyType
 import de.qaware.qav.graph.factory.DependencyGraphFactory
@@ -41,7 +42,7 @@ class IOQavPluginTest {
     void testApply() {
         def analysis = new TestAnalysis()
         ioQavPlugin.apply(analysis)
-        assert analysis.closureMap.size() == 8
+        assert analysis.closureMap.size() == 12
     }
 
     @Test
@@ -114,6 +115,26 @@ class IOQavPluginTest {
         assert expected == actual
     }
 
+    @Test
+    void testWriteAndReadMappedFile() {
+        DependencyGraph graph = createSampleGraph()
+        graph.getNode("v1").setProperty("type", "class")
+        ioQavPlugin.setOutputDir(TEST_PATH, true)
+
+        ioQavPlugin.writeMappedFile(graph, "testGraph.qavm")
+        DependencyGraph mapped = ioQavPlugin.readMappedFile(TEST_PATH + "/testGraph.qavm")
+
+        assert mapped.nodeCount() == 2
+        assert mapped.getNode("v1").getProperty("type") == "class"
+        def graphDiff = ioQavPlugin.writeDiff(mapped, graph, "testGraph-mappedDiff.txt")
+        assert graphDiff.addedNodes.isEmpty()
+        assert graphDiff.removedNodes.isEmpty()
+        assert graphDiff.addedEdges.isEmpty()
+        assert graphDiff.removedEdges.isEmpty()
+        assert graphDiff.typeChanges.isEmpty()
+        assert graphDiff.propertyChanges.isEmpty()
+    }
+
     @Test
     void testWriteDot() {
         DependencyGraph graph = createSampleGraph()
@@ -132,6 +153,44 @@ class IOQavPluginTest {
         assert expected == actual
     }
 
+    @Test
+    void testWriteDiff() {
+        DependencyGraph oldGraph = createSampleGraph()
+        DependencyGraph newGraph = createSampleGraph()
+        newGraph.addDependency(newGraph.getNode("v2"), newGraph.getOrCreateNodeByName("v3"), DependencyType.CREATE)
+        newGraph.addDependency(newGraph.getNode("v1"), newGraph.getNode("v2"), DependencyType.READ_WRITE)
+        ioQavPlugin.setOutputDir(TEST_PATH, true)
+
+        def graphDiff = ioQavPlugin.writeDiff(oldGraph, newGraph, "testGraph-diff.txt")
+
+        assert graphDiff.addedNodes == ["v3"]
+        assert new File(testDir, "testGraph-diff.txt").readLines().tail() == [
+                "+ node v3",
+                "+ edge v2 -> v3 [CREATE]",
+                "~ edge v1 -> v2 [READ_ONLY -> READ_WRITE]"
+        ]
+    }
+
+    @Test
+    void testWriteCycleBreakers() {
+        DependencyGraph graph = createSampleGraph()
+        def v1 = graph.getNode("v1")
+        def v2 = graph.getNode("v2")
+        def back = graph.addDependency(v2, v1, DependencyType.READ_WRITE)
+        back.addBaseDependency(graph.addDependency(graph.getOrCreateNodeByName("v2.X"), graph.getOrCreateNodeByName("v1.Y"), DependencyType.READ_WRITE))
+        graph.getEdge(v1, v2).setProperty(Constants.BASE_REL_COUNT, 5)
+        ioQavPlugin.setOutputDir(TEST_PATH, true)
+
+        def edges = ioQavPlugin.writeCycleBreakers(graph, "testGraph-cycleBreakers.txt")
+
+        assert edges == [back]
+        assert new File(testDir, "testGraph-cycleBreakers.txt").readLines() == [
+                "# 1 edge(s) with weight 1 break all cycles",
+                "v2 -> v1 [READ_WRITE] weight 1",
+                "    * v2.X -> v1.Y [READ_WRITE]"
+        ]
+    }
+
     static private DependencyGraph createSampleGraph() {
         DependencyGraph graph = DependencyGraphFactory.createGraph()
         def v1 = graph.getOrCreateNodeByName("v1")
@@ -1,7 +1,11 @@
 package de.qaware.qav.architecture.dsl.model
 
-import com.google.common.collect.Maps
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import com.google.common.cache.CacheStats
+import de.qaware.qav.util.NamePatternIndex
 import groovy.transform.ToString
+import groovy.util.logging.Slf4j
 
 import static com.google.common.base.Preconditions.checkNotNull
 
@@ -13,14 +17,15 @@ import static com.google.common.base.Preconditions.checkNotNull
  *
  * @author QAware GmbH
  */
+@Slf4j
 @ToString(includeNames=true, includePackage = false, includes = ['prefix', 'reflexMLversion', 'includes', 'excludes'])
 class Architecture extends Component {
 
     String prefix
     String reflexMLversion
 
-    Map<String, ClassSet> includes = [:]
-    Map<String, ClassSet> excludes = [:]
+    Map<String, ClassSet> includes = new ClassSetMap()
+    Map<String, ClassSet> excludes = new ClassSetMap()
 
     List<Component> allComponents = []
     Map<String, Component> nameToComponent = [:]
@@ -28,9 +33,49 @@ class Architecture extends Component {
     Map<String, Component> implNameToComponent = [:]
 
     /**
-     * Cache for class names
+     * Default for {@link #lookupCacheSize}.
      */
-    private Map<String, Component> nameToParentComponentCache = Maps.newHashMap()
+    static final int DEFAULT_LOOKUP_CACHE_SIZE = 100_000
+
+    /**
+     * Maximum number of names in each of the lookup caches. The least recently used names are dropped first.
+     */
+    int lookupCacheSize = DEFAULT_LOOKUP_CACHE_SIZE
+
+    /**
+     * Cache for {@link #getParentComponent(java.lang.String)}, including the names without parent component.
+     */
+    private Cache<String, Optional<Component>> parentComponentCache = createCache(DEFAULT_LOOKUP_CACHE_SIZE)
+
+    /**
+     * Cache for {@link #isIncluded(java.lang.String)}.
+     */
+    private Cache<String, Boolean> includedCache = createCache(DEFAULT_LOOKUP_CACHE_SIZE)
+
+    /**
+     * All api, impl, includes, and excludes patterns, compiled for fast lookup. Built on first use.
+     */
+    private volatile PatternIndexes patternIndexes
+
+    /**
+     * Sets the includes. They are copied into a {@link ClassSetMap}, so that later changes are noticed.
+     *
+     * @param includes the includes
+     */
+    void setIncludes(Map<String, ClassSet> includes) {
+        this.includes = new ClassSetMap(includes)
+        ClassSet.markModified()
+    }
+
+    /**
+     * Sets the excludes. They are copied into a {@link ClassSetMap}, so that later changes are noticed.
+     *
+     * @param excludes the excludes
+     */
+    void setExcludes(Map<String, ClassSet> excludes) {
+        this.excludes = new ClassSetMap(excludes)
+        ClassSet.markModified()
+    }
 
     /**
      * Return the name of the parent component, or null if not included or no parent.
@@ -75,29 +120,21 @@ class Architecture extends Component {
         if (name == this.name) {
             return null
         }
+
+        PatternIndexes indexes = getPatternIndexes()
+        return parentComponentCache.get(name, { Optional.ofNullable(findParentComponent(name, indexes)) }).orElse(null)
+    }
+
+    private Component findParentComponent(String name, PatternIndexes indexes) {
         if (!isIncluded(name)) {
             return null
         }
 
-        Component cachedComponent = nameToParentComponentCache[name]
-        if (cachedComponent) {
-            return cachedComponent
-        }
-
         if (nameToComponent.containsKey(name)) {
-            Component component = nameToComponent.get(name)
-            nameToParentComponentCache[name] = component.parent
-            return component.parent
+            return nameToComponent.get(name).parent
         }
 
-        for (Component component : allComponents) {
-            if (component.isApi(name) || component.isImpl(name)) {
-                nameToParentComponentCache[name] = component
-                return component
-            }
-        }
-
-        return null
+        return indexes.components.findFirst(name)
     }
 
     /**
@@ -116,9 +153,138 @@ class Architecture extends Component {
      * @return true if "in", false if not
      */
     boolean isIncluded(String name) {
-        boolean included = (!includes) || includes.values().any {it.matches((name))}
-        boolean excluded = excludes && excludes.values().any {it.matches((name))}
+        PatternIndexes indexes = getPatternIndexes()
+        return includedCache.get(name, { checkIncluded(name, indexes) })
+    }
+
+    private boolean checkIncluded(String name, PatternIndexes indexes) {
+        boolean included = (!includes) || indexes.includes.matchesAny(name)
+        boolean excluded = excludes && indexes.excludes.matchesAny(name)
 
         return (included && !excluded) || nameToComponent.containsKey(name)
     }
+
+    /**
+     * Sets the maximum number of names in each of the lookup caches, and clears the caches.
+     *
+     * @param lookupCacheSize the maximum number of names
+     */
+    void setLookupCacheSize(int lookupCacheSize) {
+        this.lookupCacheSize = lookupCacheSize
+        this.parentComponentCache = createCache(lookupCacheSize)
+        this.includedCache = createCache(lookupCacheSize)
+    }
+
+    /**
+     * Returns the statistics of the lookup caches of {@link #getParentComponent(java.lang.String)} and
+     * {@link #isIncluded(java.lang.String)}, added up.
+     *
+     * @return the statistics since the caches were created
+     */
+    CacheStats getLookupCacheStats() {
+        return parentComponentCache.stats().plus(includedCache.stats())
+    }
+
+    /**
+     * Logs the statistics of the lookup caches since the given snapshot.
+     *
+     * Usage:
+     * <pre>
+     * CacheStats before = architecture.getLookupCacheStats()
+     * // ... lookups ...
+     * architecture.logLookupCacheStats("my step", before)
+     * </pre>
+     *
+     * @param step   name of the analysis step, for the log message
+     * @param before the statistics at the start of the step, as returned by {@link #getLookupCacheStats()}
+     * @return the statistics now
+     */
+    CacheStats logLookupCacheStats(String step, CacheStats before) {
+        CacheStats now = getLookupCacheStats()
+        CacheStats stats = now.minus(before)
+        log.info("Architecture ${name}, ${step}: ${stats.requestCount()} lookups, ${stats.hitCount()} hits " +
+                "(${Math.round(stats.hitRate() * 100)}%), ${stats.missCount()} misses, ${stats.evictionCount()} evictions, " +
+                "${parentComponentCache.size() + includedCache.size()} cached names")
+        return now
+    }
+
+    private static <V> Cache<String, V> createCache(int maximumSize) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build()
+    }
+
+    /**
+     * Returns the compiled patterns. Compiles them again, and clears the lookup caches, if components, includes, or
+     * excludes were added or replaced since the last call, or if any {@link ClassSet} or {@link ClassSetMap} was
+     * changed, see {@link ClassSet#getModificationCount()}.
+     *
+     * @return the compiled patterns
+     */
+    private PatternIndexes getPatternIndexes() {
+        PatternIndexes result = patternIndexes
+        if (result == null || !result.isUpToDate(this)) {
+            result = new PatternIndexes(this)
+            parentComponentCache.invalidateAll()
+            includedCache.invalidateAll()
+            patternIndexes = result
+        }
+        return result
+    }
+
+    /**
+     * The patterns of an {@link Architecture}, each compiled into one {@link NamePatternIndex}.
+     *
+     * The components are added in the order of {@link #allComponents}, first the api then the impl patterns of each
+     * component, so that the first match is the same as with checking {@link Component#isApi(java.lang.String)} and
+     * {@link Component#isImpl(java.lang.String)} of each component in turn.
+     */
+    private static class PatternIndexes {
+        private final List<Component> allComponents
+        private final int componentCount
+        private final Map<String, Component> nameToComponent
+        private final int nameToComponentCount
+        private final Map<String, ClassSet> includeSets
+        private final int includeCount
+        private final Map<String, ClassSet> excludeSets
+        private final int excludeCount
+        private final long classSetModificationCount
+
+        final NamePatternIndex<Component> components = new NamePatternIndex<>()
+        final NamePatternIndex<ClassSet> includes = new NamePatternIndex<>()
+        final NamePatternIndex<ClassSet> excludes = new NamePatternIndex<>()
+
+        PatternIndexes(Architecture architecture) {
+            this.allComponents = architecture.allComponents
+            this.componentCount = allComponents.size()
+            this.nameToComponent = architecture.nameToComponent
+            this.nameToComponentCount = nameToComponent.size()
+            this.includeSets = architecture.includes
+            this.includeCount = includeSets.size()
+            this.excludeSets = architecture.excludes
+            this.excludeCount = excludeSets.size()
+            // read before the patterns, so that concurrent changes cause another rebuild
+            this.classSetModificationCount = ClassSet.modificationCount
+
+            for (Component component : allComponents) {
+                component.api.values().each { addAll(components, it, component) }
+                component.impl.values().each { addAll(components, it, component) }
+            }
+            includeSets.values().each { addAll(includes, it, it) }
+            excludeSets.values().each { addAll(excludes, it, it) }
+        }
+
+        private static <T> void addAll(NamePatternIndex<T> index, ClassSet classSet, T value) {
+            classSet.patterns.each { index.add(it, classSet.pathSeparator, value) }
+        }
+
+        boolean isUpToDate(Architecture architecture) {
+            return architecture.allComponents.is(allComponents) && componentCount == allComponents.size() &&
+                    architecture.nameToComponent.is(nameToComponent) && nameToComponentCount == nameToComponent.size() &&
+                    architecture.includes.is(includeSets) && includeCount == includeSets.size() &&
+                    architecture.excludes.is(excludeSets) && excludeCount == excludeSets.size() &&
+                    classSetModificationCount == ClassSet.modificationCount
+        }
+    }
 }
@@ -4,6 +4,8 @@ import com.google.common.base.Strings
 import de.qaware.qav.util.QavNameMatcher
 import groovy.transform.ToString
 
+import java.util.concurrent.atomic.AtomicLong
+
 /**
  *
  * @author QAware GmbH
@@ -11,6 +13,11 @@ import groovy.transform.ToString
 @ToString(includeNames=true, includePackage = false, includes = ['name', 'patterns'])
 class ClassSet {
 
+    /**
+     * Number of changes of the patterns of all {@link ClassSet}s, and of all {@link ClassSetMap}s.
+     */
+    private static final AtomicLong MODIFICATION_COUNT = new AtomicLong()
+
     private final String name
     private final List<String> patterns = new ArrayList<>()
 
@@ -59,6 +66,36 @@ class ClassSet {
 
     private void addPattern(String pattern) {
         this.patterns.add(pattern)
+        markModified()
+    }
+
+    /**
+     * Sets the path separator of the patterns.
+     *
+     * @param pathSeparator the path separator
+     */
+    void setPathSeparator(String pathSeparator) {
+        this.pathSeparator = pathSeparator
+        this.nameMatcher = null
+        markModified()
+    }
+
+    /**
+     * Returns the number of changes of the patterns or path separators of all {@link ClassSet}s, and of the contents
+     * of all {@link ClassSetMap}s. The {@link Architecture} uses it to find out whether its compiled patterns are
+     * stale, without visiting all components on each lookup.
+     *
+     * @return the number of changes so far
+     */
+    static long getModificationCount() {
+        return MODIFICATION_COUNT.get()
+    }
+
+    /**
+     * Counts a change, see {@link #getModificationCount()}.
+     */
+    static void markModified() {
+        MODIFICATION_COUNT.incrementAndGet()
     }
 
     String getName() {
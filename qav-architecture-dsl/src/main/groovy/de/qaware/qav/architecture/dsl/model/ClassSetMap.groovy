@@ -0,0 +1,53 @@
+package de.qaware.qav.architecture.dsl.model
+
+/**
+ * Map of {@link ClassSet}s by name, like the api and impl definitions of a {@link Component}, or the includes and
+ * excludes of an {@link Architecture}.
+ *
+ * Changes via {@link #put}, {@link #putAll}, {@link #remove}, and {@link #clear} are counted in
+ * {@link ClassSet#getModificationCount()}, so that the compiled patterns of the {@link Architecture} are rebuilt.
+ *
+ * @author QAware GmbH
+ */
+class ClassSetMap extends LinkedHashMap<String, ClassSet> {
+
+    /**
+     * Constructor for an empty map.
+     */
+    ClassSetMap() {
+        super()
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param map the initial entries
+     */
+    ClassSetMap(Map<String, ClassSet> map) {
+        super(map)
+    }
+
+    @Override
+    ClassSet put(String key, ClassSet value) {
+        ClassSet.markModified()
+        return super.put(key, value)
+    }
+
+    @Override
+    void putAll(Map<? extends String, ? extends ClassSet> map) {
+        ClassSet.markModified()
+        super.putAll(map)
+    }
+
+    @Override
+    ClassSet remove(Object key) {
+        ClassSet.markModified()
+        return super.remove(key)
+    }
+
+    @Override
+    void clear() {
+        ClassSet.markModified()
+        super.clear()
+    }
+}
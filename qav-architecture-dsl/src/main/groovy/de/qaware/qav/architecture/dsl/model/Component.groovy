@@ -18,12 +18,32 @@ class Component {
     String name
     Component parent
     List<Component> children = []
-    Map<String, ClassSet> api = [:]
-    Map<String, ClassSet> impl = [:]
+    Map<String, ClassSet> api = new ClassSetMap()
+    Map<String, ClassSet> impl = new ClassSetMap()
     Map<String, ClassSet> usesAPI = [:]
     Map<String, ClassSet> usesImpl = [:]
     String pathSeparator = null
 
+    /**
+     * Sets the api definitions. They are copied into a {@link ClassSetMap}, so that later changes are noticed.
+     *
+     * @param api the api definitions
+     */
+    void setApi(Map<String, ClassSet> api) {
+        this.api = new ClassSetMap(api)
+        ClassSet.markModified()
+    }
+
+    /**
+     * Sets the impl definitions. They are copied into a {@link ClassSetMap}, so that later changes are noticed.
+     *
+     * @param impl the impl definitions
+     */
+    void setImpl(Map<String, ClassSet> impl) {
+        this.impl = new ClassSetMap(impl)
+        ClassSet.markModified()
+    }
+
     /**
      * return the name of the API the given class name belongs to, or null if none matches.
      *
@@ -108,6 +108,55 @@ class ArchitectureTest {
         assert architecture.getParentComponent("com.my.util.A1") == null
     }
 
+    @Test
+    void getParentComponentFirstMatchWins() {
+        Component c1 = new Component()
+        c1.name = "C1"
+        c1.impl["C1.impl"] = new ClassSet("C1.impl", ["com.my.app.impl.**"])
+        Component c2 = new Component()
+        c2.name = "C2"
+        c2.api["C2.api"] = new ClassSet("C2.api", ["com.my.app.*"])
+        c2.impl["C2.impl"] = new ClassSet("C2.impl", ["com.my.**"])
+        architecture.allComponents << c1
+        architecture.allComponents << c2
+
+        assert architecture.getParentComponent("com.my.app.impl.A1") == c1
+        assert architecture.getParentComponent("com.my.app.A1") == c2
+        assert architecture.getParentComponent("com.my.util.A1") == c2
+        assert architecture.getParentComponent("org.A1") == null
+
+        Component c3 = new Component()
+        c3.name = "C3"
+        c3.api["C3.api"] = new ClassSet("C3.api", ["org.**"])
+        architecture.allComponents << c3
+
+        assert architecture.getParentComponent("org.A1") == c3
+    }
+
+    @Test
+    void getParentComponentSeesChangedClassSets() {
+        Component c1 = new Component()
+        c1.name = "C1"
+        c1.api["C1.api"] = new ClassSet("C1.api", ["com.my.api.**"])
+        architecture.allComponents << c1
+
+        assert architecture.getParentComponent("com.my.impl.A1") == null
+        assert architecture.getParentComponent("org.A1") == null
+
+        // new patterns in an existing ClassSet, and a new ClassSet of an existing component:
+        c1.api["C1.api"].addPatterns("com.my.impl.**")
+        assert architecture.getParentComponent("com.my.impl.A1") == c1
+        c1.impl["C1.impl"] = new ClassSet("C1.impl", ["org.**"])
+        assert architecture.getParentComponent("org.A1") == c1
+
+        // a new include pattern:
+        architecture.includes = ["in": new ClassSet("in", ["com.**"])]
+        assert !architecture.isIncluded("org.A1")
+        architecture.includes["in"].addPatterns("org.**")
+        assert architecture.isIncluded("org.A1")
+        assert architecture.getParentComponent("org.A1") == c1
+    }
+
     // --- isIncluded()
 
     @Test
@@ -150,4 +199,38 @@ class ArchitectureTest {
         assert !architecture.isIncluded("other")
     }
 
-}
\ No newline at end of file
+    // --- lookup caches
+
+    @Test
+    void lookupCacheCachesMisses() {
+        Component c1 = new Component()
+        c1.name = "C1"
+        c1.api["C1.api"] = new ClassSet("C1.api", ["com.my.**"])
+        architecture.allComponents << c1
+
+        assert architecture.getParentComponent("org.A1") == null
+        assert architecture.getParentComponent("org.A1") == null
+        assert architecture.getParentComponent("com.my.A1") == c1
+        assert architecture.getParentComponent("com.my.A1") == c1
+
+        def stats = architecture.lookupCacheStats
+        // two parent lookups and one isIncluded lookup per name are misses, the second parent lookups are hits
+        assert stats.missCount() == 4
+        assert stats.hitCount() == 2
+
+        def before = stats
+        assert architecture.isIncluded("org.A1")
+        assert architecture.logLookupCacheStats("test", before).minus(before).hitCount() == 1
+    }
+
+    @Test
+    void lookupCacheIsBounded() {
+        architecture.lookupCacheSize = 10
+        architecture.includes = [ "api" : new ClassSet("api", ["v*"])]
+
+        100.times { assert architecture.isIncluded("v${it}") }
+
+        assert architecture.lookupCacheStats.missCount() == 100
+        assert architecture.lookupCacheStats.evictionCount() >= 90
+    }
+}
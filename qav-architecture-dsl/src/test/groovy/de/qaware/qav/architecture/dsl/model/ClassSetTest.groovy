@@ -67,6 +67,37 @@ class ClassSetTest {
         assert !classSet.matches("my.impl.a.AbcImpl")
     }
 
+    @Test
+    void testChangeOfSeparatorAfterMatching() {
+        ClassSet classSet = new ClassSet("t1", Lists.newArrayList("my#impl#*"))
+        assert !classSet.matches("my#impl#a.AbcImpl")
+
+        long modificationCount = ClassSet.modificationCount
+        classSet.setPathSeparator("#")
+
+        assert ClassSet.modificationCount > modificationCount
+        assert classSet.matches("my#impl#a.AbcImpl")
+    }
+
+    @Test
+    void testModificationCount() {
+        ClassSet classSet = new ClassSet("t1")
+        ClassSetMap map = new ClassSetMap()
+
+        long modificationCount = ClassSet.modificationCount
+        classSet.addPatterns("my.api.*")
+        assert ClassSet.modificationCount > modificationCount
+
+        modificationCount = ClassSet.modificationCount
+        map["t1"] = classSet
+        assert ClassSet.modificationCount > modificationCount
+
+        modificationCount = ClassSet.modificationCount
+        assert classSet.matches("my.api.Abc")
+        assert map["t1"] == classSet
+        assert ClassSet.modificationCount == modificationCount
+    }
+
     @Test
     void testEquals() {
         ClassSet cs1 = new ClassSet("t1", Lists.newArrayList("my.api.*"))
@@ -2,14 +2,11 @@ package de.qaware.qav.architecture.checker;
 
 import de.qaware.qav.architecture.dsl.model.Architecture;
 import de.qaware.qav.architecture.dsl.model.Component;
-import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Set;
-
 /**
  * This class checks an architecture graph that all components are actually implemented. I.e. we don't want to have
  * components which are defined on the architecture level, but don't have corresponding classes in the code base.
@@ -44,8 +41,7 @@ public class AllComponentsImplementedChecker extends Checker {
     private void checkComponent(Component cmp) {
         Node node = dependencyGraph.getNode(cmp.getName());
         if (node != null) {
-            Set<Dependency> edges = dependencyGraph.getBaseGraph().getOutgoingEdges(node, DependencyType.CONTAINS);
-            if (edges == null || edges.isEmpty()) {
+            if (!dependencyGraph.getBaseGraph().hasOutgoingEdge(node, DependencyType.CONTAINS)) {
                 LOGGER.warn("{}: Component does not have any corresponding classes.", cmp.getName());
                 addViolation(cmp.getName());
             }
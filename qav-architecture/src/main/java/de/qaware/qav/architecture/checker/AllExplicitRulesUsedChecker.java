@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Checks that all rules which are explicitly defined in an architecture model are actually used in the code base.
@@ -18,14 +19,30 @@ import java.util.List;
 @Slf4j
 public class AllExplicitRulesUsedChecker extends Checker {
 
+    private final RuleMatrix ruleMatrix;
+
     /**
-     * Constructor.
+     * Constructor. Reads the used rules from the {@link Constants#USED_RULES} property, as written by the
+     * {@link DependencyChecker}.
      *
      * @param dependencyGraph the architecture graph to check.
      * @param architecture    the {@link Architecture} to use for checking the edges in the architecture graph.
      */
     public AllExplicitRulesUsedChecker(DependencyGraph dependencyGraph, Architecture architecture) {
+        this(dependencyGraph, architecture, null);
+    }
+
+    /**
+     * Constructor. Takes the used rules directly from the {@link RuleMatrix} of a {@link DependencyChecker}.
+     *
+     * @param dependencyGraph the architecture graph to check.
+     * @param architecture    the {@link Architecture} to use for checking the edges in the architecture graph.
+     * @param ruleMatrix      the {@link RuleMatrix} of a {@link DependencyChecker} on the same graph; if
+     *                        <tt>null</tt>, the {@link Constants#USED_RULES} property is used.
+     */
+    public AllExplicitRulesUsedChecker(DependencyGraph dependencyGraph, Architecture architecture, RuleMatrix ruleMatrix) {
         super(dependencyGraph, architecture);
+        this.ruleMatrix = ruleMatrix;
         check();
     }
 
@@ -52,10 +69,16 @@ public class AllExplicitRulesUsedChecker extends Checker {
         }
 
         List<String> uses = node.getProperty(Constants.USES_API, new ArrayList<>());
-        List<String> usedRules = node.getProperty(Constants.USED_RULES, new ArrayList<>());
+        Predicate<String> isUsed;
+        if (ruleMatrix != null) {
+            isUsed = it -> ruleMatrix.isUsed(node, it);
+        } else {
+            List<String> usedRules = node.getProperty(Constants.USED_RULES, new ArrayList<>());
+            isUsed = usedRules::contains;
+        }
 
         uses.stream()
-                .filter(it -> !usedRules.contains(it))
+                .filter(isUsed.negate())
                 .forEach(it -> {
                     LOGGER.warn("Unused rule in {}: {}", node.getName(), it);
                     addViolation(node.getName() + ": " + it);
@@ -15,12 +15,15 @@ import java.util.stream.Collectors;
 /**
  * This class checks an architecture graph that all edges are allowed, i.e. that for each edge there is at least one
  * rule which justifies the existence of that edge.
+ * <p>
+ * The rules are looked up in a {@link RuleMatrix}, which is built once per check.
  *
  * @author QAware GmbH
  */
 @Slf4j
 public class DependencyChecker extends Checker {
 
+    private final RuleMatrix ruleMatrix;
     private List<Dependency> violatingDependencies;
 
     /**
@@ -31,9 +34,19 @@ public class DependencyChecker extends Checker {
      */
     public DependencyChecker(DependencyGraph dependencyGraph, Architecture architecture) {
         super(dependencyGraph, architecture);
+        this.ruleMatrix = new RuleMatrix(dependencyGraph, architecture);
         check();
     }
 
+    /**
+     * Returns the rules of the architecture graph, with the rules which allowed at least one reference marked as used.
+     *
+     * @return the {@link RuleMatrix}
+     */
+    public RuleMatrix getRuleMatrix() {
+        return ruleMatrix;
+    }
+
     @Override
     public String getViolationMessage() {
         return getViolationMessages().isEmpty()
@@ -48,6 +61,7 @@ public class DependencyChecker extends Checker {
                         .filter(edge -> !hasMatchingRule(edge))
                         .collect(Collectors.toList());
 
+        ruleMatrix.writeUsedRules();
         logViolatingDependencies();
     }
 
@@ -68,8 +82,8 @@ public class DependencyChecker extends Checker {
     private boolean hasMatchingRule(Dependency edge) {
         LOGGER.debug("Checking actual references against all uses and usesImpl rules: {}", edge);
         return
-                (isInSameScope(edge) || checkAllReferencesAllowed(edge, Constants.TARGET_API, Constants.USES_API))
-                        && checkAllReferencesAllowed(edge, Constants.TARGET_IMPL, Constants.USES_IMPL);
+                (isInSameScope(edge) || checkAllReferencesAllowed(edge, Constants.TARGET_API, true))
+                        && checkAllReferencesAllowed(edge, Constants.TARGET_IMPL, false);
     }
 
     @SuppressWarnings("squid:S1698") // compare with "==" instead of .equals()
@@ -101,18 +115,21 @@ public class DependencyChecker extends Checker {
     /**
      * Checks if the dependency is allowed by this component or a parent component.
      *
-     * @param edge                 the edge to check
-     * @param actualReferencesKey  the key to look up the actual references; for impl: {@link Constants#USES_IMPL}, for
-     *                             API: {@link Constants#USES_API}
-     * @param allowedReferencesKey the key to look up the allowed references; for impl: {@link Constants#TARGET_IMPL},
-     *                             for API: {@link Constants#TARGET_API}
+     * @param edge                the edge to check
+     * @param actualReferencesKey the key to look up the actual references; for API: {@link Constants#TARGET_API}, for
+     *                            impl: {@link Constants#TARGET_IMPL}
+     * @param api                 <tt>true</tt> to check against the "uses" rules, <tt>false</tt> for the "usesImpl"
+     *                            rules
      * @return true if a rule could be found which justifies all references in that dependency
      */
-    private boolean checkAllReferencesAllowed(Dependency edge, String actualReferencesKey, String allowedReferencesKey) {
+    private boolean checkAllReferencesAllowed(Dependency edge, String actualReferencesKey, boolean api) {
         List<String> usedReferences = edge.getProperty(actualReferencesKey, new ArrayList<>());
         LOGGER.debug("Checking rules for edge: {} and references {}", edge, usedReferences);
         for (String usedRef : usedReferences) {
-            if (!checkReferenceAllowed(edge.getSource(), usedRef, allowedReferencesKey)) {
+            boolean allowed = api
+                    ? ruleMatrix.isApiAllowed(edge.getSource(), usedRef)
+                    : ruleMatrix.isImplAllowed(edge.getSource(), usedRef);
+            if (!allowed) {
                 return false;
             }
         }
@@ -120,29 +137,8 @@ public class DependencyChecker extends Checker {
         return true;
     }
 
-    /**
-     * Checks if the reference is allowed by a "uses" or "usesImpl" rule in this component or a parent component.
-     *
-     * @param source               the outgoing node
-     * @param usedRef              the name of the referenced API or Impl
-     * @param allowedReferencesKey the key to look up the allowed references; for impl: {@link Constants#TARGET_IMPL},
-     *                             for API: {@link Constants#TARGET_API}
-     * @return true if a rule could be found which justifies the reference
-     */
-    private boolean checkReferenceAllowed(Node source, String usedRef, String allowedReferencesKey) {
-        ArrayList<String> allowedRefs = source.getProperty(allowedReferencesKey, new ArrayList<>());
-        LOGGER.debug("Checking reference: Node {}, outgoing reference: {}, allowedReferences: {}", source.getName(), usedRef, allowedRefs);
-        if (allowedRefs.contains(usedRef)) {
-            source.addListProperty(Constants.USED_RULES, usedRef);
-            return true;
-        }
-
-        Node parentNode = getParentNode(source);
-        return parentNode != null && checkReferenceAllowed(parentNode, usedRef, allowedReferencesKey);
-    }
-
     private Node getParentNode(Node source) {
-        return dependencyGraph.getNode(architecture.getParentComponentName(source.getName()));
+        return ruleMatrix.getParent(source);
     }
 
     private void logViolatingDependencies() {
@@ -150,7 +146,7 @@ public class DependencyChecker extends Checker {
             LOGGER.error("There are {} uncovered dependencies: ", violatingDependencies.size());
             violatingDependencies.forEach(dep -> {
                         LOGGER.error("  {}", dep);
-                        dep.getBaseDependencies().forEach(baseDep ->
+                        dep.forEachBaseDependency(baseDep ->
                                 LOGGER.error("      * {}", baseDep));
                         addViolation(dep.toString());
                     }
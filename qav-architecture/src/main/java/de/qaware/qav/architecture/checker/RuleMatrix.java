@@ -0,0 +1,214 @@
+package de.qaware.qav.architecture.checker;
+
+import de.qaware.qav.architecture.dsl.model.Architecture;
+import de.qaware.qav.graph.api.Constants;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The "uses" and "usesImpl" rules of all nodes of an architecture graph, with the rules of the parent components
+ * resolved.
+ * <p>
+ * The names of the APIs and Impls are numbered once. For each node, the allowed names are a bit set which also
+ * contains the rules of all parent nodes. So checking a reference takes <tt>O(1)</tt> time, no matter how deep the
+ * architecture is.
+ * <p>
+ * The matrix also keeps track of the rules which allowed a reference, see {@link #isUsed(Node, String)}: the rule
+ * belongs to the node itself, or to the nearest parent node which defines it. API and Impl rules share the same names,
+ * like the {@link Constants#USED_RULES} property does.
+ * <p>
+ * The rules are read from the properties {@link Constants#USES_API} and {@link Constants#USES_IMPL} of the nodes when
+ * the matrix is created; later changes are not seen. Instances are not thread safe.
+ *
+ * @author QAware GmbH
+ */
+public final class RuleMatrix {
+
+    private final Map<Node, Integer> ids = new HashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Integer> names = new HashMap<>();
+
+    /**
+     * The index of the parent node of each node, or <tt>-1</tt> if it has none in the graph.
+     */
+    private final int[] parents;
+
+    private final Rules api;
+    private final Rules impl;
+
+    /**
+     * The names of the rules of each node which allowed a reference, as bit set and in the order of their first use.
+     */
+    private final BitSet[] used;
+    private final List<List<String>> usedInOrder = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph the architecture graph
+     * @param architecture    the {@link Architecture} which defines the parent components
+     */
+    public RuleMatrix(DependencyGraph dependencyGraph, Architecture architecture) {
+        dependencyGraph.getAllNodes().forEach(node -> {
+            ids.put(node, nodes.size());
+            nodes.add(node);
+            usedInOrder.add(new ArrayList<>());
+        });
+
+        this.parents = new int[nodes.size()];
+        this.used = new BitSet[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            String parentName = architecture.getParentComponentName(nodes.get(i).getName());
+            Node parent = parentName == null ? null : dependencyGraph.getNode(parentName);
+            Integer parentId = parent == null ? null : ids.get(parent);
+            parents[i] = parentId == null ? -1 : parentId;
+            used[i] = new BitSet();
+        }
+
+        this.api = new Rules(Constants.USES_API);
+        this.impl = new Rules(Constants.USES_IMPL);
+    }
+
+    /**
+     * @param node the node
+     * @return the parent node, or <tt>null</tt> if it has none, or if the given node is not in the graph
+     */
+    public Node getParent(Node node) {
+        Integer id = ids.get(node);
+        return id == null || parents[id] < 0 ? null : nodes.get(parents[id]);
+    }
+
+    /**
+     * Checks if a "uses" rule of the given node or one of its parents allows references to the given API. If so,
+     * marks the rule as used.
+     *
+     * @param source  the node
+     * @param apiName the name of the referenced API
+     * @return <tt>true</tt> if allowed
+     */
+    public boolean isApiAllowed(Node source, String apiName) {
+        return api.isAllowed(source, apiName);
+    }
+
+    /**
+     * Checks if a "usesImpl" rule of the given node or one of its parents allows references to the given Impl. If so,
+     * marks the rule as used.
+     *
+     * @param source   the node
+     * @param implName the name of the referenced Impl
+     * @return <tt>true</tt> if allowed
+     */
+    public boolean isImplAllowed(Node source, String implName) {
+        return impl.isAllowed(source, implName);
+    }
+
+    /**
+     * Checks if a rule of the given node allowed a reference.
+     *
+     * @param node     the node
+     * @param ruleName the name of the API or Impl
+     * @return <tt>true</tt> if the rule was used
+     */
+    public boolean isUsed(Node node, String ruleName) {
+        Integer id = ids.get(node);
+        Integer name = names.get(ruleName);
+        return id != null && name != null && used[id].get(name);
+    }
+
+    /**
+     * Adds the used rules of each node to its {@link Constants#USED_RULES} property.
+     */
+    public void writeUsedRules() {
+        for (int i = 0; i < nodes.size(); i++) {
+            for (String ruleName : usedInOrder.get(i)) {
+                nodes.get(i).addListProperty(Constants.USED_RULES, ruleName);
+            }
+        }
+    }
+
+    private int intern(String name) {
+        return names.computeIfAbsent(name, key -> names.size());
+    }
+
+    /**
+     * The rules of one kind, i.e. "uses" or "usesImpl".
+     */
+    private final class Rules {
+
+        /**
+         * The names in the rules of the node itself.
+         */
+        private final BitSet[] own;
+
+        /**
+         * The names in the rules of the node and all its parents.
+         */
+        private final BitSet[] allowed;
+
+        /**
+         * The names for which the rule was already marked as used, for references from the node.
+         */
+        private final BitSet[] marked;
+
+        private Rules(String propertyKey) {
+            int n = nodes.size();
+            this.own = new BitSet[n];
+            this.allowed = new BitSet[n];
+            this.marked = new BitSet[n];
+            for (int i = 0; i < n; i++) {
+                own[i] = new BitSet();
+                marked[i] = new BitSet();
+                List<String> ruleNames = nodes.get(i).getProperty(propertyKey, new ArrayList<>());
+                for (String ruleName : ruleNames) {
+                    own[i].set(intern(ruleName));
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                inherit(i);
+            }
+        }
+
+        /**
+         * Computes the allowed names of the given node, after those of its parents.
+         */
+        private BitSet inherit(int id) {
+            if (allowed[id] == null) {
+                BitSet result = (BitSet) own[id].clone();
+                // mark as in progress, so that a cyclic parent chain terminates
+                allowed[id] = result;
+                if (parents[id] >= 0) {
+                    result.or(inherit(parents[id]));
+                }
+            }
+            return allowed[id];
+        }
+
+        private boolean isAllowed(Node source, String ruleName) {
+            Integer id = ids.get(source);
+            Integer name = names.get(ruleName);
+            if (id == null || name == null || !allowed[id].get(name)) {
+                return false;
+            }
+
+            if (!marked[id].get(name)) {
+                marked[id].set(name);
+                // the rule belongs to the nearest node which defines it
+                int owner = id;
+                while (!own[owner].get(name)) {
+                    owner = parents[owner];
+                }
+                if (!used[owner].get(name)) {
+                    used[owner].set(name);
+                    usedInOrder.get(owner).add(ruleName);
+                }
+            }
+            return true;
+        }
+    }
+}
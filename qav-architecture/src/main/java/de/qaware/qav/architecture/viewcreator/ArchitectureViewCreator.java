@@ -1,5 +1,6 @@
 package de.qaware.qav.architecture.viewcreator;
 
+import com.google.common.cache.CacheStats;
 import de.qaware.qav.architecture.dsl.model.Architecture;
 import de.qaware.qav.architecture.viewcreator.impl.ArchitectureNodeCreator;
 import de.qaware.qav.architecture.viewcreator.impl.ArchitectureNodeTagger;
@@ -42,6 +43,7 @@ public final class ArchitectureViewCreator {
         }
 
         Result result = new Result();
+        CacheStats lookupStats = architecture.getLookupCacheStats();
 
         List<String> unmappedClasses = new ArchitectureNodeCreator(sourceGraph, architecture).createAllArchitectureNodes();
         if (!unmappedClasses.isEmpty()) {
@@ -60,6 +62,7 @@ public final class ArchitectureViewCreator {
         BaseRelationTagger.tagBaseRelationNumbers(architectureGraph);
 
         result.setArchitectureGraph(architectureGraph);
+        architecture.logLookupCacheStats("createArchitectureView", lookupStats);
         return result;
     }
 }
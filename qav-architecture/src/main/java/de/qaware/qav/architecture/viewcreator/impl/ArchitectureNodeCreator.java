@@ -46,10 +46,12 @@ public final class ArchitectureNodeCreator {
     public List<String> createAllArchitectureNodes() {
         // tag all nodes in the given graph (which may be a filtered graph, i.e. a subset of the full graph) with the
         // component name, and find unmapped classes:
-        List<String> unmappedClasses = ComponentNameTagger.tagComponentNames(dependencyGraph, architecture);
+        // The lookup runs in parallel; all changes to the graph are done afterwards, in the order of the nodes.
+        List<ComponentNameTagger.Resolution> resolutions = ComponentNameTagger.resolveAll(dependencyGraph.getAllNodes(), architecture);
+        List<String> unmappedClasses = ComponentNameTagger.tagComponentNames(resolutions, architecture);
 
         createArchitectureNodes(architecture);
-        dependencyGraph.getAllNodes().forEach(this::mapClassToComponents);
+        resolutions.forEach(resolution -> mapClassToComponents(resolution.getNode()));
 
         return unmappedClasses;
     }
@@ -5,11 +5,18 @@ import de.qaware.qav.architecture.dsl.model.Component;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.Node;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Write a tag on all nodes in the given graph and on all parent architecture nodes in that architecture view.
  * Will only tag those architecture nodes which are parents (grand-parents etc) of nodes in the given graph.
  * <p>
  * This is useful to tag a filtered graph and its architecture hierarchy.
+ * <p>
+ * The parent components of the nodes in the graph are looked up in parallel; the tags are then written one node after
+ * the other, in the order of the nodes in the graph.
  *
  * @author QAware GmbH
  */
@@ -29,22 +36,28 @@ public final class ArchitectureNodeTagger {
      * @param tag          the tag to write to each node
      */
     public static void tagArchitectureNodes(DependencyGraph graph, Architecture architecture, String tag) {
-        graph.getAllNodes()
-                .forEach(node -> tagNode(graph.getBaseGraph(), node, architecture, tag));
+        List<Node> nodes = new ArrayList<>(graph.getAllNodes());
+        List<Component> parentComponents = nodes.parallelStream()
+                .map(node -> architecture.getParentComponent(node.getName()))
+                .collect(Collectors.toList());
+
+        DependencyGraph baseGraph = graph.getBaseGraph();
+        for (int i = 0; i < nodes.size(); i++) {
+            tagNode(baseGraph, nodes.get(i), parentComponents.get(i), architecture, tag);
+        }
     }
 
     /**
      * Tags the node and all its parents.
      * Goes up the hierarchy until it finds a parent component node which is already tagged.
      */
-    private static void tagNode(DependencyGraph graph, Node node, Architecture architecture, String tag) {
+    private static void tagNode(DependencyGraph graph, Node node, Component parentComponent, Architecture architecture, String tag) {
         node.setProperty(tag, true);
-        Component parentComponent = architecture.getParentComponent(node.getName());
         if (parentComponent != null) {
             Node parentNode = graph.getNode(parentComponent.getName());
             // only recurse if the parent has not yet been visited:
             if (parentNode != null && !parentNode.hasProperty(tag)) {
-                tagNode(graph, parentNode, architecture, tag);
+                tagNode(graph, parentNode, architecture.getParentComponent(parentNode.getName()), architecture, tag);
             }
         }
     }
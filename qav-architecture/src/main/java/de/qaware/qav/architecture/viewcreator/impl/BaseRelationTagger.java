@@ -4,8 +4,6 @@ import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 
-import java.util.Set;
-
 /**
  * Tags each architecture dependency with the number of base relations, the number of different source nodes in
  * ths base relations, and the number of different target nodes in the base relations.
@@ -27,24 +25,16 @@ public final class BaseRelationTagger {
      * @param graph the {@link DependencyGraph}
      */
     public static void tagBaseRelationNumbers(DependencyGraph graph) {
-        graph.getAllEdges().forEach(BaseRelationTagger::tagBaseRelationNumbers);
+        graph.forEachEdge(BaseRelationTagger::tagBaseRelationNumbers);
     }
 
     private static void tagBaseRelationNumbers(Dependency dependency) {
-        Set<Dependency> baseDependencies = dependency.getBaseDependencies();
-
-        if (!baseDependencies.isEmpty()) {
-            long sourceNames = baseDependencies.stream()
-                    .map(dep -> dep.getSource().getName())
-                    .distinct().count();
-
-            long targetNames = baseDependencies.stream()
-                    .map(dep -> dep.getTarget().getName())
-                    .distinct().count();
+        int count = dependency.getBaseDependencyCount();
 
-            dependency.setProperty(Constants.BASE_REL_COUNT, baseDependencies.size());
-            dependency.setProperty(Constants.BASE_REL_COUNT_SOURCES, sourceNames);
-            dependency.setProperty(Constants.BASE_REL_COUNT_TARGETS, targetNames);
+        if (count > 0) {
+            dependency.setProperty(Constants.BASE_REL_COUNT, count);
+            dependency.setProperty(Constants.BASE_REL_COUNT_SOURCES, (long) dependency.getBaseSourceCount());
+            dependency.setProperty(Constants.BASE_REL_COUNT_TARGETS, (long) dependency.getBaseTargetCount());
         }
     }
 }
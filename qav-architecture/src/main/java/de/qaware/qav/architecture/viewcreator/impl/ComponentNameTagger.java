@@ -8,7 +8,9 @@ import de.qaware.qav.graph.api.Node;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -17,6 +19,9 @@ import static org.slf4j.LoggerFactory.getLogger;
  * Also tags it with "ignored" flags and "implementation" flags.
  * <p>
  * Checks if each node is assigned to a component or not.
+ * <p>
+ * The components are looked up for all nodes in parallel; the properties are then written one node after the other,
+ * in the order of the nodes in the graph. So the result does not depend on the number of threads.
  *
  * @author QAware GmbH
  */
@@ -39,39 +44,76 @@ public final class ComponentNameTagger {
      * @return the list of unmapped classes. Never null. If empty, all classes the given graph could be mapped.
      */
     public static List<String> tagComponentNames(DependencyGraph dependencyGraph, Architecture architecture) {
+        return tagComponentNames(resolveAll(dependencyGraph.getAllNodes(), architecture), architecture);
+    }
+
+    /**
+     * Looks up the components of the given nodes in parallel. Does not change the nodes.
+     *
+     * @param nodes        the nodes
+     * @param architecture the {@link Architecture}
+     * @return the result for each node, in the order of the given nodes
+     */
+    static List<Resolution> resolveAll(Collection<Node> nodes, Architecture architecture) {
+        return new ArrayList<>(nodes).parallelStream()
+                .map(node -> resolve(node, architecture))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes the properties for the given results, one after the other.
+     *
+     * @param resolutions  the results of {@link #resolveAll(Collection, Architecture)}
+     * @param architecture the {@link Architecture}
+     * @return the list of unmapped classes. Never null. If empty, all classes could be mapped.
+     */
+    static List<String> tagComponentNames(List<Resolution> resolutions, Architecture architecture) {
         final List<String> unmappedClasses = new ArrayList<>();
 
-        dependencyGraph.getAllNodes().forEach(node -> {
-            if (!tagComponentName(node, architecture)) {
-                unmappedClasses.add(node.getName());
+        resolutions.forEach(resolution -> {
+            if (!tagComponentName(resolution, architecture)) {
+                unmappedClasses.add(resolution.node.getName());
             }
         });
 
         return unmappedClasses;
     }
 
+    private static Resolution resolve(Node node, Architecture architecture) {
+        String nodeName = node.getName();
+        if (!architecture.isIncluded(nodeName)) {
+            return new Resolution(node, false, null, null, null);
+        }
+        Component component = architecture.getParentComponent(nodeName);
+        if (component == null) {
+            return new Resolution(node, true, null, null, null);
+        }
+        return new Resolution(node, true, component, component.getApiName(nodeName), component.getImplName(nodeName));
+    }
+
     /**
      * Sets properties regarding the architecture on the give node.
      *
-     * @param node         the {@link Node} to set properties on
+     * @param resolution   the {@link Node} to set properties on, and its component
      * @param architecture the {@link Architecture}
      * @return <tt>true</tt> if the {@link Node} could be mapped, i.e. was found in the {@link Architecture},
      * <tt>false</tt> if the n{@link Node} is unmapped.
      */
-    private static boolean tagComponentName(Node node, Architecture architecture) {
+    private static boolean tagComponentName(Resolution resolution, Architecture architecture) {
 
         final String name = architecture.getName();
+        final Node node = resolution.node;
 
         boolean isMapped = true;
 
-        if (!architecture.isIncluded(node.getName())) {
+        if (!resolution.included) {
             node.setProperty(name + Constants.IGNORED_SUFFIX, true);
         } else {
-            Component component = architecture.getParentComponent(node.getName());
+            Component component = resolution.component;
             if (component != null) {
                 node.setProperty(name + Constants.PARENT_SUFFIX, component.getName());
-                node.setProperty(name + Constants.PARENT_API_SUFFIX, component.getApiName(node.getName()));
-                node.setProperty(name + Constants.PARENT_IMPL_SUFFIX, component.getImplName(node.getName()));
+                node.setProperty(name + Constants.PARENT_API_SUFFIX, resolution.apiName);
+                node.setProperty(name + Constants.PARENT_IMPL_SUFFIX, resolution.implName);
             } else {
                 LOGGER.warn("Node {} is not mapped to any component", node.getName());
                 node.setProperty(name + Constants.UNMAPPED_SUFFIX, true);
@@ -82,4 +124,30 @@ public final class ComponentNameTagger {
 
         return isMapped;
     }
+
+    /**
+     * The component of a node, as found by {@link #resolveAll(Collection, Architecture)}.
+     */
+    static final class Resolution {
+        private final Node node;
+        private final boolean included;
+        private final Component component;
+        private final String apiName;
+        private final String implName;
+
+        private Resolution(Node node, boolean included, Component component, String apiName, String implName) {
+            this.node = node;
+            this.included = included;
+            this.component = component;
+            this.apiName = apiName;
+            this.implName = implName;
+        }
+
+        /**
+         * @return the node
+         */
+        Node getNode() {
+            return node;
+        }
+    }
 }
@@ -58,4 +58,18 @@ public class AllExplicitRulesUsedCheckerTest extends AbstractArchitectureChecker
         assertThat(checker.isOk(), is(false));
         assertThat(checker.getViolationMessage(), is("1 unused rules: [com.my.a: com.my.other]"));
     }
+
+    @Test
+    public void testNotOkWithRuleMatrix() {
+        init(false, false);
+
+        @SuppressWarnings("unchecked")
+        List<String> uses = (List<String>) architectureGraph.getNode("com.my.a").getProperty(Constants.USES_API);
+        uses.add("com.my.other");
+        DependencyChecker dependencyChecker = new DependencyChecker(architectureGraph, packageArchitecture);
+
+        AllExplicitRulesUsedChecker checker = new AllExplicitRulesUsedChecker(architectureGraph, packageArchitecture, dependencyChecker.getRuleMatrix());
+        assertThat(checker.isOk(), is(false));
+        assertThat(checker.getViolationMessage(), is("1 unused rules: [com.my.a: com.my.other]"));
+    }
 }
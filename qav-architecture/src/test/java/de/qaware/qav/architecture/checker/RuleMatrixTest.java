@@ -0,0 +1,97 @@
+package de.qaware.qav.architecture.checker;
+
+import com.google.common.collect.Lists;
+import de.qaware.qav.architecture.dsl.model.Architecture;
+import de.qaware.qav.architecture.dsl.model.Component;
+import de.qaware.qav.graph.api.Constants;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests for {@link RuleMatrix}.
+ *
+ * @author QAware GmbH
+ */
+public class RuleMatrixTest {
+
+    private DependencyGraph graph;
+    private Architecture architecture;
+    private Node root;
+    private Node parent;
+    private Node child;
+
+    @Before
+    public void init() {
+        architecture = new Architecture();
+        architecture.setName("Arch");
+        Component p = addComponent("P", architecture);
+        addComponent("C", p);
+
+        graph = DependencyGraphFactory.createGraph();
+        root = graph.getOrCreateNodeByName("Arch");
+        parent = graph.getOrCreateNodeByName("P");
+        child = graph.getOrCreateNodeByName("C");
+        root.setProperty(Constants.USES_API, Lists.newArrayList("Logging"));
+        parent.setProperty(Constants.USES_API, Lists.newArrayList("Util", "Unused"));
+        parent.setProperty(Constants.USES_IMPL, Lists.newArrayList("Util-impl"));
+        child.setProperty(Constants.USES_API, Lists.newArrayList("Util"));
+    }
+
+    private Component addComponent(String name, Component parentComponent) {
+        Component component = new Component();
+        component.setName(name);
+        component.setParent(parentComponent);
+        parentComponent.getChildren().add(component);
+        architecture.getAllComponents().add(component);
+        architecture.getNameToComponent().put(name, component);
+        return component;
+    }
+
+    @Test
+    public void testParents() {
+        RuleMatrix ruleMatrix = new RuleMatrix(graph, architecture);
+
+        assertThat(ruleMatrix.getParent(child), is(parent));
+        assertThat(ruleMatrix.getParent(parent), is(root));
+        assertThat(ruleMatrix.getParent(root), nullValue());
+    }
+
+    @Test
+    public void testInheritedRules() {
+        RuleMatrix ruleMatrix = new RuleMatrix(graph, architecture);
+
+        assertThat(ruleMatrix.isApiAllowed(child, "Logging"), is(true));
+        assertThat(ruleMatrix.isApiAllowed(child, "Util"), is(true));
+        assertThat(ruleMatrix.isApiAllowed(child, "Other"), is(false));
+        assertThat(ruleMatrix.isApiAllowed(root, "Util"), is(false));
+        assertThat(ruleMatrix.isImplAllowed(child, "Util-impl"), is(true));
+        assertThat(ruleMatrix.isImplAllowed(child, "Util"), is(false));
+    }
+
+    @Test
+    public void testUsedRulesBelongToTheNearestNode() {
+        RuleMatrix ruleMatrix = new RuleMatrix(graph, architecture);
+
+        ruleMatrix.isApiAllowed(child, "Util");
+        ruleMatrix.isApiAllowed(child, "Logging");
+        ruleMatrix.isImplAllowed(child, "Util-impl");
+
+        assertThat(ruleMatrix.isUsed(child, "Util"), is(true));
+        assertThat(ruleMatrix.isUsed(parent, "Util"), is(false));
+        assertThat(ruleMatrix.isUsed(parent, "Util-impl"), is(true));
+        assertThat(ruleMatrix.isUsed(parent, "Unused"), is(false));
+        assertThat(ruleMatrix.isUsed(root, "Logging"), is(true));
+
+        ruleMatrix.writeUsedRules();
+        assertThat(child.getProperty(Constants.USED_RULES), is(Lists.newArrayList("Util")));
+        assertThat(parent.getProperty(Constants.USED_RULES), is(Lists.newArrayList("Util-impl")));
+        assertThat(root.getProperty(Constants.USED_RULES), is(Lists.newArrayList("Logging")));
+    }
+}
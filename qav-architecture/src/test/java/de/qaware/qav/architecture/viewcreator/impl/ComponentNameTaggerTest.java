@@ -1,13 +1,19 @@
 package de.qaware.qav.architecture.viewcreator.impl;
 
 import de.qaware.qav.architecture.dsl.model.Architecture;
+import de.qaware.qav.architecture.dsl.model.ClassSet;
+import de.qaware.qav.architecture.dsl.model.Component;
 import de.qaware.qav.architecture.factory.DefaultPackageArchitectureFactory;
 import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.factory.DependencyGraphFactory;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -51,4 +57,41 @@ public class ComponentNameTaggerTest {
         assertThat(unmappedClasses, notNullValue());
         assertThat(unmappedClasses, hasSize(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testManyNodesInGraphOrder() {
+        DependencyGraph dependencyGraph = DependencyGraphFactory.createGraph();
+        for (int i = 0; i < 5000; i++) {
+            dependencyGraph.getOrCreateNodeByName("com.my.p" + (i % 7) + ".C" + i);
+        }
+
+        Architecture architecture = new Architecture();
+        architecture.setName("Arch");
+        architecture.setIncludes(Collections.singletonMap("in", new ClassSet("in", Collections.singletonList("com.my.**"))));
+        architecture.setExcludes(Collections.singletonMap("out", new ClassSet("out", Collections.singletonList("com.my.p6.**"))));
+        for (int p = 0; p < 5; p++) {
+            Component component = new Component();
+            component.setName("P" + p);
+            component.getApi().put("P" + p + "-api", new ClassSet("P" + p + "-api", Collections.singletonList("com.my.p" + p + ".**")));
+            architecture.getAllComponents().add(component);
+        }
+
+        List<String> unmappedClasses = ComponentNameTagger.tagComponentNames(dependencyGraph, architecture);
+
+        List<String> expectedUnmapped = new ArrayList<>(dependencyGraph.getAllNodes()).stream()
+                .map(Node::getName)
+                .filter(name -> name.startsWith("com.my.p5."))
+                .collect(Collectors.toList());
+        assertThat(unmappedClasses, is(expectedUnmapped));
+
+        for (Node node : dependencyGraph.getAllNodes()) {
+            String p = node.getName().substring("com.my.p".length(), "com.my.p".length() + 1);
+            if ("6".equals(p)) {
+                assertThat(node.getProperty("Arch" + Constants.IGNORED_SUFFIX), is(true));
+            } else if (!"5".equals(p)) {
+                assertThat(node.getProperty("Arch" + Constants.PARENT_SUFFIX), is("P" + p));
+                assertThat(node.getProperty("Arch" + Constants.PARENT_API_SUFFIX), is("P" + p + "-api"));
+            }
+        }
+    }
+}
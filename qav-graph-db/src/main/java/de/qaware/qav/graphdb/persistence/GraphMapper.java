@@ -1,6 +1,9 @@
 package de.qaware.qav.graphdb.persistence;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import de.qaware.qav.graph.api.AbstractGraphElement;
+import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
@@ -84,7 +87,7 @@ public class GraphMapper {
             result = new ClassNode(n.getName());
         }
 
-        mapProperties(result.getProperties(), n.getProperties());
+        mapProperties(result.getProperties(), n);
         // remove entries which are unnecessary
         result.getProperties().remove("name");
         result.getProperties().remove("type");
@@ -136,17 +139,37 @@ public class GraphMapper {
         referencesRelation.setFrom(nodeMap.get(dependency.getSource().getName()));
         referencesRelation.setTo(nodeMap.get(dependency.getTarget().getName()));
 
-        referencesRelation.setLineNo(dependency.getProperty("lineNo", new ArrayList<>()));
-        mapProperties(referencesRelation.getProperties(), dependency.getProperties());
-        referencesRelation.getProperties().remove("lineNo");
+        referencesRelation.setLineNo(mapLineNo(dependency.getProperty(Constants.LINE_NO)));
+        mapProperties(referencesRelation.getProperties(), dependency);
+        referencesRelation.getProperties().remove(Constants.LINE_NO);
 
         referencesRelation.getFrom().getReferencesRelations().add(referencesRelation);
 
         referencesRelations.add(referencesRelation);
     }
 
-    private void mapProperties(Map<String, Object> target, Map<String, Object> source) {
-        source.forEach((k, v) -> target.put(k, mapObject(v)));
+    /**
+     * Maps the line numbers to Longs, as OGM can't handle Integers. The line numbers may be a single number, a
+     * {@link java.util.List} of numbers, or a {@link de.qaware.qav.graph.api.SortedIntList}.
+     *
+     * @param lineNo the line numbers, may be null
+     * @return the list of line numbers
+     */
+    private static List<Long> mapLineNo(Object lineNo) {
+        if (lineNo instanceof Number) {
+            return Lists.newArrayList(((Number) lineNo).longValue());
+        } else if (lineNo instanceof Collection) {
+            return ((Collection<?>) lineNo).stream()
+                    .filter(Number.class::isInstance)
+                    .map(it -> ((Number) it).longValue())
+                    .collect(Collectors.toList());
+        } else {
+            return new ArrayList<>();
+        }
+    }
+
+    private void mapProperties(Map<String, Object> target, AbstractGraphElement source) {
+        source.forEachProperty((k, v) -> target.put(k, mapObject(v)));
     }
 
     @SuppressWarnings("unchecked")
@@ -9,6 +9,7 @@ import de.qaware.qav.graphdb.model.AbstractNode;
 import de.qaware.qav.graphdb.model.ArchitectureNode;
 import de.qaware.qav.graphdb.model.ClassNode;
 import de.qaware.qav.graphdb.model.MethodNode;
+import de.qaware.qav.graphdb.model.ReferencesRelation;
 import org.junit.Test;
 
 import java.util.HashMap;
@@ -44,6 +45,29 @@ public class GraphMapperTest {
         assertThat(node.getProperty("b")).isInstanceOf(Long.class); // was Integer
     }
 
+    @Test
+    public void testMapLineNumbers() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node c1 = graph.getOrCreateNodeByName("c1");
+        c1.setProperty("type", "class");
+        Node c2 = graph.getOrCreateNodeByName("c2");
+        c2.setProperty("type", "class");
+        Node c3 = graph.getOrCreateNodeByName("c3");
+        c3.setProperty("type", "class");
+        graph.addDependency(c1, c2, DependencyType.READ_WRITE).addIntSetProperty("lineNo", 12);
+        graph.getEdge(c1, c2).addIntSetProperty("lineNo", 3);
+        graph.addDependency(c1, c3, DependencyType.READ_WRITE).setProperty("lineNo", 7);
+
+        GraphMapper graphMapper = new GraphMapper();
+        graphMapper.toNeo4j(graph);
+
+        Map<String, ReferencesRelation> relations = new HashMap<>();
+        graphMapper.getReferencesRelations().forEach(relation -> relations.put(relation.getTo().getName(), relation));
+        assertThat(relations.get("c2").getLineNo()).containsExactly(3L, 12L);
+        assertThat(relations.get("c3").getLineNo()).containsExactly(7L);
+        assertThat(relations.get("c2").getProperties()).doesNotContainKey("lineNo");
+    }
+
     @Test
     public void testMapGraph() {
         // prepare
@@ -0,0 +1,153 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.factory.GraphImplementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JGraphT based {@link DependencyGraphSimpleImpl} with the {@link DependencyGraphCsrImpl}: time to build a
+ * graph, time to traverse it, and the heap it retains, which is printed once per fork.
+ * <p>
+ * Run with <tt>gradlew :qav-graph:jmh</tt>.
+ *
+ * @author QAware GmbH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyGraphBenchmark {
+
+    private static final int NUM_NODES = 20_000;
+    private static final int EDGES_PER_NODE = 10;
+
+    @Param({"JGRAPHT", "CSR"})
+    private GraphImplementation implementation;
+
+    private String[] names;
+    private int[] sources;
+    private int[] targets;
+    private DependencyType[] types;
+
+    private DependencyGraph graph;
+    private Node[] nodes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // a random graph with a fixed seed, with method-like names to get realistic hashing costs:
+        Random random = new Random(42);
+        names = new String[NUM_NODES];
+        for (int i = 0; i < NUM_NODES; i++) {
+            names[i] = "de.qaware.qav.package" + (i % 100) + ".Class" + (i / 10) + "#method" + (i % 10) + "()";
+        }
+        int numEdges = NUM_NODES * EDGES_PER_NODE;
+        sources = new int[numEdges];
+        targets = new int[numEdges];
+        types = new DependencyType[numEdges];
+        DependencyType[] allTypes = DependencyType.values();
+        for (int i = 0; i < numEdges; i++) {
+            sources[i] = random.nextInt(NUM_NODES);
+            targets[i] = random.nextInt(NUM_NODES);
+            types[i] = allTypes[random.nextInt(allTypes.length)];
+        }
+
+        long before = usedHeap();
+        graph = createGraph();
+        long after = usedHeap();
+        System.out.printf("%n%s: %d nodes, %d edges, retained heap: %.1f MB%n", implementation,
+                graph.nodeCount(), graph.edgeCount(), (after - before) / 1024.0 / 1024.0);
+
+        nodes = new Node[NUM_NODES];
+        for (int i = 0; i < NUM_NODES; i++) {
+            nodes[i] = graph.getNode(names[i]);
+        }
+    }
+
+    @Benchmark
+    public DependencyGraph build() {
+        return createGraph();
+    }
+
+    @Benchmark
+    public void lookupByName(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(graph.getNode(name));
+        }
+    }
+
+    @Benchmark
+    public void outgoingEdgesByType(Blackhole blackhole) {
+        for (Node node : nodes) {
+            blackhole.consume(graph.getOutgoingEdges(node, DependencyType.READ_ONLY).size());
+            blackhole.consume(graph.getIncomingEdges(node, DependencyType.INHERIT).size());
+        }
+    }
+
+    /**
+     * Breadth first search over the outgoing edges, starting at a few nodes.
+     */
+    @Benchmark
+    public int traverse() {
+        int visitedCount = 0;
+        for (int start = 0; start < NUM_NODES; start += NUM_NODES / 10) {
+            Set<Node> visited = new HashSet<>();
+            Deque<Node> queue = new ArrayDeque<>();
+            queue.add(nodes[start]);
+            visited.add(nodes[start]);
+            while (!queue.isEmpty()) {
+                for (Dependency dependency : graph.getOutgoingEdges(queue.poll())) {
+                    if (visited.add(dependency.getTarget())) {
+                        queue.add(dependency.getTarget());
+                    }
+                }
+            }
+            visitedCount += visited.size();
+        }
+        return visitedCount;
+    }
+
+    private DependencyGraph createGraph() {
+        DependencyGraph result = DependencyGraphFactory.createGraph(implementation);
+        for (String name : names) {
+            result.getOrCreateNodeByName(name);
+        }
+        for (int i = 0; i < sources.length; i++) {
+            result.addDependency(result.getNode(names[sources[i]]), result.getNode(names[targets[i]]), types[i]);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("squid:S1215") // explicit GC, to measure the retained heap
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,172 @@
+package de.qaware.qav.graph.alg.api;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyType;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The structural difference between an old and a new {@link de.qaware.qav.graph.api.DependencyGraph}.
+ * <p>
+ * All lists are ordered by node name, edges by source and then by target name. Edges of added or removed nodes are
+ * listed as added or removed edges, too.
+ *
+ * @author QAware GmbH
+ */
+public final class GraphDiff {
+
+    private final List<String> addedNodes = new ArrayList<>();
+    private final List<String> removedNodes = new ArrayList<>();
+    private final List<Dependency> addedEdges = new ArrayList<>();
+    private final List<Dependency> removedEdges = new ArrayList<>();
+    private final List<TypeChange> typeChanges = new ArrayList<>();
+    private final List<PropertyChange> propertyChanges = new ArrayList<>();
+
+    /**
+     * @return the names of the nodes which are only in the new graph
+     */
+    public List<String> getAddedNodes() {
+        return Collections.unmodifiableList(addedNodes);
+    }
+
+    /**
+     * @return the names of the nodes which are only in the old graph
+     */
+    public List<String> getRemovedNodes() {
+        return Collections.unmodifiableList(removedNodes);
+    }
+
+    /**
+     * @return the edges which are only in the new graph; these are edges of the new graph
+     */
+    public List<Dependency> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    /**
+     * @return the edges which are only in the old graph; these are edges of the old graph
+     */
+    public List<Dependency> getRemovedEdges() {
+        return Collections.unmodifiableList(removedEdges);
+    }
+
+    /**
+     * @return the edges which are in both graphs, with different {@link DependencyType}s
+     */
+    public List<TypeChange> getTypeChanges() {
+        return Collections.unmodifiableList(typeChanges);
+    }
+
+    /**
+     * @return the changed properties of the nodes and edges which are in both graphs
+     */
+    public List<PropertyChange> getPropertyChanges() {
+        return Collections.unmodifiableList(propertyChanges);
+    }
+
+    /**
+     * @return <tt>true</tt> if the graphs are equal
+     */
+    public boolean isEmpty() {
+        return addedNodes.isEmpty() && removedNodes.isEmpty() && addedEdges.isEmpty() && removedEdges.isEmpty()
+                && typeChanges.isEmpty() && propertyChanges.isEmpty();
+    }
+
+    /**
+     * @param name the name of a node which is only in the new graph
+     */
+    public void addAddedNode(String name) {
+        addedNodes.add(name);
+    }
+
+    /**
+     * @param name the name of a node which is only in the old graph
+     */
+    public void addRemovedNode(String name) {
+        removedNodes.add(name);
+    }
+
+    /**
+     * @param dependency an edge which is only in the new graph
+     */
+    public void addAddedEdge(Dependency dependency) {
+        addedEdges.add(dependency);
+    }
+
+    /**
+     * @param dependency an edge which is only in the old graph
+     */
+    public void addRemovedEdge(Dependency dependency) {
+        removedEdges.add(dependency);
+    }
+
+    /**
+     * @param typeChange the changed type of an edge
+     */
+    public void addTypeChange(TypeChange typeChange) {
+        typeChanges.add(typeChange);
+    }
+
+    /**
+     * @param propertyChange the changed property of a node or an edge
+     */
+    public void addPropertyChange(PropertyChange propertyChange) {
+        propertyChanges.add(propertyChange);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GraphDiff[nodes: +%d -%d; edges: +%d -%d; type changes: %d; property changes: %d]",
+                addedNodes.size(), removedNodes.size(), addedEdges.size(), removedEdges.size(),
+                typeChanges.size(), propertyChanges.size());
+    }
+
+    /**
+     * An edge which is in both graphs, with different {@link DependencyType}s.
+     */
+    @Getter
+    public static final class TypeChange {
+        private final Dependency oldDependency;
+        private final Dependency newDependency;
+
+        /**
+         * Constructor.
+         *
+         * @param oldDependency the edge in the old graph
+         * @param newDependency the edge in the new graph
+         */
+        public TypeChange(Dependency oldDependency, Dependency newDependency) {
+            this.oldDependency = oldDependency;
+            this.newDependency = newDependency;
+        }
+    }
+
+    /**
+     * A property of a node or an edge which is in both graphs, and which was added, removed, or changed.
+     */
+    @Getter
+    public static final class PropertyChange {
+        private final String element;
+        private final String key;
+        private final Object oldValue;
+        private final Object newValue;
+
+        /**
+         * Constructor.
+         *
+         * @param element  the name of the node, or <tt>source -&gt; target</tt> for an edge
+         * @param key      the key of the property
+         * @param oldValue the value in the old graph, or <tt>null</tt> if it was added
+         * @param newValue the value in the new graph, or <tt>null</tt> if it was removed
+         */
+        public PropertyChange(String element, String key, Object oldValue, Object newValue) {
+            this.element = element;
+            this.key = key;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+}
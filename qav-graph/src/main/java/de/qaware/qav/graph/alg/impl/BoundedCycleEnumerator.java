@@ -0,0 +1,138 @@
+package de.qaware.qav.graph.alg.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.Node;
+import org.jgrapht.Graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enumerates the simple cycles within one strongly connected component, up to a maximum number of cycles and a
+ * deadline.
+ * <p>
+ * Each cycle is found exactly once, starting from its node with the lowest position in the component. The search
+ * does not prune like Johnson's algorithm, so it relies on the caps to terminate in time on dense components.
+ *
+ * @author QAware GmbH
+ */
+final class BoundedCycleEnumerator {
+
+    /**
+     * Check the clock only every so many steps.
+     */
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private final Node[] nodes;
+    private final int[][] successors;
+    private final int maxCycles;
+    private final long deadline;
+
+    // the current path; reused for each start node, as the search always backtracks to an empty path
+    private final int[] path;
+    private final int[] pos;
+    private final boolean[] onPath;
+
+    private final List<List<Node>> cycles = new ArrayList<>();
+    private boolean complete = true;
+    private int steps = 0;
+
+    private BoundedCycleEnumerator(Graph<Node, Dependency> graph, List<Node> component, int maxCycles, long deadline) {
+        this.nodes = component.toArray(new Node[0]);
+        this.maxCycles = maxCycles;
+        this.deadline = deadline;
+        this.path = new int[nodes.length];
+        this.pos = new int[nodes.length];
+        this.onPath = new boolean[nodes.length];
+
+        Map<Node, Integer> ids = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            ids.put(nodes[i], i);
+        }
+        this.successors = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            successors[i] = graph.outgoingEdgesOf(nodes[i]).stream()
+                    .map(graph::getEdgeTarget)
+                    .filter(ids::containsKey)
+                    .mapToInt(ids::get)
+                    .toArray();
+        }
+    }
+
+    /**
+     * Enumerates the simple cycles in the given component.
+     *
+     * @param graph     the graph
+     * @param component the nodes of one strongly connected component of the graph
+     * @param maxCycles the maximum number of cycles to return
+     * @param deadline  stop at this time, as in {@link System#currentTimeMillis()}
+     * @return the enumerator, with the cycles found
+     */
+    static BoundedCycleEnumerator enumerate(Graph<Node, Dependency> graph, List<Node> component, int maxCycles, long deadline) {
+        BoundedCycleEnumerator enumerator = new BoundedCycleEnumerator(graph, component, maxCycles, deadline);
+        for (int start = 0; start < enumerator.nodes.length && enumerator.complete; start++) {
+            enumerator.searchFrom(start);
+        }
+        return enumerator;
+    }
+
+    /**
+     * @return the cycles found
+     */
+    List<List<Node>> getCycles() {
+        return cycles;
+    }
+
+    /**
+     * @return <tt>true</tt> if all cycles were found, <tt>false</tt> if the search stopped at one of the caps
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Finds all cycles through <tt>start</tt> which use only nodes with higher positions.
+     */
+    private void searchFrom(int start) {
+        int depth = 0;
+        path[0] = start;
+        pos[0] = 0;
+        onPath[start] = true;
+
+        while (depth >= 0) {
+            if (!complete || (++steps % CLOCK_INTERVAL == 0 && System.currentTimeMillis() > deadline)) {
+                complete = false;
+                return;
+            }
+            int v = path[depth];
+            if (pos[depth] < successors[v].length) {
+                int w = successors[v][pos[depth]++];
+                if (w == start) {
+                    addCycle(depth);
+                } else if (w > start && !onPath[w]) {
+                    depth++;
+                    path[depth] = w;
+                    pos[depth] = 0;
+                    onPath[w] = true;
+                }
+            } else {
+                onPath[v] = false;
+                depth--;
+            }
+        }
+    }
+
+    private void addCycle(int depth) {
+        if (cycles.size() == maxCycles) {
+            complete = false;
+            return;
+        }
+        List<Node> cycle = new ArrayList<>(depth + 1);
+        for (int i = 0; i <= depth; i++) {
+            cycle.add(nodes[path[i]]);
+        }
+        cycles.add(cycle);
+    }
+}
@@ -6,14 +6,31 @@ import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.impl.DependencyGraphSimpleImpl;
 import lombok.extern.slf4j.Slf4j;
+import org.jgrapht.Graph;
 import org.jgrapht.alg.cycle.TarjanSimpleCycles;
+import org.jgrapht.graph.DefaultDirectedGraph;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Detect cycles. This implementation uses the JGraphT algorithm, and therefore only works on the {@link
- * DependencyGraphSimpleImpl}.
+ * Detect cycles. This implementation works on JGraphT graphs. It uses the JGraphT graph of a {@link
+ * DependencyGraphSimpleImpl} directly; all other graphs, e.g. filtered, frozen, or mapped graphs, are copied into a
+ * JGraphT graph first.
+ * <p>
+ * In {@link Mode#SIMPLE_CYCLES} mode, it finds all elementary cycles. Their number may grow exponentially with the size
+ * of the graph. In {@link Mode#COMPONENTS} mode, it finds the strongly connected components in linear time, and reports
+ * each component with a cycle as one "cycle". Optionally, it also enumerates the elementary cycles within each
+ * component, up to a maximum number per component and a time limit.
+ * <p>
+ * Both modes first split the graph into strongly connected components, as each cycle lies within one of them. The
+ * components are analyzed in parallel on a {@link ForkJoinPool}. The results are merged in the order of the component
+ * names, i.e. the name of the first node of each component, so that the result and the labels are the same in each run.
  *
  * @author QAware GmbH
  */
@@ -21,110 +38,239 @@ import java.util.List;
 public class CycleFinderImpl implements CycleFinder {
 
     /**
-     * This counter is for all instances, so that multiple cycle detection runs produce unique IDs.
+     * What to report as cycles.
      */
-    private static int cycleCounter = 0;
+    public enum Mode {
+        /**
+         * All elementary cycles. There is no cut-off.
+         */
+        SIMPLE_CYCLES,
+
+        /**
+         * The strongly connected components which contain cycles.
+         */
+        COMPONENTS
+    }
+
+    private static final Comparator<Node> BY_NAME = Comparator.comparing(Node::getName);
 
     /**
-     * The {@link DependencyGraph} to analyze. It must be a {@link DependencyGraphSimpleImpl} so that we can apply
-     * JGraphT's graph algorithms.
+     * The {@link DependencyGraph} to analyze.
      */
-    private final DependencyGraphSimpleImpl dependencyGraph;
+    private final DependencyGraph dependencyGraph;
+
+    /**
+     * The same graph as JGraphT graph, so that we can apply JGraphT's graph algorithms.
+     */
+    private final Graph<Node, Dependency> graph;
+
+    private final Mode mode;
+    private final int maxCyclesPerComponent;
+    private final long maxMillis;
+    private final ForkJoinPool pool;
 
     private List<List<Node>> cycles;
+    private List<List<Node>> simpleCycles;
+    private boolean enumerationComplete = true;
     private Long duration;
 
     /**
-     * Constructor. Kicks off the cycle detection.
+     * Constructor. Kicks off the detection of all elementary cycles.
      *
      * @param dependencyGraph the {@link DependencyGraph}
      */
     public CycleFinderImpl(DependencyGraph dependencyGraph) {
-        if (dependencyGraph instanceof DependencyGraphSimpleImpl) {
-            this.dependencyGraph = (DependencyGraphSimpleImpl) dependencyGraph;
-        } else {
-            throw new UnsupportedOperationException("Can only work on " + DependencyGraphSimpleImpl.class.getName() + " graphs.");
-        }
+        this(dependencyGraph, Mode.SIMPLE_CYCLES, 0, 0);
+    }
 
-        detectCycles();
+    /**
+     * Constructor. Kicks off the cycle detection on the common {@link ForkJoinPool}.
+     *
+     * @param dependencyGraph       the {@link DependencyGraph}
+     * @param mode                  what to report as cycles
+     * @param maxCyclesPerComponent in {@link Mode#COMPONENTS} mode: enumerate up to this number of elementary cycles
+     *                              in each component. <tt>0</tt> to skip the enumeration. Ignored in {@link
+     *                              Mode#SIMPLE_CYCLES} mode.
+     * @param maxMillis             in {@link Mode#COMPONENTS} mode: stop the enumeration after this time;
+     *                              <tt>0</tt> for no time limit. Ignored in {@link Mode#SIMPLE_CYCLES} mode.
+     */
+    public CycleFinderImpl(DependencyGraph dependencyGraph, Mode mode, int maxCyclesPerComponent, long maxMillis) {
+        this(dependencyGraph, mode, maxCyclesPerComponent, maxMillis, ForkJoinPool.commonPool());
     }
 
     /**
-     * Use a standard algorithm to find cycles.
+     * Constructor. Kicks off the cycle detection.
      *
-     * There is no cut-off, i.e. for very large graphs with many cycles, this analysis may take a really long time to
-     * finish.
+     * @param dependencyGraph       the {@link DependencyGraph}
+     * @param mode                  what to report as cycles
+     * @param maxCyclesPerComponent in {@link Mode#COMPONENTS} mode: enumerate up to this number of elementary cycles
+     *                              in each component. <tt>0</tt> to skip the enumeration. Ignored in {@link
+     *                              Mode#SIMPLE_CYCLES} mode.
+     * @param maxMillis             in {@link Mode#COMPONENTS} mode: stop the enumeration after this time;
+     *                              <tt>0</tt> for no time limit. Ignored in {@link Mode#SIMPLE_CYCLES} mode.
+     * @param pool                  the pool to analyze the components on
+     */
+    public CycleFinderImpl(DependencyGraph dependencyGraph, Mode mode, int maxCyclesPerComponent, long maxMillis, ForkJoinPool pool) {
+        this.graph = JGraphTAdapter.toJGraphT(dependencyGraph);
+        this.dependencyGraph = dependencyGraph;
+        this.mode = checkNotNull(mode, "mode");
+        this.maxCyclesPerComponent = maxCyclesPerComponent;
+        this.maxMillis = maxMillis;
+        this.pool = checkNotNull(pool, "pool");
+
+        detectCycles();
+    }
+
+    /**
+     * Find the strongly connected components in linear time, and analyze them in parallel according to the {@link
+     * Mode}.
      */
     private void detectCycles() {
-        LOGGER.info("Cycle detector: Graph with {} nodes and {} edges", dependencyGraph.getAllNodes().size(), dependencyGraph.getAllEdges().size());
+        LOGGER.info("Cycle detector: Graph with {} nodes and {} edges, mode {}", dependencyGraph.nodeCount(), dependencyGraph.edgeCount(), mode);
 
         Long start = System.currentTimeMillis();
+        long deadline = mode == Mode.COMPONENTS && maxMillis > 0 ? start + maxMillis : Long.MAX_VALUE;
+
+        List<List<Node>> components = StronglyConnectedComponents.findCyclicComponents(this.graph);
+        components.forEach(component -> component.sort(BY_NAME));
+        components.sort(Comparator.comparing(component -> component.get(0).getName()));
 
-        TarjanSimpleCycles<Node, Dependency> detector = new TarjanSimpleCycles<>(this.dependencyGraph.getGraph());
-        cycles = detector.findSimpleCycles();
+        // the tasks only work on their own copy of the component, so that they don't read the shared graph
+        List<ForkJoinTask<ComponentResult>> tasks = new ArrayList<>(components.size());
+        for (List<Node> component : components) {
+            Graph<Node, Dependency> componentGraph = copyComponent(component);
+            tasks.add(pool.submit(() -> analyzeComponent(component, componentGraph, deadline)));
+        }
 
+        List<ComponentResult> results = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> results.add(task.join()));
         this.duration = System.currentTimeMillis() - start;
 
-        logResult();
-        markNodesInCycles();
+        mergeResults(results);
+        logResult(results);
+        results.forEach(this::markNodesInCycles);
     }
 
-    private void logResult() {
-        if (hasCycles()) {
-            int totalNodes = cycles.stream().mapToInt(List::size).sum();
-            LOGGER.error("Cycle detector: Detected {} cycle(s) with {} nodes  ({}ms)", cycles.size(), totalNodes, duration);
-            cycles.forEach(this::logBaseRelations);
+    /**
+     * Copies the nodes of the component and the edges between them, sorted by target name.
+     */
+    private Graph<Node, Dependency> copyComponent(List<Node> component) {
+        Graph<Node, Dependency> result = new DefaultDirectedGraph<>(Dependency.class);
+        component.forEach(result::addVertex);
+        for (Node source : component) {
+            graph.outgoingEdgesOf(source).stream()
+                    .filter(edge -> result.containsVertex(graph.getEdgeTarget(edge)))
+                    .sorted(Comparator.comparing(edge -> graph.getEdgeTarget(edge).getName()))
+                    .forEach(edge -> result.addEdge(source, graph.getEdgeTarget(edge), edge));
+        }
+        return result;
+    }
+
+    /**
+     * Runs on the pool: enumerates the elementary cycles within one component, and formats the base relations between
+     * its nodes.
+     */
+    private ComponentResult analyzeComponent(List<Node> component, Graph<Node, Dependency> componentGraph, long deadline) {
+        ComponentResult result = new ComponentResult(component);
+
+        if (mode == Mode.SIMPLE_CYCLES) {
+            // There is no cut-off, i.e. for very large components with many cycles, this may take a really long time.
+            result.cycles = new TarjanSimpleCycles<>(componentGraph).findSimpleCycles();
+        } else if (maxCyclesPerComponent > 0) {
+            BoundedCycleEnumerator enumerator = BoundedCycleEnumerator.enumerate(componentGraph, component, maxCyclesPerComponent, deadline);
+            result.cycles = enumerator.getCycles();
+            result.complete = enumerator.isComplete();
         } else {
-            LOGGER.info("Cycle detector: Detected no cycles ({}ms)", duration);
+            result.complete = false;
+        }
+
+        if (LOGGER.isInfoEnabled()) {
+            componentGraph.edgeSet().forEach(edge -> formatBaseRelation(edge, result.baseRelations));
         }
+        return result;
     }
 
     /**
-     * For each cycle, log all base relations
+     * Runs on the calling thread, in the order of the components.
      */
-    @SuppressWarnings("squid:S1698") // compare with "==" instead of .equals()
-    private void logBaseRelations(List<Node> nodes) {
-        LOGGER.error("Cycle: {}", nodes);
-        for (Node source : nodes) {
-            for (Node target : nodes) {
-                if (source != target) { // yes, compare instances
-                    logBaseRelation(source, target);
-                }
+    private void mergeResults(List<ComponentResult> results) {
+        cycles = new ArrayList<>();
+        simpleCycles = new ArrayList<>();
+        for (ComponentResult result : results) {
+            if (mode == Mode.SIMPLE_CYCLES) {
+                cycles.addAll(result.cycles);
+            } else {
+                cycles.add(result.component);
             }
+            simpleCycles.addAll(result.cycles);
+            enumerationComplete &= result.complete;
         }
-
     }
 
-    private void logBaseRelation(Node source, Node target) {
-        Dependency edge = dependencyGraph.getEdge(source, target);
-        if (edge != null) {
-            LOGGER.info("  {} -> {} [{}]", source.getName(), target.getName(), edge.getBaseDependencies().size());
-            edge.getBaseDependencies().forEach(it ->
-                    LOGGER.info("    * {} -> {} [{}]", it.getSource().getName(), it.getTarget().getName(), it.getDependencyType())
-            );
+    private void logResult(List<ComponentResult> results) {
+        String what = mode == Mode.SIMPLE_CYCLES ? "cycle(s)" : "strongly connected component(s)";
+        if (hasCycles()) {
+            int totalNodes = cycles.stream().mapToInt(List::size).sum();
+            LOGGER.error("Cycle detector: Detected {} {} with {} nodes  ({}ms)", cycles.size(), what, totalNodes, duration);
+            results.forEach(this::logComponent);
+            if (mode == Mode.COMPONENTS && maxCyclesPerComponent > 0) {
+                LOGGER.error("Cycle detector: Enumerated {} elementary cycle(s){}", simpleCycles.size(),
+                        enumerationComplete ? "" : ", stopped at the limit of " + maxCyclesPerComponent + " per component or " + maxMillis + "ms");
+            }
+        } else {
+            LOGGER.info("Cycle detector: Detected no {} ({}ms)", what, duration);
         }
     }
 
     /**
-     * marks nodes with cycle labels: IN_CYCLE = true for each node CYCLE_LABEL = unique label per cycle
+     * For each component, log its cycles and all base relations.
      */
-    private void markNodesInCycles() {
-        for (List<Node> cycle : cycles) {
-            String cycleLabel = "Cycle_" + getCycleNumber();
-            cycle.forEach(node -> {
-                node.setProperty(IN_CYCLE, true);
-                node.setProperty(CYCLE_LABEL, cycleLabel);
-            });
+    private void logComponent(ComponentResult result) {
+        if (mode == Mode.SIMPLE_CYCLES) {
+            result.cycles.forEach(cycle -> LOGGER.error("Cycle: {}", cycle));
+        } else {
+            LOGGER.error("Cycle: {}", result.component);
+            result.cycles.forEach(cycle -> LOGGER.info("  Elementary cycle: {}", cycle));
         }
+        result.baseRelations.forEach(LOGGER::info);
+    }
+
+    private static void formatBaseRelation(Dependency edge, List<String> lines) {
+        lines.add(String.format("  %s -> %s [%d]", edge.getSource().getName(), edge.getTarget().getName(), edge.getBaseDependencyCount()));
+        edge.forEachBaseDependency(it ->
+                lines.add(String.format("    * %s -> %s [%s]", it.getSource().getName(), it.getTarget().getName(), it.getDependencyType()))
+        );
     }
 
     /**
-     * unique numbers of cycles
-     *
-     * @return the next cycle number
+     * marks nodes with cycle labels: IN_CYCLE = true for each node, CYCLE_LABEL = unique label per cycle.
+     * <p>
+     * The labels are derived from the name of the component, i.e. the name of its first node, so that they are the
+     * same in each run. They are unique within the analyzed graph, but not across graphs: if two graphs have nodes
+     * with the same names, e.g. a class graph and an architecture view, their cycles may get the same labels. In
+     * {@link Mode#SIMPLE_CYCLES} mode, the cycles are numbered within their component.
+     * <p>
+     * Nodes of frozen or mapped graphs can't be changed; they are not marked, the cycles are only reported.
      */
-    private static synchronized int getCycleNumber() {
-        return cycleCounter++;
+    private void markNodesInCycles(ComponentResult result) {
+        if (result.component.get(0).isFrozen()) {
+            return;
+        }
+        String componentLabel = "Cycle_" + result.component.get(0).getName();
+        if (mode == Mode.SIMPLE_CYCLES) {
+            for (int i = 0; i < result.cycles.size(); i++) {
+                markNodes(result.cycles.get(i), componentLabel + "_" + i);
+            }
+        } else {
+            markNodes(result.component, componentLabel);
+        }
+    }
+
+    private static void markNodes(List<Node> nodes, String cycleLabel) {
+        nodes.forEach(node -> {
+            node.setProperty(IN_CYCLE, true);
+            node.setProperty(CYCLE_LABEL, cycleLabel);
+        });
     }
 
     @Override
@@ -136,4 +282,36 @@ public class CycleFinderImpl implements CycleFinder {
     public List<List<Node>> getCycles() {
         return new ArrayList<>(cycles);
     }
+
+    /**
+     * gets the elementary cycles. In {@link Mode#SIMPLE_CYCLES} mode, these are the same as {@link #getCycles()}. In
+     * {@link Mode#COMPONENTS} mode, these are the cycles enumerated within the components, up to the given caps.
+     *
+     * @return the elementary cycles
+     */
+    public List<List<Node>> getSimpleCycles() {
+        return new ArrayList<>(simpleCycles);
+    }
+
+    /**
+     * @return <tt>true</tt> if {@link #getSimpleCycles()} are all elementary cycles, <tt>false</tt> if the enumeration
+     * was skipped or stopped at one of the caps
+     */
+    public boolean isEnumerationComplete() {
+        return enumerationComplete;
+    }
+
+    /**
+     * The result of the analysis of one component.
+     */
+    private static final class ComponentResult {
+        private final List<Node> component;
+        private List<List<Node>> cycles = new ArrayList<>();
+        private boolean complete = true;
+        private final List<String> baseRelations = new ArrayList<>();
+
+        private ComponentResult(List<Node> component) {
+            this.component = component;
+        }
+    }
 }
@@ -0,0 +1,267 @@
+package de.qaware.qav.graph.alg.impl;
+
+import de.qaware.qav.graph.api.Constants;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import lombok.extern.slf4j.Slf4j;
+import org.jgrapht.Graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Suggests edges to remove so that the graph becomes free of cycles, i.e. a small feedback arc set.
+ * <p>
+ * Uses the heuristic of Eades, Lin and Smyth on each strongly connected component: It orders the nodes by repeatedly
+ * taking away sinks to the end, sources to the front, and otherwise the node with the largest difference of outgoing
+ * and incoming edge weight to the front. The edges which point backwards in this order are the suggestions. The
+ * weight of an edge is its {@link Constants#BASE_REL_COUNT} as set by the <tt>BaseRelationTagger</tt>, or else its
+ * number of base dependencies, but at least 1. So the suggestions prefer edges with few base relations.
+ * <p>
+ * This takes <tt>O((n + e) log(n + e))</tt> time. It does not guarantee a minimal set, but in practice it is close.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class FeedbackArcSetFinder {
+
+    /**
+     * Orders edges by the names of their source and target nodes.
+     */
+    public static final Comparator<Dependency> BY_NAMES = Comparator
+            .comparing((Dependency dependency) -> dependency.getSource().getName())
+            .thenComparing(dependency -> dependency.getTarget().getName());
+
+    /**
+     * util class, no instances.
+     */
+    private FeedbackArcSetFinder() {
+    }
+
+    /**
+     * Finds edges to remove so that the graph becomes free of cycles.
+     *
+     * @param dependencyGraph the graph
+     * @return the edges, grouped by strongly connected component, and sorted by source and target name within each
+     * component
+     */
+    public static List<Dependency> findFeedbackArcSet(DependencyGraph dependencyGraph) {
+        long start = System.currentTimeMillis();
+        Graph<Node, Dependency> graph = JGraphTAdapter.toJGraphT(dependencyGraph);
+
+        List<List<Node>> components = StronglyConnectedComponents.findCyclicComponents(graph);
+        components.forEach(component -> component.sort(Comparator.comparing(Node::getName)));
+        components.sort(Comparator.comparing(component -> component.get(0).getName()));
+
+        List<Dependency> result = new ArrayList<>();
+        for (List<Node> component : components) {
+            List<Dependency> arcs = new ComponentOrdering(graph, component).backwardEdges();
+            arcs.sort(BY_NAMES);
+            result.addAll(arcs);
+        }
+
+        LOGGER.info("Feedback arc set: {} edge(s) with weight {} break the cycles in {} component(s) ({}ms)",
+                result.size(), result.stream().mapToLong(FeedbackArcSetFinder::weight).sum(), components.size(),
+                System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * The weight of the given edge: its {@link Constants#BASE_REL_COUNT}, or else its number of base dependencies, but
+     * at least 1.
+     *
+     * @param dependency the edge
+     * @return the weight
+     */
+    public static int weight(Dependency dependency) {
+        Object baseRelCount = dependency.getProperty(Constants.BASE_REL_COUNT);
+        int weight = baseRelCount instanceof Number ? ((Number) baseRelCount).intValue() : dependency.getBaseDependencyCount();
+        return Math.max(weight, 1);
+    }
+
+    /**
+     * The Eades-Lin-Smyth ordering of one strongly connected component.
+     */
+    private static final class ComponentOrdering {
+
+        private final Node[] nodes;
+        private final List<Dependency> selfLoops = new ArrayList<>();
+
+        // edges within the component, without self-loops
+        private final Dependency[] edges;
+        private final int[] edgeSource;
+        private final int[] edgeTarget;
+        private final int[] edgeWeight;
+
+        // edge ids by node, in compressed sparse row format
+        private final int[] outOffsets;
+        private final int[] outEdges;
+        private final int[] inOffsets;
+        private final int[] inEdges;
+
+        private final int[] outDegree;
+        private final int[] inDegree;
+        private final long[] outWeight;
+        private final long[] inWeight;
+        private final boolean[] removed;
+
+        private final Deque<Integer> sinks = new ArrayDeque<>();
+        private final Deque<Integer> sources = new ArrayDeque<>();
+        private final PriorityQueue<long[]> byDelta = new PriorityQueue<>(
+                Comparator.comparingLong((long[] entry) -> -entry[0]).thenComparingLong(entry -> entry[1]));
+
+        private ComponentOrdering(Graph<Node, Dependency> graph, List<Node> component) {
+            this.nodes = component.toArray(new Node[0]);
+            int n = nodes.length;
+            Map<Node, Integer> ids = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                ids.put(nodes[i], i);
+            }
+
+            List<Dependency> edgeList = new ArrayList<>();
+            for (Node node : nodes) {
+                for (Dependency edge : graph.outgoingEdgesOf(node)) {
+                    Node target = graph.getEdgeTarget(edge);
+                    if (target.equals(node)) {
+                        selfLoops.add(edge);
+                    } else if (ids.containsKey(target)) {
+                        edgeList.add(edge);
+                    }
+                }
+            }
+
+            int m = edgeList.size();
+            this.edges = edgeList.toArray(new Dependency[0]);
+            this.edgeSource = new int[m];
+            this.edgeTarget = new int[m];
+            this.edgeWeight = new int[m];
+            this.outDegree = new int[n];
+            this.inDegree = new int[n];
+            this.outWeight = new long[n];
+            this.inWeight = new long[n];
+            this.removed = new boolean[n];
+            for (int e = 0; e < m; e++) {
+                edgeSource[e] = ids.get(graph.getEdgeSource(edges[e]));
+                edgeTarget[e] = ids.get(graph.getEdgeTarget(edges[e]));
+                edgeWeight[e] = weight(edges[e]);
+                outDegree[edgeSource[e]]++;
+                inDegree[edgeTarget[e]]++;
+                outWeight[edgeSource[e]] += edgeWeight[e];
+                inWeight[edgeTarget[e]] += edgeWeight[e];
+            }
+
+            this.outOffsets = offsets(outDegree);
+            this.inOffsets = offsets(inDegree);
+            this.outEdges = new int[m];
+            this.inEdges = new int[m];
+            int[] outFill = outOffsets.clone();
+            int[] inFill = inOffsets.clone();
+            for (int e = 0; e < m; e++) {
+                outEdges[outFill[edgeSource[e]]++] = e;
+                inEdges[inFill[edgeTarget[e]]++] = e;
+            }
+        }
+
+        private static int[] offsets(int[] degrees) {
+            int[] result = new int[degrees.length + 1];
+            for (int i = 0; i < degrees.length; i++) {
+                result[i + 1] = result[i] + degrees[i];
+            }
+            return result;
+        }
+
+        /**
+         * Orders the nodes, and returns the edges which point backwards, plus the self-loops.
+         */
+        private List<Dependency> backwardEdges() {
+            int[] position = order();
+            List<Dependency> result = new ArrayList<>(selfLoops);
+            for (int e = 0; e < edges.length; e++) {
+                if (position[edgeSource[e]] > position[edgeTarget[e]]) {
+                    result.add(edges[e]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the position of each node in the order
+         */
+        private int[] order() {
+            int n = nodes.length;
+            for (int v = 0; v < n; v++) {
+                enqueue(v);
+            }
+
+            int[] position = new int[n];
+            int front = 0;
+            int back = n;
+            int remaining = n;
+            while (remaining > 0) {
+                int v;
+                if (!sinks.isEmpty()) {
+                    v = sinks.poll();
+                    if (removed[v]) {
+                        continue;
+                    }
+                    position[v] = --back;
+                } else if (!sources.isEmpty()) {
+                    v = sources.poll();
+                    if (removed[v]) {
+                        continue;
+                    }
+                    position[v] = front++;
+                } else {
+                    long[] entry = byDelta.poll();
+                    v = (int) entry[1];
+                    if (removed[v] || entry[0] != outWeight[v] - inWeight[v]) {
+                        continue; // outdated entry
+                    }
+                    position[v] = front++;
+                }
+                remove(v);
+                remaining--;
+            }
+            return position;
+        }
+
+        private void remove(int v) {
+            removed[v] = true;
+            for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                int e = outEdges[i];
+                int w = edgeTarget[e];
+                if (!removed[w]) {
+                    inDegree[w]--;
+                    inWeight[w] -= edgeWeight[e];
+                    enqueue(w);
+                }
+            }
+            for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                int e = inEdges[i];
+                int u = edgeSource[e];
+                if (!removed[u]) {
+                    outDegree[u]--;
+                    outWeight[u] -= edgeWeight[e];
+                    enqueue(u);
+                }
+            }
+        }
+
+        private void enqueue(int v) {
+            if (outDegree[v] == 0) {
+                sinks.add(v);
+            } else if (inDegree[v] == 0) {
+                sources.add(v);
+            } else {
+                byDelta.add(new long[]{outWeight[v] - inWeight[v], v});
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.qaware.qav.graph.alg.impl;
+
+import de.qaware.qav.graph.alg.api.GraphDiff;
+import de.qaware.qav.graph.api.AbstractGraphElement;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Computes the {@link GraphDiff} of two {@link DependencyGraph}s.
+ * <p>
+ * Merges the nodes of both graphs, sorted by name, and for each node its outgoing edges, sorted by target name. So it
+ * needs <tt>O((n + e) log(n + e))</tt> time, and memory for the sorted node names and the edges of one node, but no
+ * copy of the graphs. Properties are only compared for nodes and edges which are in both graphs.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class GraphDiffCalculator {
+
+    private static final Comparator<Dependency> BY_TARGET = Comparator.comparing(dependency -> dependency.getTarget().getName());
+
+    /**
+     * util class, no instances.
+     */
+    private GraphDiffCalculator() {
+    }
+
+    /**
+     * Computes the difference between the two graphs.
+     *
+     * @param oldGraph the old graph, e.g. of the main branch
+     * @param newGraph the new graph, e.g. of a pull request
+     * @return the difference
+     */
+    public static GraphDiff diff(DependencyGraph oldGraph, DependencyGraph newGraph) {
+        String[] oldNames = sortedNames(oldGraph);
+        String[] newNames = sortedNames(newGraph);
+        GraphDiff result = new GraphDiff();
+
+        int i = 0;
+        int j = 0;
+        while (i < oldNames.length || j < newNames.length) {
+            int cmp = compare(oldNames, i, newNames, j);
+            if (cmp < 0) {
+                result.addRemovedNode(oldNames[i]);
+                diffEdges(oldGraph, oldNames[i], null, null, result);
+                i++;
+            } else if (cmp > 0) {
+                result.addAddedNode(newNames[j]);
+                diffEdges(null, null, newGraph, newNames[j], result);
+                j++;
+            } else {
+                diffProperties(oldNames[i], oldGraph.getNode(oldNames[i]), newGraph.getNode(newNames[j]), result);
+                diffEdges(oldGraph, oldNames[i], newGraph, newNames[j], result);
+                i++;
+                j++;
+            }
+        }
+
+        LOGGER.info("Compared {} with {}: {}", oldGraph, newGraph, result);
+        return result;
+    }
+
+    /**
+     * Merges the outgoing edges of the node with the given name in both graphs.
+     */
+    private static void diffEdges(DependencyGraph oldGraph, String oldName, DependencyGraph newGraph, String newName, GraphDiff result) {
+        Dependency[] oldEdges = sortedOutgoingEdges(oldGraph, oldName);
+        Dependency[] newEdges = sortedOutgoingEdges(newGraph, newName);
+
+        int i = 0;
+        int j = 0;
+        while (i < oldEdges.length || j < newEdges.length) {
+            int cmp;
+            if (i == oldEdges.length) {
+                cmp = 1;
+            } else if (j == newEdges.length) {
+                cmp = -1;
+            } else {
+                cmp = BY_TARGET.compare(oldEdges[i], newEdges[j]);
+            }
+
+            if (cmp < 0) {
+                result.addRemovedEdge(oldEdges[i++]);
+            } else if (cmp > 0) {
+                result.addAddedEdge(newEdges[j++]);
+            } else {
+                Dependency oldEdge = oldEdges[i++];
+                Dependency newEdge = newEdges[j++];
+                if (oldEdge.getDependencyType() != newEdge.getDependencyType()) {
+                    result.addTypeChange(new GraphDiff.TypeChange(oldEdge, newEdge));
+                }
+                diffProperties(oldEdge.getSource().getName() + " -> " + oldEdge.getTarget().getName(), oldEdge, newEdge, result);
+            }
+        }
+    }
+
+    private static void diffProperties(String element, AbstractGraphElement oldElement, AbstractGraphElement newElement, GraphDiff result) {
+        if (oldElement.getPropertyCount() == 0 && newElement.getPropertyCount() == 0) {
+            return;
+        }
+        Map<String, Object> oldProperties = oldElement.getProperties();
+        Map<String, Object> newProperties = newElement.getProperties();
+        Set<String> keys = new TreeSet<>(oldProperties.keySet());
+        keys.addAll(newProperties.keySet());
+        for (String key : keys) {
+            Object oldValue = oldProperties.get(key);
+            Object newValue = newProperties.get(key);
+            if (!valuesEqual(oldValue, newValue)) {
+                result.addPropertyChange(new GraphDiff.PropertyChange(element, key, oldValue, newValue));
+            }
+        }
+    }
+
+    /**
+     * Compares property values independent of their representation, as a graph read from a file differs from the
+     * graph which was written: numbers are compared by value, e.g. a {@link Long} count with the {@link Integer} read
+     * back, and lists, including {@link de.qaware.qav.graph.api.SortedIntList}s, by their elements. Values which the
+     * JSON format stores as Strings, e.g. {@link Double}s, are equal to the String read back.
+     */
+    private static boolean valuesEqual(Object oldValue, Object newValue) {
+        if (oldValue instanceof Number && newValue instanceof Number) {
+            return numbersEqual((Number) oldValue, (Number) newValue);
+        }
+        if (oldValue instanceof List && newValue instanceof List) {
+            List<?> oldList = (List<?>) oldValue;
+            List<?> newList = (List<?>) newValue;
+            if (oldList.size() != newList.size()) {
+                return false;
+            }
+            for (int i = 0; i < oldList.size(); i++) {
+                if (!valuesEqual(oldList.get(i), newList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (oldValue instanceof String && newValue != null && !(newValue instanceof String)) {
+            return oldValue.equals(newValue.toString());
+        }
+        if (newValue instanceof String && oldValue != null && !(oldValue instanceof String)) {
+            return newValue.equals(oldValue.toString());
+        }
+        return Objects.equals(oldValue, newValue);
+    }
+
+    private static boolean numbersEqual(Number oldValue, Number newValue) {
+        if (isFloatingPoint(oldValue) || isFloatingPoint(newValue)) {
+            return Double.compare(oldValue.doubleValue(), newValue.doubleValue()) == 0;
+        }
+        if (oldValue instanceof BigInteger || newValue instanceof BigInteger) {
+            return new BigInteger(oldValue.toString()).equals(new BigInteger(newValue.toString()));
+        }
+        return oldValue.longValue() == newValue.longValue();
+    }
+
+    private static boolean isFloatingPoint(Number value) {
+        return value instanceof Double || value instanceof Float || value instanceof BigDecimal;
+    }
+
+    private static String[] sortedNames(DependencyGraph graph) {
+        String[] result = new String[graph.nodeCount()];
+        int[] index = new int[1];
+        graph.forEachNode(node -> result[index[0]++] = node.getName());
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static Dependency[] sortedOutgoingEdges(DependencyGraph graph, String name) {
+        if (graph == null) {
+            return new Dependency[0];
+        }
+        Node node = graph.getNode(name);
+        Dependency[] result = graph.getOutgoingEdges(node).toArray(new Dependency[0]);
+        Arrays.sort(result, BY_TARGET);
+        return result;
+    }
+
+    private static int compare(String[] oldNames, int i, String[] newNames, int j) {
+        if (i == oldNames.length) {
+            return 1;
+        }
+        if (j == newNames.length) {
+            return -1;
+        }
+        return oldNames[i].compareTo(newNames[j]);
+    }
+}
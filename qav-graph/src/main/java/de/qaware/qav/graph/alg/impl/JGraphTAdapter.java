@@ -0,0 +1,40 @@
+package de.qaware.qav.graph.alg.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.impl.DependencyGraphSimpleImpl;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultDirectedGraph;
+
+/**
+ * Provides a {@link DependencyGraph} as JGraphT graph, so that the algorithms can use JGraphT.
+ *
+ * @author QAware GmbH
+ */
+final class JGraphTAdapter {
+
+    /**
+     * util class, no instances.
+     */
+    private JGraphTAdapter() {
+    }
+
+    /**
+     * Returns the JGraphT graph of a {@link DependencyGraphSimpleImpl}. Copies all other graphs into a JGraphT graph,
+     * reusing the {@link Node} and {@link Dependency} instances.
+     *
+     * @param dependencyGraph the graph
+     * @return the JGraphT graph
+     */
+    static Graph<Node, Dependency> toJGraphT(DependencyGraph dependencyGraph) {
+        if (dependencyGraph instanceof DependencyGraphSimpleImpl) {
+            return ((DependencyGraphSimpleImpl) dependencyGraph).getGraph();
+        }
+
+        Graph<Node, Dependency> result = new DefaultDirectedGraph<>(Dependency.class);
+        dependencyGraph.forEachNode(result::addVertex);
+        dependencyGraph.forEachEdge(edge -> result.addEdge(edge.getSource(), edge.getTarget(), edge));
+        return result;
+    }
+}
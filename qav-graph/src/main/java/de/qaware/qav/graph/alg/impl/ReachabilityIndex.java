@@ -0,0 +1,353 @@
+package de.qaware.qav.graph.alg.impl;
+
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers transitive dependency questions: Does node <tt>a</tt> reach node <tt>b</tt> over one or more edges?
+ * Which nodes reach any node of a given set?
+ * <p>
+ * Builds the condensation of the graph: each strongly connected component becomes one node of a DAG, as all nodes of
+ * a component reach the same nodes. This takes <tt>O(n + e)</tt> time.
+ * <ul>
+ * <li>{@link #reaches(Node, Node)} first checks interval labels of the components, which take <tt>O(n)</tt> memory:
+ * each component gets the interval from the lowest position of the components it reaches to its own position, in
+ * two different reverse topological orders. A component can only reach another one if its intervals contain the
+ * intervals of the other one; and it does reach it if it is an ancestor in the depth-first search tree of the second
+ * order. This answers most queries in <tt>O(1)</tt> time. The other queries search the DAG, but skip the components
+ * whose intervals rule out the target, so they take <tt>O(n + e)</tt> time at worst.</li>
+ * <li>{@link #findNodesReaching(NodeFilter)} and {@link #findNodesReachableFrom(NodeFilter)} take <tt>O(n + e)</tt>
+ * time, no matter how many nodes the filter accepts.</li>
+ * </ul>
+ * The index is a snapshot: it does not see nodes or edges which are added to the graph later.
+ * <p>
+ * Instances are thread safe.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class ReachabilityIndex {
+
+    private final Node[] nodes;
+    private final Map<Node, Integer> ids;
+
+    /**
+     * The component of each node. The numbers are a reverse topological order: edges point to lower numbers.
+     */
+    private final int[] component;
+
+    /**
+     * The successor components of each component in the condensation DAG.
+     */
+    private final int[][] componentSuccessors;
+
+    /**
+     * <tt>true</tt> if the nodes of a component reach themselves, i.e. it has more than one node or a self-loop.
+     */
+    private final boolean[] cyclic;
+
+    /**
+     * The lowest component number reachable from each component, including its own number.
+     */
+    private final int[] low;
+
+    /**
+     * The positions of the components in the pre-order and post-order of a depth-first search of the DAG, and the
+     * lowest post-order position reachable from each component, including its own position.
+     */
+    private final int[] preOrder;
+    private final int[] postOrder;
+    private final int[] lowPostOrder;
+
+    /**
+     * The search of {@link #searchPath(int, int)}: the components visited in the current search are marked with
+     * {@link #searchMark}.
+     */
+    private final int[] visited;
+    private final int[] searchStack;
+    private int searchMark;
+
+    /**
+     * Constructor. Builds the index.
+     *
+     * @param dependencyGraph the graph; may be a filtered graph
+     */
+    public ReachabilityIndex(DependencyGraph dependencyGraph) {
+        long start = System.currentTimeMillis();
+
+        this.nodes = new Node[dependencyGraph.nodeCount()];
+        this.ids = new HashMap<>(nodes.length * 2);
+        int[] count = new int[1];
+        dependencyGraph.forEachNode(node -> {
+            nodes[count[0]] = node;
+            ids.put(node, count[0]++);
+        });
+
+        int[][] successors = successors(dependencyGraph);
+        this.component = StronglyConnectedComponents.componentNumbers(successors);
+        int componentCount = 0;
+        for (int c : component) {
+            componentCount = Math.max(componentCount, c + 1);
+        }
+
+        this.cyclic = new boolean[componentCount];
+        int[] size = new int[componentCount];
+        for (int v = 0; v < nodes.length; v++) {
+            size[component[v]]++;
+            if (StronglyConnectedComponents.hasSelfLoop(successors, v)) {
+                cyclic[component[v]] = true;
+            }
+        }
+        for (int c = 0; c < componentCount; c++) {
+            cyclic[c] |= size[c] > 1;
+        }
+
+        this.componentSuccessors = condense(successors, componentCount);
+
+        this.low = new int[componentCount];
+        this.preOrder = new int[componentCount];
+        this.postOrder = new int[componentCount];
+        this.lowPostOrder = new int[componentCount];
+        computeLabels();
+        this.visited = new int[componentCount];
+        this.searchStack = new int[componentCount];
+
+        LOGGER.info("Reachability index: {} nodes in {} components ({}ms)", nodes.length, componentCount, System.currentTimeMillis() - start);
+    }
+
+    private int[][] successors(DependencyGraph dependencyGraph) {
+        int[] degree = new int[nodes.length];
+        dependencyGraph.forEachEdge(edge -> degree[ids.get(edge.getSource())]++);
+        int[][] result = new int[nodes.length][];
+        for (int v = 0; v < nodes.length; v++) {
+            result[v] = new int[degree[v]];
+        }
+        int[] fill = new int[nodes.length];
+        dependencyGraph.forEachEdge(edge -> {
+            int v = ids.get(edge.getSource());
+            result[v][fill[v]++] = ids.get(edge.getTarget());
+        });
+        return result;
+    }
+
+    /**
+     * Builds the successor lists of the condensation DAG, without duplicates.
+     */
+    private int[][] condense(int[][] successors, int componentCount) {
+        int[][] members = new int[componentCount][];
+        int[] size = new int[componentCount];
+        for (int c : component) {
+            size[c]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            members[c] = new int[size[c]];
+        }
+        Arrays.fill(size, 0);
+        for (int v = 0; v < nodes.length; v++) {
+            members[component[v]][size[component[v]]++] = v;
+        }
+
+        int[][] result = new int[componentCount][];
+        int[] lastSeen = new int[componentCount];
+        Arrays.fill(lastSeen, -1);
+        int[] buffer = new int[componentCount];
+        for (int c = 0; c < componentCount; c++) {
+            int n = 0;
+            for (int v : members[c]) {
+                for (int w : successors[v]) {
+                    int d = component[w];
+                    if (d != c && lastSeen[d] != c) {
+                        lastSeen[d] = c;
+                        buffer[n++] = d;
+                    }
+                }
+            }
+            result[c] = Arrays.copyOf(buffer, n);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the interval labels. The depth-first search visits the successors in the reverse order of the component
+     * numbers, to get an order which differs from the one of the component numbers.
+     */
+    private void computeLabels() {
+        int componentCount = componentSuccessors.length;
+        Arrays.fill(preOrder, -1);
+        int[] stack = new int[componentCount];
+        int[] position = new int[componentCount];
+        int nextPre = 0;
+        int nextPost = 0;
+        for (int root = componentCount - 1; root >= 0; root--) {
+            if (preOrder[root] != -1) {
+                continue;
+            }
+            int size = 0;
+            stack[size++] = root;
+            preOrder[root] = nextPre++;
+            while (size > 0) {
+                int c = stack[size - 1];
+                int[] next = componentSuccessors[c];
+                if (position[c] < next.length) {
+                    int d = next[next.length - 1 - position[c]++];
+                    if (preOrder[d] == -1) {
+                        preOrder[d] = nextPre++;
+                        stack[size++] = d;
+                    }
+                } else {
+                    postOrder[c] = nextPost++;
+                    size--;
+                }
+            }
+        }
+
+        // successors have lower numbers, so they are done first
+        for (int c = 0; c < componentCount; c++) {
+            low[c] = c;
+            lowPostOrder[c] = postOrder[c];
+            for (int d : componentSuccessors[c]) {
+                low[c] = Math.min(low[c], low[d]);
+                lowPostOrder[c] = Math.min(lowPostOrder[c], lowPostOrder[d]);
+            }
+        }
+    }
+
+    /**
+     * Checks if there is a path of one or more edges from <tt>from</tt> to <tt>to</tt>.
+     *
+     * @param from the source node
+     * @param to   the target node
+     * @return <tt>true</tt> if <tt>from</tt> reaches <tt>to</tt>, <tt>false</tt> if not, or if one of the nodes is not
+     * in the graph
+     */
+    public boolean reaches(Node from, Node to) {
+        Integer fromId = ids.get(from);
+        Integer toId = ids.get(to);
+        if (fromId == null || toId == null) {
+            return false;
+        }
+
+        int fromComponent = component[fromId];
+        int toComponent = component[toId];
+        if (fromComponent == toComponent) {
+            return cyclic[fromComponent];
+        }
+        if (!mayReach(fromComponent, toComponent)) {
+            return false;
+        }
+        if (preOrder[fromComponent] < preOrder[toComponent] && postOrder[toComponent] < postOrder[fromComponent]) {
+            return true; // descendant in the depth-first search tree
+        }
+        return searchPath(fromComponent, toComponent);
+    }
+
+    /**
+     * @return <tt>false</tt> if the intervals of the components show that <tt>c</tt> does not reach <tt>d</tt>, with
+     * <tt>c != d</tt>
+     */
+    private boolean mayReach(int c, int d) {
+        return d < c && low[c] <= low[d]
+                && postOrder[d] < postOrder[c] && lowPostOrder[c] <= lowPostOrder[d];
+    }
+
+    /**
+     * Finds all nodes which reach a node accepted by the given filter over one or more edges.
+     *
+     * @param targets accepts the target nodes
+     * @return the nodes
+     */
+    public Set<Node> findNodesReaching(NodeFilter targets) {
+        boolean[] hasTarget = componentsWith(targets);
+        boolean[] hit = new boolean[componentSuccessors.length];
+        // successors have lower numbers, so they are done first
+        for (int c = 0; c < componentSuccessors.length; c++) {
+            for (int d : componentSuccessors[c]) {
+                if (hasTarget[d] || hit[d]) {
+                    hit[c] = true;
+                    break;
+                }
+            }
+        }
+        return nodesIn(hit, hasTarget);
+    }
+
+    /**
+     * Finds all nodes which are reachable over one or more edges from a node accepted by the given filter.
+     *
+     * @param sources accepts the source nodes
+     * @return the nodes
+     */
+    public Set<Node> findNodesReachableFrom(NodeFilter sources) {
+        boolean[] hasSource = componentsWith(sources);
+        boolean[] hit = new boolean[componentSuccessors.length];
+        // predecessors have higher numbers, so they are done first
+        for (int c = componentSuccessors.length - 1; c >= 0; c--) {
+            if (hasSource[c] || hit[c]) {
+                for (int d : componentSuccessors[c]) {
+                    hit[d] = true;
+                }
+            }
+        }
+        return nodesIn(hit, hasSource);
+    }
+
+    private boolean[] componentsWith(NodeFilter filter) {
+        boolean[] result = new boolean[componentSuccessors.length];
+        for (int v = 0; v < nodes.length; v++) {
+            if (!result[component[v]] && filter.isAccepted(nodes[v])) {
+                result[component[v]] = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The nodes in the components which are hit, and in the cyclic components which contain a start node.
+     */
+    private Set<Node> nodesIn(boolean[] hit, boolean[] start) {
+        Set<Node> result = new HashSet<>();
+        for (int v = 0; v < nodes.length; v++) {
+            int c = component[v];
+            if (hit[c] || (cyclic[c] && start[c])) {
+                result.add(nodes[v]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches the DAG for a path from the component <tt>from</tt> to the component <tt>to</tt>, skipping the
+     * components which can't reach <tt>to</tt> according to {@link #mayReach(int, int)}.
+     */
+    private synchronized boolean searchPath(int from, int to) {
+        if (searchMark == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            searchMark = 0;
+        }
+        searchMark++;
+        int size = 0;
+        searchStack[size++] = from;
+        visited[from] = searchMark;
+        while (size > 0) {
+            int c = searchStack[--size];
+            for (int d : componentSuccessors[c]) {
+                if (d == to) {
+                    return true;
+                }
+                if (visited[d] != searchMark && mayReach(d, to)) {
+                    visited[d] = searchMark;
+                    searchStack[size++] = d;
+                }
+            }
+        }
+        return false;
+    }
+}
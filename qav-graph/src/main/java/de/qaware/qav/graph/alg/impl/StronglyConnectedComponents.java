@@ -0,0 +1,169 @@
+package de.qaware.qav.graph.alg.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.Node;
+import org.jgrapht.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the strongly connected components of a graph with Tarjan's algorithm, in <tt>O(n + e)</tt> time.
+ * <p>
+ * The depth-first search keeps its own stack, so that deep graphs don't overflow the call stack. Tarjan's algorithm
+ * closes a component only after all components reachable from it, so the component numbers are a reverse topological
+ * order: each edge between two components points to the one with the lower number.
+ *
+ * @author QAware GmbH
+ */
+final class StronglyConnectedComponents {
+
+    private final int[][] successors;
+
+    private final int[] index;
+    private final int[] lowLink;
+    private final boolean[] onStack;
+    private final int[] stack;
+    private int stackSize = 0;
+    private int nextIndex = 0;
+
+    // call stack of the depth-first search: the node, and the position in its successor list
+    private final int[] callNode;
+    private final int[] callPos;
+
+    private final int[] component;
+    private int componentCount = 0;
+
+    private StronglyConnectedComponents(int[][] successors) {
+        this.successors = successors;
+        int n = successors.length;
+        this.index = new int[n];
+        this.lowLink = new int[n];
+        this.onStack = new boolean[n];
+        this.stack = new int[n];
+        this.component = new int[n];
+        this.callNode = new int[n];
+        this.callPos = new int[n];
+        Arrays.fill(index, -1);
+
+        for (int i = 0; i < n; i++) {
+            if (index[i] == -1) {
+                visit(i);
+            }
+        }
+    }
+
+    /**
+     * Finds the strongly connected components of a graph, given as successor lists.
+     *
+     * @param successors the successors of each node, by node number
+     * @return the component number of each node, in reverse topological order of the components
+     */
+    static int[] componentNumbers(int[][] successors) {
+        return new StronglyConnectedComponents(successors).component;
+    }
+
+    /**
+     * Finds the strongly connected components which contain a cycle, i.e. which have more than one node, or one node
+     * with an edge to itself.
+     *
+     * @param graph the graph
+     * @return the components, each as list of its nodes
+     */
+    static List<List<Node>> findCyclicComponents(Graph<Node, Dependency> graph) {
+        Node[] nodes = graph.vertexSet().toArray(new Node[0]);
+        Map<Node, Integer> ids = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            ids.put(nodes[i], i);
+        }
+        int[][] successors = new int[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            successors[i] = graph.outgoingEdgesOf(nodes[i]).stream()
+                    .mapToInt(edge -> ids.get(graph.getEdgeTarget(edge)))
+                    .toArray();
+        }
+
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(successors);
+        List<List<Node>> components = new ArrayList<>();
+        for (int i = 0; i < scc.componentCount; i++) {
+            components.add(new ArrayList<>());
+        }
+        for (int v = 0; v < nodes.length; v++) {
+            components.get(scc.component[v]).add(nodes[v]);
+        }
+
+        List<List<Node>> result = new ArrayList<>();
+        for (List<Node> component : components) {
+            if (component.size() > 1 || hasSelfLoop(successors, ids.get(component.get(0)))) {
+                result.add(component);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param successors the successors of each node, by node number
+     * @param v          the node number
+     * @return <tt>true</tt> if the node has an edge to itself
+     */
+    static boolean hasSelfLoop(int[][] successors, int v) {
+        for (int w : successors[v]) {
+            if (w == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void visit(int root) {
+        int depth = 0;
+        callNode[0] = root;
+        callPos[0] = 0;
+        open(root);
+
+        while (depth >= 0) {
+            int v = callNode[depth];
+            if (callPos[depth] < successors[v].length) {
+                int w = successors[v][callPos[depth]++];
+                if (index[w] == -1) {
+                    open(w);
+                    depth++;
+                    callNode[depth] = w;
+                    callPos[depth] = 0;
+                } else if (onStack[w]) {
+                    lowLink[v] = Math.min(lowLink[v], index[w]);
+                }
+            } else {
+                if (lowLink[v] == index[v]) {
+                    closeComponent(v);
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+            }
+        }
+    }
+
+    private void open(int v) {
+        index[v] = nextIndex;
+        lowLink[v] = nextIndex;
+        nextIndex++;
+        stack[stackSize++] = v;
+        onStack[v] = true;
+    }
+
+    private void closeComponent(int root) {
+        int w;
+        do {
+            w = stack[--stackSize];
+            onStack[w] = false;
+            component[w] = componentCount;
+        } while (w != root);
+        componentCount++;
+    }
+}
@@ -5,14 +5,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Abstract base class for Nodes and Dependencies.
  * <p>
- * Is able to carry properties.
+ * Is able to carry properties. The properties are kept in a row of a {@link PropertyStore}, which is usually shared by
+ * all nodes or all edges of a graph.
  *
  * @author QAware GmbH
  */
@@ -29,9 +32,27 @@ public abstract class AbstractGraphElement {
     public static final String NAME = "name";
 
     /**
-     * properties of the node or edge.
+     * the name, which is also visible as property {@link #NAME}; <tt>null</tt> for elements without name.
      */
-    protected final Map<String, Object> properties = new HashMap<>();
+    private final String name;
+
+    /**
+     * properties of the node or edge, in the row {@link #row} of the store.
+     */
+    private final PropertyStore store;
+    private final int row;
+
+    /**
+     * Constructor.
+     *
+     * @param name  the name, or <tt>null</tt> if the element has none
+     * @param store the store for the properties
+     */
+    protected AbstractGraphElement(String name, PropertyStore store) {
+        this.name = name;
+        this.store = Preconditions.checkNotNull(store, "Property store may not be null");
+        this.row = store.newRow();
+    }
 
     /**
      * get the name.
@@ -39,7 +60,17 @@ public abstract class AbstractGraphElement {
      * @return the name.
      */
     public String getName() {
-        return (String) properties.get(NAME);
+        return name;
+    }
+
+    /**
+     * get the row of this element in its {@link PropertyStore}. The rows are dense and unique among the elements which
+     * share the store, so that graphs can use them as ids, e.g. for bit sets.
+     *
+     * @return the row
+     */
+    public int getRow() {
+        return row;
     }
 
     /**
@@ -49,7 +80,10 @@ public abstract class AbstractGraphElement {
      * @return the value of the property, or null if it does not exist.
      */
     public Object getProperty(String key) {
-        return properties.get(key);
+        if (NAME.equals(key)) {
+            return name;
+        }
+        return store.get(row, key);
     }
 
     /**
@@ -62,7 +96,8 @@ public abstract class AbstractGraphElement {
      */
     @SuppressWarnings("unchecked")
     public <T> T getProperty(String key, T defaultValue) {
-        return (T) properties.getOrDefault(key, defaultValue);
+        Object value = getProperty(key);
+        return value != null ? (T) value : defaultValue;
     }
 
     /**
@@ -72,7 +107,10 @@ public abstract class AbstractGraphElement {
      * @return true if the property exists, false if it doesn't.
      */
     public boolean hasProperty(String key) {
-        return properties.containsKey(key);
+        if (NAME.equals(key)) {
+            return name != null;
+        }
+        return store.has(row, key);
     }
 
     /**
@@ -80,6 +118,7 @@ public abstract class AbstractGraphElement {
      *
      * @param key   name of the property.
      * @param value the value of the property. If null, it will remove the property.
+     * @throws UnsupportedOperationException if the element is frozen, see {@link DependencyGraph#freeze()}
      */
     public void setProperty(String key, Object value) {
         Preconditions.checkNotNull(key);
@@ -88,11 +127,7 @@ public abstract class AbstractGraphElement {
             throw new IllegalArgumentException("It's not allowed to change the name.");
         }
 
-        if (value == null) {
-            properties.remove(key);
-        } else {
-            properties.put(key, value);
-        }
+        store.set(row, key, value);
     }
 
     /**
@@ -103,52 +138,166 @@ public abstract class AbstractGraphElement {
      * <p>
      * Creates the list if it does not exist so far. Changes the value to a {@link List} if it wasn't a List before -
      * but only if the value did not change.
+     * <p>
+     * {@link SortedIntList}s stay {@link SortedIntList}s, as long as only {@link Integer}s are added.
+     * <p>
+     * Thread safe with respect to other calls of this method or {@link #addIntSetProperty(String, int)} on this element.
+     * The stored list is never changed in place: a changed copy replaces it, so that readers which got the list before
+     * can still iterate over it.
      *
      * @param key   name of the property
      * @param value value to add.
      */
+    public synchronized void addListProperty(String key, Object value) {
+        checkNotFrozen();
+        if (value != null) {
+            addToList(key, value);
+        }
+    }
+
     @SuppressWarnings("unchecked")
-    public void addListProperty(String key, Object value) {
+    private void addToList(String key, Object value) {
         List<Object> list;
 
-        if (value == null) {
+        Object object = store.get(row, key);
+        if (object instanceof SortedIntList && (value instanceof Integer || SortedIntList.isIntCollection(value))) {
+            SortedIntList intList = new SortedIntList((SortedIntList) object);
+            if (addToIntList(intList, value)) {
+                store.set(row, key, intList);
+            }
             return;
-        }
-
-        Object object = properties.get(key);
-        if (object == null) {
+        } else if (object == null && value instanceof SortedIntList) {
+            store.set(row, key, new SortedIntList((SortedIntList) value));
+            return;
+        } else if (object == null) {
             list = new ArrayList<>();
-            properties.put(key, list);
         } else if (object.equals(value)) {
             return; // don't replace with a list if the value is the same, i.e. if there is no change.
         } else if (object instanceof List) {
-            list = (List<Object>) object;
+            list = new ArrayList<>((List<Object>) object); // a SortedIntList becomes a List of Integers
         } else {
             LOGGER.warn("Property {} was not a list, replacing with a list.", key);
             list = new ArrayList<>();
             list.add(object);
-            properties.put(key, list);
         }
 
         // add new value. If it's a list, add each entry of that list:
+        boolean changed = !(object instanceof List) || object instanceof SortedIntList; // new or converted list
         if (value instanceof List) {
-            List<Object> newValues = (List<Object>) value;
-            newValues.forEach(v -> {
+            for (Object v : (List<Object>) value) {
                 if (!list.contains(v)) {
                     list.add(v);
+                    changed = true;
                 }
-            });
+            }
         } else if (!list.contains(value)) {
             list.add(value);
+            changed = true;
+        }
+        if (changed) {
+            store.set(row, key, list);
+        }
+    }
+
+    /**
+     * Adds the value to the sorted set of int values, e.g. line numbers.
+     * <p>
+     * The values are stored in a {@link SortedIntList}, i.e. sorted, without duplicates, and without boxing. If the
+     * property exists but is not a {@link SortedIntList}, it behaves like {@link #addListProperty(String, Object)}.
+     * Thread safe like that method.
+     *
+     * @param key   name of the property
+     * @param value value to add.
+     */
+    public synchronized void addIntSetProperty(String key, int value) {
+        checkNotFrozen();
+        Object object = store.get(row, key);
+        if (object instanceof SortedIntList) {
+            if (!((SortedIntList) object).containsInt(value)) {
+                SortedIntList list = new SortedIntList((SortedIntList) object);
+                list.addInt(value);
+                store.set(row, key, list);
+            }
+        } else if (object == null) {
+            store.set(row, key, SortedIntList.of(value));
+        } else {
+            addListProperty(key, value);
+        }
+    }
+
+    /**
+     * @return <tt>true</tt> if the element can't be changed, see {@link DependencyGraph#freeze()}
+     */
+    public boolean isFrozen() {
+        return store.isFrozen();
+    }
+
+    /**
+     * Tells the {@link PropertyStore} that the element was changed in place, or in a field other than its properties,
+     * so that views which cache results computed from the element see that they are stale.
+     */
+    protected void markModified() {
+        store.markElementsModified();
+    }
+
+    /**
+     * Checks that the element may be changed, i.e. that its {@link PropertyStore} is not frozen.
+     *
+     * @throws UnsupportedOperationException if the element is frozen
+     */
+    protected void checkNotFrozen() {
+        if (store.isFrozen()) {
+            throw new UnsupportedOperationException("The element " + this + " is frozen");
+        }
+    }
+
+    /**
+     * @return <tt>true</tt> if the list was changed
+     */
+    private static boolean addToIntList(SortedIntList list, Object value) {
+        if (value instanceof SortedIntList) {
+            return list.addAllInts((SortedIntList) value);
+        } else if (value instanceof Integer) {
+            return list.addInt((Integer) value);
+        }
+        boolean changed = false;
+        for (Object v : (Collection<?>) value) {
+            changed |= list.addInt((Integer) v);
         }
+        return changed;
     }
 
     /**
      * returns a copy of the properties map.
+     * <p>
+     * Use {@link #forEachProperty(BiConsumer)} to iterate over the properties without copying them.
      *
      * @return a copy of the properties map.
      */
     public Map<String, Object> getProperties() {
-        return new HashMap<>(properties);
+        Map<String, Object> result = new HashMap<>();
+        forEachProperty(result::put);
+        return result;
+    }
+
+    /**
+     * Calls the action for each property, including the name, without creating a map.
+     *
+     * @param action the action, called with key and value
+     */
+    public void forEachProperty(BiConsumer<String, Object> action) {
+        if (name != null) {
+            action.accept(NAME, name);
+        }
+        store.forEach(row, action);
+    }
+
+    /**
+     * returns the number of properties, including the name.
+     *
+     * @return the number of properties
+     */
+    public int getPropertyCount() {
+        return (name != null ? 1 : 0) + store.count(row);
     }
 }
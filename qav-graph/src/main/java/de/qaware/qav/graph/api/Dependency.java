@@ -2,6 +2,7 @@ package de.qaware.qav.graph.api;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.String.format;
@@ -15,8 +16,14 @@ public class Dependency extends AbstractGraphElement {
 
     private final Node source;
     private final Node target;
-    private final Set<Dependency> baseDependencies = new HashSet<>();
-    private DependencyType dependencyType;
+    /**
+     * the base dependencies, and the distinct source and target nodes among them; <tt>null</tt> as long as there are
+     * none, which is the case for most edges.
+     */
+    private OpenHashSet<Dependency> baseDependencies;
+    private OpenHashSet<Node> baseSources;
+    private OpenHashSet<Node> baseTargets;
+    private volatile DependencyType dependencyType;
 
     /**
      * Value constructor.
@@ -26,6 +33,19 @@ public class Dependency extends AbstractGraphElement {
      * @param dependencyType the {@link DependencyType}
      */
     public Dependency(Node source, Node target, DependencyType dependencyType) {
+        this(source, target, dependencyType, new PropertyStore());
+    }
+
+    /**
+     * Value constructor.
+     *
+     * @param source         the source {@link Node}
+     * @param target         the target {@link Node}
+     * @param dependencyType the {@link DependencyType}
+     * @param store          the store for the properties, usually shared by all edges of a graph
+     */
+    public Dependency(Node source, Node target, DependencyType dependencyType, PropertyStore store) {
+        super(null, store);
         this.source = checkNotNull(source, "Source may not be null");
         this.target = checkNotNull(target, "Target may not be null");
         this.dependencyType = checkNotNull(dependencyType, "Dependency type may not be null");
@@ -49,27 +69,74 @@ public class Dependency extends AbstractGraphElement {
      * @param dependencyType the {@link DependencyType}, may not be null
      */
     public void setDependencyType(DependencyType dependencyType) {
+        checkNotFrozen();
         this.dependencyType = checkNotNull(dependencyType, "Dependency type may not be null");
+        markModified();
     }
 
     /**
-     * adds the given dependency to the {@link #baseDependencies} list, if it is not part of if yet.
+     * adds the given dependency to the {@link #baseDependencies} list, if it is not part of if yet. Thread safe.
      *
      * @param baseDep base dependency
      */
-    public void addBaseDependency(Dependency baseDep) {
-        if (!baseDependencies.contains(baseDep)) {
-            this.baseDependencies.add(baseDep);
+    public synchronized void addBaseDependency(Dependency baseDep) {
+        checkNotNull(baseDep, "Base dependency may not be null");
+        checkNotFrozen();
+        if (baseDependencies == null) {
+            baseDependencies = new OpenHashSet<>();
+            baseSources = new OpenHashSet<>();
+            baseTargets = new OpenHashSet<>();
+        }
+        if (baseDependencies.add(baseDep)) {
+            baseSources.add(baseDep.getSource());
+            baseTargets.add(baseDep.getTarget());
         }
     }
 
     /**
      * getter. returns a copy of the baseDependencies set.
+     * <p>
+     * Use {@link #forEachBaseDependency(Consumer)} or {@link #getBaseDependencyCount()} to avoid the copy.
      *
      * @return a copy of the baseDependencies set.
      */
-    public Set<Dependency> getBaseDependencies() {
-        return new HashSet<>(baseDependencies);
+    public synchronized Set<Dependency> getBaseDependencies() {
+        Set<Dependency> result = new HashSet<>();
+        forEachBaseDependency(result::add);
+        return result;
+    }
+
+    /**
+     * Calls the action for each base dependency, in no particular order, without copying them. The action must not add
+     * base dependencies to this dependency.
+     *
+     * @param action the action
+     */
+    public synchronized void forEachBaseDependency(Consumer<? super Dependency> action) {
+        if (baseDependencies != null) {
+            baseDependencies.forEach(action);
+        }
+    }
+
+    /**
+     * @return the number of base dependencies
+     */
+    public synchronized int getBaseDependencyCount() {
+        return baseDependencies == null ? 0 : baseDependencies.size();
+    }
+
+    /**
+     * @return the number of distinct source nodes of the base dependencies
+     */
+    public synchronized int getBaseSourceCount() {
+        return baseSources == null ? 0 : baseSources.size();
+    }
+
+    /**
+     * @return the number of distinct target nodes of the base dependencies
+     */
+    public synchronized int getBaseTargetCount() {
+        return baseTargets == null ? 0 : baseTargets.size();
     }
 
     @Override
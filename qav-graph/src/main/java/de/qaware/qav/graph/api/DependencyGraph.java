@@ -2,6 +2,10 @@ package de.qaware.qav.graph.api;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Dependency Graph contains a node for each element and an edge for each dependency. Nodes are of type {@link Node},
@@ -25,6 +29,82 @@ public interface DependencyGraph {
      */
     Collection<Dependency> getAllEdges();
 
+    /**
+     * Returns the number of nodes, without copying them like <tt>getAllNodes().size()</tt>.
+     *
+     * @return the number of nodes.
+     */
+    default int nodeCount() {
+        return getAllNodes().size();
+    }
+
+    /**
+     * Returns the number of edges, without copying them like <tt>getAllEdges().size()</tt>.
+     *
+     * @return the number of edges.
+     */
+    default int edgeCount() {
+        return getAllEdges().size();
+    }
+
+    /**
+     * Calls the action for each node, without copying the nodes first. The action must not add nodes or edges.
+     *
+     * @param action the action to call for each node
+     */
+    default void forEachNode(Consumer<? super Node> action) {
+        nodeSpliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Calls the action for each edge, without copying the edges first. The action must not add nodes or edges.
+     *
+     * @param action the action to call for each edge
+     */
+    default void forEachEdge(Consumer<? super Dependency> action) {
+        edgeSpliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the nodes, which reads the graph directly and splits for parallel processing.
+     * The graph must not get new nodes or edges while it is in use.
+     *
+     * @return the {@link Spliterator}
+     */
+    default Spliterator<Node> nodeSpliterator() {
+        return getAllNodes().spliterator();
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the edges, which reads the graph directly and splits for parallel processing.
+     * The graph must not get new nodes or edges while it is in use.
+     *
+     * @return the {@link Spliterator}
+     */
+    default Spliterator<Dependency> edgeSpliterator() {
+        return getAllEdges().spliterator();
+    }
+
+    /**
+     * Returns a stream of the nodes, see {@link #nodeSpliterator()}.
+     *
+     * @param parallel <tt>true</tt> for a parallel stream
+     * @return the stream
+     */
+    default Stream<Node> nodeStream(boolean parallel) {
+        return StreamSupport.stream(nodeSpliterator(), parallel);
+    }
+
+    /**
+     * Returns a stream of the edges, see {@link #edgeSpliterator()}.
+     *
+     * @param parallel <tt>true</tt> for a parallel stream
+     * @return the stream
+     */
+    default Stream<Dependency> edgeStream(boolean parallel) {
+        return StreamSupport.stream(edgeSpliterator(), parallel);
+    }
+
     /**
      * Returns an existing or a new node with the given name.
      *
@@ -111,6 +191,56 @@ public interface DependencyGraph {
      */
     Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType);
 
+    /**
+     * Calls the action for each outgoing edge of the given node with the given {@link DependencyType}.
+     * <p>
+     * Implementations with an index per type do this in time proportional to the number of matching edges, without
+     * creating a collection. The action must not modify the graph.
+     *
+     * @param node           the source node.
+     * @param dependencyType the DependencyType
+     * @param action         the action to call for each edge
+     */
+    default void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        getOutgoingEdges(node, dependencyType).forEach(action);
+    }
+
+    /**
+     * Calls the action for each incoming edge of the given node with the given {@link DependencyType}.
+     * <p>
+     * Implementations with an index per type do this in time proportional to the number of matching edges, without
+     * creating a collection. The action must not modify the graph.
+     *
+     * @param node           the target node.
+     * @param dependencyType the DependencyType
+     * @param action         the action to call for each edge
+     */
+    default void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        getIncomingEdges(node, dependencyType).forEach(action);
+    }
+
+    /**
+     * Checks whether the given node has an outgoing edge with the given {@link DependencyType}.
+     *
+     * @param node           the source node.
+     * @param dependencyType the DependencyType
+     * @return <tt>true</tt> if there is at least one such edge
+     */
+    default boolean hasOutgoingEdge(Node node, DependencyType dependencyType) {
+        return !getOutgoingEdges(node, dependencyType).isEmpty();
+    }
+
+    /**
+     * Checks whether the given node has an incoming edge with the given {@link DependencyType}.
+     *
+     * @param node           the target node.
+     * @param dependencyType the DependencyType
+     * @return <tt>true</tt> if there is at least one such edge
+     */
+    default boolean hasIncomingEdge(Node node, DependencyType dependencyType) {
+        return !getIncomingEdges(node, dependencyType).isEmpty();
+    }
+
     /**
      * Returns a {@link DependencyGraph} which only contains the nodes accepted by the given filter.
      *
@@ -129,6 +259,20 @@ public interface DependencyGraph {
      */
     DependencyGraph filter(EdgeFilter filter);
 
+    /**
+     * Returns an immutable snapshot of this graph, for the phases which only read the graph, e.g. checks, exporters and
+     * the server.
+     * <p>
+     * The snapshot has its own copies of the nodes and edges, in compact sorted arrays with interned strings. It can be
+     * shared by several threads without locking. Adding nodes or edges, changing properties or dependency types throws an
+     * {@link UnsupportedOperationException}; a call which would not change anything, like {@link
+     * #getOrCreateNodeByName(String)} for an existing node, just returns the existing element. Later changes of this
+     * graph are not visible in the snapshot.
+     *
+     * @return the snapshot; <tt>this</tt> if the graph is a snapshot already
+     */
+    DependencyGraph freeze();
+
     /**
      * Returns the underlying graph, which may be used for inserting new nodes or edges.
      *
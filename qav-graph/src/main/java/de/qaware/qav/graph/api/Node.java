@@ -17,8 +17,19 @@ public class Node extends AbstractGraphElement {
      * @param name the name of the node
      */
     public Node(String name) {
-        checkNotNull(name, "Name may not be null");
-        properties.put(NAME, name);
+        this(name, new PropertyStore());
+    }
+
+    /**
+     * Constructor.
+     *
+     * A node always has a name which can not be changed.
+     *
+     * @param name  the name of the node
+     * @param store the store for the properties, usually shared by all nodes of a graph
+     */
+    public Node(String name, PropertyStore store) {
+        super(checkNotNull(name, "Name may not be null"), store);
     }
 
     @Override
@@ -1,5 +1,8 @@
 package de.qaware.qav.graph.api;
 
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
 /**
  * Node filter.
  *
@@ -15,4 +18,25 @@ public interface NodeFilter {
      * @return true if node is wanted, false if not.
      */
     boolean isAccepted(Node node);
+
+    /**
+     * Evaluates the filter for many nodes at once.
+     * <p>
+     * Filters which combine other filters override this to combine the results of their base filters with bit set
+     * operations.
+     *
+     * @param nodes      the nodes by id
+     * @param candidates the ids of the nodes to evaluate; is not modified
+     *
+     * @return the ids of the accepted nodes, a subset of <tt>candidates</tt>
+     */
+    default BitSet getAccepted(IntFunction<Node> nodes, BitSet candidates) {
+        BitSet result = new BitSet();
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (isAccepted(nodes.apply(id))) {
+                result.set(id);
+            }
+        }
+        return result;
+    }
 }
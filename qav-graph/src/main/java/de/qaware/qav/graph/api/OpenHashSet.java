@@ -0,0 +1,85 @@
+package de.qaware.qav.graph.api;
+
+import java.util.function.Consumer;
+
+/**
+ * Minimal hash set with open addressing in a single array, using {@link Object#equals(Object)} and {@link
+ * Object#hashCode()} of the elements.
+ * <p>
+ * Needs one to two references per element, instead of an entry object per element like {@link java.util.HashSet}. Does
+ * not support removal. Not thread safe.
+ *
+ * @param <T> the type of the elements
+ * @author QAware GmbH
+ */
+final class OpenHashSet<T> {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Object[] table = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds the element, if it is not contained yet.
+     *
+     * @param element the element, not <tt>null</tt>
+     * @return <tt>true</tt> if the element was added
+     */
+    boolean add(T element) {
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        while (table[slot] != null) {
+            if (table[slot].equals(element)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = element;
+        size++;
+        if (size * 4 > table.length * 3) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Calls the action for each element, in no particular order.
+     *
+     * @param action the action
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<? super T> action) {
+        for (Object element : table) {
+            if (element != null) {
+                action.accept((T) element);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldTable = table;
+        table = new Object[capacity];
+        int mask = capacity - 1;
+        for (Object element : oldTable) {
+            if (element != null) {
+                int slot = hash(element) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = element;
+            }
+        }
+    }
+
+    private static int hash(Object element) {
+        int h = element.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
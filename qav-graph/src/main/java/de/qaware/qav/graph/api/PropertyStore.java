@@ -0,0 +1,640 @@
+package de.qaware.qav.graph.api;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Columnar storage for the properties of many {@link AbstractGraphElement}s, usually all nodes or all edges of one
+ * graph.
+ * <p>
+ * Each element owns one row. Each property key is interned into a slot, and the values of a key are held in one column
+ * over all rows. Compared to one {@link HashMap} per element, this saves the map, its table, and one entry object per
+ * property and element, and the many repetitions of the same keys.
+ * <p>
+ * A key starts with a sparse column, which only holds the rows with a value. Once a key is set on a larger part of the
+ * rows, it gets a dense column, i.e. an array over all rows: {@link Integer} and {@link Boolean} values are stored in
+ * primitive columns, as long as a key has no values of other types. So keys which are only set on a few rows, e.g. on
+ * some nodes added late, don't allocate arrays as large as the whole graph.
+ * <p>
+ * Thread safe: different elements with the same store may be modified from different threads, as it was possible when
+ * each element had a map of its own. Writes are synchronized. Reads don't lock: the columns are only grown by copying
+ * and then publishing the copy, and the values are read and written with volatile semantics. Stored values must not
+ * be changed in place, as readers may hold them: list properties are replaced by changed copies, see {@link
+ * AbstractGraphElement#addListProperty(String, Object)}. After {@link #freeze()}, the store can't be changed any more.
+ *
+ * @author QAware GmbH
+ */
+public final class PropertyStore {
+
+    /**
+     * A sparse column becomes dense when it holds more than this number of values, and ...
+     */
+    private static final int SPARSE_LIMIT = 8;
+
+    /**
+     * ... when more than one in this number of rows has a value. A sparse entry takes about as much memory as this
+     * number of slots of a dense column.
+     */
+    private static final int DENSE_RATIO = 8;
+
+    private volatile Layout layout = new Layout(new HashMap<>(), new String[0], new Column[0]);
+    private volatile int rowCount;
+    private volatile long version;
+    private volatile long elementVersion;
+    private final List<KeyRecorder> recorders = new CopyOnWriteArrayList<>();
+    private volatile boolean frozen;
+
+    /**
+     * Allocates a new, empty row.
+     *
+     * @return the row index
+     * @throws UnsupportedOperationException if the store is frozen
+     */
+    public synchronized int newRow() {
+        checkNotFrozen();
+        return rowCount++;
+    }
+
+    /**
+     * Makes the store unmodifiable, and trims the dense columns to the number of rows.
+     */
+    public synchronized void freeze() {
+        if (frozen) {
+            return;
+        }
+        for (Column column : layout.columns) {
+            column.trim(rowCount);
+        }
+        frozen = true;
+    }
+
+    /**
+     * @return <tt>true</tt> if the store is frozen, see {@link #freeze()}
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * The version grows with each change of a value, so that views which cache results computed from the values can
+     * see if they are stale.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Like {@link #getVersion()}, but only for the values of the given key.
+     *
+     * @param key the property key
+     * @return the version of the key
+     */
+    public long getVersion(String key) {
+        Layout current = layout;
+        Integer slot = current.slots.get(key);
+        return slot == null ? 0 : current.columns[slot].version;
+    }
+
+    /**
+     * Like {@link #getVersion()}, but only for the keys which were read while the given recorder was active.
+     *
+     * @param recorder the recorder, see {@link #startRecording()}
+     * @return the sum of the versions of the keys, which grows whenever the value of one of the keys changes
+     */
+    public long getVersion(KeyRecorder recorder) {
+        if (recorder.allKeys) {
+            return version;
+        }
+        long result = 0;
+        for (String key : recorder.keys) {
+            result += getVersion(key);
+        }
+        return result;
+    }
+
+    /**
+     * The element version grows with each change of the elements which is not a change of their properties, e.g. of
+     * the type of a {@link Dependency}. See {@link #markElementsModified()}.
+     *
+     * @return the element version
+     */
+    public long getElementVersion() {
+        return elementVersion;
+    }
+
+    /**
+     * Increases the element version, see {@link #getElementVersion()}.
+     */
+    public synchronized void markElementsModified() {
+        version++;
+        elementVersion++;
+    }
+
+    /**
+     * Starts to record the keys which are read from this store, by any thread, until {@link
+     * #stopRecording(KeyRecorder)} is called. Views which cache results computed from some of the values use this to
+     * find out which keys they depend on, see {@link #getVersion(KeyRecorder)}.
+     *
+     * @return the recorder
+     */
+    public KeyRecorder startRecording() {
+        KeyRecorder recorder = new KeyRecorder();
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    /**
+     * Stops recording.
+     *
+     * @param recorder the recorder returned by {@link #startRecording()}
+     */
+    public void stopRecording(KeyRecorder recorder) {
+        recorders.remove(recorder);
+    }
+
+    /**
+     * @param row the row
+     * @param key the property key
+     * @return the value, or <tt>null</tt> if there is none
+     */
+    public Object get(int row, String key) {
+        if (!recorders.isEmpty()) {
+            recorders.forEach(recorder -> recorder.keys.add(key));
+        }
+        Layout current = layout;
+        Integer slot = current.slots.get(key);
+        return slot == null ? null : current.columns[slot].get(row);
+    }
+
+    /**
+     * @param row the row
+     * @param key the property key
+     * @return <tt>true</tt> if the row has a value for the key
+     */
+    public boolean has(int row, String key) {
+        return get(row, key) != null;
+    }
+
+    /**
+     * Sets or removes a value.
+     *
+     * @param row   the row
+     * @param key   the property key
+     * @param value the value; <tt>null</tt> removes the value
+     * @throws UnsupportedOperationException if the store is frozen
+     */
+    public synchronized void set(int row, String key, Object value) {
+        checkNotNull(key);
+        checkNotFrozen();
+        version++;
+        Integer slot = layout.slots.get(key);
+        if (value == null) {
+            if (slot != null) {
+                layout.columns[slot].remove(row);
+                layout.columns[slot].version++;
+            }
+            return;
+        }
+
+        if (slot == null) {
+            slot = addSlot(key);
+        }
+        Column column = layout.columns[slot];
+        if (!column.accepts(value)) {
+            column = replaceColumn(slot, new ObjectColumn(column, rowCount));
+        }
+        column.set(row, value);
+        column.version++;
+
+        if (column instanceof SparseColumn && isDense((SparseColumn) column)) {
+            replaceColumn(slot, ((SparseColumn) column).toDense(rowCount));
+        }
+    }
+
+    /**
+     * @param row the row
+     * @return the number of values in the row
+     */
+    public int count(int row) {
+        recordAllKeys();
+        int result = 0;
+        for (Column column : layout.columns) {
+            if (column.get(row) != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calls the action for each value of the row, in the order in which the keys were first used in this store.
+     * <p>
+     * The action may modify this or other stores; it sees the keys which existed when this method was called.
+     *
+     * @param row    the row
+     * @param action the action, called with key and value
+     */
+    public void forEach(int row, BiConsumer<String, Object> action) {
+        recordAllKeys();
+        Layout current = layout;
+        for (int slot = 0; slot < current.keys.length; slot++) {
+            Object value = current.columns[slot].get(row);
+            if (value != null) {
+                action.accept(current.keys[slot], value);
+            }
+        }
+    }
+
+    private void recordAllKeys() {
+        if (!recorders.isEmpty()) {
+            recorders.forEach(recorder -> recorder.allKeys = true);
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("The properties are frozen");
+        }
+    }
+
+    private boolean isDense(SparseColumn column) {
+        int size = column.size();
+        return size > SPARSE_LIMIT && (long) size * DENSE_RATIO > rowCount;
+    }
+
+    /**
+     * Publishes a new layout with one more key. There are only a few keys, so copying is cheap.
+     */
+    private int addSlot(String key) {
+        Layout current = layout;
+        int slot = current.keys.length;
+        Map<String, Integer> slots = new HashMap<>(current.slots);
+        slots.put(key, slot);
+        String[] keys = Arrays.copyOf(current.keys, slot + 1);
+        keys[slot] = key;
+        Column[] columns = Arrays.copyOf(current.columns, slot + 1);
+        columns[slot] = new SparseColumn();
+        layout = new Layout(slots, keys, columns);
+        return slot;
+    }
+
+    /**
+     * Publishes a new layout, with the column in the given slot replaced.
+     */
+    private Column replaceColumn(int slot, Column column) {
+        Layout current = layout;
+        Column[] columns = current.columns.clone();
+        column.version = columns[slot].version + 1;
+        columns[slot] = column;
+        layout = new Layout(current.slots, current.keys, columns);
+        return column;
+    }
+
+    private static int grow(int capacity, int row) {
+        return Math.max(row + 1, capacity + (capacity >> 1));
+    }
+
+    /**
+     * The keys read from a store while recording, see {@link #startRecording()}.
+     */
+    public static final class KeyRecorder {
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private volatile boolean allKeys;
+
+        private KeyRecorder() {
+            // created by the store
+        }
+    }
+
+    /**
+     * The keys and columns. Never changed after it was published; a change of the keys or the columns publishes a new
+     * instance, so that readers see consistent keys and columns without locking.
+     */
+    private static final class Layout {
+        private final Map<String, Integer> slots;
+        private final String[] keys;
+        private final Column[] columns;
+
+        private Layout(Map<String, Integer> slots, String[] keys, Column[] columns) {
+            this.slots = slots;
+            this.keys = keys;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * The values of one key over all rows. Only {@link #get(int)} may be called without holding the lock of the store.
+     */
+    private abstract static class Column {
+
+        /**
+         * grows with each change of a value of the column, see {@link #getVersion(String)}.
+         */
+        volatile long version;
+
+        /**
+         * @return the value, or <tt>null</tt> if the row has none
+         */
+        abstract Object get(int row);
+
+        /**
+         * @return <tt>true</tt> if the column can hold the value
+         */
+        abstract boolean accepts(Object value);
+
+        abstract void set(int row, Object value);
+
+        abstract void remove(int row);
+
+        /**
+         * shrinks the arrays to the given number of rows.
+         */
+        abstract void trim(int rowCount);
+    }
+
+    /**
+     * Column of arbitrary values, for the rows which have one.
+     */
+    private static final class SparseColumn extends Column {
+
+        private final Map<Integer, Object> values = new ConcurrentHashMap<>();
+
+        @Override
+        Object get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return true;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values.put(row, value);
+        }
+
+        @Override
+        void remove(int row) {
+            values.remove(row);
+        }
+
+        @Override
+        void trim(int rowCount) {
+            // holds the rows with values only
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        /**
+         * @return a dense column with the same values, primitive if all values allow it
+         */
+        Column toDense(int rowCount) {
+            boolean allInts = values.values().stream().allMatch(Integer.class::isInstance);
+            boolean allBooleans = values.values().stream().allMatch(Boolean.class::isInstance);
+            Column result;
+            if (allInts) {
+                result = new IntColumn(rowCount);
+            } else if (allBooleans) {
+                result = new BooleanColumn(rowCount);
+            } else {
+                result = new ObjectColumn(rowCount);
+            }
+            values.forEach(result::set);
+            return result;
+        }
+    }
+
+    /**
+     * Column of arbitrary values.
+     */
+    private static final class ObjectColumn extends Column {
+
+        private volatile AtomicReferenceArray<Object> values;
+
+        private ObjectColumn(int capacity) {
+            values = new AtomicReferenceArray<>(capacity);
+        }
+
+        /**
+         * Converts another column.
+         */
+        private ObjectColumn(Column other, int rowCount) {
+            this(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                Object value = other.get(row);
+                if (value != null) {
+                    set(row, value);
+                }
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            AtomicReferenceArray<Object> current = values;
+            return row < current.length() ? current.get(row) : null;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return true;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            if (row >= values.length()) {
+                values = copyOf(values, grow(values.length(), row));
+            }
+            values.set(row, value);
+        }
+
+        @Override
+        void remove(int row) {
+            if (row < values.length()) {
+                values.set(row, null);
+            }
+        }
+
+        @Override
+        void trim(int rowCount) {
+            if (values.length() > rowCount) {
+                values = copyOf(values, rowCount);
+            }
+        }
+
+        private static AtomicReferenceArray<Object> copyOf(AtomicReferenceArray<Object> array, int length) {
+            AtomicReferenceArray<Object> result = new AtomicReferenceArray<>(length);
+            for (int i = 0; i < Math.min(length, array.length()); i++) {
+                result.lazySet(i, array.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Column of {@link Integer}s, unboxed.
+     * <p>
+     * A value is written before its presence bit, so that a reader which sees the bit also sees the value.
+     */
+    private static final class IntColumn extends Column {
+
+        private volatile AtomicIntegerArray values;
+        private final Bits present = new Bits();
+
+        private IntColumn(int capacity) {
+            values = new AtomicIntegerArray(capacity);
+        }
+
+        @Override
+        Object get(int row) {
+            return present.get(row) ? values.get(row) : null;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Integer;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            if (row >= values.length()) {
+                values = copyOf(values, grow(values.length(), row));
+            }
+            values.set(row, (Integer) value);
+            present.set(row, true);
+        }
+
+        @Override
+        void remove(int row) {
+            present.set(row, false);
+        }
+
+        @Override
+        void trim(int rowCount) {
+            if (values.length() > rowCount) {
+                values = copyOf(values, rowCount);
+            }
+            present.trim(rowCount);
+        }
+
+        private static AtomicIntegerArray copyOf(AtomicIntegerArray array, int length) {
+            AtomicIntegerArray result = new AtomicIntegerArray(length);
+            for (int i = 0; i < Math.min(length, array.length()); i++) {
+                result.lazySet(i, array.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Column of {@link Boolean}s, as bits.
+     */
+    private static final class BooleanColumn extends Column {
+
+        private final Bits values = new Bits();
+        private final Bits present = new Bits();
+
+        private BooleanColumn(int capacity) {
+            values.ensureCapacity(capacity);
+            present.ensureCapacity(capacity);
+        }
+
+        @Override
+        Object get(int row) {
+            return present.get(row) ? values.get(row) : null;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value instanceof Boolean;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            values.set(row, (Boolean) value);
+            present.set(row, true);
+        }
+
+        @Override
+        void remove(int row) {
+            present.set(row, false);
+            values.set(row, false);
+        }
+
+        @Override
+        void trim(int rowCount) {
+            values.trim(rowCount);
+            present.trim(rowCount);
+        }
+    }
+
+    /**
+     * A bit set which may be read without locking, while one thread at a time writes. Grows by copying.
+     */
+    private static final class Bits {
+
+        private volatile AtomicLongArray words = new AtomicLongArray(0);
+
+        boolean get(int index) {
+            AtomicLongArray current = words;
+            int word = index >> 6;
+            return word < current.length() && (current.get(word) & (1L << index)) != 0;
+        }
+
+        void set(int index, boolean value) {
+            int word = index >> 6;
+            if (word >= words.length()) {
+                if (!value) {
+                    return;
+                }
+                ensureCapacity(index + 1);
+            }
+            long bits = words.get(word);
+            words.set(word, value ? bits | (1L << index) : bits & ~(1L << index));
+        }
+
+        void ensureCapacity(int bitCount) {
+            int length = (bitCount + 63) >> 6;
+            if (length > words.length()) {
+                words = copyOf(words, grow(words.length(), length - 1));
+            }
+        }
+
+        void trim(int bitCount) {
+            int length = (bitCount + 63) >> 6;
+            if (words.length() > length) {
+                words = copyOf(words, length);
+            }
+        }
+
+        private static AtomicLongArray copyOf(AtomicLongArray array, int length) {
+            AtomicLongArray result = new AtomicLongArray(length);
+            for (int i = 0; i < Math.min(length, array.length()); i++) {
+                result.lazySet(i, array.get(i));
+            }
+            return result;
+        }
+    }
+}
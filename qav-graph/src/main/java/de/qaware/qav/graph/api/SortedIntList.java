@@ -0,0 +1,199 @@
+package de.qaware.qav.graph.api;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A sorted set of <tt>int</tt> values, without duplicates, stored in a primitive array.
+ * <p>
+ * Used as property value for many small numbers, like the line numbers of a {@link Dependency} (see
+ * {@link Constants#LINE_NO}): an edge between two heavily coupled classes may carry thousands of them. Compared to an
+ * {@link java.util.ArrayList} of boxed {@link Integer}s, this needs a fraction of the memory, and adding a value takes
+ * logarithmic instead of linear time.
+ * <p>
+ * It is a {@link java.util.List} of {@link Integer}s, so that it can be used wherever a list property is expected, e.g.
+ * for JSON serialization. Deviating from the {@link java.util.List} contract, {@link #add(Integer)} inserts the value at
+ * its sorted position, and ignores values which are already contained. Removing values is not supported.
+ * <p>
+ * Not thread safe.
+ *
+ * @author QAware GmbH
+ */
+public final class SortedIntList extends AbstractList<Integer> implements RandomAccess {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values = EMPTY;
+    private int size;
+
+    /**
+     * Constructor. Creates an empty list.
+     */
+    public SortedIntList() {
+        // empty
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other the list to copy
+     */
+    public SortedIntList(SortedIntList other) {
+        this.values = Arrays.copyOf(other.values, other.size);
+        this.size = other.size;
+    }
+
+    /**
+     * Creates a list with the given values.
+     *
+     * @param values the values, in any order, may contain duplicates
+     * @return the new list
+     */
+    public static SortedIntList of(int... values) {
+        SortedIntList result = new SortedIntList();
+        for (int value : values) {
+            result.addInt(value);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a list with the given values.
+     *
+     * @param values the values, in any order, may contain duplicates
+     * @return the new list
+     * @throws ClassCastException if one of the values is no {@link Integer}
+     */
+    public static SortedIntList copyOf(Collection<?> values) {
+        if (values instanceof SortedIntList) {
+            return new SortedIntList((SortedIntList) values);
+        }
+        SortedIntList result = new SortedIntList();
+        values.forEach(value -> result.addInt((Integer) value));
+        return result;
+    }
+
+    /**
+     * Checks whether the given value is a collection of {@link Integer}s only, i.e. whether {@link #copyOf(Collection)}
+     * can be used.
+     *
+     * @param value the value
+     * @return <tt>true</tt> if the value is a collection which only contains {@link Integer}s
+     */
+    public static boolean isIntCollection(Object value) {
+        return value instanceof Collection && ((Collection<?>) value).stream().allMatch(Integer.class::isInstance);
+    }
+
+    /**
+     * Adds the value at its sorted position, if it is not yet contained.
+     * <p>
+     * Appending a value larger than all other values, which is the usual case for line numbers, takes constant time.
+     *
+     * @param value the value
+     * @return <tt>true</tt> if the value was added, <tt>false</tt> if it was already contained
+     */
+    public boolean addInt(int value) {
+        int index;
+        if (size == 0 || values[size - 1] < value) {
+            index = size;
+        } else {
+            int found = Arrays.binarySearch(values, 0, size, value);
+            if (found >= 0) {
+                return false;
+            }
+            index = -found - 1;
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Adds all values of the given list.
+     *
+     * @param other the values to add
+     * @return <tt>true</tt> if at least one value was added
+     */
+    public boolean addAllInts(SortedIntList other) {
+        boolean changed = false;
+        for (int i = 0; i < other.size; i++) {
+            changed |= addInt(other.values[i]);
+        }
+        return changed;
+    }
+
+    /**
+     * @param value the value
+     * @return <tt>true</tt> if the value is contained
+     */
+    public boolean containsInt(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * @param index the index
+     * @return the value at the given index, without boxing
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getInt(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return values[index];
+    }
+
+    /**
+     * @return a copy of the values, in ascending order
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Inserts the value at its sorted position, if it is not yet contained.
+     *
+     * @param value the value
+     * @return <tt>true</tt> if the value was added, <tt>false</tt> if it was already contained
+     */
+    @Override
+    public boolean add(Integer value) {
+        return addInt(value);
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && containsInt((Integer) o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Integer)) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(values, 0, size, (Integer) o);
+        return index >= 0 ? index : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+}
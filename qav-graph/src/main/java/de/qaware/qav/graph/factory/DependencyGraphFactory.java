@@ -1,6 +1,9 @@
 package de.qaware.qav.graph.factory;
 
 import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.impl.DependencyGraphConcurrentImpl;
+import de.qaware.qav.graph.impl.DependencyGraphCsrImpl;
+import de.qaware.qav.graph.impl.DependencyGraphMappedImpl;
 import de.qaware.qav.graph.impl.DependencyGraphSimpleImpl;
 import lombok.extern.slf4j.Slf4j;
 
@@ -12,6 +15,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public final class DependencyGraphFactory {
 
+    /**
+     * Name of the system property which selects the {@link GraphImplementation} used by {@link #createGraph()}, e.g.
+     * <tt>-Dqav.graph.implementation=csr</tt>.
+     */
+    public static final String IMPLEMENTATION_PROPERTY = "qav.graph.implementation";
+
     /**
      * Factory, no instances.
      */
@@ -19,13 +28,48 @@ public final class DependencyGraphFactory {
     }
 
     /**
-     * create a new {@link DependencyGraph}
+     * create a new {@link DependencyGraph}, using the implementation given by the system property {@link
+     * #IMPLEMENTATION_PROPERTY}, or {@link GraphImplementation#JGRAPHT} if it is not set.
      *
      * @return a new {@link DependencyGraph}
      */
     public static DependencyGraph createGraph() {
-        LOGGER.debug("Creating graph: {}", DependencyGraphSimpleImpl.class.getName());
+        return createGraph(GraphImplementation.fromString(System.getProperty(IMPLEMENTATION_PROPERTY)));
+    }
+
+    /**
+     * create a new {@link DependencyGraph}
+     *
+     * @param implementation the implementation to use
+     * @return a new {@link DependencyGraph}
+     */
+    public static DependencyGraph createGraph(GraphImplementation implementation) {
+        DependencyGraph result;
+        switch (implementation) {
+            case CSR:
+                result = new DependencyGraphCsrImpl();
+                break;
+            case CONCURRENT:
+                result = new DependencyGraphConcurrentImpl();
+                break;
+            case JGRAPHT:
+            default:
+                result = new DependencyGraphSimpleImpl();
+                break;
+        }
+
+        LOGGER.debug("Creating graph: {}", result.getClass().getName());
+        return result;
+    }
 
-        return new DependencyGraphSimpleImpl();
+    /**
+     * open a graph file written by {@link DependencyGraphMappedImpl#write(DependencyGraph, String)}. The file is
+     * memory-mapped, not read into the heap; the graph is read-only.
+     *
+     * @param filename name of the file
+     * @return the {@link DependencyGraph}
+     */
+    public static DependencyGraph openMappedGraph(String filename) {
+        return DependencyGraphMappedImpl.open(filename);
     }
 }
@@ -0,0 +1,44 @@
+package de.qaware.qav.graph.factory;
+
+/**
+ * The available implementations of {@link de.qaware.qav.graph.api.DependencyGraph}.
+ *
+ * @author QAware GmbH
+ */
+public enum GraphImplementation {
+
+    /**
+     * {@link de.qaware.qav.graph.impl.DependencyGraphSimpleImpl}, based on JGraphT. The default.
+     */
+    JGRAPHT,
+
+    /**
+     * {@link de.qaware.qav.graph.impl.DependencyGraphCsrImpl}, based on int ids and adjacency arrays. Needs much less
+     * memory for large graphs.
+     */
+    CSR,
+
+    /**
+     * {@link de.qaware.qav.graph.impl.DependencyGraphConcurrentImpl}, which can be filled by several threads at once.
+     */
+    CONCURRENT;
+
+    /**
+     * Parses the implementation, ignoring case.
+     *
+     * @param value the name of the implementation, e.g. <tt>"csr"</tt>; may be <tt>null</tt>
+     * @return the implementation; {@link #JGRAPHT} if the value is <tt>null</tt> or empty
+     * @throws IllegalArgumentException if there is no implementation with the given name
+     */
+    public static GraphImplementation fromString(String value) {
+        if (value == null || value.isEmpty()) {
+            return JGRAPHT;
+        }
+        for (GraphImplementation implementation : values()) {
+            if (implementation.name().equalsIgnoreCase(value)) {
+                return implementation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown graph implementation: " + value);
+    }
+}
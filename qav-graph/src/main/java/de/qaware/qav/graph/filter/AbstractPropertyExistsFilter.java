@@ -54,6 +54,6 @@ public abstract class AbstractPropertyExistsFilter<T extends AbstractGraphElemen
      * @return <tt>true</tt> if the element will be in, <tt>false</tt> if it is out
      */
     public boolean isAccepted(T graphElement) {
-        return propertyNames.stream().allMatch(key -> graphElement.getProperties().containsKey(key));
+        return propertyNames.stream().allMatch(key -> graphElement.hasProperty(key));
     }
 }
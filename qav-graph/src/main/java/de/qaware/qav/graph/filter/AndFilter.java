@@ -5,7 +5,9 @@ import de.qaware.qav.graph.api.NodeFilter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
  * Filter which AND-combines a number of filters.
@@ -29,4 +31,19 @@ public class AndFilter implements NodeFilter {
     public boolean isAccepted(Node node) {
         return baseFilters.stream().allMatch(filter -> filter.isAccepted(node));
     }
+
+    /**
+     * Intersects the results of the base filters. Each base filter only sees the nodes accepted by the ones before.
+     */
+    @Override
+    public BitSet getAccepted(IntFunction<Node> nodes, BitSet candidates) {
+        BitSet result = candidates;
+        for (NodeFilter filter : baseFilters) {
+            if (result.isEmpty()) {
+                break;
+            }
+            result = filter.getAccepted(nodes, result);
+        }
+        return result == candidates ? (BitSet) candidates.clone() : result;
+    }
 }
@@ -0,0 +1,54 @@
+package de.qaware.qav.graph.filter;
+
+import de.qaware.qav.graph.alg.impl.ReachabilityIndex;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+
+import java.util.Set;
+
+/**
+ * Accepts nodes which are accepted by the given filter or which have a direct or transitive dependency to other nodes
+ * which are accepted by the given filter. This is the transitive version of {@link NodeHasDependencyToFilter}.
+ * <p>
+ * Finds all these nodes with a {@link ReachabilityIndex} on first use, so that each further check takes <tt>O(1)</tt>
+ * time. Nodes or edges which are added to the graph later are not considered.
+ *
+ * @author QAware GmbH
+ */
+public class NodeReachesFilter implements NodeFilter {
+
+    private final DependencyGraph dependencyGraph;
+    private final NodeFilter baseFilter;
+    private volatile Set<Node> reachingNodes;
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph the DependencyGraph to work on; may be a filtered graph
+     * @param baseFilter      the filter which accepts the target nodes
+     */
+    public NodeReachesFilter(DependencyGraph dependencyGraph, NodeFilter baseFilter) {
+        this.dependencyGraph = dependencyGraph;
+        this.baseFilter = baseFilter;
+    }
+
+    @Override
+    public boolean isAccepted(Node node) {
+        return baseFilter.isAccepted(node) || getReachingNodes().contains(node);
+    }
+
+    private Set<Node> getReachingNodes() {
+        Set<Node> result = reachingNodes;
+        if (result == null) {
+            synchronized (this) {
+                result = reachingNodes;
+                if (result == null) {
+                    result = new ReachabilityIndex(dependencyGraph).findNodesReaching(baseFilter);
+                    reachingNodes = result;
+                }
+            }
+        }
+        return result;
+    }
+}
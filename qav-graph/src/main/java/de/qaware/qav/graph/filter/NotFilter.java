@@ -3,6 +3,9 @@ package de.qaware.qav.graph.filter;
 import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.api.NodeFilter;
 
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
 /**
  * Filter which inverts the result of the given filter.
  *
@@ -25,4 +28,11 @@ public class NotFilter implements NodeFilter {
     public boolean isAccepted(Node node) {
         return !baseFilter.isAccepted(node);
     }
+
+    @Override
+    public BitSet getAccepted(IntFunction<Node> nodes, BitSet candidates) {
+        BitSet result = (BitSet) candidates.clone();
+        result.andNot(baseFilter.getAccepted(nodes, candidates));
+        return result;
+    }
 }
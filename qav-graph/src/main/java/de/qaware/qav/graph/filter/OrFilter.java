@@ -5,7 +5,9 @@ import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.api.NodeFilter;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
  * Filter which OR-combines a number of filters.
@@ -29,4 +31,22 @@ public class OrFilter implements NodeFilter {
     public boolean isAccepted(Node node) {
         return baseFilters.stream().anyMatch(filter -> filter.isAccepted(node));
     }
+
+    /**
+     * Unites the results of the base filters. Each base filter only sees the nodes not accepted by the ones before.
+     */
+    @Override
+    public BitSet getAccepted(IntFunction<Node> nodes, BitSet candidates) {
+        BitSet result = new BitSet();
+        BitSet open = (BitSet) candidates.clone();
+        for (NodeFilter filter : baseFilters) {
+            if (open.isEmpty()) {
+                break;
+            }
+            BitSet accepted = filter.getAccepted(nodes, open);
+            result.or(accepted);
+            open.andNot(accepted);
+        }
+        return result;
+    }
 }
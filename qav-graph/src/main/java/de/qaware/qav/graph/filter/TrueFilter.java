@@ -3,6 +3,9 @@ package de.qaware.qav.graph.filter;
 import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.api.NodeFilter;
 
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
 /**
  * Always returns true.
  *
@@ -14,4 +17,9 @@ public class TrueFilter implements NodeFilter {
     public boolean isAccepted(Node node) {
         return true;
     }
+
+    @Override
+    public BitSet getAccepted(IntFunction<Node> nodes, BitSet candidates) {
+        return (BitSet) candidates.clone();
+    }
 }
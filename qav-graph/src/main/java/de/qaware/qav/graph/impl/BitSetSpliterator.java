@@ -0,0 +1,84 @@
+package de.qaware.qav.graph.impl;
+
+import java.util.BitSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * {@link Spliterator} over the elements whose ids are set in a {@link BitSet}. Splits the range of ids in halves, so
+ * that parallel streams over a filtered graph don't need to copy the elements first.
+ *
+ * @param <T> the type of the elements
+ * @author QAware GmbH
+ */
+final class BitSetSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * don't split ranges smaller than this, the work per element is usually small.
+     */
+    private static final int MIN_SPLIT_SIZE = 1024;
+
+    private final BitSet ids;
+    private final IntFunction<T> elements;
+    private int from;
+    private final int to;
+
+    /**
+     * Constructor.
+     *
+     * @param ids      the ids of the elements; must not be changed while the spliterator is in use
+     * @param elements the elements by id
+     */
+    BitSetSpliterator(BitSet ids, IntFunction<T> elements) {
+        this(ids, elements, 0, ids.length());
+    }
+
+    private BitSetSpliterator(BitSet ids, IntFunction<T> elements, int from, int to) {
+        this.ids = ids;
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        int id = from < to ? ids.nextSetBit(from) : -1;
+        if (id < 0 || id >= to) {
+            from = to;
+            return false;
+        }
+        from = id + 1;
+        action.accept(elements.apply(id));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        for (int id = ids.nextSetBit(from); id >= 0 && id < to; id = ids.nextSetBit(id + 1)) {
+            action.accept(elements.apply(id));
+        }
+        from = to;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (to - from < 2 * MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Spliterator<T> prefix = new BitSetSpliterator<>(ids, elements, from, mid);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (long) to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
@@ -0,0 +1,254 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.EdgeFilter;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.api.PropertyStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Thread safe implementation for {@link DependencyGraph}, for readers and taggers which fill one graph from several
+ * threads.
+ * <p>
+ * Nodes are kept in a {@link ConcurrentHashMap} by name, so that {@link #getOrCreateNodeByName(String)} creates each
+ * node exactly once, and only locks a single bin of the map. Each node has maps of its outgoing and incoming edges by
+ * the name of the other node, and {@link #addDependency(Node, Node, DependencyType)} inserts or upgrades an edge in one
+ * atomic step on the map of the source node. So concurrent calls give the same graph as serial calls in any order.
+ * Properties are thread safe via {@link PropertyStore} and the element methods.
+ * <p>
+ * Queries return snapshots. They are weakly consistent while other threads add nodes or edges, i.e. they may or may not
+ * see elements which are added concurrently. The order of nodes and edges is unspecified.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public class DependencyGraphConcurrentImpl implements DependencyGraph {
+
+    private final ConcurrentMap<String, NodeEntry> nodes = new ConcurrentHashMap<>();
+    private final AtomicInteger edgeCount = new AtomicInteger();
+
+    private final PropertyStore nodeProperties = new PropertyStore();
+    private final PropertyStore edgeProperties = new PropertyStore();
+
+    @Override
+    public DependencyGraph getBaseGraph() {
+        return this;
+    }
+
+    @Override
+    public Node getOrCreateNodeByName(String name) {
+        checkNotNull(name, "Name may not be null");
+        NodeEntry entry = nodes.get(name); // without locking, if the node exists
+        if (entry == null) {
+            entry = nodes.computeIfAbsent(name, key -> new NodeEntry(new Node(key, nodeProperties)));
+        }
+        return entry.node;
+    }
+
+    @Override
+    public Node getNode(String name) {
+        NodeEntry entry = nodes.get(name);
+        return entry == null ? null : entry.node;
+    }
+
+    @Override
+    public boolean hasNode(String name) {
+        return nodes.containsKey(name);
+    }
+
+    /**
+     * Add a new dependency to the graph.
+     * <p>
+     * If there already is a dependency between these two nodes, the {@link DependencyType} is "upgraded" in case the
+     * new dependency has a higher value (see {@link DependencyType#ordinal()}. Both happens atomically.
+     *
+     * @param from source
+     * @param to   target
+     * @param type type of the dependency
+     * @return the new or the existing {@link Dependency}
+     * @throws IllegalArgumentException if one of the nodes is not part of the graph
+     */
+    @Override
+    public Dependency addDependency(Node from, Node to, DependencyType type) {
+        checkNotNull(type, "Dependency type may not be null");
+        NodeEntry source = entry(from);
+        NodeEntry target = entry(to);
+
+        // compute() runs atomically per key; the incoming map is only changed while the bin of the outgoing map is locked,
+        // so there is no lock cycle.
+        return source.outgoing.compute(target.node.getName(), (targetName, existing) -> {
+            if (existing == null) {
+                Dependency result = new Dependency(source.node, target.node, type, edgeProperties);
+                target.incoming.put(source.node.getName(), result);
+                edgeCount.incrementAndGet();
+                return result;
+            }
+            if (existing.getDependencyType().ordinal() < type.ordinal()) {
+                LOGGER.debug("Upgrading dependency {} to [{}]", existing, type);
+                existing.setDependencyType(type);
+            } else {
+                LOGGER.debug("Reusing dependency {}", existing);
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public Dependency getEdge(Node from, Node to) {
+        NodeEntry source = nodes.get(from.getName());
+        return source == null ? null : source.outgoing.get(to.getName());
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node) {
+        return new LinkedHashSet<>(entry(node).outgoing.values());
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
+        return filterByType(entry(node).outgoing.values(), dependencyType);
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node) {
+        return new LinkedHashSet<>(entry(node).incoming.values());
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
+        return filterByType(entry(node).incoming.values(), dependencyType);
+    }
+
+    @Override
+    public void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        forEachOfType(entry(node).outgoing.values(), dependencyType, action);
+    }
+
+    @Override
+    public void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        forEachOfType(entry(node).incoming.values(), dependencyType, action);
+    }
+
+    @Override
+    public DependencyGraph freeze() {
+        return DependencyGraphFrozenImpl.of(this);
+    }
+
+    @Override
+    public DependencyGraph filter(NodeFilter filter) {
+        return new FilteredDependencyGraph(this, filter, null);
+    }
+
+    @Override
+    public DependencyGraph filter(EdgeFilter filter) {
+        return new FilteredDependencyGraph(this, null, filter);
+    }
+
+    @Override
+    public Collection<Node> getAllNodes() {
+        return nodeStream(false).collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<Dependency> getAllEdges() {
+        return edgeStream(false).collect(Collectors.toList());
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount.get();
+    }
+
+    @Override
+    public Spliterator<Node> nodeSpliterator() {
+        return nodeStream(false).spliterator();
+    }
+
+    @Override
+    public Spliterator<Dependency> edgeSpliterator() {
+        return edgeStream(false).spliterator();
+    }
+
+    @Override
+    public Stream<Node> nodeStream(boolean parallel) {
+        return StreamSupport.stream(nodes.values().spliterator(), parallel).map(entry -> entry.node);
+    }
+
+    @Override
+    public Stream<Dependency> edgeStream(boolean parallel) {
+        return StreamSupport.stream(nodes.values().spliterator(), parallel).flatMap(entry -> entry.outgoing.values().stream());
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() +
+                "[Nodes:" +
+                nodeCount() +
+                "; Edges:" +
+                edgeCount() +
+                "]";
+    }
+
+    /**
+     * Finds the entry of the given node.
+     *
+     * @throws IllegalArgumentException if the node is not part of the graph, like the JGraphT based implementation
+     */
+    private NodeEntry entry(Node node) {
+        NodeEntry result = nodes.get(checkNotNull(node, "Node may not be null").getName());
+        if (result == null) {
+            throw new IllegalArgumentException("no such vertex in graph: " + node.getName());
+        }
+        return result;
+    }
+
+    private static Set<Dependency> filterByType(Collection<Dependency> dependencies, DependencyType dependencyType) {
+        Set<Dependency> result = new LinkedHashSet<>();
+        forEachOfType(dependencies, dependencyType, result::add);
+        return result;
+    }
+
+    private static void forEachOfType(Collection<Dependency> dependencies, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        checkNotNull(dependencyType);
+        for (Dependency dependency : dependencies) {
+            if (dependency.getDependencyType() == dependencyType) {
+                action.accept(dependency);
+            }
+        }
+    }
+
+    /**
+     * A node with its edges, by the name of the node at the other end.
+     */
+    private static final class NodeEntry {
+        private final Node node;
+        private final ConcurrentMap<String, Dependency> outgoing = new ConcurrentHashMap<>(4);
+        private final ConcurrentMap<String, Dependency> incoming = new ConcurrentHashMap<>(4);
+
+        private NodeEntry(Node node) {
+            this.node = node;
+        }
+    }
+}
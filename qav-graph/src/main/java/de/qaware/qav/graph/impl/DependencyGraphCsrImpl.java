@@ -0,0 +1,620 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.EdgeFilter;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.api.PropertyStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Implementation for {@link DependencyGraph} based on int ids and adjacency arrays in compressed sparse row (CSR)
+ * format.
+ * <p>
+ * Nodes and edges get consecutive int ids in the order of insertion, and are kept in plain arrays. For each node, the
+ * ids of the outgoing and of the incoming edges are stored in one contiguous range of a shared int array, partitioned by
+ * {@link DependencyType}. This needs a fraction of the memory of the JGraphT based {@link DependencyGraphSimpleImpl},
+ * which keeps a hash map and two edge sets per node, and it makes traversals cache friendly. Nodes are found by name
+ * via an open addressing hash index, edges by their end points via a primitive hash map.
+ * <p>
+ * Edges added after the last compaction are kept in linked lists of int ids, and are moved into the CSR arrays when
+ * their number exceeds the number of compacted edges, so that adding edges takes amortized constant time. When the type
+ * of a compacted edge is upgraded, the edge is moved to its new partition within the ranges of its nodes, so that the
+ * ranges stay sorted by type without another compaction.
+ * <p>
+ * The sets returned by the edge queries are snapshots: they do not change when edges are added later, and they can't be
+ * modified. The type of an edge must only be changed via {@link #addDependency(Node, Node, DependencyType)}, not by
+ * calling {@link Dependency#setDependencyType(DependencyType)} directly, as the partitions by type would not notice.
+ * <p>
+ * Not thread safe.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public class DependencyGraphCsrImpl implements DependencyGraph {
+
+    private static final int NO_ID = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_PENDING_EDGES = 1024;
+    private static final int NUM_TYPES = DependencyType.values().length;
+
+    // --- nodes
+    private Node[] nodes = new Node[INITIAL_CAPACITY];
+    /**
+     * The names of the nodes, so that lookups don't need to query the property maps.
+     */
+    private String[] nodeNames = new String[INITIAL_CAPACITY];
+    private int nodeCount;
+
+    private final PropertyStore nodeProperties = new PropertyStore();
+
+    /**
+     * Hash index from node name to node id: contains <tt>id + 1</tt>, 0 marks empty slots.
+     */
+    private int[] nameIndex = new int[INITIAL_CAPACITY * 2];
+
+    // --- edges
+    private Dependency[] edges = new Dependency[INITIAL_CAPACITY];
+    private int[] edgeSource = new int[INITIAL_CAPACITY];
+    private int[] edgeTarget = new int[INITIAL_CAPACITY];
+    private int edgeCount;
+    private final PropertyStore edgeProperties = new PropertyStore();
+
+    /**
+     * Index from <tt>(source id, target id)</tt> to edge id.
+     */
+    private final LongIntHashMap edgeIndex = new LongIntHashMap(INITIAL_CAPACITY);
+
+    // --- CSR arrays for the edges with ids smaller than compactedEdges, and the nodes with ids smaller than compactedNodes
+    private int compactedNodes;
+    private int compactedEdges;
+
+    private final Adjacency outgoing = new Adjacency();
+    private final Adjacency incoming = new Adjacency();
+
+    @Override
+    public DependencyGraph getBaseGraph() {
+        return this;
+    }
+
+    @Override
+    public Node getOrCreateNodeByName(String name) {
+        int id = findNodeId(name);
+        if (id != NO_ID) {
+            return nodes[id];
+        }
+
+        Node node = new Node(name, nodeProperties);
+        addNode(node);
+        return node;
+    }
+
+    @Override
+    public Node getNode(String name) {
+        int id = findNodeId(name);
+        return id == NO_ID ? null : nodes[id];
+    }
+
+    @Override
+    public boolean hasNode(String name) {
+        return findNodeId(name) != NO_ID;
+    }
+
+    /**
+     * Add a new dependency to the graph.
+     * <p>
+     * If there already is a dependency between these two nodes, the {@link DependencyType} is "upgraded" in case the
+     * new dependency has a higher value (see {@link DependencyType#ordinal()}.
+     *
+     * @param from source
+     * @param to   target
+     * @param type type of the dependency
+     * @return the new {@link Dependency}
+     * @throws IllegalArgumentException if one of the nodes is not part of the graph
+     */
+    @Override
+    public Dependency addDependency(Node from, Node to, DependencyType type) {
+        checkNotNull(type, "Dependency type may not be null");
+        int sourceId = nodeId(from);
+        int targetId = nodeId(to);
+
+        int edgeId = edgeIndex.get(edgeKey(sourceId, targetId));
+        if (edgeId != LongIntHashMap.NO_VALUE) {
+            Dependency edge = edges[edgeId];
+            if (edge.getDependencyType().ordinal() < type.ordinal()) {
+                LOGGER.debug("Upgrading dependency {} to [{}]", edge, type);
+                if (edgeId < compactedEdges) {
+                    outgoing.moveToType(sourceId, edgeId, type);
+                    incoming.moveToType(targetId, edgeId, type);
+                }
+                edge.setDependencyType(type);
+            } else {
+                LOGGER.debug("Reusing dependency {}", edge);
+            }
+            return edge;
+        }
+
+        Dependency result = new Dependency(nodes[sourceId], nodes[targetId], type, edgeProperties);
+        addEdge(result, sourceId, targetId);
+        if (edgeCount - compactedEdges > Math.max(MIN_PENDING_EDGES, compactedEdges)) {
+            compact();
+        }
+        return result;
+    }
+
+    @Override
+    public Dependency getEdge(Node from, Node to) {
+        int sourceId = findNodeId(from.getName());
+        int targetId = findNodeId(to.getName());
+        if (sourceId == NO_ID || targetId == NO_ID) {
+            return null;
+        }
+        int edgeId = edgeIndex.get(edgeKey(sourceId, targetId));
+        return edgeId == LongIntHashMap.NO_VALUE ? null : edges[edgeId];
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node) {
+        return outgoing.collect(nodeId(node), null);
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
+        return outgoing.collect(nodeId(node), checkNotNull(dependencyType));
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node) {
+        return incoming.collect(nodeId(node), null);
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
+        return incoming.collect(nodeId(node), checkNotNull(dependencyType));
+    }
+
+    @Override
+    public void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        outgoing.forEach(nodeId(node), checkNotNull(dependencyType), action);
+    }
+
+    @Override
+    public void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        incoming.forEach(nodeId(node), checkNotNull(dependencyType), action);
+    }
+
+    @Override
+    public boolean hasOutgoingEdge(Node node, DependencyType dependencyType) {
+        return outgoing.hasEdge(nodeId(node), checkNotNull(dependencyType));
+    }
+
+    @Override
+    public boolean hasIncomingEdge(Node node, DependencyType dependencyType) {
+        return incoming.hasEdge(nodeId(node), checkNotNull(dependencyType));
+    }
+
+    @Override
+    public DependencyGraph freeze() {
+        return DependencyGraphFrozenImpl.of(this);
+    }
+
+    @Override
+    public DependencyGraph filter(NodeFilter filter) {
+        return new FilteredDependencyGraph(this, filter, null);
+    }
+
+    @Override
+    public DependencyGraph filter(EdgeFilter filter) {
+        return new FilteredDependencyGraph(this, null, filter);
+    }
+
+    @Override
+    public Collection<Node> getAllNodes() {
+        return Arrays.asList(Arrays.copyOf(nodes, nodeCount));
+    }
+
+    @Override
+    public Collection<Dependency> getAllEdges() {
+        return Arrays.asList(Arrays.copyOf(edges, edgeCount));
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public void forEachNode(Consumer<? super Node> action) {
+        for (int id = 0; id < nodeCount; id++) {
+            action.accept(nodes[id]);
+        }
+    }
+
+    @Override
+    public void forEachEdge(Consumer<? super Dependency> action) {
+        for (int id = 0; id < edgeCount; id++) {
+            action.accept(edges[id]);
+        }
+    }
+
+    @Override
+    public Spliterator<Node> nodeSpliterator() {
+        return Arrays.spliterator(nodes, 0, nodeCount);
+    }
+
+    @Override
+    public Spliterator<Dependency> edgeSpliterator() {
+        return Arrays.spliterator(edges, 0, edgeCount);
+    }
+
+    /**
+     * Moves all edges into the CSR arrays, sorted by type within the range of each node. This happens automatically
+     * while edges are added; calling it explicitly only releases the memory of the pending edge lists early.
+     * <p>
+     * Runs in linear time, using counting sorts.
+     */
+    public void compact() {
+        // stable counting sort of all edge ids by type, so that the following sorts by node keep them partitioned:
+        int[] byType = new int[edgeCount];
+        int[] typeOffsets = new int[NUM_TYPES + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            typeOffsets[edges[i].getDependencyType().ordinal() + 1]++;
+        }
+        for (int t = 0; t < NUM_TYPES; t++) {
+            typeOffsets[t + 1] += typeOffsets[t];
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            byType[typeOffsets[edges[i].getDependencyType().ordinal()]++] = i;
+        }
+
+        outgoing.compact(byType, edgeSource);
+        incoming.compact(byType, edgeTarget);
+
+        compactedNodes = nodeCount;
+        compactedEdges = edgeCount;
+
+        LOGGER.debug("Compacted {}", this);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() +
+                "[Nodes:" +
+                nodeCount +
+                "; Edges:" +
+                edgeCount +
+                "]";
+    }
+
+    // ----- nodes
+
+    private void addNode(Node node) {
+        if (nodeCount == nodes.length) {
+            int capacity = nodes.length * 2;
+            nodes = Arrays.copyOf(nodes, capacity);
+            nodeNames = Arrays.copyOf(nodeNames, capacity);
+            outgoing.growNodes(capacity);
+            incoming.growNodes(capacity);
+        }
+        nodes[nodeCount] = node;
+        nodeNames[nodeCount] = node.getName();
+        nodeCount++;
+
+        if (nodeCount > nameIndex.length / 2) {
+            nameIndex = new int[nameIndex.length * 2];
+            for (int id = 0; id < nodeCount; id++) {
+                insertIntoNameIndex(id);
+            }
+        } else {
+            insertIntoNameIndex(nodeCount - 1);
+        }
+    }
+
+    private void insertIntoNameIndex(int id) {
+        int mask = nameIndex.length - 1;
+        int slot = hash(nodeNames[id]) & mask;
+        while (nameIndex[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        nameIndex[slot] = id + 1;
+    }
+
+    private int findNodeId(String name) {
+        int mask = nameIndex.length - 1;
+        int slot = hash(name) & mask;
+        while (nameIndex[slot] != 0) {
+            int id = nameIndex[slot] - 1;
+            if (nodeNames[id].equals(name)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_ID;
+    }
+
+    /**
+     * Finds the id of the given node.
+     *
+     * @throws IllegalArgumentException if the node is not part of the graph, like the JGraphT based implementation
+     */
+    private int nodeId(Node node) {
+        int id = findNodeId(checkNotNull(node, "Node may not be null").getName());
+        if (id == NO_ID) {
+            throw new IllegalArgumentException("no such vertex in graph: " + node.getName());
+        }
+        return id;
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ----- edges
+
+    private void addEdge(Dependency edge, int sourceId, int targetId) {
+        if (edgeCount == edges.length) {
+            int capacity = edges.length * 2;
+            edges = Arrays.copyOf(edges, capacity);
+            edgeSource = Arrays.copyOf(edgeSource, capacity);
+            edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+        }
+        int edgeId = edgeCount;
+        edges[edgeId] = edge;
+        edgeSource[edgeId] = sourceId;
+        edgeTarget[edgeId] = targetId;
+        edgeCount++;
+        edgeIndex.put(edgeKey(sourceId, targetId), edgeId);
+
+        outgoing.append(sourceId, edgeId);
+        incoming.append(targetId, edgeId);
+    }
+
+    private static long edgeKey(int sourceId, int targetId) {
+        return ((long) sourceId << 32) | (targetId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Binary search in a range which is sorted by type.
+     *
+     * @return the first index in the range with a type ordinal not less than the given one
+     */
+    private int lowerBound(int[] edgeIds, int from, int to, int ordinal) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (edges[edgeIds[mid]].getDependencyType().ordinal() < ordinal) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] newIdArray(int size) {
+        int[] result = new int[size];
+        Arrays.fill(result, NO_ID);
+        return result;
+    }
+
+    private static int[] growIdArray(int[] array, int size) {
+        int oldSize = array.length;
+        int[] result = Arrays.copyOf(array, size);
+        Arrays.fill(result, oldSize, size, NO_ID);
+        return result;
+    }
+
+    /**
+     * The edges of all nodes in one direction: the CSR arrays for the compacted edges, and linked lists for the pending
+     * edges, i.e. the edges added since the last compaction.
+     */
+    private final class Adjacency {
+
+        /**
+         * start index per node id in {@link #edgeIds}; the last entry is the number of compacted edges.
+         */
+        private int[] offsets = new int[1];
+        private int[] edgeIds = new int[0];
+
+        /**
+         * first and last pending edge id per node id, and the next pending edge id, indexed by edge id minus {@link
+         * #compactedEdges}.
+         */
+        private int[] head = newIdArray(INITIAL_CAPACITY);
+        private int[] tail = newIdArray(INITIAL_CAPACITY);
+        private int[] next = new int[INITIAL_CAPACITY];
+
+        private void growNodes(int capacity) {
+            head = growIdArray(head, capacity);
+            tail = growIdArray(tail, capacity);
+        }
+
+        /**
+         * Appends a pending edge to the linked list of the node.
+         */
+        private void append(int nodeId, int edgeId) {
+            int pendingIndex = edgeId - compactedEdges;
+            if (pendingIndex == next.length) {
+                next = Arrays.copyOf(next, next.length * 2);
+            }
+            next[pendingIndex] = NO_ID;
+            if (head[nodeId] == NO_ID) {
+                head[nodeId] = edgeId;
+            } else {
+                next[tail[nodeId] - compactedEdges] = edgeId;
+            }
+            tail[nodeId] = edgeId;
+        }
+
+        /**
+         * Moves a compacted edge to the partition of its new type within the range of the node, by swapping it with
+         * the last edge of each partition in between. Must be called before the type of the edge is changed.
+         *
+         * @param nodeId the node id
+         * @param edgeId the id of the edge, which is in the range of the node
+         * @param type   the new type, with a higher ordinal than the current one
+         */
+        private void moveToType(int nodeId, int edgeId, DependencyType type) {
+            int from = offsets[nodeId];
+            int to = offsets[nodeId + 1];
+            int oldOrdinal = edges[edgeId].getDependencyType().ordinal();
+            int newOrdinal = type.ordinal();
+
+            // partition ends before moving, as the binary search relies on the sorted order:
+            int[] ends = new int[newOrdinal - oldOrdinal];
+            for (int t = oldOrdinal; t < newOrdinal; t++) {
+                ends[t - oldOrdinal] = lowerBound(edgeIds, from, to, t + 1);
+            }
+            int position = lowerBound(edgeIds, from, to, oldOrdinal);
+            while (edgeIds[position] != edgeId) {
+                position++;
+            }
+            for (int end : ends) {
+                edgeIds[position] = edgeIds[end - 1];
+                edgeIds[end - 1] = edgeId;
+                position = end - 1;
+            }
+        }
+
+        /**
+         * Stable counting sort of the given edge ids by node id, into the CSR arrays.
+         *
+         * @param sortedEdgeIds all edge ids, sorted by type
+         * @param nodeIds       the node id per edge id, i.e. {@link #edgeSource} or {@link #edgeTarget}
+         */
+        private void compact(int[] sortedEdgeIds, int[] nodeIds) {
+            offsets = new int[nodeCount + 1];
+            for (int edgeId : sortedEdgeIds) {
+                offsets[nodeIds[edgeId] + 1]++;
+            }
+            for (int id = 0; id < nodeCount; id++) {
+                offsets[id + 1] += offsets[id];
+            }
+            int[] position = Arrays.copyOf(offsets, nodeCount);
+            edgeIds = new int[sortedEdgeIds.length];
+            for (int edgeId : sortedEdgeIds) {
+                edgeIds[position[nodeIds[edgeId]]++] = edgeId;
+            }
+
+            Arrays.fill(head, NO_ID);
+            Arrays.fill(tail, NO_ID);
+            next = new int[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Calls the action for the compacted and the pending edges of the given node, in this order.
+         *
+         * @param nodeId the node id
+         * @param type   the {@link DependencyType} to select, or <tt>null</tt> for all edges
+         * @param action the action
+         */
+        private void forEach(int nodeId, DependencyType type, Consumer<? super Dependency> action) {
+            if (nodeId < compactedNodes) {
+                int from = offsets[nodeId];
+                int to = offsets[nodeId + 1];
+                if (type != null) {
+                    from = lowerBound(edgeIds, from, to, type.ordinal());
+                    to = lowerBound(edgeIds, from, to, type.ordinal() + 1);
+                }
+                for (int i = from; i < to; i++) {
+                    action.accept(edges[edgeIds[i]]);
+                }
+            }
+            for (int edgeId = head[nodeId]; edgeId != NO_ID; edgeId = next[edgeId - compactedEdges]) {
+                Dependency edge = edges[edgeId];
+                if (type == null || edge.getDependencyType() == type) {
+                    action.accept(edge);
+                }
+            }
+        }
+
+        private boolean hasEdge(int nodeId, DependencyType type) {
+            if (nodeId < compactedNodes) {
+                int from = offsets[nodeId];
+                int to = offsets[nodeId + 1];
+                from = lowerBound(edgeIds, from, to, type.ordinal());
+                if (from < to && edges[edgeIds[from]].getDependencyType() == type) {
+                    return true;
+                }
+            }
+            for (int edgeId = head[nodeId]; edgeId != NO_ID; edgeId = next[edgeId - compactedEdges]) {
+                if (edges[edgeId].getDependencyType() == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Set<Dependency> collect(int nodeId, DependencyType type) {
+            int degree = nodeId < compactedNodes ? offsets[nodeId + 1] - offsets[nodeId] : 0;
+            EdgeSet result = new EdgeSet(degree + 4);
+            forEach(nodeId, type, result::append);
+            return result;
+        }
+    }
+
+    /**
+     * Unmodifiable snapshot of edges.
+     */
+    private static final class EdgeSet extends AbstractSet<Dependency> {
+
+        private Dependency[] items;
+        private int size;
+
+        private EdgeSet(int capacity) {
+            this.items = new Dependency[capacity];
+        }
+
+        private void append(Dependency edge) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = edge;
+        }
+
+        @Override
+        public Iterator<Dependency> iterator() {
+            return new Iterator<Dependency>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Dependency next() {
+                    if (index >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return items[index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
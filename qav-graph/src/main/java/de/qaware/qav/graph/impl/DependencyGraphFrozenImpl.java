@@ -0,0 +1,618 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.AbstractGraphElement;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.EdgeFilter;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.api.PropertyStore;
+import de.qaware.qav.graph.api.SortedIntList;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable snapshot of a {@link DependencyGraph}, see {@link DependencyGraph#freeze()}.
+ * <p>
+ * The nodes are sorted by name, and the edges by source, type and target, so that the outgoing edges of a node are one
+ * contiguous range of the edge array, partitioned by {@link DependencyType} and sorted by target. The incoming edges are
+ * a range of an int array of edge ids, sorted by target, type and source. All arrays have their exact size, and equal
+ * strings in names and properties are shared.
+ * <p>
+ * All fields are final and the property stores are frozen, so the snapshot is thread safe without any locking. The edge
+ * queries return views on the arrays instead of copies.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class DependencyGraphFrozenImpl implements DependencyGraph {
+
+    private static final int NO_ID = -1;
+    private static final int NUM_TYPES = DependencyType.values().length;
+    private static final DependencyType[] TYPES = DependencyType.values();
+    private static final String FROZEN = "this graph is frozen";
+
+    private final Node[] nodes;
+    private final String[] nodeNames;
+    /**
+     * Hash index from node name to node id: contains <tt>id + 1</tt>, 0 marks empty slots.
+     */
+    private final int[] nameIndex;
+
+    /**
+     * the edges, sorted by source, type and target; the outgoing edges of node <tt>n</tt> have the ids from
+     * <tt>outOffsets[n]</tt> to <tt>outOffsets[n + 1]</tt>.
+     */
+    private final Dependency[] edges;
+    private final byte[] edgeTypes;
+    private final int[] edgeTarget;
+    private final int[] outOffsets;
+
+    /**
+     * the ids of the edges, sorted by target, type and source; the incoming edges of node <tt>n</tt> are at the indexes
+     * from <tt>inOffsets[n]</tt> to <tt>inOffsets[n + 1]</tt>.
+     */
+    private final int[] inEdgeIds;
+    private final int[] inOffsets;
+
+    private final List<Node> nodeList;
+    private final List<Dependency> edgeList;
+
+    private DependencyGraphFrozenImpl(Builder builder) {
+        this.nodes = builder.nodes;
+        this.nodeNames = builder.nodeNames;
+        this.nameIndex = builder.nameIndex;
+        this.edges = builder.edges;
+        this.edgeTypes = builder.edgeTypes;
+        this.edgeTarget = builder.edgeTarget;
+        this.outOffsets = builder.outOffsets;
+        this.inEdgeIds = builder.inEdgeIds;
+        this.inOffsets = builder.inOffsets;
+        this.nodeList = Collections.unmodifiableList(Arrays.asList(nodes));
+        this.edgeList = Collections.unmodifiableList(Arrays.asList(edges));
+    }
+
+    /**
+     * Creates a snapshot of the given graph, i.e. of the nodes and edges visible in it.
+     *
+     * @param graph the graph
+     * @return the snapshot; the graph itself, if it is a snapshot already
+     */
+    public static DependencyGraphFrozenImpl of(DependencyGraph graph) {
+        checkNotNull(graph, "graph");
+        if (graph instanceof DependencyGraphFrozenImpl) {
+            return (DependencyGraphFrozenImpl) graph;
+        }
+        DependencyGraphFrozenImpl result = new DependencyGraphFrozenImpl(new Builder(graph));
+        LOGGER.debug("Froze {} to {}", graph, result);
+        return result;
+    }
+
+    @Override
+    public DependencyGraph freeze() {
+        return this;
+    }
+
+    @Override
+    public DependencyGraph getBaseGraph() {
+        return this;
+    }
+
+    @Override
+    public Node getOrCreateNodeByName(String name) {
+        int id = findNodeId(checkNotNull(name, "Name may not be null"));
+        if (id == NO_ID) {
+            throw new UnsupportedOperationException(FROZEN);
+        }
+        return nodes[id];
+    }
+
+    @Override
+    public Node getNode(String name) {
+        int id = findNodeId(name);
+        return id == NO_ID ? null : nodes[id];
+    }
+
+    @Override
+    public boolean hasNode(String name) {
+        return findNodeId(name) != NO_ID;
+    }
+
+    /**
+     * Returns the existing edge, if it has the given type or a higher one, like the other implementations do.
+     *
+     * @throws UnsupportedOperationException if the edge does not exist or would have to be upgraded
+     */
+    @Override
+    public Dependency addDependency(Node from, Node to, DependencyType type) {
+        checkNotNull(type, "Dependency type may not be null");
+        nodeId(from);
+        nodeId(to);
+        Dependency edge = getEdge(from, to);
+        if (edge == null || edge.getDependencyType().ordinal() < type.ordinal()) {
+            throw new UnsupportedOperationException(FROZEN);
+        }
+        return edge;
+    }
+
+    @Override
+    public Dependency getEdge(Node from, Node to) {
+        int sourceId = findNodeId(from.getName());
+        int targetId = findNodeId(to.getName());
+        if (sourceId == NO_ID || targetId == NO_ID) {
+            return null;
+        }
+        // each type partition of the outgoing range is sorted by target:
+        int start = outOffsets[sourceId];
+        int end = outOffsets[sourceId + 1];
+        while (start < end) {
+            int typeEnd = lowerBound(start, end, edgeTypes[start] + 1);
+            int index = Arrays.binarySearch(edgeTarget, start, typeEnd, targetId);
+            if (index >= 0) {
+                return edges[index];
+            }
+            start = typeEnd;
+        }
+        return null;
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node) {
+        int id = nodeId(node);
+        return new EdgeRange(null, outOffsets[id], outOffsets[id + 1]);
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
+        int id = nodeId(node);
+        int ordinal = checkNotNull(dependencyType).ordinal();
+        int from = lowerBound(outOffsets[id], outOffsets[id + 1], ordinal);
+        int to = lowerBound(from, outOffsets[id + 1], ordinal + 1);
+        return new EdgeRange(null, from, to);
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node) {
+        int id = nodeId(node);
+        return new EdgeRange(inEdgeIds, inOffsets[id], inOffsets[id + 1]);
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
+        int id = nodeId(node);
+        int ordinal = checkNotNull(dependencyType).ordinal();
+        int from = lowerBoundIncoming(inOffsets[id], inOffsets[id + 1], ordinal);
+        int to = lowerBoundIncoming(from, inOffsets[id + 1], ordinal + 1);
+        return new EdgeRange(inEdgeIds, from, to);
+    }
+
+    @Override
+    public void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        getOutgoingEdges(node, dependencyType).forEach(action);
+    }
+
+    @Override
+    public void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        getIncomingEdges(node, dependencyType).forEach(action);
+    }
+
+    @Override
+    public boolean hasOutgoingEdge(Node node, DependencyType dependencyType) {
+        return !getOutgoingEdges(node, dependencyType).isEmpty();
+    }
+
+    @Override
+    public boolean hasIncomingEdge(Node node, DependencyType dependencyType) {
+        return !getIncomingEdges(node, dependencyType).isEmpty();
+    }
+
+    @Override
+    public DependencyGraph filter(NodeFilter filter) {
+        return new FilteredDependencyGraph(this, filter, null);
+    }
+
+    @Override
+    public DependencyGraph filter(EdgeFilter filter) {
+        return new FilteredDependencyGraph(this, null, filter);
+    }
+
+    @Override
+    public Collection<Node> getAllNodes() {
+        return nodeList;
+    }
+
+    @Override
+    public Collection<Dependency> getAllEdges() {
+        return edgeList;
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    @Override
+    public void forEachNode(Consumer<? super Node> action) {
+        for (Node node : nodes) {
+            action.accept(node);
+        }
+    }
+
+    @Override
+    public void forEachEdge(Consumer<? super Dependency> action) {
+        for (Dependency edge : edges) {
+            action.accept(edge);
+        }
+    }
+
+    @Override
+    public Spliterator<Node> nodeSpliterator() {
+        return Arrays.spliterator(nodes);
+    }
+
+    @Override
+    public Spliterator<Dependency> edgeSpliterator() {
+        return Arrays.spliterator(edges);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() +
+                "[Nodes:" +
+                nodes.length +
+                "; Edges:" +
+                edges.length +
+                "]";
+    }
+
+    private int findNodeId(String name) {
+        int mask = nameIndex.length - 1;
+        int slot = hash(name) & mask;
+        while (nameIndex[slot] != 0) {
+            int id = nameIndex[slot] - 1;
+            if (nodeNames[id].equals(name)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_ID;
+    }
+
+    /**
+     * Finds the id of the given node.
+     *
+     * @throws IllegalArgumentException if the node is not part of the graph, like the JGraphT based implementation
+     */
+    private int nodeId(Node node) {
+        int id = findNodeId(checkNotNull(node, "Node may not be null").getName());
+        if (id == NO_ID) {
+            throw new IllegalArgumentException("no such vertex in graph: " + node.getName());
+        }
+        return id;
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the first edge id in the range with a type ordinal not less than the given one
+     */
+    private int lowerBound(int from, int to, int ordinal) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (edgeTypes[mid] < ordinal) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first index in the range of {@link #inEdgeIds} with a type ordinal not less than the given one
+     */
+    private int lowerBoundIncoming(int from, int to, int ordinal) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (edgeTypes[inEdgeIds[mid]] < ordinal) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Unmodifiable view on a range of edges: of the edge array itself, or of edge ids.
+     */
+    private final class EdgeRange extends AbstractSet<Dependency> {
+
+        private final int[] ids;
+        private final int from;
+        private final int to;
+
+        /**
+         * @param ids  the edge ids, or <tt>null</tt> if the range is a range of edge ids itself
+         * @param from start index, inclusive
+         * @param to   end index, exclusive
+         */
+        private EdgeRange(int[] ids, int from, int to) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        private Dependency get(int index) {
+            return edges[ids == null ? index : ids[index]];
+        }
+
+        @Override
+        public Iterator<Dependency> iterator() {
+            return new Iterator<Dependency>() {
+                private int index = from;
+
+                @Override
+                public boolean hasNext() {
+                    return index < to;
+                }
+
+                @Override
+                public Dependency next() {
+                    if (index >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(index++);
+                }
+            };
+        }
+
+        @Override
+        public void forEach(Consumer<? super Dependency> action) {
+            for (int index = from; index < to; index++) {
+                action.accept(get(index));
+            }
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return from == to;
+        }
+    }
+
+    /**
+     * Copies the graph into the sorted arrays. Only used while freezing.
+     */
+    private static final class Builder {
+
+        private final Map<Object, Object> interned = new HashMap<>();
+        private final PropertyStore nodeProperties = new PropertyStore();
+        private final PropertyStore edgeProperties = new PropertyStore();
+
+        private Node[] nodes;
+        private String[] nodeNames;
+        private int[] nameIndex;
+
+        private Dependency[] edges;
+        private byte[] edgeTypes;
+        private int[] edgeSource;
+        private int[] edgeTarget;
+        private int[] outOffsets;
+        private int[] inEdgeIds;
+        private int[] inOffsets;
+
+        private Builder(DependencyGraph graph) {
+            copyNodes(graph);
+            copyEdges(graph);
+            nodeProperties.freeze();
+            edgeProperties.freeze();
+        }
+
+        private void copyNodes(DependencyGraph graph) {
+            List<Node> originals = new ArrayList<>(graph.nodeCount());
+            graph.forEachNode(originals::add);
+            originals.sort(Comparator.comparing(Node::getName));
+
+            int nodeCount = originals.size();
+            nodes = new Node[nodeCount];
+            nodeNames = new String[nodeCount];
+            nameIndex = new int[Integer.highestOneBit(Math.max(nodeCount, 1)) * 4];
+            int mask = nameIndex.length - 1;
+            for (int id = 0; id < nodeCount; id++) {
+                Node original = originals.get(id);
+                nodeNames[id] = intern(original.getName());
+                nodes[id] = new Node(nodeNames[id], nodeProperties);
+                copyProperties(original, nodes[id]);
+
+                int slot = hash(nodeNames[id]) & mask;
+                while (nameIndex[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                nameIndex[slot] = id + 1;
+            }
+        }
+
+        private void copyEdges(DependencyGraph graph) {
+            List<Dependency> originals = new ArrayList<>(graph.edgeCount());
+            graph.forEachEdge(originals::add);
+            int edgeCount = originals.size();
+            int nodeCount = nodes.length;
+
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            int[] types = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                Dependency original = originals.get(i);
+                sources[i] = findId(original.getSource());
+                targets[i] = findId(original.getTarget());
+                types[i] = original.getDependencyType().ordinal();
+            }
+
+            // the outgoing order is the order of the edge ids: by source, type, target; as stable counting sorts from the
+            // last key to the first:
+            int[] order = identity(edgeCount);
+            order = countingSort(order, targets, nodeCount);
+            order = countingSort(order, types, NUM_TYPES);
+            order = countingSort(order, sources, nodeCount);
+
+            edges = new Dependency[edgeCount];
+            edgeTypes = new byte[edgeCount];
+            edgeSource = new int[edgeCount];
+            edgeTarget = new int[edgeCount];
+            Map<Dependency, Dependency> copies = new IdentityHashMap<>(edgeCount);
+            for (int id = 0; id < edgeCount; id++) {
+                int i = order[id];
+                Dependency original = originals.get(i);
+                edges[id] = new Dependency(nodes[sources[i]], nodes[targets[i]], TYPES[types[i]], edgeProperties);
+                edgeTypes[id] = (byte) types[i];
+                edgeSource[id] = sources[i];
+                edgeTarget[id] = targets[i];
+                copyProperties(original, edges[id]);
+                copies.put(original, edges[id]);
+            }
+            // base dependencies which are edges of the graph refer to the copies, others are kept:
+            for (Map.Entry<Dependency, Dependency> entry : copies.entrySet()) {
+                Dependency copy = entry.getValue();
+                entry.getKey().forEachBaseDependency(base -> copy.addBaseDependency(copies.getOrDefault(base, base)));
+            }
+            outOffsets = offsets(edgeSource, nodeCount);
+
+            // incoming: by target, type, source
+            int[] incoming = identity(edgeCount);
+            incoming = countingSort(incoming, edgeSource, nodeCount);
+            incoming = countingSort(incoming, toInts(edgeTypes), NUM_TYPES);
+            inEdgeIds = countingSort(incoming, edgeTarget, nodeCount);
+            inOffsets = offsets(edgeTarget, nodeCount);
+        }
+
+        private int findId(Node node) {
+            int mask = nameIndex.length - 1;
+            int slot = hash(node.getName()) & mask;
+            while (!nodeNames[nameIndex[slot] - 1].equals(node.getName())) {
+                slot = (slot + 1) & mask;
+            }
+            return nameIndex[slot] - 1;
+        }
+
+        private void copyProperties(AbstractGraphElement original, AbstractGraphElement copy) {
+            original.forEachProperty((key, value) -> {
+                if (!AbstractGraphElement.NAME.equals(key)) {
+                    copy.setProperty(intern(key), copyValue(value));
+                }
+            });
+        }
+
+        /**
+         * Copies lists, so that the snapshot does not see later changes of the original. Lists other than {@link
+         * SortedIntList} are made unmodifiable.
+         */
+        private Object copyValue(Object value) {
+            if (value instanceof SortedIntList) {
+                return new SortedIntList((SortedIntList) value);
+            }
+            if (value instanceof List) {
+                List<Object> result = new ArrayList<>(((List<?>) value).size());
+                ((List<?>) value).forEach(item -> result.add(intern(item)));
+                return Collections.unmodifiableList(result);
+            }
+            return intern(value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T intern(T value) {
+            if (value instanceof String) {
+                return (T) interned.computeIfAbsent(value, key -> key);
+            }
+            return value;
+        }
+
+        private static int[] identity(int size) {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = i;
+            }
+            return result;
+        }
+
+        private static int[] toInts(byte[] values) {
+            int[] result = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                result[i] = values[i];
+            }
+            return result;
+        }
+
+        /**
+         * Stable counting sort of the given indexes by their keys.
+         *
+         * @param order   the indexes
+         * @param keys    the key per index, from 0 to <tt>numKeys - 1</tt>
+         * @param numKeys the number of different keys
+         * @return the sorted indexes
+         */
+        private static int[] countingSort(int[] order, int[] keys, int numKeys) {
+            int[] position = new int[numKeys + 1];
+            for (int index : order) {
+                position[keys[index] + 1]++;
+            }
+            for (int key = 0; key < numKeys; key++) {
+                position[key + 1] += position[key];
+            }
+            int[] result = new int[order.length];
+            for (int index : order) {
+                result[position[keys[index]]++] = index;
+            }
+            return result;
+        }
+
+        /**
+         * @param nodeIds the node id per index, sorted
+         * @return the start index per node id, and the end index as last entry
+         */
+        private static int[] offsets(int[] nodeIds, int nodeCount) {
+            int[] result = new int[nodeCount + 1];
+            for (int id : nodeIds) {
+                result[id + 1]++;
+            }
+            for (int id = 0; id < nodeCount; id++) {
+                result[id + 1] += result[id];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,759 @@
+package de.qaware.qav.graph.impl;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.io.CountingOutputStream;
+import de.qaware.qav.graph.api.AbstractGraphElement;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.EdgeFilter;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.api.PropertyStore;
+import de.qaware.qav.graph.io.BinaryGraphCodec;
+import de.qaware.qav.util.FileNameUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Read-only {@link DependencyGraph} on a memory-mapped file, for graphs which are too large for the heap.
+ * <p>
+ * {@link #write(DependencyGraph, String)} writes the graph in the layout of {@link DependencyGraphFrozenImpl}: a String
+ * table with the node names first, a hash index from name to node id, fixed-width edge records (source, target, type)
+ * sorted by source, type and target, the incoming edge ids sorted by target, type and source, offsets per node into both,
+ * and the properties per node and edge in the encoding of {@link BinaryGraphCodec}. {@link #open(String)} maps these
+ * sections without parsing them, so that opening is independent of the size of the graph, and the operating system
+ * pages the data in and out as needed.
+ * <p>
+ * {@link Node}s and {@link Dependency}s are read with their properties when they are accessed, and are kept in a
+ * cache with soft references: an element exists only once as long as it is referenced, and the garbage collector may
+ * drop the others when the heap runs low; they are read again on the next access. So the heap holds the elements in
+ * use, plus as many of the others as there is room for. Base dependencies are not stored.
+ * <p>
+ * The graph can't be changed, like a {@link DependencyGraph#freeze() frozen} graph. It is thread safe. The file
+ * format is meant for caches of a single version of QAvalidator, like the one of {@link BinaryGraphCodec}. Each
+ * section of the file is limited to 2 GB.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class DependencyGraphMappedImpl implements DependencyGraph {
+
+    private static final int MAGIC = 0x5141564D; // "QAVM"
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int NO_ID = -1;
+    private static final int EDGE_RECORD_SIZE = 3;
+    private static final int NUM_TYPES = DependencyType.values().length;
+    private static final DependencyType[] TYPES = DependencyType.values();
+    private static final String READ_ONLY = "this graph is read-only";
+
+    // the sections of the file, in this order; the bytes come before their offsets, so that both can be streamed:
+    private static final int STRING_BYTES = 0;
+    private static final int STRING_OFFSETS = 1;
+    private static final int NAME_INDEX = 2;
+    private static final int EDGE_RECORDS = 3;
+    private static final int OUT_OFFSETS = 4;
+    private static final int IN_EDGE_IDS = 5;
+    private static final int IN_OFFSETS = 6;
+    private static final int PROPERTY_BYTES = 7;
+    private static final int NODE_PROPERTY_OFFSETS = 8;
+    private static final int EDGE_PROPERTY_OFFSETS = 9;
+    private static final int NUM_SECTIONS = 10;
+
+    /**
+     * magic, version, node count, edge count, and the length of each section.
+     */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + NUM_SECTIONS * Long.BYTES;
+
+    private final String filename;
+    private final int nodeCount;
+    private final int edgeCount;
+
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer stringBytes;
+    /**
+     * Hash index from node name to node id: contains <tt>id + 1</tt>, 0 marks empty slots.
+     */
+    private final IntBuffer nameIndex;
+    /**
+     * source, target and type ordinal per edge id.
+     */
+    private final IntBuffer edgeRecords;
+    private final IntBuffer outOffsets;
+    private final IntBuffer inEdgeIds;
+    private final IntBuffer inOffsets;
+    private final IntBuffer nodePropertyOffsets;
+    private final IntBuffer edgePropertyOffsets;
+    private final ByteBuffer propertyBytes;
+
+    /**
+     * The elements which were read, with soft references, by id.
+     */
+    private final LoadingCache<Integer, Node> nodes;
+    private final LoadingCache<Integer, Dependency> edges;
+
+    private DependencyGraphMappedImpl(String filename, int nodeCount, int edgeCount, ByteBuffer[] sections) {
+        this.filename = filename;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.stringOffsets = sections[STRING_OFFSETS].asIntBuffer();
+        this.stringBytes = sections[STRING_BYTES];
+        this.nameIndex = sections[NAME_INDEX].asIntBuffer();
+        this.edgeRecords = sections[EDGE_RECORDS].asIntBuffer();
+        this.outOffsets = sections[OUT_OFFSETS].asIntBuffer();
+        this.inEdgeIds = sections[IN_EDGE_IDS].asIntBuffer();
+        this.inOffsets = sections[IN_OFFSETS].asIntBuffer();
+        this.nodePropertyOffsets = sections[NODE_PROPERTY_OFFSETS].asIntBuffer();
+        this.edgePropertyOffsets = sections[EDGE_PROPERTY_OFFSETS].asIntBuffer();
+        this.propertyBytes = sections[PROPERTY_BYTES];
+        this.nodes = CacheBuilder.newBuilder().softValues().build(CacheLoader.from(this::readNode));
+        this.edges = CacheBuilder.newBuilder().softValues().build(CacheLoader.from(this::readEdge));
+    }
+
+    /**
+     * Opens a graph file written by {@link #write(DependencyGraph, String)}.
+     *
+     * @param filename name of the file
+     * @return the graph
+     * @throws IllegalStateException if the file can't be read or is not a graph file of this version
+     */
+    public static DependencyGraphMappedImpl open(String filename) {
+        try (FileChannel channel = FileChannel.open(new File(filename).toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a graph file of format version " + FORMAT_VERSION);
+            }
+            int nodeCount = header.getInt();
+            int edgeCount = header.getInt();
+
+            // the mappings stay valid after the channel is closed
+            ByteBuffer[] sections = new ByteBuffer[NUM_SECTIONS];
+            long position = HEADER_SIZE;
+            for (int i = 0; i < NUM_SECTIONS; i++) {
+                long length = header.getLong();
+                sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+
+            DependencyGraphMappedImpl result = new DependencyGraphMappedImpl(filename, nodeCount, edgeCount, sections);
+            LOGGER.info("Opened {} from '{}'", result, FileNameUtil.getCanonicalPath(filename));
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException("Error reading from file: " + FileNameUtil.getCanonicalPath(filename), e);
+        }
+    }
+
+    /**
+     * Writes the given graph to a file, which can be opened with {@link #open(String)}.
+     * <p>
+     * The sections are streamed to the file. While writing, the heap holds the string table, and a few ints per node
+     * and edge for the order of the edges and the offsets, but no copy of the graph.
+     *
+     * @param dependencyGraph the graph
+     * @param filename        name of the file to write to
+     * @throws IllegalStateException    if the file can't be written
+     * @throws IllegalArgumentException if a property has a value of an unsupported type, see {@link BinaryGraphCodec}
+     */
+    public static void write(DependencyGraph dependencyGraph, String filename) {
+        LOGGER.info("Writing graph with {} nodes and {} edges to '{}'",
+                dependencyGraph.nodeCount(),
+                dependencyGraph.edgeCount(),
+                FileNameUtil.getCanonicalPath(filename));
+
+        List<Node> nodeList = new ArrayList<>(dependencyGraph.nodeCount());
+        dependencyGraph.forEachNode(nodeList::add);
+        nodeList.sort(Comparator.comparing(Node::getName));
+        int numNodes = nodeList.size();
+
+        // node names first, so that the index of the name is the node id:
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        nodeList.forEach(node -> strings.put(node.getName(), strings.size()));
+        nodeList.forEach(node -> BinaryGraphCodec.collectStrings(node, strings));
+        List<Dependency> edgeList = new ArrayList<>(dependencyGraph.edgeCount());
+        dependencyGraph.forEachEdge(edge -> {
+            edgeList.add(edge);
+            BinaryGraphCodec.collectStrings(edge, strings);
+        });
+        int numEdges = edgeList.size();
+
+        int[] sources = new int[numEdges];
+        int[] targets = new int[numEdges];
+        int[] types = new int[numEdges];
+        for (int i = 0; i < numEdges; i++) {
+            Dependency edge = edgeList.get(i);
+            sources[i] = strings.get(edge.getSource().getName());
+            targets[i] = strings.get(edge.getTarget().getName());
+            types[i] = edge.getDependencyType().ordinal();
+        }
+        // stable sorts by target, type and then by source give the order of the edge ids:
+        int[] edgeOrder = countingSort(countingSort(countingSort(range(numEdges), targets, numNodes), types, NUM_TYPES), sources, numNodes);
+        sources = permute(sources, edgeOrder);
+        targets = permute(targets, edgeOrder);
+        types = permute(types, edgeOrder);
+        // stable sorts by type and then by target give the order by target, type and source:
+        int[] inEdgeIds = countingSort(countingSort(range(numEdges), types, NUM_TYPES), targets, numNodes);
+
+        try (FileOutputStream file = new FileOutputStream(filename)) {
+            CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(file));
+            DataOutputStream out = new DataOutputStream(counter);
+            long[] lengths = new long[NUM_SECTIONS];
+            // the header is written last, when the lengths of the sections are known:
+            out.write(new byte[HEADER_SIZE]);
+
+            long start = counter.getCount();
+            int[] stringOffsets = new int[strings.size() + 1];
+            int index = 0;
+            for (String s : strings.keySet()) {
+                out.write(s.getBytes(StandardCharsets.UTF_8));
+                stringOffsets[++index] = checkSize(counter.getCount() - start);
+            }
+            lengths[STRING_BYTES] = counter.getCount() - start;
+            lengths[STRING_OFFSETS] = writeInts(out, stringOffsets);
+
+            int[] nameIndex = new int[Integer.highestOneBit(Math.max(numNodes, 1)) * 4];
+            int mask = nameIndex.length - 1;
+            for (int id = 0; id < numNodes; id++) {
+                int slot = hash(nodeList.get(id).getName()) & mask;
+                while (nameIndex[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                nameIndex[slot] = id + 1;
+            }
+            lengths[NAME_INDEX] = writeInts(out, nameIndex);
+
+            for (int id = 0; id < numEdges; id++) {
+                out.writeInt(sources[id]);
+                out.writeInt(targets[id]);
+                out.writeInt(types[id]);
+            }
+            lengths[EDGE_RECORDS] = (long) numEdges * EDGE_RECORD_SIZE * Integer.BYTES;
+            lengths[OUT_OFFSETS] = writeInts(out, offsets(sources, numNodes));
+            lengths[IN_EDGE_IDS] = writeInts(out, inEdgeIds);
+            lengths[IN_OFFSETS] = writeInts(out, offsets(targets, numNodes));
+
+            start = counter.getCount();
+            int[] nodePropertyOffsets = new int[numNodes + 1];
+            for (int id = 0; id < numNodes; id++) {
+                BinaryGraphCodec.writeProperties(out, nodeList.get(id), strings);
+                nodePropertyOffsets[id + 1] = checkSize(counter.getCount() - start);
+            }
+            int[] edgePropertyOffsets = new int[numEdges + 1];
+            edgePropertyOffsets[0] = nodePropertyOffsets[numNodes];
+            for (int id = 0; id < numEdges; id++) {
+                BinaryGraphCodec.writeProperties(out, edgeList.get(edgeOrder[id]), strings);
+                edgePropertyOffsets[id + 1] = checkSize(counter.getCount() - start);
+            }
+            lengths[PROPERTY_BYTES] = counter.getCount() - start;
+            lengths[NODE_PROPERTY_OFFSETS] = writeInts(out, nodePropertyOffsets);
+            lengths[EDGE_PROPERTY_OFFSETS] = writeInts(out, edgePropertyOffsets);
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(numNodes).putInt(numEdges);
+            for (long length : lengths) {
+                header.putLong(length);
+            }
+            header.flip();
+            FileChannel channel = file.getChannel();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing to file: " + FileNameUtil.getCanonicalPath(filename), e);
+        }
+    }
+
+    @Override
+    public DependencyGraph freeze() {
+        return this;
+    }
+
+    @Override
+    public DependencyGraph getBaseGraph() {
+        return this;
+    }
+
+    @Override
+    public Node getOrCreateNodeByName(String name) {
+        int id = findNodeId(checkNotNull(name, "Name may not be null"));
+        if (id == NO_ID) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        return node(id);
+    }
+
+    @Override
+    public Node getNode(String name) {
+        int id = findNodeId(name);
+        return id == NO_ID ? null : node(id);
+    }
+
+    @Override
+    public boolean hasNode(String name) {
+        return findNodeId(name) != NO_ID;
+    }
+
+    /**
+     * Returns the existing edge, if it has the given type or a higher one, like the other implementations do.
+     *
+     * @throws UnsupportedOperationException if the edge does not exist or would have to be upgraded
+     */
+    @Override
+    public Dependency addDependency(Node from, Node to, DependencyType type) {
+        checkNotNull(type, "Dependency type may not be null");
+        int edgeId = findEdgeId(nodeId(from), nodeId(to));
+        if (edgeId == NO_ID || type(edgeId) < type.ordinal()) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+        return edge(edgeId);
+    }
+
+    @Override
+    public Dependency getEdge(Node from, Node to) {
+        int sourceId = findNodeId(from.getName());
+        int targetId = findNodeId(to.getName());
+        if (sourceId == NO_ID || targetId == NO_ID) {
+            return null;
+        }
+        int edgeId = findEdgeId(sourceId, targetId);
+        return edgeId == NO_ID ? null : edge(edgeId);
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node) {
+        int id = nodeId(node);
+        return new EdgeRange(false, outOffsets.get(id), outOffsets.get(id + 1));
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
+        int id = nodeId(node);
+        int ordinal = checkNotNull(dependencyType).ordinal();
+        int from = lowerBound(false, outOffsets.get(id), outOffsets.get(id + 1), ordinal);
+        int to = lowerBound(false, from, outOffsets.get(id + 1), ordinal + 1);
+        return new EdgeRange(false, from, to);
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node) {
+        int id = nodeId(node);
+        return new EdgeRange(true, inOffsets.get(id), inOffsets.get(id + 1));
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
+        int id = nodeId(node);
+        int ordinal = checkNotNull(dependencyType).ordinal();
+        int from = lowerBound(true, inOffsets.get(id), inOffsets.get(id + 1), ordinal);
+        int to = lowerBound(true, from, inOffsets.get(id + 1), ordinal + 1);
+        return new EdgeRange(true, from, to);
+    }
+
+    @Override
+    public void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        getOutgoingEdges(node, dependencyType).forEach(action);
+    }
+
+    @Override
+    public void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        getIncomingEdges(node, dependencyType).forEach(action);
+    }
+
+    @Override
+    public boolean hasOutgoingEdge(Node node, DependencyType dependencyType) {
+        return !getOutgoingEdges(node, dependencyType).isEmpty();
+    }
+
+    @Override
+    public boolean hasIncomingEdge(Node node, DependencyType dependencyType) {
+        return !getIncomingEdges(node, dependencyType).isEmpty();
+    }
+
+    @Override
+    public DependencyGraph filter(NodeFilter filter) {
+        return new FilteredDependencyGraph(this, filter, null);
+    }
+
+    @Override
+    public DependencyGraph filter(EdgeFilter filter) {
+        return new FilteredDependencyGraph(this, null, filter);
+    }
+
+    /**
+     * @return a view on the nodes, which reads each node when it is accessed
+     */
+    @Override
+    public Collection<Node> getAllNodes() {
+        return new AbstractList<Node>() {
+            @Override
+            public Node get(int index) {
+                return node(index);
+            }
+
+            @Override
+            public int size() {
+                return nodeCount;
+            }
+        };
+    }
+
+    /**
+     * @return a view on the edges, which reads each edge when it is accessed
+     */
+    @Override
+    public Collection<Dependency> getAllEdges() {
+        return new AbstractList<Dependency>() {
+            @Override
+            public Dependency get(int index) {
+                return edge(index);
+            }
+
+            @Override
+            public int size() {
+                return edgeCount;
+            }
+        };
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public Spliterator<Node> nodeSpliterator() {
+        return IntStream.range(0, nodeCount).mapToObj(this::node).spliterator();
+    }
+
+    @Override
+    public Spliterator<Dependency> edgeSpliterator() {
+        return IntStream.range(0, edgeCount).mapToObj(this::edge).spliterator();
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() +
+                "[Nodes:" +
+                nodeCount +
+                "; Edges:" +
+                edgeCount +
+                "]";
+    }
+
+    // ----- elements
+
+    private Node node(int id) {
+        return nodes.getUnchecked(id);
+    }
+
+    private Dependency edge(int id) {
+        return edges.getUnchecked(id);
+    }
+
+    private Node readNode(int id) {
+        PropertyStore store = new PropertyStore();
+        Node result = new Node(string(id), store);
+        readProperties(result, store, nodePropertyOffsets, id);
+        return result;
+    }
+
+    private Dependency readEdge(int id) {
+        PropertyStore store = new PropertyStore();
+        Dependency result = new Dependency(node(edgeRecords.get(id * EDGE_RECORD_SIZE)), node(edgeRecords.get(id * EDGE_RECORD_SIZE + 1)),
+                TYPES[type(id)], store);
+        readProperties(result, store, edgePropertyOffsets, id);
+        return result;
+    }
+
+    private int type(int edgeId) {
+        return edgeRecords.get(edgeId * EDGE_RECORD_SIZE + 2);
+    }
+
+    private void readProperties(AbstractGraphElement element, PropertyStore store, IntBuffer offsets, int id) {
+        ByteBuffer buffer = propertyBytes.duplicate();
+        buffer.limit(offsets.get(id + 1));
+        buffer.position(offsets.get(id));
+        try {
+            BinaryGraphCodec.readProperties(new DataInputStream(new ByteBufferInputStream(buffer)), element, this::string);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt graph file: " + FileNameUtil.getCanonicalPath(filename), e);
+        }
+        store.freeze();
+    }
+
+    private String string(int index) {
+        ByteBuffer buffer = stringBytes.duplicate();
+        buffer.position(stringOffsets.get(index));
+        byte[] bytes = new byte[stringOffsets.get(index + 1) - stringOffsets.get(index)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ----- ids
+
+    private int findNodeId(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int mask = nameIndex.capacity() - 1;
+        int slot = hash(name) & mask;
+        while (nameIndex.get(slot) != 0) {
+            int id = nameIndex.get(slot) - 1;
+            if (nameEquals(id, bytes)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_ID;
+    }
+
+    private boolean nameEquals(int id, byte[] bytes) {
+        int offset = stringOffsets.get(id);
+        if (stringOffsets.get(id + 1) - offset != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (stringBytes.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the id of the given node.
+     *
+     * @throws IllegalArgumentException if the node is not part of the graph, like the JGraphT based implementation
+     */
+    private int nodeId(Node node) {
+        int id = findNodeId(checkNotNull(node, "Node may not be null").getName());
+        if (id == NO_ID) {
+            throw new IllegalArgumentException("no such vertex in graph: " + node.getName());
+        }
+        return id;
+    }
+
+    private int findEdgeId(int sourceId, int targetId) {
+        // each type partition of the outgoing range is sorted by target:
+        int start = outOffsets.get(sourceId);
+        int end = outOffsets.get(sourceId + 1);
+        while (start < end) {
+            int typeEnd = lowerBound(false, start, end, type(start) + 1);
+            int low = start;
+            int high = typeEnd - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int target = edgeRecords.get(mid * EDGE_RECORD_SIZE + 1);
+                if (target < targetId) {
+                    low = mid + 1;
+                } else if (target > targetId) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            start = typeEnd;
+        }
+        return NO_ID;
+    }
+
+    /**
+     * @param incoming <tt>true</tt> for a range of {@link #inEdgeIds}, <tt>false</tt> for a range of edge ids
+     * @return the first index in the range with a type ordinal not less than the given one
+     */
+    private int lowerBound(boolean incoming, int from, int to, int ordinal) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (type(incoming ? inEdgeIds.get(mid) : mid) < ordinal) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ----- writing
+
+    private static int checkSize(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph too large, a section exceeds 2 GB");
+        }
+        return (int) size;
+    }
+
+    /**
+     * @return the length of the section in bytes
+     */
+    private static long writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+        return (long) values.length * Integer.BYTES;
+    }
+
+    private static int[] range(int length) {
+        return IntStream.range(0, length).toArray();
+    }
+
+    /**
+     * @return the values in the given order
+     */
+    private static int[] permute(int[] values, int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Stable counting sort of the given indexes by their keys.
+     */
+    private static int[] countingSort(int[] order, int[] keys, int numKeys) {
+        int[] position = new int[numKeys + 1];
+        for (int index : order) {
+            position[keys[index] + 1]++;
+        }
+        for (int key = 0; key < numKeys; key++) {
+            position[key + 1] += position[key];
+        }
+        int[] result = new int[order.length];
+        for (int index : order) {
+            result[position[keys[index]]++] = index;
+        }
+        return result;
+    }
+
+    /**
+     * @return the start index per node id, and the end index as last entry, for edges sorted by the given node ids
+     */
+    private static int[] offsets(int[] nodeIds, int numNodes) {
+        int[] result = new int[numNodes + 1];
+        for (int id : nodeIds) {
+            result[id + 1]++;
+        }
+        for (int id = 0; id < numNodes; id++) {
+            result[id + 1] += result[id];
+        }
+        return result;
+    }
+
+    /**
+     * Unmodifiable view on a range of edges: of the edge ids themselves, or of {@link #inEdgeIds}.
+     */
+    private final class EdgeRange extends AbstractSet<Dependency> {
+
+        private final boolean incoming;
+        private final int from;
+        private final int to;
+
+        private EdgeRange(boolean incoming, int from, int to) {
+            this.incoming = incoming;
+            this.from = from;
+            this.to = to;
+        }
+
+        private Dependency get(int index) {
+            return edge(incoming ? inEdgeIds.get(index) : index);
+        }
+
+        @Override
+        public Iterator<Dependency> iterator() {
+            return new Iterator<Dependency>() {
+                private int index = from;
+
+                @Override
+                public boolean hasNext() {
+                    return index < to;
+                }
+
+                @Override
+                public Dependency next() {
+                    if (index >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(index++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return from == to;
+        }
+    }
+
+    /**
+     * {@link InputStream} on the remaining bytes of a {@link ByteBuffer}.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -6,16 +6,22 @@ import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.EdgeFilter;
 import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.api.PropertyStore;
 import lombok.extern.slf4j.Slf4j;
 import org.jgrapht.graph.AbstractGraph;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.MaskSubgraph;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -31,8 +37,37 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
      */
     private final Map<String, Node> nodeMap = new HashMap<>();
 
+    /**
+     * Properties of the nodes and of the edges created by this graph.
+     */
+    private final PropertyStore nodeProperties = new PropertyStore();
+    private final PropertyStore edgeProperties = new PropertyStore();
+
     private AbstractGraph<Node, Dependency> graph = new DefaultDirectedGraph<>(Dependency.class);
 
+    /**
+     * Edges per type, shared with the filtered graphs; <tt>null</tt> if this graph was created without one.
+     */
+    private final TypedAdjacencyIndex typeIndex;
+
+    /**
+     * <tt>true</tt> if {@link #typeIndex} belongs to the unfiltered graph, so that the edges found in it must be
+     * checked against {@link #graph}.
+     */
+    private final boolean filtered;
+
+    /**
+     * The nodes and edges visible in this filtered graph; <tt>null</tt> if this graph is not filtered.
+     */
+    private final FilterMask mask;
+
+    /**
+     * The nodes and edges of this graph by row, and the number of added nodes and edges, for the {@link FilterMask}s.
+     */
+    private final List<Node> nodesByRow = new ArrayList<>();
+    private final List<Dependency> edgesByRow = new ArrayList<>();
+    private int modCount;
+
     /**
      * The underlying graph. This is needed to add nodes or edges to filtered graphs. If this is the "original" graph,
      * then <tt>baseGraph</tt> points to <tt>this</tt>.
@@ -47,6 +82,9 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
     // here, there won't be a problem.
     public DependencyGraphSimpleImpl() {
         baseGraph = this;
+        typeIndex = new TypedAdjacencyIndex();
+        filtered = false;
+        mask = null;
     }
 
     /**
@@ -55,7 +93,21 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
      * @param baseGraph the underlying graph, if this is a filtered graph.
      */
     public DependencyGraphSimpleImpl(DependencyGraph baseGraph) {
+        this(baseGraph, null, null);
+    }
+
+    /**
+     * Constructor for filtered graphs.
+     *
+     * @param baseGraph the underlying graph
+     * @param typeIndex the index of the graph which is filtered, or <tt>null</tt>
+     * @param mask      the visible nodes and edges, or <tt>null</tt>
+     */
+    private DependencyGraphSimpleImpl(DependencyGraph baseGraph, TypedAdjacencyIndex typeIndex, FilterMask mask) {
         this.baseGraph = baseGraph;
+        this.typeIndex = typeIndex;
+        this.filtered = true;
+        this.mask = mask;
     }
 
     @Override
@@ -67,7 +119,7 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
     public Node getOrCreateNodeByName(String name) {
         Node node = nodeMap.get(name);
         if (node == null) {
-            node = new Node(name);
+            node = new Node(name, nodeProperties);
             addNode(node);
         }
         return node;
@@ -81,6 +133,8 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
     private void addNode(Node node) {
         nodeMap.put(node.getName(), node);
         graph.addVertex(node);
+        setRow(nodesByRow, node.getRow(), node);
+        modCount++;
     }
 
     @Override
@@ -107,14 +161,24 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
         if (edge != null) {
             if (edge.getDependencyType().ordinal() < type.ordinal()) {
                 LOGGER.debug("Upgrading dependency {} to [{}]", edge, type);
+                DependencyType oldType = edge.getDependencyType();
                 edge.setDependencyType(type);
+                if (typeIndex != null) {
+                    typeIndex.changeType(edge, oldType);
+                }
+                modCount++;
             } else {
                 LOGGER.debug("Reusing dependency {}", edge);
             }
             result = edge;
         } else {
-            result = new Dependency(from, to, type);
+            result = new Dependency(from, to, type, edgeProperties);
             graph.addEdge(from, to, result);
+            if (typeIndex != null) {
+                typeIndex.add(result);
+            }
+            setRow(edgesByRow, result.getRow(), result);
+            modCount++;
         }
 
         return result;
@@ -132,7 +196,12 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
 
     @Override
     public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
-        return filterDependencies(getOutgoingEdges(node), dependencyType);
+        if (typeIndex == null) {
+            return filterDependencies(getOutgoingEdges(node), dependencyType);
+        }
+        Set<Dependency> result = new LinkedHashSet<>();
+        forEachOutgoingEdge(node, dependencyType, result::add);
+        return result;
     }
 
     @Override
@@ -142,7 +211,75 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
 
     @Override
     public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
-        return filterDependencies(getIncomingEdges(node), dependencyType);
+        if (typeIndex == null) {
+            return filterDependencies(getIncomingEdges(node), dependencyType);
+        }
+        Set<Dependency> result = new LinkedHashSet<>();
+        forEachIncomingEdge(node, dependencyType, result::add);
+        return result;
+    }
+
+    @Override
+    public void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        if (typeIndex == null) {
+            DependencyGraph.super.forEachOutgoingEdge(node, dependencyType, action);
+        } else {
+            forEachVisible(node, typeIndex.getOutgoing(node, dependencyType), action);
+        }
+    }
+
+    @Override
+    public void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        if (typeIndex == null) {
+            DependencyGraph.super.forEachIncomingEdge(node, dependencyType, action);
+        } else {
+            forEachVisible(node, typeIndex.getIncoming(node, dependencyType), action);
+        }
+    }
+
+    @Override
+    public boolean hasOutgoingEdge(Node node, DependencyType dependencyType) {
+        if (typeIndex == null) {
+            return DependencyGraph.super.hasOutgoingEdge(node, dependencyType);
+        }
+        return hasVisible(node, typeIndex.getOutgoing(node, dependencyType));
+    }
+
+    @Override
+    public boolean hasIncomingEdge(Node node, DependencyType dependencyType) {
+        if (typeIndex == null) {
+            return DependencyGraph.super.hasIncomingEdge(node, dependencyType);
+        }
+        return hasVisible(node, typeIndex.getIncoming(node, dependencyType));
+    }
+
+    /**
+     * Calls the action for the edges from the {@link #typeIndex} which are part of this (maybe filtered) graph.
+     */
+    private void forEachVisible(Node node, List<Dependency> dependencies, Consumer<? super Dependency> action) {
+        checkVertex(node);
+        for (Dependency dependency : dependencies) {
+            if (!filtered || graph.containsEdge(dependency)) {
+                action.accept(dependency);
+            }
+        }
+    }
+
+    private boolean hasVisible(Node node, List<Dependency> dependencies) {
+        checkVertex(node);
+        if (!filtered) {
+            return !dependencies.isEmpty();
+        }
+        return dependencies.stream().anyMatch(graph::containsEdge);
+    }
+
+    /**
+     * Fails for unknown nodes, like the JGraphT methods do.
+     */
+    private void checkVertex(Node node) {
+        if (!graph.containsVertex(node)) {
+            throw new IllegalArgumentException("no such vertex in graph: " + node);
+        }
     }
 
     /**
@@ -155,27 +292,124 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
     }
 
     @Override
-    public DependencyGraph filter(final NodeFilter filter) {
-        DependencyGraphSimpleImpl clone = new DependencyGraphSimpleImpl(this.baseGraph);
-        clone.setGraph(
-                new MaskSubgraph<>(graph,
-                        node -> !filter.isAccepted(node),
-                        edge -> false));
+    public DependencyGraph freeze() {
+        return DependencyGraphFrozenImpl.of(this);
+    }
 
-        return clone;
+    /**
+     * Returns a {@link DependencyGraph} which only contains the nodes accepted by the given filter.
+     * <p>
+     * The filter is evaluated once into a {@link FilterMask}, and again after the unfiltered graph was changed. The
+     * result masks the unfiltered graph directly, so filtering a filtered graph does not stack the filters.
+     *
+     * @param filter the {@link NodeFilter}
+     * @return the filtered graph
+     */
+    @Override
+    public DependencyGraph filter(final NodeFilter filter) {
+        return createFilteredGraph(new FilterMask(getRoot(), mask, filter, null));
     }
 
+    /**
+     * Returns a {@link DependencyGraph} which only contains the edges accepted by the given filter. Evaluated like
+     * {@link #filter(NodeFilter)}.
+     *
+     * @param filter the {@link EdgeFilter}
+     * @return the filtered graph
+     */
     @Override
     public DependencyGraph filter(final EdgeFilter filter) {
-        DependencyGraphSimpleImpl clone = new DependencyGraphSimpleImpl(this.baseGraph);
+        return createFilteredGraph(new FilterMask(getRoot(), mask, null, filter));
+    }
+
+    private DependencyGraph createFilteredGraph(FilterMask filterMask) {
+        DependencyGraphSimpleImpl clone = new DependencyGraphSimpleImpl(this.baseGraph, this.typeIndex, filterMask);
         clone.setGraph(
-                new MaskSubgraph<>(graph,
-                        node -> false,
-                        dependency -> !filter.isAccepted(dependency)));
+                new MaskSubgraph<>(filterMask.getRoot().graph,
+                        node -> !filterMask.isVisible(node),
+                        dependency -> !filterMask.isVisible(dependency)));
 
         return clone;
     }
 
+    /**
+     * @return the unfiltered graph which holds the nodes and edges of this graph
+     */
+    private DependencyGraphSimpleImpl getRoot() {
+        return mask == null ? this : mask.getRoot();
+    }
+
+    // --- nodes and edges by row, for FilterMask
+
+    /**
+     * @return a number which changes whenever nodes or edges are added, or dependency types are changed, but not when
+     * properties are changed
+     */
+    long getModCount() {
+        return modCount + nodeProperties.getElementVersion() + edgeProperties.getElementVersion();
+    }
+
+    PropertyStore getNodeProperties() {
+        return nodeProperties;
+    }
+
+    PropertyStore getEdgeProperties() {
+        return edgeProperties;
+    }
+
+    Node getNodeByRow(int row) {
+        return nodesByRow.get(row);
+    }
+
+    /**
+     * @return the row of the node of this graph with the same name as the given one, or -1 if there is none
+     */
+    @SuppressWarnings("squid:S1698") // compare with "==" instead of .equals()
+    int getRowOf(Node node) {
+        int row = node.getRow();
+        if (row < nodesByRow.size() && nodesByRow.get(row) == node) { // yes, compare instances
+            return row;
+        }
+        // a node which is equal to one of this graph, but was created elsewhere:
+        Node ownNode = nodeMap.get(node.getName());
+        return ownNode == null ? -1 : ownNode.getRow();
+    }
+
+    Dependency getEdgeByRow(int row) {
+        return edgesByRow.get(row);
+    }
+
+    /**
+     * @return the rows of all nodes of this graph
+     */
+    BitSet getNodeRows() {
+        return getRows(nodesByRow);
+    }
+
+    /**
+     * @return the rows of all edges of this graph
+     */
+    BitSet getEdgeRows() {
+        return getRows(edgesByRow);
+    }
+
+    private static BitSet getRows(List<?> elementsByRow) {
+        BitSet result = new BitSet(elementsByRow.size());
+        for (int row = 0; row < elementsByRow.size(); row++) {
+            if (elementsByRow.get(row) != null) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    private static <T> void setRow(List<T> elementsByRow, int row, T element) {
+        while (elementsByRow.size() <= row) {
+            elementsByRow.add(null);
+        }
+        elementsByRow.set(row, element);
+    }
+
     /**
      * Set a new JGraphT graph.
      * <p>
@@ -194,12 +428,36 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
 
     @Override
     public Collection<Node> getAllNodes() {
-        return new ArrayList<>(graph.vertexSet());
+        List<Node> result = new ArrayList<>(nodeCount());
+        forEachNode(result::add);
+        return result;
     }
 
     @Override
     public Collection<Dependency> getAllEdges() {
-        return new ArrayList<>(graph.edgeSet());
+        List<Dependency> result = new ArrayList<>(edgeCount());
+        forEachEdge(result::add);
+        return result;
+    }
+
+    @Override
+    public int nodeCount() {
+        return mask == null ? graph.vertexSet().size() : mask.getNodeCount();
+    }
+
+    @Override
+    public int edgeCount() {
+        return mask == null ? graph.edgeSet().size() : mask.getEdgeCount();
+    }
+
+    @Override
+    public Spliterator<Node> nodeSpliterator() {
+        return mask == null ? graph.vertexSet().spliterator() : mask.nodeSpliterator();
+    }
+
+    @Override
+    public Spliterator<Dependency> edgeSpliterator() {
+        return mask == null ? graph.edgeSet().spliterator() : mask.edgeSpliterator();
     }
 
     /**
@@ -215,9 +473,9 @@ public class DependencyGraphSimpleImpl implements DependencyGraph {
     public String toString() {
         return this.getClass().getSimpleName() +
                 "[Nodes:" +
-                graph.vertexSet().size() +
+                nodeCount() +
                 "; Edges:" +
-                graph.edgeSet().size() +
+                edgeCount() +
                 "]";
     }
 }
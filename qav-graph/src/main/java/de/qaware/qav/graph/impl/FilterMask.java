@@ -0,0 +1,202 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.EdgeFilter;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.api.PropertyStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.BitSet;
+import java.util.Spliterator;
+
+/**
+ * The nodes and edges visible in a filtered {@link DependencyGraphSimpleImpl}, as bit sets over the rows of the nodes and
+ * edges of the unfiltered graph.
+ * <p>
+ * The filter is evaluated once, for the nodes and edges visible in the parent mask only, and evaluated again on the next
+ * access after a change which may affect it: after nodes or edges were added or dependency types were changed, see
+ * {@link DependencyGraphSimpleImpl#getModCount()}, after the parent mask changed, or after a value of a property key
+ * changed which the filter read during the last evaluation, see {@link PropertyStore#startRecording()}. So tagging the
+ * nodes of a view with other properties does not invalidate it. As long as nothing relevant changes, the view only pays
+ * a bit test per access, however many filters are stacked.
+ * <p>
+ * Not thread safe.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+final class FilterMask {
+
+    private static final long INVALID = -1;
+
+    private final DependencyGraphSimpleImpl root;
+    private final FilterMask parent;
+    private final NodeFilter nodeFilter;
+    private final EdgeFilter edgeFilter;
+
+    private BitSet nodes;
+    private BitSet edges;
+    private int nodeCount;
+    private int edgeCount;
+    private long modCount = INVALID;
+
+    /**
+     * The number of evaluations, so that child masks see when this mask changed.
+     */
+    private long generation;
+    private long parentGeneration;
+
+    /**
+     * The property keys read by the filter, and the sum of their versions, per store.
+     */
+    private PropertyStore.KeyRecorder nodeKeys;
+    private PropertyStore.KeyRecorder edgeKeys;
+    private long nodeKeysVersion;
+    private long edgeKeysVersion;
+
+    /**
+     * Constructor.
+     *
+     * @param root       the unfiltered graph
+     * @param parent     the mask of the graph which is filtered, or <tt>null</tt> if it is the unfiltered graph
+     * @param nodeFilter the filter for nodes; <tt>null</tt> to accept all nodes of the parent
+     * @param edgeFilter the filter for edges; <tt>null</tt> to accept all edges of the parent
+     */
+    FilterMask(DependencyGraphSimpleImpl root, FilterMask parent, NodeFilter nodeFilter, EdgeFilter edgeFilter) {
+        this.root = root;
+        this.parent = parent;
+        this.nodeFilter = nodeFilter;
+        this.edgeFilter = edgeFilter;
+    }
+
+    /**
+     * @return the unfiltered graph
+     */
+    DependencyGraphSimpleImpl getRoot() {
+        return root;
+    }
+
+    /**
+     * @param node a node of the unfiltered graph, or an equal one
+     * @return <tt>true</tt> if the node is visible
+     */
+    boolean isVisible(Node node) {
+        validate();
+        return containsNode(node);
+    }
+
+    /**
+     * @param dependency an edge of the unfiltered graph
+     * @return <tt>true</tt> if the edge is visible
+     */
+    boolean isVisible(Dependency dependency) {
+        validate();
+        return edges.get(dependency.getRow());
+    }
+
+    /**
+     * @return the number of visible nodes
+     */
+    int getNodeCount() {
+        validate();
+        return nodeCount;
+    }
+
+    /**
+     * @return the number of visible edges
+     */
+    int getEdgeCount() {
+        validate();
+        return edgeCount;
+    }
+
+    /**
+     * @return a {@link Spliterator} over the visible nodes
+     */
+    Spliterator<Node> nodeSpliterator() {
+        validate();
+        return new BitSetSpliterator<>(nodes, root::getNodeByRow);
+    }
+
+    /**
+     * @return a {@link Spliterator} over the visible edges
+     */
+    Spliterator<Dependency> edgeSpliterator() {
+        validate();
+        return new BitSetSpliterator<>(edges, root::getEdgeByRow);
+    }
+
+    private boolean containsNode(Node node) {
+        int row = root.getRowOf(node);
+        return row >= 0 && nodes.get(row);
+    }
+
+    private void validate() {
+        if (parent != null) {
+            parent.validate();
+        }
+        if (isUpToDate()) {
+            return;
+        }
+
+        BitSet parentNodes;
+        BitSet parentEdges;
+        if (parent == null) {
+            parentNodes = root.getNodeRows();
+            parentEdges = root.getEdgeRows();
+        } else {
+            parentNodes = parent.nodes;
+            parentEdges = parent.edges;
+            parentGeneration = parent.generation;
+        }
+
+        modCount = INVALID;
+        PropertyStore nodeProperties = root.getNodeProperties();
+        PropertyStore edgeProperties = root.getEdgeProperties();
+        nodeKeys = nodeProperties.startRecording();
+        edgeKeys = edgeProperties.startRecording();
+        try {
+            evaluate(parentNodes, parentEdges);
+        } finally {
+            nodeProperties.stopRecording(nodeKeys);
+            edgeProperties.stopRecording(edgeKeys);
+        }
+        nodeKeysVersion = nodeProperties.getVersion(nodeKeys);
+        edgeKeysVersion = edgeProperties.getVersion(edgeKeys);
+
+        nodeCount = nodes.cardinality();
+        edgeCount = edges.cardinality();
+        modCount = root.getModCount();
+        generation++;
+        LOGGER.debug("Filtered {} to {} nodes and {} edges", root, nodeCount, edgeCount);
+    }
+
+    private boolean isUpToDate() {
+        return modCount == root.getModCount()
+                && (parent == null || parentGeneration == parent.generation)
+                && nodeKeysVersion == root.getNodeProperties().getVersion(nodeKeys)
+                && edgeKeysVersion == root.getEdgeProperties().getVersion(edgeKeys);
+    }
+
+    private void evaluate(BitSet parentNodes, BitSet parentEdges) {
+        if (nodeFilter != null) {
+            nodes = nodeFilter.getAccepted(root::getNodeByRow, parentNodes);
+            edges = new BitSet();
+            for (int row = parentEdges.nextSetBit(0); row >= 0; row = parentEdges.nextSetBit(row + 1)) {
+                Dependency dependency = root.getEdgeByRow(row);
+                if (containsNode(dependency.getSource()) && containsNode(dependency.getTarget())) {
+                    edges.set(row);
+                }
+            }
+        } else {
+            nodes = parentNodes;
+            edges = new BitSet();
+            for (int row = parentEdges.nextSetBit(0); row >= 0; row = parentEdges.nextSetBit(row + 1)) {
+                if (edgeFilter == null || edgeFilter.isAccepted(root.getEdgeByRow(row))) {
+                    edges.set(row);
+                }
+            }
+        }
+    }
+}
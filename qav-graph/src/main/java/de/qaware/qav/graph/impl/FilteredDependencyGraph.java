@@ -0,0 +1,213 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.EdgeFilter;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Unmodifiable view on another {@link DependencyGraph}, which only shows the nodes and edges accepted by a filter.
+ * <p>
+ * The filter is evaluated on each access, so that the view reflects later changes of the underlying graph, like the
+ * filtered views of {@link DependencyGraphSimpleImpl}, which re-evaluate their masks after relevant changes. An edge is
+ * only visible if both its source and its target are visible.
+ *
+ * @author QAware GmbH
+ */
+public class FilteredDependencyGraph implements DependencyGraph {
+
+    private final DependencyGraph parent;
+    private final NodeFilter nodeFilter;
+    private final EdgeFilter edgeFilter;
+
+    /**
+     * Constructor.
+     *
+     * @param parent     the graph to filter
+     * @param nodeFilter the filter for nodes; <tt>null</tt> to accept all nodes
+     * @param edgeFilter the filter for edges; <tt>null</tt> to accept all edges
+     */
+    public FilteredDependencyGraph(DependencyGraph parent, NodeFilter nodeFilter, EdgeFilter edgeFilter) {
+        this.parent = checkNotNull(parent, "parent");
+        this.nodeFilter = nodeFilter;
+        this.edgeFilter = edgeFilter;
+    }
+
+    @Override
+    public DependencyGraph getBaseGraph() {
+        return parent.getBaseGraph();
+    }
+
+    @Override
+    public Collection<Node> getAllNodes() {
+        return nodeStream(false).collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<Dependency> getAllEdges() {
+        return edgeStream(false).collect(Collectors.toList());
+    }
+
+    @Override
+    public int nodeCount() {
+        return (int) nodeStream(false).count();
+    }
+
+    @Override
+    public int edgeCount() {
+        return (int) edgeStream(false).count();
+    }
+
+    @Override
+    public Spliterator<Node> nodeSpliterator() {
+        return parent.nodeStream(false).filter(this::isAccepted).spliterator();
+    }
+
+    @Override
+    public Spliterator<Dependency> edgeSpliterator() {
+        return parent.edgeStream(false).filter(this::isAccepted).spliterator();
+    }
+
+    @Override
+    public Node getOrCreateNodeByName(String name) {
+        Node node = getNode(name);
+        if (node == null) {
+            throw new UnsupportedOperationException("this graph is unmodifiable");
+        }
+        return node;
+    }
+
+    @Override
+    public Node getNode(String name) {
+        Node node = parent.getNode(name);
+        return node != null && isAccepted(node) ? node : null;
+    }
+
+    @Override
+    public boolean hasNode(String name) {
+        return getNode(name) != null;
+    }
+
+    @Override
+    public Dependency addDependency(Node from, Node to, DependencyType type) {
+        throw new UnsupportedOperationException("this graph is unmodifiable");
+    }
+
+    @Override
+    public Dependency getEdge(Node from, Node to) {
+        Dependency edge = parent.getEdge(from, to);
+        return edge != null && isAccepted(edge) ? edge : null;
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node) {
+        return filterEdges(node, parent.getOutgoingEdges(node));
+    }
+
+    @Override
+    public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
+        return filterEdges(node, parent.getOutgoingEdges(node, dependencyType));
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node) {
+        return filterEdges(node, parent.getIncomingEdges(node));
+    }
+
+    @Override
+    public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
+        return filterEdges(node, parent.getIncomingEdges(node, dependencyType));
+    }
+
+    @Override
+    public void forEachOutgoingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        checkAccepted(node);
+        parent.forEachOutgoingEdge(node, dependencyType, edge -> {
+            if (isAccepted(edge)) {
+                action.accept(edge);
+            }
+        });
+    }
+
+    @Override
+    public void forEachIncomingEdge(Node node, DependencyType dependencyType, Consumer<? super Dependency> action) {
+        checkAccepted(node);
+        parent.forEachIncomingEdge(node, dependencyType, edge -> {
+            if (isAccepted(edge)) {
+                action.accept(edge);
+            }
+        });
+    }
+
+    @Override
+    public boolean hasOutgoingEdge(Node node, DependencyType dependencyType) {
+        checkAccepted(node);
+        if (nodeFilter == null && edgeFilter == null) {
+            return parent.hasOutgoingEdge(node, dependencyType);
+        }
+        return parent.getOutgoingEdges(node, dependencyType).stream().anyMatch(this::isAccepted);
+    }
+
+    @Override
+    public boolean hasIncomingEdge(Node node, DependencyType dependencyType) {
+        checkAccepted(node);
+        if (nodeFilter == null && edgeFilter == null) {
+            return parent.hasIncomingEdge(node, dependencyType);
+        }
+        return parent.getIncomingEdges(node, dependencyType).stream().anyMatch(this::isAccepted);
+    }
+
+    @Override
+    public DependencyGraph freeze() {
+        return DependencyGraphFrozenImpl.of(this);
+    }
+
+    @Override
+    public DependencyGraph filter(NodeFilter filter) {
+        return new FilteredDependencyGraph(this, filter, null);
+    }
+
+    @Override
+    public DependencyGraph filter(EdgeFilter filter) {
+        return new FilteredDependencyGraph(this, null, filter);
+    }
+
+    private Set<Dependency> filterEdges(Node node, Set<Dependency> dependencies) {
+        checkAccepted(node);
+        return dependencies.stream()
+                .filter(this::isAccepted)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private void checkAccepted(Node node) {
+        if (!isAccepted(node)) {
+            throw new IllegalArgumentException("no such vertex in graph: " + node.getName());
+        }
+    }
+
+    private boolean isAccepted(Node node) {
+        return nodeFilter == null || nodeFilter.isAccepted(node);
+    }
+
+    private boolean isAccepted(Dependency dependency) {
+        return (edgeFilter == null || edgeFilter.isAccepted(dependency))
+                && isAccepted(dependency.getSource())
+                && isAccepted(dependency.getTarget());
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "[" + parent + "]";
+    }
+}
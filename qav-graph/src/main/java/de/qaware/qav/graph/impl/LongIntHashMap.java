@@ -0,0 +1,115 @@
+package de.qaware.qav.graph.impl;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from <tt>long</tt> keys to non-negative <tt>int</tt> values, without boxing.
+ * <p>
+ * Open addressing with linear probing. Entries can't be removed. Not thread safe.
+ *
+ * @author QAware GmbH
+ */
+final class LongIntHashMap {
+
+    /**
+     * returned by {@link #get(long)} if there is no entry for the key.
+     */
+    static final int NO_VALUE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * @param key the key
+     * @return the value, or {@link #NO_VALUE} if there is none
+     */
+    int get(long key) {
+        int index = indexOf(key);
+        while (values[index] != NO_VALUE) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Puts the value, replacing an existing one.
+     *
+     * @param key   the key
+     * @param value the value, must not be negative
+     */
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values are not supported: " + value);
+        }
+        int index = indexOf(key);
+        while (values[index] != NO_VALUE) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > (mask + 1) / 2) {
+            rehash();
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    private int indexOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate((mask + 1) * 2);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                int index = indexOf(oldKeys[i]);
+                while (values[index] != NO_VALUE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        Arrays.fill(values, NO_VALUE);
+        mask = tableSize - 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int tableSize = 16;
+        while (tableSize / 2 < expectedSize) {
+            tableSize *= 2;
+        }
+        return tableSize;
+    }
+}
@@ -0,0 +1,85 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outgoing and incoming edges per {@link DependencyType} and node, so that typed neighbor queries don't need to look
+ * at the edges of other types.
+ * <p>
+ * Not thread safe.
+ *
+ * @author QAware GmbH
+ */
+final class TypedAdjacencyIndex {
+
+    private final Map<DependencyType, Map<Node, List<Dependency>>> outgoing = new EnumMap<>(DependencyType.class);
+    private final Map<DependencyType, Map<Node, List<Dependency>>> incoming = new EnumMap<>(DependencyType.class);
+
+    /**
+     * Adds a new edge.
+     *
+     * @param dependency the edge
+     */
+    void add(Dependency dependency) {
+        bucket(outgoing, dependency.getDependencyType(), dependency.getSource()).add(dependency);
+        bucket(incoming, dependency.getDependencyType(), dependency.getTarget()).add(dependency);
+    }
+
+    /**
+     * Moves an edge to the buckets of its new type.
+     *
+     * @param dependency the edge, which already has the new type
+     * @param oldType    the type before
+     */
+    void changeType(Dependency dependency, DependencyType oldType) {
+        remove(outgoing, oldType, dependency.getSource(), dependency);
+        remove(incoming, oldType, dependency.getTarget(), dependency);
+        add(dependency);
+    }
+
+    /**
+     * @return the outgoing edges of the node with the given type; an unmodifiable list, may be empty
+     */
+    List<Dependency> getOutgoing(Node node, DependencyType type) {
+        return get(outgoing, type, node);
+    }
+
+    /**
+     * @return the incoming edges of the node with the given type; an unmodifiable list, may be empty
+     */
+    List<Dependency> getIncoming(Node node, DependencyType type) {
+        return get(incoming, type, node);
+    }
+
+    private static List<Dependency> get(Map<DependencyType, Map<Node, List<Dependency>>> index, DependencyType type, Node node) {
+        Map<Node, List<Dependency>> byNode = index.get(type);
+        List<Dependency> result = byNode == null ? null : byNode.get(node);
+        return result == null ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+
+    private static List<Dependency> bucket(Map<DependencyType, Map<Node, List<Dependency>>> index, DependencyType type, Node node) {
+        return index.computeIfAbsent(type, t -> new HashMap<>())
+                .computeIfAbsent(node, n -> new ArrayList<>(2));
+    }
+
+    @SuppressWarnings("squid:S1698") // compare with "==" instead of .equals()
+    private static void remove(Map<DependencyType, Map<Node, List<Dependency>>> index, DependencyType type, Node node, Dependency dependency) {
+        Map<Node, List<Dependency>> byNode = index.get(type);
+        List<Dependency> bucket = byNode == null ? null : byNode.get(node);
+        if (bucket != null) {
+            bucket.removeIf(it -> it == dependency); // yes, compare instances
+            if (bucket.isEmpty()) {
+                byNode.remove(node);
+            }
+        }
+    }
+}
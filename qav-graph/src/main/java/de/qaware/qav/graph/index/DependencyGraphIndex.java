@@ -28,7 +28,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -116,15 +115,13 @@ public class DependencyGraphIndex {
     private void indexNode(IndexWriter indexWriter, Node node) throws IOException {
         Document doc = new Document();
 
-        for (Map.Entry<String, Object> entry : node.getProperties().entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
+        node.forEachProperty((key, value) -> {
             if (numericFields.contains(key)) {
                 doc.add(new LongPoint(key, Long.valueOf((String) value)));
             } else {
                 doc.add(new Field(key, value.toString(), TextField.TYPE_STORED));
             }
-        }
+        });
 
         indexWriter.addDocument(doc);
     }
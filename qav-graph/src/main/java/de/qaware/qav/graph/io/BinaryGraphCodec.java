@@ -0,0 +1,354 @@
+package de.qaware.qav.graph.io;
+
+import de.qaware.qav.graph.api.AbstractGraphElement;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.SortedIntList;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Writes a graph in a compact binary format, and reads it again.
+ * <p>
+ * Meant for caches, not for exchange: the format is not human-readable, and it may change between versions of
+ * QAvalidator. Use {@link GraphReaderWriter} for a stable file format.
+ * <p>
+ * All Strings (names, property keys and String values) are written once into a String table and referenced by index.
+ * Numbers are written as variable-length ints. Supported property values are {@link String}, {@link Boolean},
+ * {@link Integer}, {@link Long}, {@link Double}, and {@link List}s of these. {@link SortedIntList}s are delta-encoded
+ * and read as {@link SortedIntList}s again. Base dependencies are not written.
+ * <p>
+ * Reading merges the graph into the target graph the same way the readers fill a graph: dependencies are added with
+ * {@link DependencyGraph#addDependency}, list properties with {@link AbstractGraphElement#addListProperty}.
+ *
+ * @author QAware GmbH
+ */
+public final class BinaryGraphCodec {
+
+    private static final int MAGIC = 0x51415647; // "QAVG"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int TAG_STRING = 1;
+    private static final int TAG_BOOLEAN = 2;
+    private static final int TAG_INTEGER = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_LIST = 6;
+    private static final int TAG_INT_SET = 7;
+
+    private static final DependencyType[] DEPENDENCY_TYPES = DependencyType.values();
+
+    /**
+     * util class, no instances.
+     */
+    private BinaryGraphCodec() {
+    }
+
+    /**
+     * Writes the given graph to the given stream. Does not close the stream.
+     *
+     * @param dependencyGraph the graph
+     * @param outputStream    the stream to write to
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if a property has a value of an unsupported type
+     */
+    public static void write(DependencyGraph dependencyGraph, OutputStream outputStream) throws IOException {
+        Collection<Node> nodes = dependencyGraph.getAllNodes();
+        Collection<Dependency> edges = dependencyGraph.getAllEdges();
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<String, Integer> nodeIndex = new HashMap<>();
+        for (Node node : nodes) {
+            nodeIndex.put(node.getName(), nodeIndex.size());
+            collectStrings(node, strings);
+        }
+        edges.forEach(edge -> collectStrings(edge, strings));
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        writeVarInt(out, FORMAT_VERSION);
+
+        writeVarInt(out, strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarInt(out, nodes.size());
+        for (Node node : nodes) {
+            writeVarInt(out, strings.get(node.getName()));
+            writeProperties(out, node, strings);
+        }
+
+        writeVarInt(out, edges.size());
+        for (Dependency edge : edges) {
+            writeVarInt(out, nodeIndex.get(edge.getSource().getName()));
+            writeVarInt(out, nodeIndex.get(edge.getTarget().getName()));
+            writeVarInt(out, edge.getDependencyType().ordinal());
+            writeProperties(out, edge, strings);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a graph from the given stream and merges it into the given graph. Does not close the stream.
+     *
+     * @param inputStream the stream to read from
+     * @param targetGraph the graph to merge into
+     * @return the given target graph
+     * @throws IOException if reading fails, or if the stream does not contain a graph in this format
+     */
+    public static DependencyGraph read(InputStream inputStream, DependencyGraph targetGraph) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary graph");
+        }
+        int formatVersion = readVarInt(in);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary graph format version: " + formatVersion);
+        }
+
+        String[] strings = new String[readVarInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        IntFunction<String> stringTable = index -> strings[index];
+
+        Node[] nodes = new Node[readVarInt(in)];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = targetGraph.getOrCreateNodeByName(strings[readVarInt(in)]);
+            readProperties(in, nodes[i], stringTable);
+        }
+
+        int noEdges = readVarInt(in);
+        for (int i = 0; i < noEdges; i++) {
+            Node source = nodes[readVarInt(in)];
+            Node target = nodes[readVarInt(in)];
+            DependencyType dependencyType = DEPENDENCY_TYPES[readVarInt(in)];
+            readProperties(in, targetGraph.addDependency(source, target, dependencyType), stringTable);
+        }
+
+        return targetGraph;
+    }
+
+    // --- writing
+
+    /**
+     * Adds the strings of the given element to the String table: the name of a node, and the keys and String values of
+     * the properties.
+     *
+     * @param element the node or edge
+     * @param strings the String table, from String to index; new Strings get the next index
+     */
+    public static void collectStrings(AbstractGraphElement element, Map<String, Integer> strings) {
+        if (element instanceof Node) {
+            addString(element.getName(), strings);
+        }
+        element.forEachProperty((key, value) -> {
+            if (!key.equals(AbstractGraphElement.NAME)) {
+                addString(key, strings);
+                collectStrings(value, strings);
+            }
+        });
+    }
+
+    private static void collectStrings(Object value, Map<String, Integer> strings) {
+        if (value instanceof String) {
+            addString((String) value, strings);
+        } else if (value instanceof List) {
+            ((List<?>) value).forEach(v -> collectStrings(v, strings));
+        }
+    }
+
+    private static void addString(String s, Map<String, Integer> strings) {
+        strings.putIfAbsent(s, strings.size());
+    }
+
+    /**
+     * Writes the properties of the given element, except the name.
+     *
+     * @param out     the stream to write to
+     * @param element the node or edge
+     * @param strings the String table, which must contain the Strings of the element, see {@link
+     *                #collectStrings(AbstractGraphElement, Map)}
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if a property has a value of an unsupported type
+     */
+    public static void writeProperties(DataOutputStream out, AbstractGraphElement element, Map<String, Integer> strings) throws IOException {
+        writeVarInt(out, element.getPropertyCount() - (element.getName() != null ? 1 : 0));
+        try {
+            element.forEachProperty((key, value) -> {
+                if (!key.equals(AbstractGraphElement.NAME)) {
+                    writeProperty(out, key, value, strings);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeProperty(DataOutputStream out, String key, Object value, Map<String, Integer> strings) {
+        try {
+            writeVarInt(out, strings.get(key));
+            writeValue(out, key, value, strings);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, String key, Object value, Map<String, Integer> strings) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeVarInt(out, strings.get(value));
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            writeVarLong(out, zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, zigZag((Long) value));
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof SortedIntList) {
+            SortedIntList list = (SortedIntList) value;
+            out.writeByte(TAG_INT_SET);
+            writeVarInt(out, list.size());
+            long previous = 0;
+            for (int i = 0; i < list.size(); i++) {
+                int v = list.getInt(i);
+                writeVarLong(out, i == 0 ? zigZag(v) : v - previous);
+                previous = v;
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, list.size());
+            for (Object v : list) {
+                writeValue(out, key, v, strings);
+            }
+        } else {
+            throw new IllegalArgumentException("Property " + key + ": unsupported type: "
+                    + (value == null ? "null" : value.getClass().getName()));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    // --- reading
+
+    /**
+     * Reads properties as written by {@link #writeProperties(DataOutputStream, AbstractGraphElement, Map)} and sets
+     * them on the given element.
+     *
+     * @param in      the stream to read from
+     * @param element the node or edge
+     * @param strings the String table, from index to String
+     * @throws IOException if reading fails
+     */
+    public static void readProperties(DataInputStream in, AbstractGraphElement element, IntFunction<String> strings) throws IOException {
+        int noProperties = readVarInt(in);
+        for (int i = 0; i < noProperties; i++) {
+            String key = strings.apply(readVarInt(in));
+            Object value = readValue(in, strings);
+            if (value instanceof List) {
+                element.addListProperty(key, value);
+            } else {
+                element.setProperty(key, value);
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in, IntFunction<String> strings) throws IOException {
+        int tag = in.readByte();
+        switch (tag) {
+            case TAG_STRING:
+                return strings.apply(readVarInt(in));
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_INTEGER:
+                return (int) unZigZag(readVarLong(in));
+            case TAG_LONG:
+                return unZigZag(readVarLong(in));
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_LIST:
+                int size = readVarInt(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in, strings));
+                }
+                return list;
+            case TAG_INT_SET:
+                return readIntSet(in);
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+
+    private static SortedIntList readIntSet(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        SortedIntList result = new SortedIntList();
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = i == 0 ? unZigZag(readVarLong(in)) : value + readVarLong(in);
+            result.addInt((int) value);
+        }
+        return result;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed variable-length number");
+    }
+}
@@ -0,0 +1,73 @@
+package de.qaware.qav.graph.io;
+
+import de.qaware.qav.graph.alg.impl.FeedbackArcSetFinder;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.util.FileNameUtil;
+import de.qaware.qav.util.FileSystemUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes the edges suggested by the {@link FeedbackArcSetFinder} as a text file, each edge with its weight and its
+ * base relations, sorted by name:
+ * <pre>
+ * # 1 edge(s) with weight 2 break all cycles
+ * com.my.b -&gt; com.my.a [READ_ONLY] weight 2
+ *     * com.my.b.B1 -&gt; com.my.a.A1 [READ_ONLY]
+ *     * com.my.b.B2 -&gt; com.my.a.A1 [READ_WRITE]
+ * </pre>
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class FeedbackArcSetWriter {
+
+    /**
+     * The base relations are written in this order, so that the file is the same in each run.
+     */
+    private static final Comparator<Dependency> BASE_ORDER = FeedbackArcSetFinder.BY_NAMES
+            .thenComparing(Dependency::getDependencyType);
+
+    /**
+     * util class, no instances.
+     */
+    private FeedbackArcSetWriter() {
+    }
+
+    /**
+     * Writes the given edges to the given file.
+     *
+     * @param edges    the edges
+     * @param filename name of the file to write to
+     */
+    public static void write(List<Dependency> edges, String filename) {
+        LOGGER.info("Writing {} edge(s) to break cycles to '{}'", edges.size(), FileNameUtil.getCanonicalPath(filename));
+        FileSystemUtil.writeStringToFile(toText(edges), filename);
+    }
+
+    /**
+     * Formats the given edges.
+     *
+     * @param edges the edges
+     * @return the text, as it is written by {@link #write(List, String)}
+     */
+    public static String toText(List<Dependency> edges) {
+        StringBuilder sb = new StringBuilder();
+        long totalWeight = edges.stream().mapToLong(FeedbackArcSetFinder::weight).sum();
+        sb.append("# ").append(edges.size()).append(" edge(s) with weight ").append(totalWeight).append(" break all cycles\n");
+        for (Dependency edge : edges) {
+            sb.append(edge.getSource().getName()).append(" -> ").append(edge.getTarget().getName())
+                    .append(" [").append(edge.getDependencyType()).append("] weight ").append(FeedbackArcSetFinder.weight(edge)).append('\n');
+            List<Dependency> baseDependencies = new ArrayList<>();
+            edge.forEachBaseDependency(baseDependencies::add);
+            baseDependencies.sort(BASE_ORDER);
+            baseDependencies.forEach(base -> sb.append("    * ").append(base.getSource().getName())
+                    .append(" -> ").append(base.getTarget().getName())
+                    .append(" [").append(base.getDependencyType()).append("]\n"));
+        }
+        return sb.toString();
+    }
+}
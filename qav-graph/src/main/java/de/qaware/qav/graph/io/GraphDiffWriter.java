@@ -0,0 +1,69 @@
+package de.qaware.qav.graph.io;
+
+import de.qaware.qav.graph.alg.api.GraphDiff;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.util.FileNameUtil;
+import de.qaware.qav.util.FileSystemUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a {@link GraphDiff} as a compact text file, one change per line:
+ * <pre>
+ * + node com.my.NewClass
+ * - node com.my.OldClass
+ * + edge com.my.A -&gt; com.my.NewClass [CREATE]
+ * - edge com.my.A -&gt; com.my.OldClass [READ_ONLY]
+ * ~ edge com.my.A -&gt; com.my.B [READ_ONLY -&gt; READ_WRITE]
+ * ~ prop com.my.A -&gt; com.my.B: lineNo = [12] -&gt; [12, 30]
+ * </pre>
+ * The first line is a summary, starting with <tt>#</tt>.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public final class GraphDiffWriter {
+
+    /**
+     * util class, no instances.
+     */
+    private GraphDiffWriter() {
+    }
+
+    /**
+     * Writes the given diff to the given file.
+     *
+     * @param graphDiff the diff
+     * @param filename  name of the file to write to
+     */
+    public static void write(GraphDiff graphDiff, String filename) {
+        LOGGER.info("Writing {} to '{}'", graphDiff, FileNameUtil.getCanonicalPath(filename));
+        FileSystemUtil.writeStringToFile(toText(graphDiff), filename);
+    }
+
+    /**
+     * Formats the given diff.
+     *
+     * @param graphDiff the diff
+     * @return the text, as it is written by {@link #write(GraphDiff, String)}
+     */
+    public static String toText(GraphDiff graphDiff) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# ").append(graphDiff).append('\n');
+        graphDiff.getAddedNodes().forEach(name -> sb.append("+ node ").append(name).append('\n'));
+        graphDiff.getRemovedNodes().forEach(name -> sb.append("- node ").append(name).append('\n'));
+        graphDiff.getAddedEdges().forEach(edge -> appendEdge(sb.append("+ edge "), edge).append(" [").append(edge.getDependencyType()).append("]\n"));
+        graphDiff.getRemovedEdges().forEach(edge -> appendEdge(sb.append("- edge "), edge).append(" [").append(edge.getDependencyType()).append("]\n"));
+        graphDiff.getTypeChanges().forEach(change -> appendEdge(sb.append("~ edge "), change.getOldDependency())
+                .append(" [").append(change.getOldDependency().getDependencyType())
+                .append(" -> ").append(change.getNewDependency().getDependencyType()).append("]\n"));
+        graphDiff.getPropertyChanges().forEach(change -> sb.append("~ prop ").append(change.getElement())
+                .append(": ").append(change.getKey())
+                .append(" = ").append(change.getOldValue())
+                .append(" -> ").append(change.getNewValue()).append('\n'));
+        return sb.toString();
+    }
+
+    private static StringBuilder appendEdge(StringBuilder sb, Dependency edge) {
+        return sb.append(edge.getSource().getName()).append(" -> ").append(edge.getTarget().getName());
+    }
+}
@@ -45,8 +45,8 @@ public final class GraphReaderWriter {
      */
     public static void write(DependencyGraph dependencyGraph, String filename) {
         LOGGER.info("Writing graph with {} nodes and {} edges to '{}'",
-                dependencyGraph.getAllNodes().size(),
-                dependencyGraph.getAllEdges().size(),
+                dependencyGraph.nodeCount(),
+                dependencyGraph.edgeCount(),
                 FileNameUtil.getCanonicalPath(filename));
 
         IOGraph ioGraph = IO_GRAPH_MAPPER.createIOGraph(dependencyGraph);
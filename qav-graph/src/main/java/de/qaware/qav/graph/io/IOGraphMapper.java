@@ -1,10 +1,13 @@
 package de.qaware.qav.graph.io;
 
+import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.SortedIntList;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -52,7 +55,7 @@ public class IOGraphMapper {
 
     private Map<String, Object> mapNode(Node node) {
         TreeMap<String, Object> result = new TreeMap<>();
-        node.getProperties().forEach((key, value) -> result.put(key, mapValue(value)));
+        node.forEachProperty((key, value) -> result.put(key, mapValue(value)));
 
         return result;
     }
@@ -90,13 +93,12 @@ public class IOGraphMapper {
 
         if (mapBaseDependencies) {
             TreeMap<String, Object> properties = new TreeMap<>();
-            edge.getProperties().forEach((key, value) -> properties.put(key, mapValue(value)));
+            edge.forEachProperty((key, value) -> properties.put(key, mapValue(value)));
             result.setProps(properties);
 
-            List<IOEdge> baseDependencies = edge.getBaseDependencies().stream()
-                    .map(it -> mapEdge(it, false))
-                    .sorted(Comparator.comparing(o -> o.getFrom() + '#' + o.getTo()))
-                    .collect(Collectors.toList());
+            List<IOEdge> baseDependencies = new ArrayList<>(edge.getBaseDependencyCount());
+            edge.forEachBaseDependency(it -> baseDependencies.add(mapEdge(it, false)));
+            baseDependencies.sort(Comparator.comparing(o -> o.getFrom() + '#' + o.getTo()));
 
             result.setBaseDependencies(baseDependencies);
         }
@@ -146,11 +148,25 @@ public class IOGraphMapper {
             Dependency dep = dependencyGraph.addDependency(fromNode, toNode, type);
 
             if (ioEdge.getProps() != null) {
-                ioEdge.getProps().forEach(dep::setProperty);
+                ioEdge.getProps().forEach((key, value) -> dep.setProperty(key, readEdgeProperty(key, value)));
             }
         });
     }
 
+    /**
+     * Line numbers are read into a {@link SortedIntList}, as the readers create them.
+     *
+     * @param key   the property key
+     * @param value the value, as read from the file
+     * @return the value to set
+     */
+    private static Object readEdgeProperty(String key, Object value) {
+        if (Constants.LINE_NO.equals(key) && SortedIntList.isIntCollection(value)) {
+            return SortedIntList.copyOf((Collection<?>) value);
+        }
+        return value;
+    }
+
     private void addBaseDependencies(DependencyGraph dependencyGraph, IOGraph ioGraph) {
         ioGraph.getEdges().forEach(ioEdge -> {
             Node fromNode = dependencyGraph.getNode(ioEdge.getFrom());
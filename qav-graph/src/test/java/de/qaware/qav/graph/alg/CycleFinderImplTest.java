@@ -2,20 +2,22 @@ package de.qaware.qav.graph.alg;
 
 import de.qaware.qav.graph.alg.api.CycleFinder;
 import de.qaware.qav.graph.alg.impl.CycleFinderImpl;
-import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.factory.DependencyGraphFactory;
-import de.qaware.qav.graph.api.EdgeFilter;
-import de.qaware.qav.graph.api.NodeFilter;
+import de.qaware.qav.graph.factory.GraphImplementation;
+import de.qaware.qav.graph.filter.NodeNameInFilter;
+import de.qaware.qav.graph.filter.NotFilter;
+import de.qaware.qav.graph.impl.DependencyGraphMappedImpl;
 import org.junit.Test;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -97,89 +99,166 @@ public class CycleFinderImplTest {
         assertThat(cf.getCycles().get(1).size(), is(3));
     }
 
-    @Test(expected = UnsupportedOperationException.class)
-    public void testOnlySimpleImpl() {
-        DependencyGraph graph = createSomeGraph();
+    @Test
+    public void testCsrImpl() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph(GraphImplementation.CSR);
+
+        Node v1 = graph.getOrCreateNodeByName("v1");
+        Node v2 = graph.getOrCreateNodeByName("v2");
+        Node v3 = graph.getOrCreateNodeByName("v3");
+        Node v4 = graph.getOrCreateNodeByName("v4");
+
+        graph.addDependency(v1, v2, DependencyType.READ_ONLY);
+        graph.addDependency(v2, v3, DependencyType.READ_ONLY);
+        graph.addDependency(v3, v1, DependencyType.READ_ONLY);
+        graph.addDependency(v4, v1, DependencyType.READ_ONLY);
+
+        CycleFinder cf = new CycleFinderImpl(graph);
+        assertThat(cf.getCycles().size(), is(1));
+        assertThat(cf.getCycles().get(0).size(), is(3));
+
+        CycleFinder filtered = new CycleFinderImpl(graph.filter(new NotFilter(new NodeNameInFilter("v2"))));
+        assertFalse(filtered.hasCycles());
+    }
+
+    @Test
+    public void testComponents() {
+        DependencyGraph graph = createTangledGraph();
+
+        CycleFinderImpl cf = new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 0, 0);
+        assertTrue(cf.hasCycles());
+        assertThat(cf.getCycles().size(), is(2));
+        assertThat(cf.getSimpleCycles().isEmpty(), is(true));
+        assertThat(cf.isEnumerationComplete(), is(false));
+
+        List<Node> tangle = cf.getCycles().stream().filter(c -> c.size() > 1).findFirst().orElseThrow(IllegalStateException::new);
+        assertThat(tangle.size(), is(4));
+        assertThat(tangle.contains(graph.getNode("v5")), is(false));
+
+        // one label per component:
+        Object label = graph.getNode("v1").getProperty(CycleFinder.CYCLE_LABEL);
+        assertThat(graph.getNode("v4").getProperty(CycleFinder.CYCLE_LABEL), is(label));
+        assertThat(graph.getNode("v1").getProperty(CycleFinder.IN_CYCLE), is(true));
+        assertThat(graph.getNode("v5").getProperty(CycleFinder.IN_CYCLE), nullValue());
+        assertThat(graph.getNode("v6").getProperty(CycleFinder.IN_CYCLE), is(true)); // self-loop
+        assertThat(graph.getNode("v6").getProperty(CycleFinder.CYCLE_LABEL), not(label));
+    }
+
+    @Test
+    public void testComponentsWithEnumeration() {
+        DependencyGraph graph = createTangledGraph();
+        int allCycles = new CycleFinderImpl(graph).getCycles().size();
+
+        CycleFinderImpl cf = new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 100, 0);
+        assertThat(cf.getCycles().size(), is(2));
+        assertThat(cf.getSimpleCycles().size(), is(allCycles));
+        assertThat(cf.isEnumerationComplete(), is(true));
+
+        CycleFinderImpl capped = new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 1, 0);
+        assertThat(capped.getCycles().size(), is(2));
+        assertThat(capped.getSimpleCycles().size(), is(2)); // one per component
+        assertThat(capped.isEnumerationComplete(), is(false));
+    }
+
+    @Test
+    public void testStableLabels() {
+        DependencyGraph graph = createTangledGraph();
+
+        new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 0, 0);
+        assertThat(graph.getNode("v3").getProperty(CycleFinder.CYCLE_LABEL), is("Cycle_v1"));
+        assertThat(graph.getNode("v6").getProperty(CycleFinder.CYCLE_LABEL), is("Cycle_v6"));
+
         new CycleFinderImpl(graph);
+        assertThat(graph.getNode("v6").getProperty(CycleFinder.CYCLE_LABEL), is("Cycle_v6_0"));
+        new CycleFinderImpl(graph);
+        assertThat(graph.getNode("v6").getProperty(CycleFinder.CYCLE_LABEL), is("Cycle_v6_0"));
+    }
+
+    @Test
+    public void testParallelResultIsStable() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        for (int i = 0; i < 200; i++) {
+            Node a = graph.getOrCreateNodeByName("a" + i);
+            Node b = graph.getOrCreateNodeByName("b" + i);
+            Node c = graph.getOrCreateNodeByName("c" + i);
+            graph.addDependency(a, b, DependencyType.READ_ONLY);
+            graph.addDependency(b, c, DependencyType.READ_ONLY);
+            graph.addDependency(c, a, DependencyType.READ_ONLY);
+            graph.addDependency(b, a, DependencyType.READ_ONLY);
+        }
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool multi = new ForkJoinPool(4);
+        try {
+            CycleFinderImpl sequential = new CycleFinderImpl(graph, CycleFinderImpl.Mode.SIMPLE_CYCLES, 0, 0, single);
+            CycleFinderImpl parallel = new CycleFinderImpl(graph, CycleFinderImpl.Mode.SIMPLE_CYCLES, 0, 0, multi);
+            assertThat(parallel.getCycles().size(), is(400));
+            assertThat(parallel.getCycles(), is(sequential.getCycles()));
+
+            CycleFinderImpl components = new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 10, 0, multi);
+            assertThat(components.getCycles().size(), is(200));
+            assertThat(components.getCycles().get(0).get(0).getName(), is("a0"));
+            assertThat(components.getSimpleCycles(), is(sequential.getCycles()));
+        } finally {
+            single.shutdown();
+            multi.shutdown();
+        }
+    }
+
+    @Test
+    public void testComponentsOnDeepGraph() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph(GraphImplementation.CSR);
+        int n = 100000;
+        Node first = graph.getOrCreateNodeByName("n0");
+        Node prev = first;
+        for (int i = 1; i < n; i++) {
+            Node next = graph.getOrCreateNodeByName("n" + i);
+            graph.addDependency(prev, next, DependencyType.READ_ONLY);
+            prev = next;
+        }
+        graph.addDependency(prev, first, DependencyType.READ_ONLY);
+
+        CycleFinderImpl cf = new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 1, 10000);
+        assertThat(cf.getCycles().size(), is(1));
+        assertThat(cf.getCycles().get(0).size(), is(n));
+        assertThat(cf.getSimpleCycles().get(0).size(), is(n));
+    }
+
+    @Test
+    public void testFrozenAndMappedGraphs() {
+        DependencyGraph graph = createTangledGraph();
+        int allCycles = new CycleFinderImpl(graph).getCycles().size();
+        DependencyGraph frozen = graph.freeze();
+
+        assertThat(new CycleFinderImpl(frozen).getCycles().size(), is(allCycles));
+        assertThat(new CycleFinderImpl(frozen, CycleFinderImpl.Mode.COMPONENTS, 0, 0).getCycles().size(), is(2));
+
+        DependencyGraphMappedImpl.write(graph, "build/testCycleFinderMapped.qavm");
+        DependencyGraph mapped = DependencyGraphFactory.openMappedGraph("build/testCycleFinderMapped.qavm");
+        assertThat(new CycleFinderImpl(mapped).getCycles().size(), is(allCycles));
     }
 
     /**
-     * just any graph, different from the standard implementation.
-     *
-     * @return a DependencyGraph.
+     * v1..v4 are one component with three elementary cycles, v5 hangs off it, v6 has an edge to itself.
      */
-    private DependencyGraph createSomeGraph() {
-        return new DependencyGraph() {
-
-            @Override
-            public Collection<Node> getAllNodes() {
-                return null;
-            }
-
-            @Override
-            public Collection<Dependency> getAllEdges() {
-                return null;
-            }
-
-            @Override
-            public Node getOrCreateNodeByName(String name) {
-                return null;
-            }
-
-            @Override
-            public Node getNode(String name) {
-                return null;
-            }
-
-            @Override
-            public boolean hasNode(String name) {
-                return false;
-            }
-
-            @Override
-            public Dependency addDependency(Node from, Node to, DependencyType type) {
-                return null;
-            }
-
-            @Override
-            public Dependency getEdge(Node from, Node to) {
-                return null;
-            }
-
-            @Override
-            public Set<Dependency> getOutgoingEdges(Node node) {
-                return null;
-            }
-
-            @Override
-            public Set<Dependency> getOutgoingEdges(Node node, DependencyType dependencyType) {
-                return null;
-            }
-
-            @Override
-            public Set<Dependency> getIncomingEdges(Node node) {
-                return null;
-            }
-
-            @Override
-            public Set<Dependency> getIncomingEdges(Node node, DependencyType dependencyType) {
-                return null;
-            }
-
-            @Override
-            public DependencyGraph filter(NodeFilter filter) {
-                return null;
-            }
-
-            @Override
-            public DependencyGraph filter(EdgeFilter filter) {
-                return null;
-            }
-
-            @Override
-            public DependencyGraph getBaseGraph() {
-                return null;
-            }
-        };
+    private DependencyGraph createTangledGraph() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node v1 = graph.getOrCreateNodeByName("v1");
+        Node v2 = graph.getOrCreateNodeByName("v2");
+        Node v3 = graph.getOrCreateNodeByName("v3");
+        Node v4 = graph.getOrCreateNodeByName("v4");
+        Node v5 = graph.getOrCreateNodeByName("v5");
+        Node v6 = graph.getOrCreateNodeByName("v6");
+
+        graph.addDependency(v1, v2, DependencyType.READ_ONLY);
+        graph.addDependency(v2, v1, DependencyType.READ_ONLY);
+        graph.addDependency(v2, v3, DependencyType.READ_ONLY);
+        graph.addDependency(v3, v1, DependencyType.READ_ONLY);
+        graph.addDependency(v3, v4, DependencyType.READ_ONLY);
+        graph.addDependency(v4, v2, DependencyType.READ_ONLY);
+        graph.addDependency(v4, v5, DependencyType.READ_ONLY);
+        graph.addDependency(v5, v6, DependencyType.READ_ONLY);
+        graph.addDependency(v6, v6, DependencyType.READ_ONLY);
+        return graph;
     }
 }
@@ -0,0 +1,137 @@
+package de.qaware.qav.graph.alg;
+
+import de.qaware.qav.graph.alg.impl.CycleFinderImpl;
+import de.qaware.qav.graph.alg.impl.FeedbackArcSetFinder;
+import de.qaware.qav.graph.api.Constants;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.factory.GraphImplementation;
+import de.qaware.qav.graph.io.FeedbackArcSetWriter;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link FeedbackArcSetFinder}.
+ *
+ * @author QAware GmbH
+ */
+public class FeedbackArcSetFinderTest {
+
+    @Test
+    public void testNoCycles() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node a = graph.getOrCreateNodeByName("a");
+        Node b = graph.getOrCreateNodeByName("b");
+        graph.addDependency(a, b, DependencyType.READ_ONLY);
+
+        assertThat(FeedbackArcSetFinder.findFeedbackArcSet(graph).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testPrefersLightEdges() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node a = graph.getOrCreateNodeByName("a");
+        Node b = graph.getOrCreateNodeByName("b");
+        Node c = graph.getOrCreateNodeByName("c");
+        graph.addDependency(a, b, DependencyType.READ_ONLY).setProperty(Constants.BASE_REL_COUNT, 10);
+        graph.addDependency(b, c, DependencyType.READ_ONLY).setProperty(Constants.BASE_REL_COUNT, 10);
+        Dependency light = graph.addDependency(c, a, DependencyType.READ_ONLY);
+        light.setProperty(Constants.BASE_REL_COUNT, 2);
+        graph.addDependency(b, a, DependencyType.READ_ONLY).setProperty(Constants.BASE_REL_COUNT, 1);
+
+        List<Dependency> result = FeedbackArcSetFinder.findFeedbackArcSet(graph);
+
+        assertThat(result.size(), is(2));
+        assertThat(result.contains(light), is(true));
+        assertThat(result.contains(graph.getEdge(b, a)), is(true));
+        assertThat(FeedbackArcSetFinder.weight(light), is(2));
+    }
+
+    @Test
+    public void testWeightFallsBackToBaseDependencies() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Dependency dependency = graph.addDependency(graph.getOrCreateNodeByName("a"), graph.getOrCreateNodeByName("b"), DependencyType.READ_ONLY);
+        assertThat(FeedbackArcSetFinder.weight(dependency), is(1));
+
+        dependency.addBaseDependency(new Dependency(new Node("x"), new Node("y"), DependencyType.READ_ONLY));
+        dependency.addBaseDependency(new Dependency(new Node("x"), new Node("z"), DependencyType.READ_ONLY));
+        assertThat(FeedbackArcSetFinder.weight(dependency), is(2));
+    }
+
+    @Test
+    public void testSelfLoop() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node a = graph.getOrCreateNodeByName("a");
+        Dependency loop = graph.addDependency(a, a, DependencyType.READ_ONLY);
+
+        List<Dependency> result = FeedbackArcSetFinder.findFeedbackArcSet(graph);
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0), is(loop));
+    }
+
+    @Test
+    public void testBreaksAllCycles() {
+        Random random = new Random(42);
+        DependencyGraph graph = DependencyGraphFactory.createGraph(GraphImplementation.CSR);
+        int n = 2000;
+        for (int i = 0; i < n; i++) {
+            graph.getOrCreateNodeByName("n" + i);
+        }
+        for (int i = 0; i < 4 * n; i++) {
+            Node source = graph.getNode("n" + random.nextInt(n));
+            Node target = graph.getNode("n" + random.nextInt(n));
+            graph.addDependency(source, target, DependencyType.READ_ONLY);
+        }
+        assertThat(new CycleFinderImpl(graph, CycleFinderImpl.Mode.COMPONENTS, 0, 0).hasCycles(), is(true));
+
+        Set<Dependency> feedbackArcSet = new HashSet<>(FeedbackArcSetFinder.findFeedbackArcSet(graph));
+
+        DependencyGraph rest = DependencyGraphFactory.createGraph();
+        graph.forEachEdge(edge -> {
+            if (!feedbackArcSet.contains(edge)) {
+                rest.addDependency(rest.getOrCreateNodeByName(edge.getSource().getName()),
+                        rest.getOrCreateNodeByName(edge.getTarget().getName()), edge.getDependencyType());
+            }
+        });
+        assertThat(new CycleFinderImpl(rest, CycleFinderImpl.Mode.COMPONENTS, 0, 0).hasCycles(), is(false));
+    }
+
+    @Test
+    public void testFrozenGraph() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node a = graph.getOrCreateNodeByName("a");
+        Node b = graph.getOrCreateNodeByName("b");
+        graph.addDependency(a, b, DependencyType.READ_ONLY);
+        graph.addDependency(b, a, DependencyType.READ_ONLY);
+
+        assertThat(FeedbackArcSetFinder.findFeedbackArcSet(graph.freeze()).size(), is(1));
+    }
+
+    @Test
+    public void testWriterSortsBaseRelations() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Dependency edge = graph.addDependency(graph.getOrCreateNodeByName("b"), graph.getOrCreateNodeByName("a"), DependencyType.READ_ONLY);
+        for (String name : new String[]{"z", "c", "m", "a"}) {
+            edge.addBaseDependency(new Dependency(new Node("b." + name), new Node("a.X"), DependencyType.READ_ONLY));
+        }
+
+        assertThat(FeedbackArcSetWriter.toText(Collections.singletonList(edge)), is(
+                "# 1 edge(s) with weight 4 break all cycles\n"
+                        + "b -> a [READ_ONLY] weight 4\n"
+                        + "    * b.a -> a.X [READ_ONLY]\n"
+                        + "    * b.c -> a.X [READ_ONLY]\n"
+                        + "    * b.m -> a.X [READ_ONLY]\n"
+                        + "    * b.z -> a.X [READ_ONLY]\n"));
+    }
+}
@@ -0,0 +1,108 @@
+package de.qaware.qav.graph.alg;
+
+import de.qaware.qav.graph.alg.api.GraphDiff;
+import de.qaware.qav.graph.alg.impl.GraphDiffCalculator;
+import de.qaware.qav.graph.api.Constants;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.filter.NodeNameInFilter;
+import de.qaware.qav.graph.filter.NotFilter;
+import de.qaware.qav.graph.io.GraphDiffWriter;
+import de.qaware.qav.graph.io.GraphReaderWriter;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GraphDiffCalculator} and {@link GraphDiffWriter}.
+ *
+ * @author QAware GmbH
+ */
+public class GraphDiffCalculatorTest {
+
+    @Test
+    public void testEqualGraphs() {
+        GraphDiff graphDiff = GraphDiffCalculator.diff(createGraph(), createGraph());
+        assertThat(graphDiff.isEmpty()).isTrue();
+        assertThat(GraphDiffWriter.toText(graphDiff))
+                .isEqualTo("# GraphDiff[nodes: +0 -0; edges: +0 -0; type changes: 0; property changes: 0]\n");
+    }
+
+    @Test
+    public void testDiff() {
+        DependencyGraph oldGraph = createGraph();
+        DependencyGraph newGraph = createGraph();
+        Node a = newGraph.getNode("a");
+        Node b = newGraph.getNode("b");
+        Node d = newGraph.getOrCreateNodeByName("d");
+        newGraph.addDependency(a, d, DependencyType.READ_ONLY);
+        newGraph.addDependency(a, b, DependencyType.CREATE);
+        a.setProperty("type", "interface");
+        a.setProperty("scope", "api");
+        b.setProperty("type", null);
+        newGraph.getEdge(a, b).addIntSetProperty("lineNo", 20);
+        // remove "c" and its edges:
+        DependencyGraph filteredNewGraph = newGraph.filter(new NotFilter(new NodeNameInFilter("c")));
+
+        GraphDiff graphDiff = GraphDiffCalculator.diff(oldGraph, filteredNewGraph);
+
+        assertThat(graphDiff.isEmpty()).isFalse();
+        assertThat(graphDiff.getAddedNodes()).containsExactly("d");
+        assertThat(graphDiff.getRemovedNodes()).containsExactly("c");
+        assertThat(graphDiff.getAddedEdges()).extracting(Dependency::toString).containsExactly("a --[READ_ONLY]--> d");
+        assertThat(graphDiff.getRemovedEdges()).extracting(Dependency::toString).containsExactly("b --[REFERENCE]--> c", "c --[INHERIT]--> a");
+        assertThat(graphDiff.getTypeChanges()).hasSize(1);
+        assertThat(graphDiff.getTypeChanges().get(0).getNewDependency().getDependencyType()).isEqualTo(DependencyType.CREATE);
+
+        assertThat(GraphDiffWriter.toText(graphDiff)).isEqualTo(
+                "# GraphDiff[nodes: +1 -1; edges: +1 -2; type changes: 1; property changes: 4]\n"
+                        + "+ node d\n"
+                        + "- node c\n"
+                        + "+ edge a -> d [READ_ONLY]\n"
+                        + "- edge b -> c [REFERENCE]\n"
+                        + "- edge c -> a [INHERIT]\n"
+                        + "~ edge a -> b [READ_ONLY -> CREATE]\n"
+                        + "~ prop a: scope = null -> api\n"
+                        + "~ prop a: type = class -> interface\n"
+                        + "~ prop a -> b: lineNo = [10] -> [10, 20]\n"
+                        + "~ prop b: type = class -> null\n");
+    }
+
+    @Test
+    public void testGraphReadFromFile() {
+        DependencyGraph graph = createGraph();
+        Node a = graph.getNode("a");
+        Node b = graph.getNode("b");
+        // like the BaseRelationTagger, which counts in Longs:
+        a.setProperty(Constants.BASE_REL_COUNT, 2L);
+        graph.getEdge(a, b).setProperty(Constants.BASE_REL_COUNT_SOURCES, 2L);
+        graph.getEdge(a, b).addIntSetProperty("lineNo", 12);
+        a.addListProperty("tags", Arrays.asList("x", 1L));
+        a.setProperty("ratio", 0.5);
+
+        GraphReaderWriter.write(graph, "build/testGraphDiffReadFromFile.json");
+        DependencyGraph readGraph = GraphReaderWriter.read("build/testGraphDiffReadFromFile.json");
+
+        GraphDiff graphDiff = GraphDiffCalculator.diff(readGraph, graph);
+        assertThat(graphDiff.getPropertyChanges()).isEmpty();
+        assertThat(graphDiff.isEmpty()).isTrue();
+    }
+
+    private static DependencyGraph createGraph() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node a = graph.getOrCreateNodeByName("a");
+        Node b = graph.getOrCreateNodeByName("b");
+        Node c = graph.getOrCreateNodeByName("c");
+        a.setProperty("type", "class");
+        b.setProperty("type", "class");
+        graph.addDependency(a, b, DependencyType.READ_ONLY).addIntSetProperty("lineNo", 10);
+        graph.addDependency(b, c, DependencyType.REFERENCE);
+        graph.addDependency(c, a, DependencyType.INHERIT);
+        return graph;
+    }
+}
@@ -0,0 +1,156 @@
+package de.qaware.qav.graph.alg;
+
+import de.qaware.qav.graph.alg.impl.ReachabilityIndex;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.factory.GraphImplementation;
+import de.qaware.qav.graph.filter.NodeNameInFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ReachabilityIndex}.
+ *
+ * @author QAware GmbH
+ */
+public class ReachabilityIndexTest {
+
+    private DependencyGraph graph;
+    private Node a, b, c, d, e;
+
+    /**
+     * a -> b <-> c -> d, and e with a self-loop.
+     */
+    @Before
+    public void init() {
+        graph = DependencyGraphFactory.createGraph();
+        a = graph.getOrCreateNodeByName("a");
+        b = graph.getOrCreateNodeByName("b");
+        c = graph.getOrCreateNodeByName("c");
+        d = graph.getOrCreateNodeByName("d");
+        e = graph.getOrCreateNodeByName("e");
+        graph.addDependency(a, b, DependencyType.READ_ONLY);
+        graph.addDependency(b, c, DependencyType.READ_ONLY);
+        graph.addDependency(c, b, DependencyType.READ_ONLY);
+        graph.addDependency(c, d, DependencyType.READ_ONLY);
+        graph.addDependency(e, e, DependencyType.READ_ONLY);
+    }
+
+    @Test
+    public void testReaches() {
+        ReachabilityIndex index = new ReachabilityIndex(graph);
+
+        assertThat(index.reaches(a, d), is(true));
+        assertThat(index.reaches(a, b), is(true));
+        assertThat(index.reaches(c, b), is(true));
+        assertThat(index.reaches(d, a), is(false));
+        assertThat(index.reaches(a, e), is(false));
+
+        // a node only reaches itself on a cycle
+        assertThat(index.reaches(a, a), is(false));
+        assertThat(index.reaches(b, b), is(true));
+        assertThat(index.reaches(e, e), is(true));
+
+        assertThat(index.reaches(a, new Node("unknown")), is(false));
+    }
+
+    @Test
+    public void testFindNodes() {
+        ReachabilityIndex index = new ReachabilityIndex(graph);
+
+        assertThat(index.findNodesReaching(new NodeNameInFilter("d")), is(set(a, b, c)));
+        assertThat(index.findNodesReaching(new NodeNameInFilter("b")), is(set(a, b, c)));
+        assertThat(index.findNodesReaching(new NodeNameInFilter("a")), is(set()));
+        assertThat(index.findNodesReaching(new NodeNameInFilter("e")), is(set(e)));
+
+        assertThat(index.findNodesReachableFrom(new NodeNameInFilter("a")), is(set(b, c, d)));
+        assertThat(index.findNodesReachableFrom(new NodeNameInFilter("c")), is(set(b, c, d)));
+        assertThat(index.findNodesReachableFrom(new NodeNameInFilter("d")), is(set()));
+    }
+
+    @Test
+    public void testAgainstSearch() {
+        Random random = new Random(7);
+        DependencyGraph randomGraph = DependencyGraphFactory.createGraph(GraphImplementation.CSR);
+        int n = 300;
+        for (int i = 0; i < n; i++) {
+            randomGraph.getOrCreateNodeByName("n" + i);
+        }
+        for (int i = 0; i < 2 * n; i++) {
+            randomGraph.addDependency(randomGraph.getNode("n" + random.nextInt(n)), randomGraph.getNode("n" + random.nextInt(n)), DependencyType.READ_ONLY);
+        }
+
+        ReachabilityIndex index = new ReachabilityIndex(randomGraph);
+        for (int i = 0; i < n; i += 7) {
+            Node from = randomGraph.getNode("n" + i);
+            Set<Node> expected = search(randomGraph, from);
+            for (int j = 0; j < n; j++) {
+                Node to = randomGraph.getNode("n" + j);
+                assertThat(from + " -> " + to, index.reaches(from, to), is(expected.contains(to)));
+            }
+            assertThat(index.findNodesReachableFrom(new NodeNameInFilter(from.getName())), is(expected));
+        }
+    }
+
+    /**
+     * In a DAG with long paths, many queries are not decided by the interval labels, and need the search.
+     */
+    @Test
+    public void testAgainstSearchInDag() {
+        Random random = new Random(11);
+        DependencyGraph dag = DependencyGraphFactory.createGraph(GraphImplementation.CSR);
+        int n = 400;
+        for (int i = 0; i < n; i++) {
+            dag.getOrCreateNodeByName("n" + i);
+        }
+        for (int i = 0; i < n - 1; i++) {
+            for (int k = 0; k < 2; k++) {
+                int j = i + 1 + random.nextInt(Math.min(20, n - 1 - i));
+                dag.addDependency(dag.getNode("n" + i), dag.getNode("n" + j), DependencyType.READ_ONLY);
+            }
+        }
+
+        ReachabilityIndex index = new ReachabilityIndex(dag);
+        for (int i = 0; i < n; i += 3) {
+            Node from = dag.getNode("n" + i);
+            Set<Node> expected = search(dag, from);
+            for (int j = 0; j < n; j++) {
+                Node to = dag.getNode("n" + j);
+                assertThat(from + " -> " + to, index.reaches(from, to), is(expected.contains(to)));
+            }
+        }
+    }
+
+    private static Set<Node> search(DependencyGraph graph, Node from) {
+        Set<Node> result = new HashSet<>();
+        Deque<Node> todo = new ArrayDeque<>();
+        todo.push(from);
+        while (!todo.isEmpty()) {
+            graph.getOutgoingEdges(todo.pop()).forEach(edge -> {
+                if (result.add(edge.getTarget())) {
+                    todo.push(edge.getTarget());
+                }
+            });
+        }
+        return result;
+    }
+
+    private static Set<Node> set(Node... nodes) {
+        Set<Node> result = new HashSet<>();
+        for (Node node : nodes) {
+            result.add(node);
+        }
+        return result;
+    }
+}
@@ -2,6 +2,9 @@ package de.qaware.qav.graph.api;
 
 import org.junit.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
@@ -93,4 +96,29 @@ public class DependencyTest {
         dependency.addBaseDependency(dep2b);
         assertThat(dependency.getBaseDependencies(), hasSize(3));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBaseDependencyCounts() {
+        Dependency dependency = new Dependency(new Node("a"), new Node("b"), DependencyType.CREATE);
+        assertThat(dependency.getBaseDependencyCount(), is(0));
+        assertThat(dependency.getBaseSourceCount(), is(0));
+
+        PropertyStore store = new PropertyStore();
+        Set<Dependency> added = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            Dependency baseDependency = new Dependency(new Node("a.s" + (i % 10)), new Node("b.t" + (i % 25)), DependencyType.READ_ONLY, store);
+            dependency.addBaseDependency(baseDependency);
+            dependency.addBaseDependency(baseDependency);
+            added.add(baseDependency);
+        }
+
+        assertThat(dependency.getBaseDependencyCount(), is(100));
+        assertThat(dependency.getBaseSourceCount(), is(10));
+        assertThat(dependency.getBaseTargetCount(), is(25));
+
+        Set<Dependency> visited = new HashSet<>();
+        dependency.forEachBaseDependency(visited::add);
+        assertThat(visited, is(added));
+        assertThat(dependency.getBaseDependencies(), is(added));
+    }
+}
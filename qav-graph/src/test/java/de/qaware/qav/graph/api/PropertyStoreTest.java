@@ -0,0 +1,194 @@
+package de.qaware.qav.graph.api;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PropertyStore} and the property accessors of {@link AbstractGraphElement}.
+ *
+ * @author QAware GmbH
+ */
+public class PropertyStoreTest {
+
+    @Test
+    public void testRowsAreIndependent() {
+        PropertyStore store = new PropertyStore();
+        int row1 = store.newRow();
+        int row2 = store.newRow();
+
+        store.set(row1, "type", "class");
+        store.set(row2, "type", "method");
+        store.set(row2, "inCycle", true);
+
+        assertThat(store.getRowCount()).isEqualTo(2);
+        assertThat(store.get(row1, "type")).isEqualTo("class");
+        assertThat(store.get(row2, "type")).isEqualTo("method");
+        assertThat(store.has(row1, "inCycle")).isFalse();
+        assertThat(store.get(row1, "inCycle")).isNull();
+        assertThat(store.get(row2, "inCycle")).isEqualTo(true);
+        assertThat(store.get(row1, "unknown")).isNull();
+        assertThat(store.count(row1)).isEqualTo(1);
+        assertThat(store.count(row2)).isEqualTo(2);
+    }
+
+    @Test
+    public void testPrimitiveColumns() {
+        PropertyStore store = new PropertyStore();
+        int row1 = store.newRow();
+        int row2 = store.newRow();
+
+        store.set(row1, "size", 12);
+        store.set(row2, "size", -3);
+        store.set(row1, "flag", false);
+        store.set(row2, "flag", true);
+
+        assertThat(store.get(row1, "size")).isEqualTo(12);
+        assertThat(store.get(row2, "size")).isEqualTo(-3);
+        assertThat(store.get(row1, "flag")).isEqualTo(false);
+        assertThat(store.get(row2, "flag")).isEqualTo(true);
+
+        store.set(row1, "flag", null);
+        assertThat(store.has(row1, "flag")).isFalse();
+        assertThat(store.has(row2, "flag")).isTrue();
+    }
+
+    @Test
+    public void testColumnTypeChanges() {
+        PropertyStore store = new PropertyStore();
+        int row1 = store.newRow();
+        int row2 = store.newRow();
+
+        store.set(row1, "value", 1);
+        store.set(row2, "value", 2L);
+        store.set(row1, "other", true);
+        store.set(row2, "other", "yes");
+
+        assertThat(store.get(row1, "value")).isEqualTo(1);
+        assertThat(store.get(row2, "value")).isEqualTo(2L);
+        assertThat(store.get(row1, "other")).isEqualTo(true);
+        assertThat(store.get(row2, "other")).isEqualTo("yes");
+    }
+
+    @Test
+    public void testSparseAndDenseColumns() {
+        PropertyStore store = new PropertyStore();
+        for (int i = 0; i < 100; i++) {
+            store.newRow();
+        }
+
+        // a few values on late rows stay sparse, then the column becomes dense:
+        for (int row = 99; row >= 0; row -= 2) {
+            store.set(row, "size", row);
+            store.set(row, "flag", row % 4 == 1);
+        }
+        store.set(98, "size", null);
+        store.set(97, "note", "late");
+
+        for (int row = 0; row < 100; row++) {
+            assertThat(store.get(row, "size")).isEqualTo(row % 2 == 1 && row != 98 ? row : null);
+            assertThat(store.get(row, "flag")).isEqualTo(row % 2 == 1 ? row % 4 == 1 : null);
+            assertThat(store.get(row, "note")).isEqualTo(row == 97 ? "late" : null);
+        }
+        assertThat(store.count(97)).isEqualTo(3);
+
+        // a value of another type converts the dense column:
+        store.set(3, "size", "three");
+        store.freeze();
+        assertThat(store.get(3, "size")).isEqualTo("three");
+        assertThat(store.get(5, "size")).isEqualTo(5);
+        assertThat(store.get(4, "size")).isNull();
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        PropertyStore store = new PropertyStore();
+        int rows = 10_000;
+        for (int i = 0; i < rows; i++) {
+            store.newRow();
+        }
+
+        Thread writer = new Thread(() -> {
+            for (int row = 0; row < rows; row++) {
+                store.set(row, "key" + (row % 20), true);
+                store.set(row, "value", row);
+            }
+        });
+        writer.start();
+        int lastSeen = -1;
+        while (lastSeen < rows - 1) {
+            boolean done = !writer.isAlive();
+            // the values are written in order, so a visible value means that all earlier values are visible as well
+            int row = lastSeen + 1;
+            Object value = store.get(row, "value");
+            if (value != null) {
+                assertThat(value).isEqualTo(row);
+                assertThat(store.get(row, "key" + (row % 20))).isEqualTo(true);
+                lastSeen = row;
+            } else if (done) {
+                break;
+            }
+        }
+        writer.join();
+        assertThat(lastSeen).isEqualTo(rows - 1);
+    }
+
+    @Test
+    public void testForEach() {
+        PropertyStore store = new PropertyStore();
+        int row1 = store.newRow();
+        int row2 = store.newRow();
+        store.set(row2, "a", "x");
+        store.set(row1, "b", 1);
+        store.set(row1, "a", "y");
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        store.forEach(row1, values::put);
+
+        assertThat(values).containsExactly(entry("a", "y"), entry("b", 1));
+    }
+
+    @Test
+    public void testElementsShareStore() {
+        PropertyStore store = new PropertyStore();
+        Node n1 = new Node("n1", store);
+        Node n2 = new Node("n2", store);
+        n1.setProperty("type", "class");
+        n2.addListProperty("lineNo", 5);
+        n2.addIntSetProperty("lineNo", 3);
+
+        assertThat(store.getRowCount()).isEqualTo(2);
+        assertThat(n1.getProperty("type")).isEqualTo("class");
+        assertThat(n2.getProperty("type")).isNull();
+        assertThat(n2.getProperty("lineNo")).isEqualTo(Lists.newArrayList(5, 3));
+
+        assertThat(n1.getPropertyCount()).isEqualTo(2);
+        assertThat(n1.getProperty("name")).isEqualTo("n1");
+        assertThat(n1.hasProperty("name")).isTrue();
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        n1.forEachProperty(values::put);
+        assertThat(values).containsExactly(entry("name", "n1"), entry("type", "class"));
+        assertThat(n1.getProperties()).isEqualTo(values);
+    }
+
+    @Test
+    public void testDependencyHasNoName() {
+        Node n1 = new Node("n1");
+        Dependency dependency = new Dependency(n1, n1, DependencyType.READ_ONLY);
+        dependency.setProperty("x", 1);
+
+        assertThat(dependency.getName()).isNull();
+        assertThat(dependency.hasProperty("name")).isFalse();
+        assertThat(dependency.getPropertyCount()).isEqualTo(1);
+        assertThat(dependency.getProperties()).containsOnlyKeys("x");
+    }
+
+    private static Map.Entry<String, Object> entry(String key, Object value) {
+        return new java.util.AbstractMap.SimpleEntry<>(key, value);
+    }
+}
@@ -0,0 +1,122 @@
+package de.qaware.qav.graph.api;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SortedIntList} and {@link AbstractGraphElement#addIntSetProperty(String, int)}.
+ *
+ * @author QAware GmbH
+ */
+public class SortedIntListTest {
+
+    @Test
+    public void testSortedWithoutDuplicates() {
+        SortedIntList list = new SortedIntList();
+        assertThat(list.addInt(12)).isTrue();
+        assertThat(list.addInt(3)).isTrue();
+        assertThat(list.addInt(40)).isTrue();
+        assertThat(list.addInt(12)).isFalse();
+        assertThat(list.add(7)).isTrue();
+        assertThat(list.addInt(-1)).isTrue();
+
+        assertThat(list).containsExactly(-1, 3, 7, 12, 40);
+        assertThat(list.toIntArray()).containsExactly(-1, 3, 7, 12, 40);
+        assertThat(list.getInt(2)).isEqualTo(7);
+        assertThat(list.contains(40)).isTrue();
+        assertThat(list.contains(41)).isFalse();
+        assertThat(list.contains("40")).isFalse();
+        assertThat(list.indexOf(12)).isEqualTo(3);
+        assertThat(list.indexOf(13)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testManyValues() {
+        SortedIntList list = new SortedIntList();
+        for (int i = 999; i >= 0; i--) {
+            list.addInt(i % 500);
+        }
+        assertThat(list).hasSize(500);
+        for (int i = 0; i < 500; i++) {
+            assertThat(list.getInt(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testEqualsOtherLists() {
+        assertThat(SortedIntList.of(3, 1, 2)).isEqualTo(Lists.newArrayList(1, 2, 3));
+        assertThat(Lists.newArrayList(1, 2, 3)).isEqualTo(SortedIntList.of(3, 1, 2, 1));
+        assertThat(SortedIntList.of(1, 2).hashCode()).isEqualTo(Lists.newArrayList(1, 2).hashCode());
+        assertThat(SortedIntList.copyOf(Lists.newArrayList(5, 4))).containsExactly(4, 5);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        SortedIntList list = SortedIntList.of(1, 2);
+        SortedIntList copy = new SortedIntList(list);
+        copy.addInt(3);
+
+        assertThat(list).containsExactly(1, 2);
+        assertThat(copy).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void testRemoveNotSupported() {
+        SortedIntList list = SortedIntList.of(1, 2);
+        assertThatThrownBy(() -> list.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testIsIntCollection() {
+        assertThat(SortedIntList.isIntCollection(Lists.newArrayList(1, 2))).isTrue();
+        assertThat(SortedIntList.isIntCollection(Lists.newArrayList(1, 2L))).isFalse();
+        assertThat(SortedIntList.isIntCollection(Lists.newArrayList("1"))).isFalse();
+        assertThat(SortedIntList.isIntCollection(1)).isFalse();
+    }
+
+    @Test
+    public void testAddIntSetProperty() {
+        Node node = new Node("n1");
+        node.addIntSetProperty("lineNo", 12);
+        node.addIntSetProperty("lineNo", 3);
+        node.addIntSetProperty("lineNo", 12);
+
+        assertThat(node.getProperty("lineNo")).isInstanceOf(SortedIntList.class);
+        assertThat(node.getProperty("lineNo")).isEqualTo(Lists.newArrayList(3, 12));
+
+        // lists of Integers are merged into the SortedIntList:
+        node.addListProperty("lineNo", Lists.newArrayList(7, 3));
+        node.addListProperty("lineNo", 1);
+        node.addListProperty("lineNo", SortedIntList.of(20));
+        assertThat(node.getProperty("lineNo")).isInstanceOf(SortedIntList.class);
+        assertThat(node.getProperty("lineNo")).isEqualTo(Lists.newArrayList(1, 3, 7, 12, 20));
+
+        // other values turn it into a normal list:
+        node.addListProperty("lineNo", "x");
+        assertThat(node.getProperty("lineNo")).isEqualTo(Lists.newArrayList(1, 3, 7, 12, 20, "x"));
+    }
+
+    @Test
+    public void testAddListPropertyCopiesSortedIntList() {
+        SortedIntList lineNumbers = SortedIntList.of(1, 2);
+        Node node = new Node("n1");
+        node.addListProperty("lineNo", lineNumbers);
+        node.addIntSetProperty("lineNo", 3);
+
+        assertThat(node.getProperty("lineNo")).isInstanceOf(SortedIntList.class);
+        assertThat(node.getProperty("lineNo")).isEqualTo(Lists.newArrayList(1, 2, 3));
+        assertThat(lineNumbers).containsExactly(1, 2);
+    }
+
+    @Test
+    public void testAddIntSetPropertyToExistingValue() {
+        Node node = new Node("n1");
+        node.setProperty("lineNo", 5);
+        node.addIntSetProperty("lineNo", 6);
+
+        assertThat(node.getProperty("lineNo")).isEqualTo(Lists.newArrayList(5, 6));
+    }
+}
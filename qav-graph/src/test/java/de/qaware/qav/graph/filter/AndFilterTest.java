@@ -4,6 +4,8 @@ import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.api.NodeFilter;
 import org.junit.Test;
 
+import java.util.BitSet;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
@@ -22,4 +24,20 @@ public class AndFilterTest {
         NodeFilter f2 = new AndFilter(new TrueFilter(), new NotFilter(new TrueFilter()));
         assertThat(f2.isAccepted(new Node("x")), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAccepted() {
+        Node[] nodes = {new Node("a.x"), new Node("b.x"), new Node("a.y"), new Node("b.y")};
+        BitSet candidates = new BitSet();
+        candidates.set(0, 4);
+
+        NodeFilter filter = new AndFilter(new NodeNameInFilter("a.*"), new NotFilter(new NodeNameInFilter("*.y")));
+        BitSet accepted = filter.getAccepted(id -> nodes[id], candidates);
+
+        assertThat(accepted.toString(), is("{0}"));
+        assertThat(candidates.cardinality(), is(4));
+        for (int id = 0; id < nodes.length; id++) {
+            assertThat(accepted.get(id), is(filter.isAccepted(nodes[id])));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package de.qaware.qav.graph.filter;
+
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.NodeFilter;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link NodeReachesFilter} and {@link NodeReachedFromFilter}.
+ *
+ * @author QAware GmbH
+ */
+public class NodeReachesFilterTest extends AbstractDependencyFilterTest {
+
+    @Test
+    public void testReaches() {
+        dependencyGraph.addDependency(d, b, DependencyType.READ_ONLY);
+        NodeFilter filter = new NodeReachesFilter(dependencyGraph, new NodeNameInFilter("java.time.**"));
+
+        assertThat(filter.isAccepted(f), is(true)); // accepted by the base filter
+        assertThat(filter.isAccepted(b), is(true)); // direct dependency
+        assertThat(filter.isAccepted(a), is(true)); // via b
+        assertThat(filter.isAccepted(d), is(true)); // via b
+        assertThat(filter.isAccepted(c), is(false));
+        assertThat(filter.isAccepted(e), is(false));
+
+        assertThat(dependencyGraph.filter(filter).nodeCount(), is(4));
+    }
+
+    @Test
+    public void testReachedFrom() {
+        NodeFilter filter = new NodeReachedFromFilter(dependencyGraph, new NodeNameInFilter("de.qaware.qav.C"));
+
+        assertThat(filter.isAccepted(c), is(true));
+        assertThat(filter.isAccepted(g), is(true));
+        assertThat(filter.isAccepted(k), is(true));
+        assertThat(filter.isAccepted(m), is(true));
+        assertThat(filter.isAccepted(a), is(false));
+        assertThat(filter.isAccepted(h), is(false));
+    }
+}
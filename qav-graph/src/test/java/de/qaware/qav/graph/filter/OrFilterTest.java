@@ -4,6 +4,8 @@ import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.api.NodeFilter;
 import org.junit.Test;
 
+import java.util.BitSet;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
@@ -25,4 +27,17 @@ public class OrFilterTest {
         NodeFilter f3 = new OrFilter(new NotFilter(new TrueFilter()), new NotFilter(new TrueFilter()));
         assertThat(f3.isAccepted(new Node("x")), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAccepted() {
+        Node[] nodes = {new Node("a.x"), new Node("b.x"), new Node("a.y"), new Node("b.y")};
+        BitSet candidates = new BitSet();
+        candidates.set(1, 4);
+
+        NodeFilter filter = new OrFilter(new NodeNameInFilter("a.*"), new NotFilter(new NodeNameInFilter("*.y")));
+        BitSet accepted = filter.getAccepted(id -> nodes[id], candidates);
+
+        assertThat(accepted.toString(), is("{1, 2}")); // node 0 is no candidate
+        assertThat(candidates.cardinality(), is(3));
+    }
+}
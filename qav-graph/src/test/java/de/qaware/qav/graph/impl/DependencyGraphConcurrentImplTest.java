@@ -0,0 +1,241 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.factory.GraphImplementation;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link DependencyGraphConcurrentImpl}.
+ *
+ * @author QAware GmbH
+ */
+public class DependencyGraphConcurrentImplTest {
+
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_NODES = 500;
+    private static final int NUM_EDGES = 5000;
+
+    private DependencyGraphConcurrentImpl graph;
+
+    @Before
+    public void setup() {
+        graph = new DependencyGraphConcurrentImpl();
+    }
+
+    @Test
+    public void testFactory() {
+        assertThat(DependencyGraphFactory.createGraph(GraphImplementation.CONCURRENT), instanceOf(DependencyGraphConcurrentImpl.class));
+        assertThat(GraphImplementation.fromString("concurrent"), is(GraphImplementation.CONCURRENT));
+    }
+
+    @Test
+    public void testAddDependency() {
+        Node n1 = graph.getOrCreateNodeByName("v1");
+        Node n2 = graph.getOrCreateNodeByName("v2");
+        assertThat(graph.getOrCreateNodeByName("v1"), sameInstance(n1));
+        assertThat(graph.getEdge(n1, n2), nullValue());
+
+        Dependency dependency = graph.addDependency(n1, n2, DependencyType.READ_ONLY);
+        assertThat(graph.addDependency(n1, n2, DependencyType.CREATE), sameInstance(dependency));
+        assertThat(dependency.getDependencyType(), is(DependencyType.CREATE));
+        graph.addDependency(n1, n2, DependencyType.READ_WRITE);
+        assertThat(dependency.getDependencyType(), is(DependencyType.CREATE));
+
+        assertThat(graph.nodeCount(), is(2));
+        assertThat(graph.edgeCount(), is(1));
+        assertThat(graph.getOutgoingEdges(n1), contains(dependency));
+        assertThat(graph.getIncomingEdges(n2, DependencyType.CREATE), contains(dependency));
+        assertThat(graph.getIncomingEdges(n2, DependencyType.READ_ONLY), hasSize(0));
+        assertThat(graph.hasOutgoingEdge(n1, DependencyType.CREATE), is(true));
+        assertThat(graph.getEdge(new Node("v1"), new Node("v2")), sameInstance(dependency));
+        assertThat(graph.toString(), is("DependencyGraphConcurrentImpl[Nodes:2; Edges:1]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddDependencyToUnknownNode() {
+        Node n1 = graph.getOrCreateNodeByName("v1");
+        graph.addDependency(n1, new Node("unknown"), DependencyType.READ_ONLY);
+    }
+
+    /**
+     * Several threads insert the same edges in different orders, with properties and base dependencies. The result
+     * must be the same as the one of a single thread.
+     */
+    @Test
+    public void testConcurrentInsertsGiveSerialResult() throws Exception {
+        List<int[]> edges = createEdges();
+
+        DependencyGraph serial = new DependencyGraphSimpleImpl();
+        fill(serial, edges, new Random(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS; i++) {
+                Random random = new Random(i + 1L);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    fill(graph, edges, random);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(graph.nodeCount(), is(serial.nodeCount()));
+        assertThat(graph.edgeCount(), is(serial.edgeCount()));
+        assertThat(graph.getAllEdges(), hasSize(serial.edgeCount()));
+        assertThat(describe(graph), is(describe(serial)));
+        for (Node node : serial.getAllNodes()) {
+            Node concurrentNode = graph.getNode(node.getName());
+            assertThat(concurrentNode.getProperty("lineNo"), is(node.getProperty("lineNo")));
+            assertThat(new HashSet<>(concurrentNode.getProperty("tags", Collections.emptyList())),
+                    is(new HashSet<>(node.getProperty("tags", Collections.emptyList()))));
+            assertThat(toStrings(graph.getOutgoingEdges(concurrentNode)), is(toStrings(serial.getOutgoingEdges(node))));
+            assertThat(toStrings(graph.getIncomingEdges(concurrentNode)), is(toStrings(serial.getIncomingEdges(node))));
+        }
+        for (Dependency dependency : serial.getAllEdges()) {
+            Dependency concurrentDependency = graph.getEdge(dependency.getSource(), dependency.getTarget());
+            assertThat(toStrings(concurrentDependency.getBaseDependencies()), is(toStrings(dependency.getBaseDependencies())));
+        }
+    }
+
+    /**
+     * Readers iterate over list properties while writers append to them. The readers must always see complete lists,
+     * which only grow.
+     */
+    @Test
+    public void testConcurrentReadsOfListProperties() throws Exception {
+        int numValues = 2000;
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(graph.getOrCreateNodeByName("n" + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS / 2; i++) {
+                int offset = i;
+                writers.add(executor.submit(() -> {
+                    for (int value = offset; value < numValues; value += NUM_THREADS / 2) {
+                        for (Node node : nodes) {
+                            node.addIntSetProperty("lineNo", numValues - value);
+                            node.addListProperty("tags", "t" + value);
+                        }
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS / 2; i++) {
+                Node node = nodes.get(i % nodes.size());
+                readers.add(executor.submit(() -> {
+                    int lastLineNos = 0;
+                    int lastTags = 0;
+                    while (lastLineNos < numValues || lastTags < numValues) {
+                        List<Integer> lineNos = node.getProperty("lineNo", Collections.emptyList());
+                        int previous = Integer.MIN_VALUE;
+                        int count = 0;
+                        for (int lineNo : lineNos) {
+                            assertThat(lineNo > previous, is(true));
+                            previous = lineNo;
+                            count++;
+                        }
+                        assertThat(count, is(lineNos.size()));
+                        assertThat(count >= lastLineNos, is(true));
+                        lastLineNos = count;
+
+                        List<String> tags = node.getProperty("tags", Collections.emptyList());
+                        assertThat(new HashSet<>(tags).size(), is(tags.size()));
+                        assertThat(tags.size() >= lastTags, is(true));
+                        lastTags = tags.size();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : writers) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            for (Future<?> future : readers) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Node node : nodes) {
+            assertThat(node.getProperty("lineNo", Collections.<Integer>emptyList()), hasSize(numValues));
+            assertThat(node.getProperty("tags", Collections.<String>emptyList()), hasSize(numValues));
+        }
+    }
+
+    private static List<int[]> createEdges() {
+        Random random = new Random(42);
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < NUM_EDGES; i++) {
+            result.add(new int[]{random.nextInt(NUM_NODES), random.nextInt(NUM_NODES), random.nextInt(DependencyType.values().length)});
+        }
+        return result;
+    }
+
+    /**
+     * Inserts all edges in an order given by the random generator.
+     */
+    private static void fill(DependencyGraph target, List<int[]> edges, Random random) {
+        List<int[]> shuffled = new ArrayList<>(edges);
+        Collections.shuffle(shuffled, random);
+        for (int[] edge : shuffled) {
+            Node from = target.getOrCreateNodeByName("n" + edge[0]);
+            Node to = target.getOrCreateNodeByName("n" + edge[1]);
+            Dependency dependency = target.addDependency(from, to, DependencyType.values()[edge[2]]);
+
+            from.addIntSetProperty("lineNo", edge[1]);
+            from.addListProperty("tags", "t" + (edge[2] % 3));
+            Node base = target.getOrCreateNodeByName("base" + (edge[0] % 10));
+            dependency.addBaseDependency(target.addDependency(base, to, DependencyType.REFERENCE));
+        }
+    }
+
+    private static Set<String> describe(DependencyGraph dependencyGraph) {
+        Set<String> result = toStrings(dependencyGraph.getAllEdges());
+        dependencyGraph.forEachNode(node -> result.add(node.getName()));
+        return result;
+    }
+
+    private static Set<String> toStrings(Collection<Dependency> dependencies) {
+        return dependencies.stream().map(Dependency::toString).collect(Collectors.toSet());
+    }
+}
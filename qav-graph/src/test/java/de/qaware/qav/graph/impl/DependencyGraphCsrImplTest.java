@@ -0,0 +1,331 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.factory.GraphImplementation;
+import de.qaware.qav.graph.filter.DependencyTypeEdgeOutFilter;
+import de.qaware.qav.graph.filter.NodeNameInFilter;
+import de.qaware.qav.graph.filter.NotFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for {@link DependencyGraphCsrImpl} and {@link FilteredDependencyGraph}.
+ */
+public class DependencyGraphCsrImplTest {
+
+    private DependencyGraphCsrImpl graph;
+    private Node n1;
+    private Node n2;
+    private Node n3;
+
+    @Before
+    public void setup() {
+        graph = new DependencyGraphCsrImpl();
+    }
+
+    @Test
+    public void testFactory() {
+        assertThat(DependencyGraphFactory.createGraph(GraphImplementation.CSR), instanceOf(DependencyGraphCsrImpl.class));
+        assertThat(DependencyGraphFactory.createGraph(GraphImplementation.JGRAPHT), instanceOf(DependencyGraphSimpleImpl.class));
+        assertThat(GraphImplementation.fromString("csr"), is(GraphImplementation.CSR));
+        assertThat(GraphImplementation.fromString(null), is(GraphImplementation.JGRAPHT));
+    }
+
+    @Test
+    public void testGetOrCreateNodeByName() {
+        assertThat(graph.hasNode("x"), is(false));
+        assertThat(graph.getNode("x"), nullValue());
+
+        Node x = graph.getOrCreateNodeByName("x");
+        assertThat(x, is(new Node("x")));
+        assertThat(graph.hasNode("x"), is(true));
+        assertThat(graph.getNode("x"), sameInstance(x));
+        assertThat(graph.getOrCreateNodeByName("x"), sameInstance(x));
+    }
+
+    @Test
+    public void testManyNodes() {
+        for (int i = 0; i < 10000; i++) {
+            graph.getOrCreateNodeByName("n" + i);
+        }
+        assertThat(graph.getAllNodes(), hasSize(10000));
+        for (int i = 0; i < 10000; i++) {
+            assertThat(graph.getNode("n" + i).getName(), is("n" + i));
+        }
+        assertThat(graph.hasNode("n10000"), is(false));
+    }
+
+    @Test
+    public void testAddDependency() {
+        n1 = graph.getOrCreateNodeByName("v1");
+        n2 = graph.getOrCreateNodeByName("v2");
+        assertThat(graph.getEdge(n1, n2), nullValue());
+
+        Dependency dep = graph.addDependency(n1, n2, DependencyType.READ_ONLY);
+        assertThat(graph.getAllEdges(), contains(dep));
+        assertThat(graph.getEdge(n1, n2), sameInstance(dep));
+        assertThat(graph.getEdge(n2, n1), nullValue());
+
+        // upgrade, but no downgrade:
+        assertThat(graph.addDependency(n1, n2, DependencyType.CREATE), sameInstance(dep));
+        assertThat(dep.getDependencyType(), is(DependencyType.CREATE));
+        assertThat(graph.addDependency(n1, n2, DependencyType.READ_WRITE), sameInstance(dep));
+        assertThat(dep.getDependencyType(), is(DependencyType.CREATE));
+        assertThat(graph.getAllEdges(), hasSize(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddDependencyToUnknownNode() {
+        n1 = graph.getOrCreateNodeByName("v1");
+        graph.addDependency(n1, new Node("unknown"), DependencyType.READ_ONLY);
+    }
+
+    @Test
+    public void testGetIncomingAndOutgoingEdges() {
+        setupSimpleGraph();
+
+        assertThat(graph.getIncomingEdges(n1), hasSize(0));
+        assertThat(graph.getOutgoingEdges(n1), hasSize(2));
+        assertThat(graph.getIncomingEdges(n2), hasSize(1));
+        assertThat(graph.getOutgoingEdges(n2).isEmpty(), is(true));
+
+        Set<Dependency> outgoingCreate = graph.getOutgoingEdges(n1, DependencyType.CREATE);
+        assertThat(outgoingCreate, hasSize(1));
+        assertThat(outgoingCreate.iterator().next().getTarget(), is(n3));
+        assertThat(graph.getIncomingEdges(n1, DependencyType.CREATE).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testCompactedAndPendingEdges() {
+        setupSimpleGraph();
+        graph.compact();
+        Node n4 = graph.getOrCreateNodeByName("v4");
+        graph.addDependency(n1, n4, DependencyType.CREATE);
+        graph.addDependency(n4, n1, DependencyType.READ_ONLY);
+
+        assertThat(graph.getOutgoingEdges(n1), hasSize(3));
+        assertThat(graph.getOutgoingEdges(n1, DependencyType.CREATE), containsInAnyOrder(graph.getEdge(n1, n3), graph.getEdge(n1, n4)));
+        assertThat(graph.getIncomingEdges(n1), contains(graph.getEdge(n4, n1)));
+        assertThat(graph.getOutgoingEdges(n4), contains(graph.getEdge(n4, n1)));
+
+        // upgrading a compacted edge moves it to another type:
+        graph.addDependency(n1, n2, DependencyType.CREATE);
+        assertThat(graph.getOutgoingEdges(n1, DependencyType.CREATE), hasSize(3));
+        assertThat(graph.getOutgoingEdges(n1, DependencyType.READ_ONLY), hasSize(0));
+
+        graph.compact();
+        assertThat(graph.getOutgoingEdges(n1, DependencyType.CREATE), hasSize(3));
+        assertThat(graph.getIncomingEdges(n1, DependencyType.READ_ONLY), hasSize(1));
+    }
+
+    @Test
+    public void testForEachAndHasEdge() {
+        setupSimpleGraph();
+        graph.compact();
+        Node n4 = graph.getOrCreateNodeByName("v4");
+        graph.addDependency(n1, n4, DependencyType.CREATE);
+
+        List<Dependency> created = new ArrayList<>();
+        graph.forEachOutgoingEdge(n1, DependencyType.CREATE, created::add);
+        assertThat(created, contains(graph.getEdge(n1, n3), graph.getEdge(n1, n4))); // compacted first, then pending
+
+        assertThat(graph.hasOutgoingEdge(n1, DependencyType.CREATE), is(true));
+        assertThat(graph.hasOutgoingEdge(n1, DependencyType.INHERIT), is(false));
+        assertThat(graph.hasIncomingEdge(n4, DependencyType.CREATE), is(true));
+        assertThat(graph.hasIncomingEdge(n1, DependencyType.CREATE), is(false));
+
+        // upgrading a compacted edge moves it to the partition of its new type
+        graph.addDependency(n1, n2, DependencyType.INHERIT);
+        assertThat(graph.hasOutgoingEdge(n1, DependencyType.INHERIT), is(true));
+        assertThat(graph.hasOutgoingEdge(n1, DependencyType.READ_ONLY), is(false));
+        assertThat(graph.hasIncomingEdge(n2, DependencyType.INHERIT), is(true));
+    }
+
+    @Test
+    public void testForEachAndHasEdgeInFilteredGraph() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new NotFilter(new NodeNameInFilter("v3")));
+
+        List<Dependency> created = new ArrayList<>();
+        filteredGraph.forEachOutgoingEdge(n1, DependencyType.CREATE, created::add);
+        assertThat(created, hasSize(0));
+        assertThat(filteredGraph.hasOutgoingEdge(n1, DependencyType.CREATE), is(false));
+        assertThat(filteredGraph.hasOutgoingEdge(n1, DependencyType.READ_ONLY), is(true));
+        assertThat(filteredGraph.hasIncomingEdge(n2, DependencyType.READ_ONLY), is(true));
+
+        try {
+            filteredGraph.hasIncomingEdge(n3, DependencyType.CREATE);
+            fail("n3 is not part of the filtered graph");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("no such vertex in graph: v3"));
+        }
+    }
+
+    @Test
+    public void testSameResultsAsSimpleImpl() {
+        DependencyGraph simple = new DependencyGraphSimpleImpl();
+        Random random = new Random(42);
+        DependencyType[] types = DependencyType.values();
+        for (int i = 0; i < 5000; i++) {
+            String from = "n" + random.nextInt(300);
+            String to = "n" + random.nextInt(300);
+            DependencyType type = types[random.nextInt(types.length)];
+            simple.addDependency(simple.getOrCreateNodeByName(from), simple.getOrCreateNodeByName(to), type);
+            graph.addDependency(graph.getOrCreateNodeByName(from), graph.getOrCreateNodeByName(to), type);
+        }
+
+        assertSameGraph(simple);
+    }
+
+    @Test
+    public void testUpgradesOfCompactedEdgesKeepPartitions() {
+        DependencyGraph simple = new DependencyGraphSimpleImpl();
+        Random random = new Random(7);
+        DependencyType[] types = DependencyType.values();
+        for (int i = 0; i < 400; i++) {
+            String from = "n" + random.nextInt(20);
+            String to = "n" + random.nextInt(20);
+            simple.addDependency(simple.getOrCreateNodeByName(from), simple.getOrCreateNodeByName(to), DependencyType.READ_ONLY);
+            graph.addDependency(graph.getOrCreateNodeByName(from), graph.getOrCreateNodeByName(to), DependencyType.READ_ONLY);
+        }
+        graph.compact();
+
+        // no new edges, so nothing triggers another compaction:
+        for (Dependency edge : new ArrayList<>(simple.getAllEdges())) {
+            DependencyType type = types[random.nextInt(types.length)];
+            String from = edge.getSource().getName();
+            String to = edge.getTarget().getName();
+            simple.addDependency(simple.getNode(from), simple.getNode(to), type);
+            graph.addDependency(graph.getNode(from), graph.getNode(to), type);
+            assertSameGraph(simple);
+        }
+    }
+
+    private void assertSameGraph(DependencyGraph simple) {
+        DependencyType[] types = DependencyType.values();
+        assertThat(graph.getAllNodes(), hasSize(simple.getAllNodes().size()));
+        assertThat(graph.getAllEdges(), hasSize(simple.getAllEdges().size()));
+        for (Node node : simple.getAllNodes()) {
+            assertSameEdges(graph.getOutgoingEdges(node), simple.getOutgoingEdges(node));
+            assertSameEdges(graph.getIncomingEdges(node), simple.getIncomingEdges(node));
+            for (DependencyType type : types) {
+                assertSameEdges(graph.getOutgoingEdges(node, type), simple.getOutgoingEdges(node, type));
+                assertSameEdges(graph.getIncomingEdges(node, type), simple.getIncomingEdges(node, type));
+                assertThat(graph.hasOutgoingEdge(node, type), is(simple.hasOutgoingEdge(node, type)));
+                assertThat(graph.hasIncomingEdge(node, type), is(simple.hasIncomingEdge(node, type)));
+            }
+        }
+    }
+
+    @Test
+    public void testFilter() {
+        setupSimpleGraph();
+        Node n4 = graph.getOrCreateNodeByName("v4");
+        Node n5 = graph.getOrCreateNodeByName("v5");
+        graph.addDependency(n2, n4, DependencyType.READ_WRITE);
+        graph.addDependency(n2, n5, DependencyType.READ_WRITE);
+
+        DependencyGraph filteredGraph = graph.filter(new NotFilter(new NodeNameInFilter("v2", "v5")));
+        assertThat(filteredGraph.getNode("v1"), is(n1));
+        assertThat(filteredGraph.getNode("v2"), nullValue());
+        assertThat(filteredGraph.getNode("v4"), is(n4));
+        assertThat(filteredGraph.getAllNodes(), contains(n1, n3, n4));
+
+        assertThat(filteredGraph.getEdge(n1, n3), notNullValue());
+        assertThat(filteredGraph.getEdge(n1, n2), nullValue());
+        assertThat(filteredGraph.getEdge(n2, n4), nullValue());
+        assertThat(filteredGraph.getOutgoingEdges(n1), hasSize(1));
+        assertThat(filteredGraph.getAllEdges(), hasSize(1));
+
+        try {
+            filteredGraph.getOrCreateNodeByName("v6");
+            fail("filtered graph is unmodifiable.");
+        } catch (UnsupportedOperationException e) {
+            assertThat(e.getMessage(), is("this graph is unmodifiable"));
+        }
+
+        assertThat(filteredGraph.getBaseGraph(), sameInstance(graph));
+
+        DependencyGraph secondFilteredGraph = filteredGraph.filter(new NotFilter(new NodeNameInFilter("v4")));
+        assertThat(secondFilteredGraph.getNode("v3"), notNullValue());
+        assertThat(secondFilteredGraph.getNode("v4"), nullValue());
+        assertThat(secondFilteredGraph.getNode("v5"), nullValue());
+        assertThat(secondFilteredGraph.getBaseGraph(), sameInstance(graph));
+    }
+
+    @Test
+    public void testCountsAndIteration() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new NotFilter(new NodeNameInFilter("v3")));
+
+        assertThat(graph.nodeCount(), is(3));
+        assertThat(graph.edgeCount(), is(2));
+        assertThat(filteredGraph.nodeCount(), is(2));
+        assertThat(filteredGraph.edgeCount(), is(1));
+
+        List<Node> nodes = new ArrayList<>();
+        graph.forEachNode(nodes::add);
+        assertThat(nodes, contains(n1, n2, n3));
+        assertThat(filteredGraph.nodeStream(true).collect(Collectors.toList()), contains(n1, n2));
+        assertThat(filteredGraph.edgeStream(false).collect(Collectors.toList()), contains(graph.getEdge(n1, n2)));
+    }
+
+    @Test
+    public void testEdgeFilter() {
+        setupSimpleGraph();
+
+        DependencyGraph filteredGraph = graph.filter(new DependencyTypeEdgeOutFilter(DependencyType.READ_ONLY));
+        assertThat(filteredGraph.getAllNodes(), hasSize(3));
+        assertThat(filteredGraph.getAllEdges(), hasSize(1));
+        assertThat(filteredGraph.getIncomingEdges(n2), hasSize(0));
+        assertThat(filteredGraph.getIncomingEdges(n3), hasSize(1));
+    }
+
+    @Test
+    public void testToString() {
+        setupSimpleGraph();
+
+        assertThat(graph.toString(), is("DependencyGraphCsrImpl[Nodes:3; Edges:2]"));
+    }
+
+    private void assertSameEdges(Set<Dependency> actual, Set<Dependency> expected) {
+        assertThat(actual.size(), is(expected.size()));
+        assertThat(toStrings(actual), is(toStrings(expected)));
+    }
+
+    private Set<String> toStrings(Set<Dependency> dependencies) {
+        Set<String> result = new HashSet<>();
+        dependencies.forEach(it -> result.add(it.toString()));
+        return result;
+    }
+
+    private void setupSimpleGraph() {
+        n1 = graph.getOrCreateNodeByName("v1");
+        n2 = graph.getOrCreateNodeByName("v2");
+        n3 = graph.getOrCreateNodeByName("v3");
+        graph.addDependency(n1, n2, DependencyType.READ_ONLY);
+        graph.addDependency(n1, n3, DependencyType.CREATE);
+    }
+}
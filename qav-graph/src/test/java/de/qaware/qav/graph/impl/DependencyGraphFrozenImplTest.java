@@ -0,0 +1,177 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.filter.NodeNameInFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link DependencyGraphFrozenImpl}.
+ *
+ * @author QAware GmbH
+ */
+public class DependencyGraphFrozenImplTest {
+
+    private DependencyGraph graph;
+    private Dependency bToA;
+    private Dependency bToC;
+
+    @Before
+    public void setup() {
+        graph = new DependencyGraphSimpleImpl();
+        Node a = graph.getOrCreateNodeByName("a");
+        Node b = graph.getOrCreateNodeByName("b");
+        Node c = graph.getOrCreateNodeByName("c");
+        Node ab = graph.getOrCreateNodeByName("ab");
+        a.setProperty("type", "class");
+        a.addIntSetProperty("lineNo", 3);
+        b.addListProperty("tags", "x");
+
+        bToA = graph.addDependency(b, a, DependencyType.READ_ONLY);
+        bToC = graph.addDependency(b, c, DependencyType.CREATE);
+        graph.addDependency(b, ab, DependencyType.CREATE);
+        graph.addDependency(a, c, DependencyType.CONTAINS);
+        bToC.setProperty("weight", 2);
+        bToC.addBaseDependency(bToA);
+    }
+
+    @Test
+    public void testSnapshot() {
+        DependencyGraph frozen = graph.freeze();
+        assertThat(frozen, instanceOf(DependencyGraphFrozenImpl.class));
+        assertThat(frozen.freeze(), sameInstance(frozen));
+        assertThat(frozen.getBaseGraph(), sameInstance(frozen));
+        assertThat(frozen.toString(), is("DependencyGraphFrozenImpl[Nodes:4; Edges:4]"));
+
+        assertThat(frozen.getAllNodes().stream().map(Node::getName).collect(Collectors.toList()), contains("a", "ab", "b", "c"));
+        Node a = frozen.getNode("a");
+        Node b = frozen.getNode("b");
+        Node c = frozen.getNode("c");
+        assertThat(a, not(sameInstance(graph.getNode("a"))));
+        assertThat(a.getProperty("type"), is("class"));
+        assertThat(a.getProperty("lineNo"), is(Arrays.asList(3)));
+        assertThat(b.getProperty("tags"), is(Arrays.asList("x")));
+        assertThat(frozen.hasNode("d"), is(false));
+
+        Dependency frozenBToC = frozen.getEdge(b, c);
+        assertThat(frozenBToC.getDependencyType(), is(DependencyType.CREATE));
+        assertThat(frozenBToC.getProperty("weight"), is(2));
+        assertThat(frozenBToC.getBaseDependencies(), contains(sameInstance(frozen.getEdge(b, a))));
+        assertThat(frozen.getEdge(a, b), nullValue());
+        assertThat(frozen.getEdge(new Node("b"), new Node("a")).getDependencyType(), is(DependencyType.READ_ONLY));
+
+        // sorted by type and target:
+        assertThat(toStrings(frozen.getOutgoingEdges(b)), contains("b --[READ_ONLY]--> a", "b --[CREATE]--> ab", "b --[CREATE]--> c"));
+        assertThat(toStrings(frozen.getOutgoingEdges(b, DependencyType.CREATE)), contains("b --[CREATE]--> ab", "b --[CREATE]--> c"));
+        assertThat(toStrings(frozen.getIncomingEdges(c)), contains("b --[CREATE]--> c", "a --[CONTAINS]--> c"));
+        assertThat(frozen.getIncomingEdges(c, DependencyType.READ_ONLY), hasSize(0));
+        assertThat(frozen.hasOutgoingEdge(a, DependencyType.CONTAINS), is(true));
+        assertThat(frozen.hasIncomingEdge(a, DependencyType.CONTAINS), is(false));
+
+        assertThat(frozen.filter(new NodeNameInFilter("b", "c")).edgeCount(), is(1));
+    }
+
+    @Test
+    public void testSnapshotDoesNotSeeLaterChanges() {
+        DependencyGraph frozen = graph.freeze();
+        graph.getNode("a").addIntSetProperty("lineNo", 5);
+        graph.addDependency(graph.getNode("c"), graph.getNode("a"), DependencyType.READ_WRITE);
+
+        assertThat(frozen.getNode("a").getProperty("lineNo"), is(Arrays.asList(3)));
+        assertThat(frozen.edgeCount(), is(4));
+    }
+
+    @Test
+    public void testNoChangeIsAllowed() {
+        DependencyGraph frozen = graph.freeze();
+        Node a = frozen.getNode("a");
+        Node b = frozen.getNode("b");
+        Dependency edge = frozen.getEdge(b, a);
+
+        assertThat(frozen.getOrCreateNodeByName("a"), sameInstance(a));
+        assertThat(frozen.addDependency(b, a, DependencyType.REFERENCE), sameInstance(edge));
+
+        assertUnsupported(() -> frozen.getOrCreateNodeByName("d"));
+        assertUnsupported(() -> frozen.addDependency(a, b, DependencyType.READ_ONLY));
+        assertUnsupported(() -> frozen.addDependency(b, a, DependencyType.CREATE));
+        assertUnsupported(() -> a.setProperty("type", "interface"));
+        assertUnsupported(() -> a.addIntSetProperty("lineNo", 4));
+        assertUnsupported(() -> b.addListProperty("tags", "y"));
+        assertUnsupported(() -> edge.setDependencyType(DependencyType.CREATE));
+        assertUnsupported(() -> edge.addBaseDependency(edge));
+        assertUnsupported(() -> ((List<?>) b.getProperty("tags")).clear());
+    }
+
+    @Test
+    public void testFreezeFilteredAndOtherImplementations() {
+        DependencyGraph frozen = graph.filter(new NodeNameInFilter("a", "b")).freeze();
+        assertThat(frozen.nodeCount(), is(2));
+        assertThat(toStrings(frozen.getAllEdges()), contains("b --[READ_ONLY]--> a"));
+        // the base dependency is not part of the snapshot, so the original is kept:
+        DependencyGraph withoutBase = graph.filter(new NodeNameInFilter("b", "c")).freeze();
+        assertThat(withoutBase.getEdge(new Node("b"), new Node("c")).getBaseDependencies(), contains(sameInstance(bToA)));
+
+        assertThat(new DependencyGraphCsrImpl().freeze().nodeCount(), is(0));
+        assertThat(new DependencyGraphConcurrentImpl().freeze().edgeCount(), is(0));
+    }
+
+    @Test
+    public void testRandomGraph() {
+        Random random = new Random(7);
+        DependencyGraph original = new DependencyGraphCsrImpl();
+        for (int i = 0; i < 3000; i++) {
+            Node from = original.getOrCreateNodeByName("n" + random.nextInt(300));
+            Node to = original.getOrCreateNodeByName("n" + random.nextInt(300));
+            original.addDependency(from, to, DependencyType.values()[random.nextInt(DependencyType.values().length)]);
+        }
+
+        DependencyGraph frozen = original.freeze();
+        assertThat(frozen.nodeCount(), is(original.nodeCount()));
+        assertThat(frozen.edgeCount(), is(original.edgeCount()));
+        for (Node node : original.getAllNodes()) {
+            assertThat(toStrings(frozen.getOutgoingEdges(node)), containsInAnyOrder(toStrings(original.getOutgoingEdges(node)).toArray()));
+            assertThat(toStrings(frozen.getIncomingEdges(node)), containsInAnyOrder(toStrings(original.getIncomingEdges(node)).toArray()));
+            for (DependencyType type : DependencyType.values()) {
+                assertThat(frozen.getIncomingEdges(node, type), hasSize(original.getIncomingEdges(node, type).size()));
+                assertThat(frozen.getOutgoingEdges(node, type), hasSize(original.getOutgoingEdges(node, type).size()));
+            }
+        }
+        for (Dependency dependency : original.getAllEdges()) {
+            assertThat(frozen.getEdge(dependency.getSource(), dependency.getTarget()).toString(), is(dependency.toString()));
+        }
+    }
+
+    private static void assertUnsupported(Runnable action) {
+        try {
+            action.run();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        throw new AssertionError("UnsupportedOperationException expected");
+    }
+
+    private static List<String> toStrings(Iterable<Dependency> dependencies) {
+        List<String> result = new ArrayList<>();
+        dependencies.forEach(dependency -> result.add(dependency.toString()));
+        return result;
+    }
+}
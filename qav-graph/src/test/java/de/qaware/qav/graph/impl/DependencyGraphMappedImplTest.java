@@ -0,0 +1,126 @@
+package de.qaware.qav.graph.impl;
+
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.io.GraphReaderWriter;
+import de.qaware.qav.util.FileSystemUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link DependencyGraphMappedImpl}.
+ *
+ * @author QAware GmbH
+ */
+public class DependencyGraphMappedImplTest {
+
+
+    @Test
+    public void testWriteAndOpen() {
+        DependencyGraph graph = new DependencyGraphSimpleImpl();
+        Node a = graph.getOrCreateNodeByName("a");
+        Node b = graph.getOrCreateNodeByName("b");
+        Node c = graph.getOrCreateNodeByName("c.Ä");
+        a.setProperty("type", "class");
+        a.addIntSetProperty("lineNo", 7);
+        a.addIntSetProperty("lineNo", 3);
+        b.addListProperty("tags", "x");
+        graph.addDependency(b, a, DependencyType.READ_ONLY);
+        graph.addDependency(b, c, DependencyType.CREATE).setProperty("weight", 2);
+        graph.addDependency(a, c, DependencyType.CONTAINS);
+
+        DependencyGraphMappedImpl.write(graph, "build/testWriteAndOpen.qavm");
+        DependencyGraph mapped = DependencyGraphFactory.openMappedGraph("build/testWriteAndOpen.qavm");
+
+        assertThat(mapped.toString()).isEqualTo("DependencyGraphMappedImpl[Nodes:3; Edges:3]");
+        assertThat(mapped.getAllNodes()).extracting(Node::getName).containsExactly("a", "b", "c.Ä");
+        assertThat(mapped.getNode("a")).isSameAs(mapped.getNode("a"));
+        assertThat(mapped.getNode("a").getProperty("lineNo")).isEqualTo(Arrays.asList(3, 7));
+        assertThat(mapped.getNode("b").getProperty("tags")).isEqualTo(Arrays.asList("x"));
+        assertThat(mapped.hasNode("c.Ä")).isTrue();
+        assertThat(mapped.hasNode("d")).isFalse();
+
+        Node mappedB = mapped.getNode("b");
+        assertThat(mapped.getEdge(mappedB, new Node("c.Ä")).getProperty("weight")).isEqualTo(2);
+        assertThat(mapped.getEdge(mappedB, new Node("c.Ä"))).isSameAs(mapped.getEdge(mappedB, new Node("c.Ä")));
+        assertThat(mapped.getEdge(new Node("a"), mappedB)).isNull();
+        assertThat(toStrings(mapped.getOutgoingEdges(mappedB))).containsExactly("b --[READ_ONLY]--> a", "b --[CREATE]--> c.Ä");
+        assertThat(toStrings(mapped.getIncomingEdges(new Node("c.Ä"), DependencyType.CONTAINS))).containsExactly("a --[CONTAINS]--> c.Ä");
+        assertThat(mapped.hasOutgoingEdge(new Node("a"), DependencyType.CONTAINS)).isTrue();
+        assertThat(mapped.edgeStream(true).count()).isEqualTo(3);
+
+        GraphReaderWriter.write(graph, "build/testMappedGraph1.json");
+        GraphReaderWriter.write(mapped, "build/testMappedGraph2.json");
+        assertThat(FileSystemUtil.readFileAsText("build/testMappedGraph2.json"))
+                .isEqualTo(FileSystemUtil.readFileAsText("build/testMappedGraph1.json"));
+    }
+
+    @Test
+    public void testReadOnly() {
+        DependencyGraph graph = new DependencyGraphSimpleImpl();
+        graph.addDependency(graph.getOrCreateNodeByName("a"), graph.getOrCreateNodeByName("b"), DependencyType.READ_WRITE);
+        DependencyGraphMappedImpl.write(graph, "build/testReadOnly.qavm");
+        DependencyGraph mapped = DependencyGraphMappedImpl.open("build/testReadOnly.qavm");
+        Node a = mapped.getNode("a");
+        Node b = mapped.getNode("b");
+
+        assertThat(mapped.freeze()).isSameAs(mapped);
+        assertThat(mapped.getOrCreateNodeByName("a")).isSameAs(a);
+        assertThat(mapped.addDependency(a, b, DependencyType.READ_ONLY)).isSameAs(mapped.getEdge(a, b));
+        assertThatThrownBy(() -> mapped.getOrCreateNodeByName("c")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> mapped.addDependency(b, a, DependencyType.READ_ONLY)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> a.setProperty("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testRandomGraph() {
+        Random random = new Random(11);
+        DependencyGraph graph = new DependencyGraphCsrImpl();
+        for (int i = 0; i < 5000; i++) {
+            Node from = graph.getOrCreateNodeByName("n" + random.nextInt(500));
+            Node to = graph.getOrCreateNodeByName("n" + random.nextInt(500));
+            graph.addDependency(from, to, DependencyType.values()[random.nextInt(DependencyType.values().length)]).setProperty("i", i);
+        }
+        DependencyGraphMappedImpl.write(graph, "build/testRandomGraph.qavm");
+        DependencyGraph mapped = DependencyGraphMappedImpl.open("build/testRandomGraph.qavm");
+
+        assertThat(mapped.nodeCount()).isEqualTo(graph.nodeCount());
+        assertThat(mapped.edgeCount()).isEqualTo(graph.edgeCount());
+        for (Node node : graph.getAllNodes()) {
+            assertThat(toStrings(mapped.getOutgoingEdges(node))).containsExactlyInAnyOrderElementsOf(toStrings(graph.getOutgoingEdges(node)));
+            assertThat(toStrings(mapped.getIncomingEdges(node))).containsExactlyInAnyOrderElementsOf(toStrings(graph.getIncomingEdges(node)));
+            for (DependencyType type : DependencyType.values()) {
+                assertThat(mapped.getIncomingEdges(node, type)).hasSameSizeAs(graph.getIncomingEdges(node, type));
+                assertThat(mapped.getOutgoingEdges(node, type)).hasSameSizeAs(graph.getOutgoingEdges(node, type));
+            }
+        }
+        for (Dependency dependency : graph.getAllEdges()) {
+            Dependency mappedDependency = mapped.getEdge(dependency.getSource(), dependency.getTarget());
+            assertThat(mappedDependency.toString()).isEqualTo(dependency.toString());
+            assertThat(mappedDependency.getProperty("i")).isEqualTo(dependency.getProperty("i"));
+        }
+    }
+
+    @Test
+    public void testNoGraphFile() {
+        FileSystemUtil.writeStringToFile("{ }", "build/testNoGraphFile.qavm");
+        assertThatThrownBy(() -> DependencyGraphMappedImpl.open("build/testNoGraphFile.qavm")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<String> toStrings(Iterable<Dependency> dependencies) {
+        return StreamSupport.stream(dependencies.spliterator(), false)
+                .map(Dependency::toString)
+                .collect(Collectors.toList());
+    }
+}
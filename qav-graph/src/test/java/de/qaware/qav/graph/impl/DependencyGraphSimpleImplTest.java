@@ -4,18 +4,27 @@ import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.NodeFilter;
 import de.qaware.qav.graph.filter.DependencyTypeEdgeOutFilter;
 import de.qaware.qav.graph.filter.NodeNameInFilter;
+import de.qaware.qav.graph.filter.NodePropertyInFilter;
 import de.qaware.qav.graph.filter.NotFilter;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -126,6 +135,49 @@ public class DependencyGraphSimpleImplTest {
         assertTrue(incomingCreate.isEmpty());
     }
 
+    @Test
+    public void testTypedQueriesAfterUpgrade() {
+        setupSimpleGraph();
+        graph.addDependency(n1, n2, DependencyType.INHERIT);
+
+        assertThat(graph.getOutgoingEdges(n1, DependencyType.READ_ONLY), hasSize(0));
+        assertThat(graph.getOutgoingEdges(n1, DependencyType.INHERIT), hasSize(1));
+        assertThat(graph.getIncomingEdges(n2, DependencyType.INHERIT), hasSize(1));
+        assertThat(graph.hasOutgoingEdge(n1, DependencyType.READ_ONLY), is(false));
+        assertThat(graph.hasIncomingEdge(n2, DependencyType.INHERIT), is(true));
+
+        List<Dependency> created = new ArrayList<>();
+        graph.forEachOutgoingEdge(n1, DependencyType.CREATE, created::add);
+        assertThat(created, hasSize(1));
+        assertThat(created.get(0).getTarget(), is(n3));
+    }
+
+    @Test
+    public void testTypedQueriesInFilteredGraph() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new NotFilter(new NodeNameInFilter("v3")));
+        DependencyGraph edgeFilteredGraph = graph.filter(new DependencyTypeEdgeOutFilter(DependencyType.CREATE));
+
+        assertThat(filteredGraph.getOutgoingEdges(n1, DependencyType.CREATE), hasSize(0));
+        assertThat(filteredGraph.hasOutgoingEdge(n1, DependencyType.CREATE), is(false));
+        assertThat(filteredGraph.hasOutgoingEdge(n1, DependencyType.READ_ONLY), is(true));
+        assertThat(edgeFilteredGraph.hasOutgoingEdge(n1, DependencyType.CREATE), is(false));
+        assertThat(edgeFilteredGraph.hasIncomingEdge(n2, DependencyType.READ_ONLY), is(true));
+
+        // the index is shared with the base graph, so the views see new edges:
+        Node n4 = graph.getOrCreateNodeByName("v4");
+        graph.addDependency(n1, n4, DependencyType.CREATE);
+        assertThat(filteredGraph.getOutgoingEdges(n1, DependencyType.CREATE), hasSize(1));
+        assertThat(edgeFilteredGraph.hasOutgoingEdge(n1, DependencyType.CREATE), is(false));
+
+        try {
+            filteredGraph.hasIncomingEdge(n3, DependencyType.CREATE);
+            fail("n3 is not part of the filtered graph");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("no such vertex in graph: v3"));
+        }
+    }
+
     @Test
     public void testFilter() {
         setupSimpleGraph();
@@ -188,6 +240,143 @@ public class DependencyGraphSimpleImplTest {
         assertThat(secondFilteredGraph.getBaseGraph(), is(graph));
     }
 
+    @Test
+    public void testFilterIsEvaluatedOnce() {
+        setupSimpleGraph();
+        AtomicInteger evaluations = new AtomicInteger();
+        NodeFilter countingFilter = node -> {
+            evaluations.incrementAndGet();
+            return !node.getName().equals("v2");
+        };
+
+        DependencyGraph filteredGraph = graph.filter(countingFilter);
+        DependencyGraph secondFilteredGraph = filteredGraph.filter(new NotFilter(new NodeNameInFilter("v3")));
+        assertThat(evaluations.get(), is(3));
+
+        assertThat(secondFilteredGraph.getAllNodes(), hasSize(1));
+        assertThat(secondFilteredGraph.getOutgoingEdges(n1), hasSize(0));
+        assertThat(filteredGraph.getOutgoingEdges(n1), hasSize(1));
+        assertThat(filteredGraph.getIncomingEdges(new Node("v3")), hasSize(1));
+        assertThat(evaluations.get(), is(3));
+
+        // changing the unfiltered graph invalidates the filtered graphs:
+        Node n4 = graph.getOrCreateNodeByName("v4");
+        graph.addDependency(n1, n4, DependencyType.READ_ONLY);
+        assertThat(secondFilteredGraph.getAllNodes(), containsInAnyOrder(n1, n4));
+        assertThat(secondFilteredGraph.getOutgoingEdges(n1), hasSize(1));
+        assertThat(evaluations.get(), is(7));
+    }
+
+    @Test
+    public void testEdgeFilterInvalidatedByUpgrade() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new DependencyTypeEdgeOutFilter(DependencyType.CREATE));
+        assertThat(filteredGraph.getAllEdges(), hasSize(1));
+
+        graph.addDependency(n1, n2, DependencyType.CREATE);
+        assertThat(filteredGraph.getAllEdges(), hasSize(0));
+        assertThat(filteredGraph.getAllNodes(), hasSize(3));
+    }
+
+    @Test
+    public void testFilterInvalidatedByPropertyChanges() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new NodePropertyInFilter("scope", "input"));
+        assertThat(filteredGraph.getAllNodes(), hasSize(0));
+
+        n1.setProperty("scope", "input");
+        assertThat(filteredGraph.getAllNodes(), contains(n1));
+
+        n2.addListProperty("scope", "input");
+        assertThat(filteredGraph.getAllNodes(), containsInAnyOrder(n1, n2));
+
+        // lists changed in place:
+        n3.addListProperty("scope", "other");
+        assertThat(filteredGraph.getAllNodes(), hasSize(2));
+        n3.addListProperty("scope", "input");
+        assertThat(filteredGraph.getAllNodes(), containsInAnyOrder(n1, n2, n3));
+
+        n1.setProperty("scope", null);
+        assertThat(filteredGraph.getAllNodes(), containsInAnyOrder(n2, n3));
+    }
+
+    @Test
+    public void testFilterOnlyInvalidatedByKeysItReads() {
+        setupSimpleGraph();
+        AtomicInteger evaluations = new AtomicInteger();
+        NodeFilter countingFilter = node -> {
+            evaluations.incrementAndGet();
+            return !"output".equals(node.getProperty("scope"));
+        };
+        DependencyGraph filteredGraph = graph.filter(countingFilter);
+        DependencyGraph secondFilteredGraph = filteredGraph.filter(new NotFilter(new NodeNameInFilter("v3")));
+        assertThat(secondFilteredGraph.getAllNodes(), hasSize(2));
+        assertThat(evaluations.get(), is(3));
+
+        // tagging the nodes of the view with other keys keeps the masks:
+        for (Node node : secondFilteredGraph.getAllNodes()) {
+            assertThat(secondFilteredGraph.getOutgoingEdges(node), notNullValue());
+            node.setProperty("visited", true);
+            node.addListProperty("tags", "x");
+        }
+        graph.getEdge(n1, n2).setProperty("weight", 2);
+        assertThat(secondFilteredGraph.getAllNodes(), hasSize(2));
+        assertThat(evaluations.get(), is(3));
+
+        // a change of the key read by the filter invalidates both masks:
+        n2.setProperty("scope", "output");
+        assertThat(secondFilteredGraph.getAllNodes(), contains(n1));
+        assertThat(evaluations.get(), is(6));
+    }
+
+    @Test
+    public void testEdgeFilterInvalidatedByDependencyTypeChanges() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new DependencyTypeEdgeOutFilter(DependencyType.CREATE));
+        assertThat(filteredGraph.getAllEdges(), hasSize(1));
+
+        graph.getEdge(n1, n2).setDependencyType(DependencyType.CREATE);
+        assertThat(filteredGraph.getAllEdges(), hasSize(0));
+    }
+
+    @Test
+    public void testCountsAndIteration() {
+        setupSimpleGraph();
+        DependencyGraph filteredGraph = graph.filter(new NotFilter(new NodeNameInFilter("v3")));
+
+        assertThat(graph.nodeCount(), is(3));
+        assertThat(graph.edgeCount(), is(2));
+        assertThat(filteredGraph.nodeCount(), is(2));
+        assertThat(filteredGraph.edgeCount(), is(1));
+
+        List<Node> nodes = new ArrayList<>();
+        filteredGraph.forEachNode(nodes::add);
+        assertThat(nodes, contains(n1, n2));
+        List<Dependency> edges = new ArrayList<>();
+        filteredGraph.forEachEdge(edges::add);
+        assertThat(edges, contains(graph.getEdge(n1, n2)));
+
+        graph.addDependency(n2, graph.getOrCreateNodeByName("v4"), DependencyType.READ_ONLY);
+        assertThat(filteredGraph.nodeCount(), is(3));
+        assertThat(filteredGraph.edgeCount(), is(2));
+    }
+
+    @Test
+    public void testParallelStreams() {
+        for (int i = 0; i < 10000; i++) {
+            Node node = graph.getOrCreateNodeByName("n" + i);
+            graph.addDependency(node, graph.getOrCreateNodeByName("n" + (i / 2)), DependencyType.READ_ONLY);
+        }
+        NodeFilter evenFilter = node -> Integer.parseInt(node.getName().substring(1)) % 2 == 0;
+        DependencyGraph filteredGraph = graph.filter(evenFilter);
+
+        assertThat(graph.nodeStream(true).count(), is(10000L));
+        assertThat(filteredGraph.nodeCount(), is(5000));
+        assertThat(filteredGraph.nodeStream(true).collect(Collectors.toSet()), is(new HashSet<>(filteredGraph.getAllNodes())));
+        assertThat(filteredGraph.edgeStream(true).count(), is((long) filteredGraph.edgeCount()));
+        assertThat(filteredGraph.edgeStream(true).allMatch(dep -> evenFilter.isAccepted(dep.getSource())), is(true));
+    }
+
     @Test
     public void testEdgeFilter() {
         setupSimpleGraph();
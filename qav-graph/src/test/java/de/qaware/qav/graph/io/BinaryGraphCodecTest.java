@@ -0,0 +1,123 @@
+package de.qaware.qav.graph.io;
+
+import com.google.common.collect.Lists;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.DependencyType;
+import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.SortedIntList;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.util.FileSystemUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link BinaryGraphCodec}.
+ *
+ * @author QAware GmbH
+ */
+public class BinaryGraphCodecTest {
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Node n1 = graph.getOrCreateNodeByName("v1");
+        n1.setProperty("bool", true);
+        n1.setProperty("int", -5);
+        n1.setProperty("long", 1L << 40);
+        n1.setProperty("double", 2.5);
+        n1.setProperty("string", "ÄÖÜ");
+        n1.addListProperty("list", "a");
+        n1.addListProperty("list", "b");
+        Node n2 = graph.getOrCreateNodeByName("v2");
+        Node n3 = graph.getOrCreateNodeByName("v3");
+        Dependency dep12 = graph.addDependency(n1, n2, DependencyType.READ_ONLY);
+        dep12.addListProperty("lineNo", 12);
+        dep12.addListProperty("lineNo", 3);
+        graph.addDependency(n3, n1, DependencyType.INHERIT);
+
+        DependencyGraph readGraph = BinaryGraphCodec.read(new ByteArrayInputStream(write(graph)), DependencyGraphFactory.createGraph());
+
+        assertThat(readGraph.getAllNodes()).extracting(Node::getName).containsExactly("v1", "v2", "v3");
+        Node v1 = readGraph.getNode("v1");
+        assertThat(v1.getProperties()).isEqualTo(n1.getProperties());
+        assertThat(readGraph.getEdge(v1, readGraph.getNode("v2")).getDependencyType()).isEqualTo(DependencyType.READ_ONLY);
+        assertThat(readGraph.getEdge(v1, readGraph.getNode("v2")).getProperty("lineNo")).isEqualTo(Lists.newArrayList(12, 3));
+        assertThat(readGraph.getEdge(readGraph.getNode("v3"), v1).getDependencyType()).isEqualTo(DependencyType.INHERIT);
+
+        GraphReaderWriter.write(graph, "build/testBinaryGraph1.json");
+        GraphReaderWriter.write(readGraph, "build/testBinaryGraph2.json");
+        assertThat(FileSystemUtil.readFileAsText("build/testBinaryGraph2.json"))
+                .isEqualTo(FileSystemUtil.readFileAsText("build/testBinaryGraph1.json"));
+    }
+
+    /**
+     * Reading merges, just like the readers do: types are upgraded, list entries are added.
+     */
+    @Test
+    public void testReadMerges() throws IOException {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        graph.addDependency(graph.getOrCreateNodeByName("v1"), graph.getOrCreateNodeByName("v2"), DependencyType.READ_WRITE)
+                .addListProperty("lineNo", 1);
+
+        DependencyGraph targetGraph = DependencyGraphFactory.createGraph();
+        Dependency existing = targetGraph.addDependency(targetGraph.getOrCreateNodeByName("v1"), targetGraph.getOrCreateNodeByName("v2"), DependencyType.REFERENCE);
+        existing.addListProperty("lineNo", 7);
+
+        BinaryGraphCodec.read(new ByteArrayInputStream(write(graph)), targetGraph);
+
+        assertThat(targetGraph.getAllEdges()).hasSize(1);
+        assertThat(existing.getDependencyType()).isEqualTo(DependencyType.READ_WRITE);
+        assertThat(existing.getProperty("lineNo")).isEqualTo(Lists.newArrayList(7, 1));
+    }
+
+    @Test
+    public void testSortedIntList() throws IOException {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Dependency dependency = graph.addDependency(graph.getOrCreateNodeByName("v1"), graph.getOrCreateNodeByName("v2"), DependencyType.READ_WRITE);
+        dependency.addIntSetProperty("lineNo", 1000);
+        dependency.addIntSetProperty("lineNo", -3);
+        dependency.addIntSetProperty("lineNo", Integer.MAX_VALUE);
+        dependency.addIntSetProperty("lineNo", Integer.MIN_VALUE);
+
+        DependencyGraph targetGraph = DependencyGraphFactory.createGraph();
+        Dependency existing = targetGraph.addDependency(targetGraph.getOrCreateNodeByName("v1"), targetGraph.getOrCreateNodeByName("v2"), DependencyType.REFERENCE);
+        existing.addIntSetProperty("lineNo", 7);
+
+        BinaryGraphCodec.read(new ByteArrayInputStream(write(graph)), targetGraph);
+
+        assertThat(existing.getProperty("lineNo")).isInstanceOf(SortedIntList.class);
+        assertThat(existing.getProperty("lineNo")).isEqualTo(Lists.newArrayList(Integer.MIN_VALUE, -3, 7, 1000, Integer.MAX_VALUE));
+
+        DependencyGraph readGraph = BinaryGraphCodec.read(new ByteArrayInputStream(write(graph)), DependencyGraphFactory.createGraph());
+        Object lineNo = readGraph.getEdge(readGraph.getNode("v1"), readGraph.getNode("v2")).getProperty("lineNo");
+        assertThat(lineNo).isInstanceOf(SortedIntList.class);
+        assertThat(lineNo).isEqualTo(dependency.getProperty("lineNo"));
+    }
+
+    @Test
+    public void testUnsupportedType() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        graph.getOrCreateNodeByName("v1").setProperty("object", new Object());
+
+        assertThatThrownBy(() -> write(graph)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertThatThrownBy(() -> BinaryGraphCodec.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), DependencyGraphFactory.createGraph()))
+                .isInstanceOf(IOException.class);
+    }
+
+    private byte[] write(DependencyGraph graph) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryGraphCodec.write(graph, out);
+        return out.toByteArray();
+    }
+}
@@ -1,10 +1,12 @@
 package de.qaware.qav.graph.io;
 
 import com.google.common.collect.Lists;
+import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.api.SortedIntList;
 import de.qaware.qav.graph.factory.DependencyGraphFactory;
 import de.qaware.qav.util.FileSystemUtil;
 import org.junit.Test;
@@ -64,6 +66,22 @@ public class GraphReaderWriterTest {
         assertThat(s1).isEqualTo(s2);
     }
 
+    @Test
+    public void testLineNumbers() {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Dependency dependency = graph.addDependency(graph.getOrCreateNodeByName("v1"), graph.getOrCreateNodeByName("v2"), DependencyType.READ_WRITE);
+        dependency.addIntSetProperty(Constants.LINE_NO, 45);
+        dependency.addIntSetProperty(Constants.LINE_NO, 12);
+
+        GraphReaderWriter.write(graph, "build/testGraphLineNo.json");
+        assertThat(FileSystemUtil.readFileAsText("build/testGraphLineNo.json")).contains("\"lineNo\" : [ 12, 45 ]");
+
+        DependencyGraph readGraph = GraphReaderWriter.read("build/testGraphLineNo.json");
+        Object lineNo = readGraph.getEdge(readGraph.getNode("v1"), readGraph.getNode("v2")).getProperty(Constants.LINE_NO);
+        assertThat(lineNo).isInstanceOf(SortedIntList.class);
+        assertThat(lineNo).isEqualTo(Lists.newArrayList(12, 45));
+    }
+
     /**
      * merging the same graph does not change anything
      */
@@ -0,0 +1,97 @@
+package de.qaware.qav.input.javacode.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link AsmUtil#toClassName(String, boolean)} and {@link DependencyUtil#isIgnorable(String)} with the
+ * regular expressions they used before.
+ * <p>
+ * Run with <tt>gradlew :qav-input-java:jmh</tt>.
+ *
+ * @author QAware GmbH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsmUtilBenchmark {
+
+    /**
+     * Typical input, as it comes from the visitors: internal names, descriptors, arrays, inner classes, and names
+     * which are already converted.
+     */
+    private static final String[] NAMES = {
+            "java/util/List",
+            "java/lang/String",
+            "Ljava/util/Map;",
+            "[Ljava/lang/Object;",
+            "[[Lde/qaware/qav/graph/api/Node;",
+            "[I",
+            "de/qaware/qav/graph/api/DependencyGraph",
+            "de/qaware/qav/input/javacode/impl/DependencyMethodVisitor$1",
+            "Lde/qaware/qav/graph/api/Dependency;",
+            "org/objectweb/asm/ClassReader",
+            "int[]",
+            "de.qaware.qav.graph.api.DependencyType",
+    };
+
+    private static final Pattern[] LEGACY_PATTERNS = {
+            Pattern.compile("^L"),
+            Pattern.compile("\\[L"),
+            Pattern.compile("^[\\[]*"),
+            Pattern.compile(";$"),
+            Pattern.compile("\\[\\]"),
+            Pattern.compile("/"),
+    };
+    private static final String[] LEGACY_REPLACEMENTS = {"", "", "", "", "", "."};
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String name : NAMES) {
+            String className = legacyToClassName(name, true);
+            blackhole.consume(className);
+            blackhole.consume(legacyIsIgnorable(className));
+        }
+    }
+
+    @Benchmark
+    public void singlePassWithCache(Blackhole blackhole) {
+        for (String name : NAMES) {
+            String className = AsmUtil.toClassName(name, true);
+            blackhole.consume(className);
+            blackhole.consume(DependencyUtil.isIgnorable(className));
+        }
+    }
+
+    private static String legacyToClassName(String className, boolean collapseInnerClasses) {
+        String s = className;
+        if (collapseInnerClasses && s.indexOf('$') >= 0) {
+            s = s.substring(0, s.indexOf('$'));
+        }
+        for (int i = 0; i < LEGACY_PATTERNS.length; i++) {
+            s = LEGACY_PATTERNS[i].matcher(s).replaceAll(LEGACY_REPLACEMENTS[i]);
+        }
+        return s;
+    }
+
+    @SuppressWarnings("squid:S4248")
+    private static boolean legacyIsIgnorable(String className) {
+        String name = className.replaceAll("/", ".")
+                .replaceAll("\\[\\]", "");
+        return name.startsWith("java.lang.") || "java.lang.Object".equals(name);
+    }
+}
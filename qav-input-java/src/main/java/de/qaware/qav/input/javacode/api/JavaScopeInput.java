@@ -1,6 +1,7 @@
 package de.qaware.qav.input.javacode.api;
 
 import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.input.javacode.impl.InputMode;
 import de.qaware.qav.input.javacode.impl.JavaScopeReader;
 
 import java.util.Map;
@@ -18,9 +19,11 @@ public class JavaScopeInput {
      * @param dependencyGraph      the graph where to write the classes and their dependencies
      * @param collapseInnerClasses if true, collapses the dependencies of an inner class onto the outer class
      * @param parameters           the parameters, Ant-style with baseDir (mandatory), and includes (optional) and
-     *                             excludes (optional)
+     *                             excludes (optional); the {@link InputMode} (optional) with the key
+     *                             {@link JavaScopeReader#INPUT_MODE_KEY}
      */
     public void read(DependencyGraph dependencyGraph, boolean collapseInnerClasses, Map parameters) {
-        new JavaScopeReader(dependencyGraph, collapseInnerClasses).read(parameters);
+        InputMode inputMode = InputMode.fromString(parameters.get(JavaScopeReader.INPUT_MODE_KEY));
+        new JavaScopeReader(dependencyGraph, collapseInnerClasses, inputMode).read(parameters);
     }
 }
@@ -1,5 +1,6 @@
 package de.qaware.qav.input.javacode.impl;
 
+import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
@@ -18,6 +19,12 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public final class AnalysisUtil {
 
+    /**
+     * Pass this as line number if line numbers are not recorded, i.e. if no {@link de.qaware.qav.graph.api.Constants#LINE_NO}
+     * property should be added.
+     */
+    public static final int NO_LINE_NO = -1;
+
     private static final Logger LOGGER = getLogger(AnalysisUtil.class);
 
     /**
@@ -34,7 +41,7 @@ public final class AnalysisUtil {
      * @param desc                 the ASM description
      * @param visible              true if the annotation is visible at runtime; only used for logging
      * @param collapseInnerClasses whether to collapse inner classes
-     * @param lineNo               the line number
+     * @param lineNo               the line number, or {@link #NO_LINE_NO}
      */
     public static void analyzeAnnotation(DependencyGraph dependencyGraph, Node classNode, String desc, boolean visible, boolean collapseInnerClasses, int lineNo) {
         String annotationTypeName = AsmUtil.toClassName(desc, collapseInnerClasses);
@@ -43,6 +50,9 @@ public final class AnalysisUtil {
         Node annotationNode = dependencyGraph.getOrCreateNodeByName(annotationTypeName);
         annotationNode.setProperty(TYPE, TYPE_CLASS);
         annotationNode.setProperty(ANNOTATION, true);
-        dependencyGraph.addDependency(classNode, annotationNode, DependencyType.ANNOTATED_BY).addListProperty(LINE_NO, lineNo);
+        Dependency dependency = dependencyGraph.addDependency(classNode, annotationNode, DependencyType.ANNOTATED_BY);
+        if (lineNo != NO_LINE_NO) {
+            dependency.addIntSetProperty(LINE_NO, lineNo);
+        }
     }
 }
@@ -0,0 +1,193 @@
+package de.qaware.qav.input.javacode.impl;
+
+import com.google.common.hash.Hashing;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.io.BinaryGraphCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * On-disk cache for the dependencies of whole JAR files, e.g. of third-party libraries on the classpath.
+ * <p>
+ * The key is the SHA-256 hash of the JAR file, plus the settings of the reader which influence the result (whether
+ * inner classes are collapsed, the includes and excludes patterns). The value is the summary of the JAR, i.e. the graph
+ * with all classes of the JAR and their dependencies, written with {@link BinaryGraphCodec}. On a cache hit, the JAR is
+ * neither unpacked nor analyzed.
+ * <p>
+ * Entries carry the {@link ClassCache#VERSION} stamp of the extraction logic; entries with another version are ignored
+ * and overwritten.
+ * <p>
+ * The cache is thread safe; entries are written to a temp file first and then moved into place, so that concurrent
+ * readers never see half-written entries.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public class ArtifactCache {
+
+    private static final int MAGIC = 0x51415641; // "QAVA"
+    private static final String FILE_SUFFIX = ".qava";
+
+    private final File cacheDir;
+    private final String settings;
+    private final String settingsHash;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param cacheDir the directory for the cache files. Will be created if it does not exist.
+     * @param settings describes all settings of the reader which influence the result, e.g. whether inner classes are
+     *                 collapsed and which entries of the JARs are read. Part of the cache key.
+     */
+    public ArtifactCache(File cacheDir, String settings) {
+        this.cacheDir = checkNotNull(cacheDir, "cacheDir");
+        this.settings = checkNotNull(settings, "settings");
+        this.settingsHash = Hashing.sha256().hashString(settings, StandardCharsets.UTF_8).toString().substring(0, 16);
+    }
+
+    /**
+     * Returns the summary graph of the given JAR file: from the cache if possible; otherwise, it uses the given reader
+     * and puts the result into the cache.
+     *
+     * @param jarFile the JAR file
+     * @param reader  reads the JAR file into a new graph if it is not in the cache
+     * @return the graph with the classes of the JAR file and their dependencies
+     */
+    public DependencyGraph get(File jarFile, Supplier<DependencyGraph> reader) {
+        File cacheFile = getCacheFile(jarFile);
+        if (cacheFile != null) {
+            DependencyGraph result = load(cacheFile);
+            if (result != null) {
+                LOGGER.info("Artifact {} found in cache", jarFile.getAbsolutePath());
+                hits.incrementAndGet();
+                return result;
+            }
+        }
+
+        misses.incrementAndGet();
+        DependencyGraph result = reader.get();
+        if (cacheFile != null) {
+            store(cacheFile, jarFile, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of JAR files found in the cache
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of JAR files not found in the cache
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Logs the number of hits and misses.
+     */
+    public void logStatistics() {
+        LOGGER.info("Artifact cache {}: {} hits, {} misses", cacheDir.getAbsolutePath(), hits.get(), misses.get());
+    }
+
+    /**
+     * Hashes the JAR file. The file is only streamed through the hash function; it is not unpacked.
+     *
+     * @param jarFile the JAR file
+     * @return the cache file, or <tt>null</tt> if the JAR file can't be read
+     */
+    @SuppressWarnings("squid:S1166") // wants log or rethrow exception. It's logged well enough here.
+    private File getCacheFile(File jarFile) {
+        try {
+            String hash = com.google.common.io.Files.asByteSource(jarFile).hash(Hashing.sha256()).toString();
+            return new File(new File(cacheDir, hash.substring(0, 2)), hash.substring(2) + "-" + settingsHash + FILE_SUFFIX);
+        } catch (IOException e) {
+            LOGGER.warn("Can't hash {}, not using the cache: {}", jarFile.getAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the cache entry.
+     *
+     * @param cacheFile the file
+     * @return the graph, or <tt>null</tt> if there is no valid entry
+     */
+    @SuppressWarnings("squid:S1166") // wants log or rethrow exception. It's logged well enough here.
+    private DependencyGraph load(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(cacheFile.toPath()))) {
+            DataInputStream in = new DataInputStream(inputStream);
+            if (in.readInt() != MAGIC || in.readInt() != ClassCache.VERSION || !settings.equals(in.readUTF())) {
+                LOGGER.debug("Outdated cache entry: {}", cacheFile.getAbsolutePath());
+                return null;
+            }
+            in.readUTF(); // name of the JAR file, for information only
+            return BinaryGraphCodec.read(in, DependencyGraphFactory.createGraph());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring invalid cache entry {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache entry. Failing to write is logged, but not fatal.
+     *
+     * @param cacheFile       the file
+     * @param jarFile         the JAR file, for information
+     * @param dependencyGraph the summary graph of the JAR file
+     */
+    @SuppressWarnings("squid:S1166") // wants log or rethrow exception. It's logged well enough here.
+    private void store(File cacheFile, File jarFile, DependencyGraph dependencyGraph) {
+        Path tempFile = null;
+        try {
+            File dir = cacheFile.getParentFile();
+            Files.createDirectories(dir.toPath());
+            tempFile = Files.createTempFile(dir.toPath(), cacheFile.getName(), ".tmp");
+
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                DataOutputStream out = new DataOutputStream(outputStream);
+                out.writeInt(MAGIC);
+                out.writeInt(ClassCache.VERSION);
+                out.writeUTF(settings);
+                out.writeUTF(jarFile.getName());
+                BinaryGraphCodec.write(dependencyGraph, out);
+            }
+
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write cache entry {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                tempFile.toFile().delete();
+            }
+        }
+    }
+}
@@ -1,32 +1,32 @@
 package de.qaware.qav.input.javacode.impl;
 
-import com.google.common.collect.Lists;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
-import org.objectweb.asm.Type;
-
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility methods to deal with ASM Strings.
+ * <p>
+ * Class names come in many forms from ASM: internal names (<tt>java/util/List</tt>), descriptors
+ * (<tt>Ljava/util/List;</tt>), array descriptors (<tt>[[Ljava/util/List;</tt>, <tt>[I</tt>), or names which are already
+ * converted (<tt>java.util.List</tt>, <tt>int[]</tt>). They are all decoded in one pass over the characters. As the
+ * same names are seen over and over again, the results are kept in bounded caches.
  *
  * @author QAware GmbH
  */
 public final class AsmUtil {
 
-    private static final List<Pair<Pattern, String>> REPLACEMENTS = Lists.newArrayList();
+    /**
+     * Maximum number of entries per cache. If a cache is full, it is cleared and filled up again.
+     */
+    static final int MAX_CACHE_SIZE = 1 << 16;
 
-    static {
-        addReplacement("^L", "");
-        addReplacement("\\[L", "");
-        addReplacement("^[\\[]*", "");
-        addReplacement(";$", "");
-        addReplacement("\\[\\]", "");
-        addReplacement("/", ".");
-    }
+    private static final Map<String, String> CLASS_NAMES = new ConcurrentHashMap<>();
+    private static final Map<String, String> COLLAPSED_CLASS_NAMES = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> PARAMETER_TYPE_NAMES = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> COLLAPSED_PARAMETER_TYPE_NAMES = new ConcurrentHashMap<>();
 
     /**
      * util class is not meant to be instantiated.
@@ -34,21 +34,21 @@ public final class AsmUtil {
     private AsmUtil() {
     }
 
-    private static void addReplacement(String pattern, String rep) {
-        REPLACEMENTS.add(new ImmutablePair<>(Pattern.compile(pattern), rep));
-    }
-
     /**
      * Returns the type names of the parameters.
      *
      * @param desc                 the ASM description
      * @param collapseInnerClasses Flag if inner classes are to be collapsed
-     * @return the type names
+     * @return the type names; the list must not be modified
      */
     public static List<String> getParameterTypeNames(String desc, boolean collapseInnerClasses) {
-        return Arrays.stream(Type.getArgumentTypes(desc))
-                .map(t -> toClassName(t.getClassName(), collapseInnerClasses))
-                .collect(Collectors.toList());
+        Map<String, List<String>> cache = collapseInnerClasses ? COLLAPSED_PARAMETER_TYPE_NAMES : PARAMETER_TYPE_NAMES;
+        List<String> result = cache.get(desc);
+        if (result == null) {
+            result = decodeParameterTypeNames(desc, collapseInnerClasses);
+            put(cache, desc, result);
+        }
+        return result;
     }
 
     /**
@@ -62,29 +62,118 @@ public final class AsmUtil {
         if (className == null) {
             return null;
         }
-        if (collapseInnerClasses && className.indexOf('$') >= 0) {
-            return toClassName(className.substring(0, className.indexOf('$')));
+
+        Map<String, String> cache = collapseInnerClasses ? COLLAPSED_CLASS_NAMES : CLASS_NAMES;
+        String result = cache.get(className);
+        if (result == null) {
+            result = decodeClassName(className, 0, className.length(), collapseInnerClasses);
+            put(cache, className, result);
         }
-        return toClassName(className);
+        return result;
     }
 
     /**
-     * Returns cleaned class name.
+     * Decodes the class name in the given range of the String.
+     * <p>
+     * Strips leading <tt>[</tt>, the <tt>L...;</tt> of a descriptor, and trailing <tt>[]</tt>; cuts off at the first
+     * <tt>$</tt> if inner classes are to be collapsed; and replaces <tt>/</tt> by <tt>.</tt>.
      *
-     * @param className The name of the class
+     * @param name                 the String with the name
+     * @param beginIndex           start of the name, inclusive
+     * @param endIndex             end of the name, exclusive
+     * @param collapseInnerClasses Flag if inner classes are to be collapsed
      * @return The cleaned name of the class
      */
-    private static String toClassName(String className) {
-        if (className == null) {
-            return null;
+    private static String decodeClassName(String name, int beginIndex, int endIndex, boolean collapseInnerClasses) {
+        int start = beginIndex;
+        int end = endIndex;
+
+        while (start < end && name.charAt(start) == '[') {
+            start++;
+        }
+        if (end > start && name.charAt(end - 1) == ';') {
+            end--;
+            if (name.charAt(start) == 'L') {
+                start++;
+            }
+        }
+        while (end - start >= 2 && name.charAt(end - 2) == '[' && name.charAt(end - 1) == ']') {
+            end -= 2;
+        }
+        if (collapseInnerClasses) {
+            int dollar = name.indexOf('$', start);
+            if (dollar >= 0 && dollar < end) {
+                end = dollar;
+            }
+        }
+
+        int slash = name.indexOf('/', start);
+        if (slash < 0 || slash >= end) {
+            return start == 0 && end == name.length() ? name : name.substring(start, end);
         }
 
-        String s = className;
-        for (Pair<Pattern, String> pair : REPLACEMENTS) {
-            s = pair.getLeft().matcher(s).replaceAll(pair.getRight());
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            chars[i - start] = c == '/' ? '.' : c;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decodes the parameter types of a method descriptor like <tt>(I[Ljava/lang/String;)V</tt>.
+     */
+    private static List<String> decodeParameterTypeNames(String desc, boolean collapseInnerClasses) {
+        List<String> result = new ArrayList<>();
+        int i = 1; // skip '('
+        while (i < desc.length() && desc.charAt(i) != ')') {
+            while (desc.charAt(i) == '[') {
+                i++;
+            }
+            if (desc.charAt(i) == 'L') {
+                int end = desc.indexOf(';', i);
+                result.add(toClassName(desc.substring(i + 1, end), collapseInnerClasses));
+                i = end + 1;
+            } else {
+                result.add(toPrimitiveTypeName(desc.charAt(i)));
+                i++;
+            }
         }
+        return Collections.unmodifiableList(result);
+    }
 
-        return s;
+    /**
+     * Returns the Java name of a primitive type, like {@link org.objectweb.asm.Type#getClassName()} does.
+     */
+    private static String toPrimitiveTypeName(char descriptor) {
+        switch (descriptor) {
+            case 'Z':
+                return "boolean";
+            case 'C':
+                return "char";
+            case 'B':
+                return "byte";
+            case 'S':
+                return "short";
+            case 'I':
+                return "int";
+            case 'F':
+                return "float";
+            case 'J':
+                return "long";
+            case 'D':
+                return "double";
+            case 'V':
+                return "void";
+            default:
+                throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
+        }
     }
 
+    private static <T> void put(Map<String, T> cache, String key, T value) {
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
 }
@@ -0,0 +1,178 @@
+package de.qaware.qav.input.javacode.impl;
+
+import com.google.common.hash.Hashing;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.io.BinaryGraphCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * On-disk cache for the dependencies of single classes.
+ * <p>
+ * The key is the SHA-256 hash of the class file content, plus the variant of the reader (e.g. whether inner classes
+ * are collapsed). The value is the {@link ClassGraph} of the class, written with {@link BinaryGraphCodec}. On a cache
+ * hit, ASM does not need to run at all.
+ * <p>
+ * Each entry carries the {@link #VERSION} stamp; entries with another version are ignored and overwritten.
+ * <p>
+ * The cache is thread safe; entries are written to a temp file first and then moved into place, so that concurrent
+ * readers never see half-written entries.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public class ClassCache {
+
+    /**
+     * Version of the extraction logic. Increase this whenever the readers create different nodes, edges, or
+     * properties for the same class file: that invalidates all existing cache entries.
+     */
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x51415643; // "QAVC"
+    private static final String FILE_SUFFIX = ".qavc";
+
+    private final File cacheDir;
+    private final String variant;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param cacheDir the directory for the cache files. Will be created if it does not exist.
+     * @param variant  identifies the settings of the reader which influence the result, e.g. whether inner classes are
+     *                 collapsed. Part of the cache key. Must be usable in file names.
+     */
+    public ClassCache(File cacheDir, String variant) {
+        this.cacheDir = checkNotNull(cacheDir, "cacheDir");
+        this.variant = checkNotNull(variant, "variant");
+    }
+
+    /**
+     * Returns the {@link ClassGraph} for the given class: from the cache if possible; otherwise, it uses the given
+     * reader and puts the result into the cache.
+     *
+     * @param classAsBytes the class content, as byte array
+     * @param reader       reads the class if it is not in the cache
+     * @return the {@link ClassGraph}
+     */
+    public ClassGraph get(byte[] classAsBytes, Function<byte[], ClassGraph> reader) {
+        File cacheFile = getCacheFile(classAsBytes);
+
+        ClassGraph result = load(cacheFile);
+        if (result != null) {
+            hits.incrementAndGet();
+            return result;
+        }
+
+        misses.incrementAndGet();
+        result = reader.apply(classAsBytes);
+        store(cacheFile, result);
+        return result;
+    }
+
+    /**
+     * @return the number of classes found in the cache
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of classes not found in the cache
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Logs the number of hits and misses.
+     */
+    public void logStatistics() {
+        LOGGER.info("Class cache {}: {} hits, {} misses", cacheDir.getAbsolutePath(), hits.get(), misses.get());
+    }
+
+    private File getCacheFile(byte[] classAsBytes) {
+        String hash = Hashing.sha256().hashBytes(classAsBytes).toString();
+        return new File(new File(cacheDir, hash.substring(0, 2)), hash.substring(2) + "-" + variant + FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the cache entry.
+     *
+     * @param cacheFile the file
+     * @return the {@link ClassGraph}, or <tt>null</tt> if there is no valid entry
+     */
+    @SuppressWarnings("squid:S1166") // wants log or rethrow exception. It's logged well enough here.
+    private ClassGraph load(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(cacheFile.toPath()))) {
+            DataInputStream in = new DataInputStream(inputStream);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !variant.equals(in.readUTF())) {
+                LOGGER.debug("Outdated cache entry: {}", cacheFile.getAbsolutePath());
+                return null;
+            }
+            String className = in.readUTF();
+            DependencyGraph dependencyGraph = BinaryGraphCodec.read(in, DependencyGraphFactory.createGraph());
+            return new ClassGraph(dependencyGraph, className);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring invalid cache entry {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache entry. Failing to write is logged, but not fatal.
+     *
+     * @param cacheFile  the file
+     * @param classGraph the {@link ClassGraph}
+     */
+    @SuppressWarnings("squid:S1166") // wants log or rethrow exception. It's logged well enough here.
+    private void store(File cacheFile, ClassGraph classGraph) {
+        Path tempFile = null;
+        try {
+            File dir = cacheFile.getParentFile();
+            Files.createDirectories(dir.toPath());
+            tempFile = Files.createTempFile(dir.toPath(), cacheFile.getName(), ".tmp");
+
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                DataOutputStream out = new DataOutputStream(outputStream);
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(variant);
+                out.writeUTF(classGraph.getClassName());
+                BinaryGraphCodec.write(classGraph.getDependencyGraph(), out);
+            }
+
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write cache entry {}: {}", cacheFile.getAbsolutePath(), e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                tempFile.toFile().delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.qaware.qav.input.javacode.impl;
+
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+
+/**
+ * The dependencies of one class, read into a {@link DependencyGraph} of its own.
+ * <p>
+ * Used where the results of single classes are handled separately before they are merged into the target graph, i.e.
+ * for parallel reading and for caching.
+ *
+ * @author QAware GmbH
+ */
+public final class ClassGraph {
+
+    private final DependencyGraph dependencyGraph;
+    private final String className;
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph the graph with the class and its dependencies
+     * @param className       the name of the node which represents the class
+     */
+    public ClassGraph(DependencyGraph dependencyGraph, String className) {
+        this.dependencyGraph = dependencyGraph;
+        this.className = className;
+    }
+
+    /**
+     * Reads the given class into a new graph.
+     *
+     * @param classAsBytes         the class content, as byte array
+     * @param collapseInnerClasses whether or not collapse inner classes.
+     * @return the {@link ClassGraph}
+     */
+    public static ClassGraph read(byte[] classAsBytes, boolean collapseInnerClasses) {
+        return read(classAsBytes, collapseInnerClasses, InputMode.FULL);
+    }
+
+    /**
+     * Reads the given class into a new graph.
+     *
+     * @param classAsBytes         the class content, as byte array
+     * @param collapseInnerClasses whether or not collapse inner classes.
+     * @param inputMode            how much of the class to analyze
+     * @return the {@link ClassGraph}
+     */
+    public static ClassGraph read(byte[] classAsBytes, boolean collapseInnerClasses, InputMode inputMode) {
+        DependencyGraph dependencyGraph = DependencyGraphFactory.createGraph();
+        String className = new DependencyReader(dependencyGraph, collapseInnerClasses, inputMode).readDependencies(classAsBytes).getName();
+        return new ClassGraph(dependencyGraph, className);
+    }
+
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+}
@@ -37,6 +37,7 @@ public class DependencyClassVisitor extends ClassVisitor {
 
     private final DependencyGraph dependencyGraph;
     private final boolean collapseInnerClasses;
+    private final InputMode inputMode;
 
     /**
      * The name of the currently analyzed class. Will be set in the call to the {@link #visit(int, int, String, String,
@@ -61,9 +62,23 @@ public class DependencyClassVisitor extends ClassVisitor {
      *                             with the full name
      */
     public DependencyClassVisitor(DependencyGraph dependencyGraph, boolean collapseInnerClasses) {
+        this(dependencyGraph, collapseInnerClasses, InputMode.FULL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph      the graph to fill
+     * @param collapseInnerClasses whether or not collapse inner classes. True: Use the outer class; false means deal
+     *                             with the full name
+     * @param inputMode            how much of the class to analyze. Note that the caller must pass the matching
+     *                             {@link InputMode#getParsingOptions()} to the {@link org.objectweb.asm.ClassReader}.
+     */
+    public DependencyClassVisitor(DependencyGraph dependencyGraph, boolean collapseInnerClasses, InputMode inputMode) {
         super(Opcodes.ASM7);
         this.dependencyGraph = dependencyGraph;
         this.collapseInnerClasses = collapseInnerClasses;
+        this.inputMode = inputMode;
     }
 
     @Override
@@ -85,7 +100,7 @@ public class DependencyClassVisitor extends ClassVisitor {
 
     @Override
     public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-        AnalysisUtil.analyzeAnnotation(dependencyGraph, classNode, desc, visible, collapseInnerClasses, 0);
+        AnalysisUtil.analyzeAnnotation(dependencyGraph, classNode, desc, visible, collapseInnerClasses, getInitialLineNo());
         return null;
     }
 
@@ -98,7 +113,7 @@ public class DependencyClassVisitor extends ClassVisitor {
 
         analyzeSignature(name, signature);
 
-        return new DependencyFieldVisitor(dependencyGraph, collapseInnerClasses, className, 0);
+        return new DependencyFieldVisitor(dependencyGraph, collapseInnerClasses, className, getInitialLineNo());
     }
 
     @Override
@@ -118,7 +133,15 @@ public class DependencyClassVisitor extends ClassVisitor {
             Arrays.stream(exceptions).forEach(this::addParameterTypeDependency);
         }
 
-        return new DependencyMethodVisitor(dependencyGraph, fullClassName, name, collapseInnerClasses);
+        return new DependencyMethodVisitor(dependencyGraph, fullClassName, name, collapseInnerClasses, inputMode.isMethodLevel());
+    }
+
+    /**
+     * @return the line number to use for dependencies outside of method bodies: <tt>0</tt>, or
+     * {@link AnalysisUtil#NO_LINE_NO} if line numbers are not recorded.
+     */
+    private int getInitialLineNo() {
+        return inputMode.isMethodLevel() ? 0 : AnalysisUtil.NO_LINE_NO;
     }
 
     /**
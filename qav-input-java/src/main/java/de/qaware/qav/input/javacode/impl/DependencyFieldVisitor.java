@@ -27,7 +27,7 @@ public class DependencyFieldVisitor extends FieldVisitor {
      * @param dependencyGraph      the {@link DependencyGraph}
      * @param collapseInnerClasses whether to collapse inner classes
      * @param className            the class name
-     * @param lineNo               the lin number
+     * @param lineNo               the line number, or {@link AnalysisUtil#NO_LINE_NO}
      */
     public DependencyFieldVisitor(DependencyGraph dependencyGraph, boolean collapseInnerClasses, String className, int lineNo) {
         super(Opcodes.ASM7);
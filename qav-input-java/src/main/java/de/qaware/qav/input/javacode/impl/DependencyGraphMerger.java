@@ -0,0 +1,61 @@
+package de.qaware.qav.input.javacode.impl;
+
+import de.qaware.qav.graph.api.AbstractGraphElement;
+import de.qaware.qav.graph.api.Dependency;
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+
+import java.util.List;
+
+/**
+ * Merges the nodes and dependencies of one {@link DependencyGraph} into another one.
+ * <p>
+ * The merge replays exactly the operations the readers use to fill a graph: nodes are created in the order of the
+ * source graph, dependencies are added with {@link DependencyGraph#addDependency} (which
+ * upgrades the type if necessary), list properties are added with
+ * {@link AbstractGraphElement#addListProperty(String, Object)}, all other properties are set. So reading a class into
+ * a graph of its own and merging it afterwards gives the same result as reading it into the target graph directly.
+ *
+ * @author QAware GmbH
+ */
+public final class DependencyGraphMerger {
+
+    /**
+     * util class with only static methods.
+     */
+    private DependencyGraphMerger() {
+    }
+
+    /**
+     * Merges the source graph into the target graph.
+     *
+     * @param source the graph to read from
+     * @param target the graph to write to
+     */
+    public static void merge(DependencyGraph source, DependencyGraph target) {
+        for (Node sourceNode : source.getAllNodes()) {
+            Node targetNode = target.getOrCreateNodeByName(sourceNode.getName());
+            mergeProperties(sourceNode, targetNode);
+        }
+
+        for (Dependency sourceDependency : source.getAllEdges()) {
+            Node from = target.getNode(sourceDependency.getSource().getName());
+            Node to = target.getNode(sourceDependency.getTarget().getName());
+            Dependency targetDependency = target.addDependency(from, to, sourceDependency.getDependencyType());
+            mergeProperties(sourceDependency, targetDependency);
+        }
+    }
+
+    private static void mergeProperties(AbstractGraphElement source, AbstractGraphElement target) {
+        source.forEachProperty((key, value) -> {
+            if (key.equals(AbstractGraphElement.NAME)) {
+                return;
+            }
+            if (value instanceof List) {
+                target.addListProperty(key, value);
+            } else {
+                target.setProperty(key, value);
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package de.qaware.qav.input.javacode.impl;
 
+import de.qaware.qav.graph.api.Dependency;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
@@ -39,14 +40,15 @@ public class DependencyMethodVisitor extends MethodVisitor {
     private final Node classNode;
     private final String methodName;
     private final Node methodNode;
+    private final boolean methodLevel;
 
     /**
      * The currently analyzed line number.
      * <p>
      * It is set in {@link #visitLineNumber(int, Label)}, and is added to each dependency with the property name {@link
-     * de.qaware.qav.graph.api.Constants#LINE_NO}.
+     * de.qaware.qav.graph.api.Constants#LINE_NO}. {@link AnalysisUtil#NO_LINE_NO} if line numbers are not recorded.
      */
-    private int lineNo = 0;
+    private int lineNo;
 
     /**
      * Constructor.
@@ -57,17 +59,34 @@ public class DependencyMethodVisitor extends MethodVisitor {
      * @param collapseInnerClasses <tt>true</tt> to collapse inner classes onto the outer class
      */
     public DependencyMethodVisitor(DependencyGraph dependencyGraph, String fullClassName, String methodName, boolean collapseInnerClasses) {
+        this(dependencyGraph, fullClassName, methodName, collapseInnerClasses, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph      the {@link DependencyGraph} to write the dependencies to
+     * @param fullClassName        full name of the class to visit (i.e., not collapsed!)
+     * @param methodName           name of the method to visit
+     * @param collapseInnerClasses <tt>true</tt> to collapse inner classes onto the outer class
+     * @param methodLevel          <tt>true</tt> to create method nodes and dependencies between methods, and to record
+     *                             line numbers; <tt>false</tt> to record dependencies between classes only
+     */
+    public DependencyMethodVisitor(DependencyGraph dependencyGraph, String fullClassName, String methodName, boolean collapseInnerClasses,
+                                   boolean methodLevel) {
         super(Opcodes.ASM7);
         this.dependencyGraph = dependencyGraph;
         this.className = AsmUtil.toClassName(fullClassName, collapseInnerClasses);
         this.methodName = methodName;
         this.collapseInnerClasses = collapseInnerClasses;
+        this.methodLevel = methodLevel;
+        this.lineNo = methodLevel ? 0 : AnalysisUtil.NO_LINE_NO;
 
         this.classNode = dependencyGraph.getOrCreateNodeByName(className);
         this.classNode.setProperty(TYPE, TYPE_CLASS);
 
         // create a node for the method, and add a CONTAINS relation from the owning class
-        this.methodNode = getMethodNode(fullClassName, methodName);
+        this.methodNode = methodLevel ? getMethodNode(fullClassName, methodName) : null;
     }
 
     @Override
@@ -97,7 +116,9 @@ public class DependencyMethodVisitor extends MethodVisitor {
         paramTypes.forEach(it -> addTypeDependency(it, DependencyType.REFERENCE));
 
         // add a dependency on method level
-        addMethodDependency(owner, name, dependencyType);
+        if (methodLevel) {
+            addMethodDependency(owner, name, dependencyType);
+        }
     }
 
     /**
@@ -175,7 +196,9 @@ public class DependencyMethodVisitor extends MethodVisitor {
 
     @Override
     public void visitLineNumber(int line, Label start) {
-        this.lineNo = line;
+        if (methodLevel) {
+            this.lineNo = line;
+        }
     }
 
 
@@ -194,8 +217,10 @@ public class DependencyMethodVisitor extends MethodVisitor {
             LOGGER.debug("Add dependency: {}#{} --[{}]--> {}", className, methodName, dependencyType, targetClassName);
             Node targetNode = dependencyGraph.getOrCreateNodeByName(targetClassName);
             targetNode.setProperty(TYPE, TYPE_CLASS);
-            dependencyGraph.addDependency(classNode, targetNode, dependencyType)
-                    .addListProperty(LINE_NO, lineNo);
+            Dependency dependency = dependencyGraph.addDependency(classNode, targetNode, dependencyType);
+            if (lineNo != AnalysisUtil.NO_LINE_NO) {
+                dependency.addIntSetProperty(LINE_NO, lineNo);
+            }
         }
     }
 
@@ -215,7 +240,7 @@ public class DependencyMethodVisitor extends MethodVisitor {
             Node targetMethodNode = getMethodNode(targetClassName, targetMethodName);
             LOGGER.debug("Add dependency: {} --[{}]--> {}", methodNode.getName(), dependencyType, targetMethodNode.getName());
             dependencyGraph.addDependency(methodNode, targetMethodNode, dependencyType)
-                    .addListProperty(LINE_NO, lineNo);
+                    .addIntSetProperty(LINE_NO, lineNo);
         }
     }
 
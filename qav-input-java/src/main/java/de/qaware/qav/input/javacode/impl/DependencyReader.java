@@ -15,17 +15,31 @@ public class DependencyReader {
 
     private final DependencyGraph dependencyGraph;
     private final boolean collapseInnerClasses;
+    private final InputMode inputMode;
 
     /**
-     * Constructor.
+     * Constructor. Uses {@link InputMode#FULL}.
      *
      * @param dependencyGraph      the graph to fill
      * @param collapseInnerClasses whether or not collapse inner classes.
      *                             True: Use the outer class; false means deal with the full name
      */
     public DependencyReader(DependencyGraph dependencyGraph, boolean collapseInnerClasses) {
+        this(dependencyGraph, collapseInnerClasses, InputMode.FULL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph      the graph to fill
+     * @param collapseInnerClasses whether or not collapse inner classes.
+     *                             True: Use the outer class; false means deal with the full name
+     * @param inputMode            how much of the classes to analyze
+     */
+    public DependencyReader(DependencyGraph dependencyGraph, boolean collapseInnerClasses, InputMode inputMode) {
         this.dependencyGraph = dependencyGraph;
         this.collapseInnerClasses = collapseInnerClasses;
+        this.inputMode = checkNotNull(inputMode, "inputMode");
     }
 
     /**
@@ -38,9 +52,9 @@ public class DependencyReader {
     public Node readDependencies(byte[] classAsBytes) {
         checkNotNull(classAsBytes, "Class could not be read");
 
-        DependencyClassVisitor visitor = new DependencyClassVisitor(dependencyGraph, collapseInnerClasses);
+        DependencyClassVisitor visitor = new DependencyClassVisitor(dependencyGraph, collapseInnerClasses, inputMode);
         ClassReader reader = new ClassReader(classAsBytes);
-        reader.accept(visitor, 0);
+        reader.accept(visitor, inputMode.getParsingOptions());
 
         return dependencyGraph.getNode(visitor.getClassName());
     }
@@ -26,18 +26,35 @@ public final class DependencyUtil {
     /**
      * checks if the given class name may be ignored. We're not interested in dependencies to <tt>java.lang.*</tt>
      * and to primitive (or boxed) types.
+     * <p>
+     * Usually, the class name was already cleaned by {@link AsmUtil#toClassName(String, boolean)}; then, this method
+     * does not allocate anything.
      *
      * @param className the class name.
      * @return true if the class may be ignored.
      */
-    @SuppressWarnings("squid:S4248") // wants to move the RegExes into constants; would not help readability here.
     public static boolean isIgnorable(String className) {
         if (className == null) {
             return true;
         }
 
-        String name = className.replaceAll("/", ".")
-                .replaceAll("\\[\\]", "");
+        String name = className.indexOf('/') < 0 && className.indexOf('[') < 0 ? className : normalize(className);
         return IGNORE_CLASSNAMES.contains(name) || name.startsWith("java.lang.");
     }
+
+    /**
+     * Replaces <tt>/</tt> by <tt>.</tt> and removes all <tt>[]</tt>.
+     */
+    private static String normalize(String className) {
+        StringBuilder sb = new StringBuilder(className.length());
+        for (int i = 0; i < className.length(); i++) {
+            char c = className.charAt(i);
+            if (c == '[' && i + 1 < className.length() && className.charAt(i + 1) == ']') {
+                i++;
+            } else {
+                sb.append(c == '/' ? '.' : c);
+            }
+        }
+        return sb.toString();
+    }
 }
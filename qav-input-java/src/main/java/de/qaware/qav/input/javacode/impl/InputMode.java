@@ -0,0 +1,70 @@
+package de.qaware.qav.input.javacode.impl;
+
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Defines how much of a class file is analyzed.
+ * <p>
+ * Stack map frames are never needed, so they are always skipped.
+ *
+ * @author QAware GmbH
+ */
+public enum InputMode {
+
+    /**
+     * Everything: dependencies on class level and on method level, with line numbers. The default.
+     */
+    FULL(ClassReader.SKIP_FRAMES),
+
+    /**
+     * Dependencies on class level only, as needed for architecture checks: no method nodes and no line numbers, so
+     * that there is exactly one dependency without further properties per pair of classes. Skips debug info.
+     */
+    CLASSES(ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG),
+
+    /**
+     * Like {@link #CLASSES}, but only analyzes the declarations: super classes and interfaces, field types, method
+     * signatures, and annotations. Skips the method bodies, so instructions like calls or field accesses are not
+     * found.
+     */
+    SIGNATURES(ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE);
+
+    private final int parsingOptions;
+
+    InputMode(int parsingOptions) {
+        this.parsingOptions = parsingOptions;
+    }
+
+    /**
+     * @return the options for {@link ClassReader#accept(org.objectweb.asm.ClassVisitor, int)}
+     */
+    public int getParsingOptions() {
+        return parsingOptions;
+    }
+
+    /**
+     * @return <tt>true</tt> if method nodes and line numbers are recorded
+     */
+    public boolean isMethodLevel() {
+        return this == FULL;
+    }
+
+    /**
+     * Parses the mode, ignoring case.
+     *
+     * @param value the name of the mode, e.g. <tt>"classes"</tt>; may be <tt>null</tt>
+     * @return the mode; {@link #FULL} if the value is <tt>null</tt> or empty
+     * @throws IllegalArgumentException if there is no mode with the given name
+     */
+    public static InputMode fromString(Object value) {
+        if (value == null || value.toString().isEmpty()) {
+            return FULL;
+        }
+        for (InputMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.toString())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown input mode: " + value);
+    }
+}
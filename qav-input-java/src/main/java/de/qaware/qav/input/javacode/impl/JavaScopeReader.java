@@ -3,6 +3,7 @@ package de.qaware.qav.input.javacode.impl;
 import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.Node;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
 import de.qaware.qav.util.FileNameUtil;
 import de.qaware.qav.util.FileSystemUtil;
 import de.qaware.qav.util.JarFileUtil;
@@ -11,7 +12,11 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Reads *.class files and their dependencies, and puts them into a {@link DependencyGraph}.
@@ -26,22 +31,64 @@ public class JavaScopeReader {
      */
     public static final String BASE_DIR_KEY = "baseDir";
 
-    private final DependencyReader dependencyReader;
+    /**
+     * Key in the parameter map to switch on parallel reading. Defaults to <tt>false</tt>.
+     */
+    public static final String PARALLEL_KEY = "parallel";
 
     /**
-     * Constructor.
+     * Key in the parameter map to find the directory of the {@link ClassCache}. Optional; if not given, no cache is
+     * used.
+     */
+    public static final String CACHE_DIR_KEY = "cacheDir";
+
+    /**
+     * Key in the parameter map to find the directory of the {@link ArtifactCache}. Optional; if not given, JAR files
+     * are always read class by class.
+     */
+    public static final String ARTIFACT_CACHE_DIR_KEY = "artifactCacheDir";
+
+    /**
+     * Key in the parameter map to find the {@link InputMode}, e.g. <tt>"classes"</tt>. Defaults to
+     * {@link InputMode#FULL}.
+     */
+    public static final String INPUT_MODE_KEY = "inputMode";
+
+    private final DependencyGraph dependencyGraph;
+    private final boolean collapseInnerClasses;
+    private final InputMode inputMode;
+
+    /**
+     * Constructor. Uses {@link InputMode#FULL}.
      *
      * @param dependencyGraph      the graph where to write the classes and their dependencies
      * @param collapseInnerClasses if true, collapses the dependencies of an inner class onto the outer class
      */
     public JavaScopeReader(DependencyGraph dependencyGraph, boolean collapseInnerClasses) {
-        this.dependencyReader = new DependencyReader(dependencyGraph, collapseInnerClasses);
+        this(dependencyGraph, collapseInnerClasses, InputMode.FULL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph      the graph where to write the classes and their dependencies
+     * @param collapseInnerClasses if true, collapses the dependencies of an inner class onto the outer class
+     * @param inputMode            how much of the classes to analyze
+     */
+    public JavaScopeReader(DependencyGraph dependencyGraph, boolean collapseInnerClasses, InputMode inputMode) {
+        this.dependencyGraph = dependencyGraph;
+        this.collapseInnerClasses = collapseInnerClasses;
+        this.inputMode = checkNotNull(inputMode, "inputMode");
     }
 
     /**
      * Read the files as defined by the parameters into the given graph.
      *
-     * @param parameters the parameters, Ant-style with baseDir (mandatory), and includes (optional) and excludes (optional)
+     * @param parameters the parameters, Ant-style with baseDir (mandatory), and includes (optional) and excludes (optional);
+     *                   with <tt>parallel: true</tt>, the classes are analyzed in parallel. The resulting graph is the
+     *                   same in both cases. With <tt>cacheDir</tt>, the results per class are cached in that directory.
+     *                   With <tt>artifactCacheDir</tt>, the results per JAR file are cached in that directory.
+     *                   The {@link InputMode} is given in the constructor, not here.
      */
     public void read(Map parameters) {
         String baseDirName = (String) parameters.get(BASE_DIR_KEY);
@@ -51,41 +98,190 @@ public class JavaScopeReader {
             File baseDir = new File(baseDirName);
             if (!baseDir.exists()) {
                 LOGGER.warn("baseDir {} missing - no files will be read!", baseDir.getAbsolutePath());
-            } else if (baseDir.isDirectory()) {
-                readDirectory(baseDir, parameters);
             } else {
-                readJarFile(baseDir, parameters);
+                ClassCache classCache = createClassCache(parameters);
+                ArtifactCache artifactCache = createArtifactCache(parameters);
+                Function<byte[], ClassGraph> classReader = classCache == null
+                        ? null
+                        : classAsBytes -> classCache.get(classAsBytes, this::readClassGraph);
+
+                readFiles(dependencyGraph, baseDir, parameters, classReader, artifactCache);
+
+                if (classCache != null) {
+                    classCache.logStatistics();
+                }
+                if (artifactCache != null) {
+                    artifactCache.logStatistics();
+                }
+            }
+        }
+    }
+
+    private ClassCache createClassCache(Map parameters) {
+        String cacheDirName = getString(parameters, CACHE_DIR_KEY);
+        if (StringUtils.isEmpty(cacheDirName)) {
+            return null;
+        }
+        return new ClassCache(new File(cacheDirName), getVariant());
+    }
+
+    private ArtifactCache createArtifactCache(Map parameters) {
+        String cacheDirName = getString(parameters, ARTIFACT_CACHE_DIR_KEY);
+        if (StringUtils.isEmpty(cacheDirName)) {
+            return null;
+        }
+        String settings = getVariant()
+                + ";includes=" + parameters.get("includes")
+                + ";excludes=" + parameters.get("excludes");
+        return new ArtifactCache(new File(cacheDirName), settings);
+    }
+
+    private String getVariant() {
+        String variant = collapseInnerClasses ? "collapsed" : "full";
+        return inputMode == InputMode.FULL ? variant : variant + "-" + inputMode.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String getString(Map parameters, String key) {
+        Object value = parameters.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    private static boolean isParallel(Map parameters) {
+        return Boolean.parseBoolean(String.valueOf(parameters.get(PARALLEL_KEY)));
+    }
+
+    /**
+     * Reads the given directory or JAR file into the given graph.
+     *
+     * @param targetGraph   the graph to fill
+     * @param baseDir       the directory or JAR file
+     * @param parameters    the parameters
+     * @param classReader   reads a single class, using the {@link ClassCache}; <tt>null</tt> if there is no cache
+     * @param artifactCache the {@link ArtifactCache}; <tt>null</tt> if there is no cache
+     */
+    private void readFiles(DependencyGraph targetGraph, File baseDir, Map parameters,
+                           Function<byte[], ClassGraph> classReader, ArtifactCache artifactCache) {
+        ClassSink classSink = createClassSink(targetGraph, parameters, classReader);
+        try {
+            if (baseDir.isDirectory()) {
+                readDirectory(targetGraph, baseDir, parameters, classSink, classReader, artifactCache);
+            } else {
+                readJarFile(targetGraph, baseDir, parameters, classSink, classReader, artifactCache);
             }
+            classSink.flush();
+        } finally {
+            classSink.close();
         }
     }
 
-    private void readDirectory(File baseDir, Map parameters) {
+    private void readDirectory(DependencyGraph targetGraph, File baseDir, Map parameters, ClassSink classSink,
+                               Function<byte[], ClassGraph> classReader, ArtifactCache artifactCache) {
         List<File> classFiles = FileNameUtil.identifyFiles(parameters);
         LOGGER.info("inputDir {}: Files to read: {}", baseDir.getAbsolutePath(), classFiles.size());
 
         classFiles.forEach(f -> {
             LOGGER.debug(f.getAbsolutePath());
             if (JarFileUtil.isJarEntry(f.getName())) {
-                readJarFile(f, parameters);
+                readJarFile(targetGraph, f, parameters, classSink, classReader, artifactCache);
             } else {
                 byte[] classAsBytes = FileSystemUtil.readBytesFromFile(f.getAbsolutePath());
-                readClass(classAsBytes);
+                classSink.accept(classAsBytes);
             }
         });
     }
 
-    private void readJarFile(File baseDir, Map parameters) {
-        JarFileUtil.readJarFile(baseDir, parameters, (name, content) -> readClass(content));
+    /**
+     * Reads the given JAR file. With an {@link ArtifactCache}, the JAR file is read into a graph of its own, which is
+     * cached and then merged into the target graph.
+     */
+    private void readJarFile(DependencyGraph targetGraph, File jarFile, Map parameters, ClassSink classSink,
+                             Function<byte[], ClassGraph> classReader, ArtifactCache artifactCache) {
+        if (artifactCache == null) {
+            JarFileUtil.readJarFile(jarFile, parameters, (name, content) -> classSink.accept(content));
+        } else {
+            // keep the order of the classes: everything before the JAR file must be in the graph already
+            classSink.flush();
+            DependencyGraph jarGraph = artifactCache.get(jarFile, () -> {
+                DependencyGraph result = DependencyGraphFactory.createGraph();
+                readFiles(result, jarFile, parameters, classReader, null);
+                return result;
+            });
+            DependencyGraphMerger.merge(jarGraph, targetGraph);
+        }
+    }
+
+    /**
+     * Creates the {@link ClassSink} which puts the classes into the given graph, depending on the settings.
+     */
+    private ClassSink createClassSink(DependencyGraph targetGraph, Map parameters, Function<byte[], ClassGraph> classReader) {
+        if (isParallel(parameters)) {
+            ParallelDependencyReader parallelReader = new ParallelDependencyReader(targetGraph,
+                    classReader == null ? this::readClassGraph : classReader, JavaScopeReader::markAsInput);
+            return new ClassSink() {
+                @Override
+                public void accept(byte[] classAsBytes) {
+                    parallelReader.submit(classAsBytes);
+                }
+
+                @Override
+                public void flush() {
+                    parallelReader.flush();
+                }
+
+                @Override
+                public void close() {
+                    parallelReader.shutdown();
+                }
+            };
+        } else if (classReader != null) {
+            return classAsBytes -> mergeClass(targetGraph, classReader.apply(classAsBytes));
+        } else {
+            DependencyReader dependencyReader = new DependencyReader(targetGraph, collapseInnerClasses, inputMode);
+            return classAsBytes -> markAsInput(dependencyReader.readDependencies(classAsBytes));
+        }
+    }
+
+    private ClassGraph readClassGraph(byte[] classAsBytes) {
+        return ClassGraph.read(classAsBytes, collapseInnerClasses, inputMode);
     }
 
     /**
-     * read the class and put a tag on the node to mark it as "INPUT".
+     * merge the class into the graph and put a tag on the node to mark it as "INPUT".
      *
-     * @param classAsBytes     the class, as byte array
+     * @param targetGraph the graph to merge into
+     * @param classGraph  the class, read into a graph of its own
      */
-    private void readClass(byte[] classAsBytes) {
-        Node node = dependencyReader.readDependencies(classAsBytes);
+    private static void mergeClass(DependencyGraph targetGraph, ClassGraph classGraph) {
+        DependencyGraphMerger.merge(classGraph.getDependencyGraph(), targetGraph);
+        markAsInput(targetGraph.getNode(classGraph.getClassName()));
+    }
+
+    private static void markAsInput(Node node) {
         node.setProperty(Constants.SCOPE, "input");
     }
 
+    /**
+     * Receives the classes which are read, and puts them into a graph.
+     */
+    private interface ClassSink {
+
+        /**
+         * Reads the given class into the graph, now or later.
+         *
+         * @param classAsBytes the class content, as byte array
+         */
+        void accept(byte[] classAsBytes);
+
+        /**
+         * Makes sure that all classes accepted so far are in the graph.
+         */
+        default void flush() {
+        }
+
+        /**
+         * Releases all resources. Classes which are not flushed yet are discarded.
+         */
+        default void close() {
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package de.qaware.qav.input.javacode.impl;
+
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.api.Node;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads dependencies from .class files in parallel.
+ * <p>
+ * The ASM analysis of each class runs on a {@link ForkJoinPool} and writes into a {@link ClassGraph} of its own.
+ * The calling thread merges these graphs into the target graph in the order in which the classes were submitted.
+ * Therefore, the result is exactly the same as if the classes were read one after the other with a
+ * {@link DependencyReader}.
+ * <p>
+ * Only a bounded number of classes is pending at any time, so that the memory usage does not depend on the number of
+ * classes to read.
+ * <p>
+ * Instances are not thread safe: {@link #submit(byte[])}, {@link #flush()} and {@link #finish()} must be called from
+ * the same thread.
+ *
+ * @author QAware GmbH
+ */
+@Slf4j
+public class ParallelDependencyReader {
+
+    /**
+     * number of pending classes per worker thread.
+     */
+    private static final int PENDING_PER_THREAD = 64;
+
+    private final DependencyGraph dependencyGraph;
+    private final Function<byte[], ClassGraph> classReader;
+    private final Consumer<Node> classNodeHandler;
+
+    private final ForkJoinPool pool;
+    private final int maxPending;
+    private final Deque<ForkJoinTask<ClassGraph>> pending = new ArrayDeque<>();
+
+    /**
+     * Constructor. Uses one worker thread per available processor.
+     *
+     * @param dependencyGraph  the graph to fill
+     * @param classReader      reads a single class into a {@link ClassGraph}; called on the worker threads
+     * @param classNodeHandler called with the node of each class after its dependencies were merged into the graph;
+     *                         called in the order of submission, on the thread which submits the classes
+     */
+    public ParallelDependencyReader(DependencyGraph dependencyGraph, Function<byte[], ClassGraph> classReader, Consumer<Node> classNodeHandler) {
+        this(dependencyGraph, classReader, classNodeHandler, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dependencyGraph  the graph to fill
+     * @param classReader      reads a single class into a {@link ClassGraph}; called on the worker threads
+     * @param classNodeHandler called with the node of each class after its dependencies were merged into the graph;
+     *                         called in the order of submission, on the thread which submits the classes
+     * @param parallelism      the number of worker threads
+     */
+    public ParallelDependencyReader(DependencyGraph dependencyGraph, Function<byte[], ClassGraph> classReader, Consumer<Node> classNodeHandler,
+                                    int parallelism) {
+        this.dependencyGraph = checkNotNull(dependencyGraph, "dependencyGraph");
+        this.classReader = checkNotNull(classReader, "classReader");
+        this.classNodeHandler = checkNotNull(classNodeHandler, "classNodeHandler");
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxPending = parallelism * PENDING_PER_THREAD;
+    }
+
+    /**
+     * Schedules the given class for reading. Merges the results of earlier classes if too many are pending.
+     *
+     * @param classAsBytes the class content, as byte array
+     * @throws IllegalStateException if {@link #finish()} was already called
+     */
+    public void submit(byte[] classAsBytes) {
+        checkNotNull(classAsBytes, "Class could not be read");
+        if (pool.isShutdown()) {
+            throw new IllegalStateException("Reader is already finished");
+        }
+
+        pending.addLast(pool.submit(() -> classReader.apply(classAsBytes)));
+        while (pending.size() > maxPending) {
+            mergeNext();
+        }
+    }
+
+    /**
+     * Waits for all pending classes and merges them into the graph. More classes may be submitted afterwards.
+     */
+    public void flush() {
+        while (!pending.isEmpty()) {
+            mergeNext();
+        }
+    }
+
+    /**
+     * Waits for all pending classes, merges them into the graph, and stops the worker threads.
+     */
+    public void finish() {
+        try {
+            flush();
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Stops the worker threads. Classes which are still pending are discarded.
+     * <p>
+     * Use this in a <tt>finally</tt> block to clean up if reading fails.
+     */
+    public void shutdown() {
+        pending.forEach(task -> task.cancel(true));
+        pending.clear();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Runs on the calling thread: wait for the oldest pending class and merge it.
+     */
+    private void mergeNext() {
+        ClassGraph classGraph = pending.removeFirst().join();
+        DependencyGraphMerger.merge(classGraph.getDependencyGraph(), dependencyGraph);
+        classNodeHandler.accept(dependencyGraph.getNode(classGraph.getClassName()));
+        LOGGER.debug("Merged class {}", classGraph.getClassName());
+    }
+}
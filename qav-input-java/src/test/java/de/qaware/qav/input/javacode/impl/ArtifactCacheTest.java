@@ -0,0 +1,112 @@
+package de.qaware.qav.input.javacode.impl;
+
+import de.qaware.qav.graph.api.DependencyGraph;
+import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.io.GraphReaderWriter;
+import de.qaware.qav.util.FileSystemUtil;
+import de.qaware.qav.util.JarFileUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ArtifactCache}.
+ *
+ * @author QAware GmbH
+ */
+public class ArtifactCacheTest {
+
+    private static final String CACHE_DIR = "build/test-output/artifact-cache";
+    private static final String JAR_FILE = "build/test-output/artifact-cache-input/inner.jar";
+
+    private AtomicInteger readerCalls;
+
+    @Before
+    public void setup() throws IOException {
+        FileSystemUtil.deleteDirectoryQuietly(CACHE_DIR);
+        JavaScopeReaderTest.writeJarFile("inner", JAR_FILE);
+        readerCalls = new AtomicInteger();
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        ArtifactCache artifactCache = new ArtifactCache(new File(CACHE_DIR), "collapsed");
+
+        DependencyGraph first = artifactCache.get(new File(JAR_FILE), this::read);
+        DependencyGraph second = artifactCache.get(new File(JAR_FILE), this::read);
+
+        assertThat(readerCalls.get(), is(1));
+        assertThat(artifactCache.getMisses(), is(1));
+        assertThat(artifactCache.getHits(), is(1));
+        assertThat(second.getNode("de.qaware.qav.test.inner.MyInner"), notNullValue());
+        assertSameGraph(first, second);
+
+        // a new cache instance finds the entry on disk:
+        ArtifactCache newArtifactCache = new ArtifactCache(new File(CACHE_DIR), "collapsed");
+        newArtifactCache.get(new File(JAR_FILE), this::read);
+        assertThat(readerCalls.get(), is(1));
+        assertThat(newArtifactCache.getHits(), is(1));
+    }
+
+    @Test
+    public void testSettingsArePartOfTheKey() {
+        new ArtifactCache(new File(CACHE_DIR), "collapsed").get(new File(JAR_FILE), this::read);
+        ArtifactCache artifactCache = new ArtifactCache(new File(CACHE_DIR), "full");
+        artifactCache.get(new File(JAR_FILE), this::read);
+
+        assertThat(readerCalls.get(), is(2));
+        assertThat(artifactCache.getMisses(), is(1));
+    }
+
+    @Test
+    public void testChangedJarFileIsRead() throws IOException {
+        ArtifactCache artifactCache = new ArtifactCache(new File(CACHE_DIR), "collapsed");
+        artifactCache.get(new File(JAR_FILE), this::read);
+
+        JavaScopeReaderTest.writeJarFile("inheritance", JAR_FILE);
+        DependencyGraph dependencyGraph = artifactCache.get(new File(JAR_FILE), this::read);
+
+        assertThat(readerCalls.get(), is(2));
+        assertThat(artifactCache.getMisses(), is(2));
+        assertThat(dependencyGraph.getNode("de.qaware.qav.test.inheritance.A"), notNullValue());
+    }
+
+    @Test
+    public void testInvalidEntryIsIgnored() {
+        ArtifactCache artifactCache = new ArtifactCache(new File(CACHE_DIR), "collapsed");
+        artifactCache.get(new File(JAR_FILE), this::read);
+
+        File[] hashDirs = new File(CACHE_DIR).listFiles();
+        assertThat(hashDirs.length, is(1));
+        File[] entries = hashDirs[0].listFiles();
+        assertThat(entries.length, is(1));
+        FileSystemUtil.writeStringToFile("garbage", entries[0].getAbsolutePath());
+
+        DependencyGraph dependencyGraph = artifactCache.get(new File(JAR_FILE), this::read);
+        assertThat(readerCalls.get(), is(2));
+        assertThat(artifactCache.getMisses(), is(2));
+        assertThat(dependencyGraph.getNode("de.qaware.qav.test.inner.MyInner"), notNullValue());
+    }
+
+    private DependencyGraph read() {
+        readerCalls.incrementAndGet();
+        DependencyGraph dependencyGraph = DependencyGraphFactory.createGraph();
+        DependencyReader dependencyReader = new DependencyReader(dependencyGraph, true);
+        JarFileUtil.readJarFile(new File(JAR_FILE), null, (name, content) -> dependencyReader.readDependencies(content));
+        return dependencyGraph;
+    }
+
+    private void assertSameGraph(DependencyGraph expected, DependencyGraph actual) {
+        GraphReaderWriter.write(expected, "build/test-output/artifact-cache-expected.json");
+        GraphReaderWriter.write(actual, "build/test-output/artifact-cache-actual.json");
+        assertThat(FileSystemUtil.readFileAsText("build/test-output/artifact-cache-actual.json"),
+                is(FileSystemUtil.readFileAsText("build/test-output/artifact-cache-expected.json")));
+    }
+}
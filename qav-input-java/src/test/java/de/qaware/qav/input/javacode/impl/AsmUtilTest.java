@@ -2,6 +2,8 @@ package de.qaware.qav.input.javacode.impl;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
@@ -30,4 +32,26 @@ public class AsmUtilTest {
         assertThat(AsmUtil.toClassName("java.util.List$Entry", false), is("java.util.List$Entry"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testArrayDescriptors() {
+        assertThat(AsmUtil.toClassName("[I", true), is("I"));
+        assertThat(AsmUtil.toClassName("[[Lde/qaware/qav/A$B;", false), is("de.qaware.qav.A$B"));
+        assertThat(AsmUtil.toClassName("de.qaware.qav.A[][]", true), is("de.qaware.qav.A"));
+    }
+
+    @Test
+    public void testLeadingLOnlyStrippedFromDescriptors() {
+        assertThat(AsmUtil.toClassName("Lib", true), is("Lib"));
+        assertThat(AsmUtil.toClassName("Lib$Inner", true), is("Lib"));
+        assertThat(AsmUtil.toClassName("LLib;", true), is("Lib"));
+    }
+
+    @Test
+    public void testGetParameterTypeNames() {
+        assertThat(AsmUtil.getParameterTypeNames("()V", true).isEmpty(), is(true));
+        assertThat(AsmUtil.getParameterTypeNames("(I[JLjava/lang/String;[[Lde/qaware/qav/A$1;)V", true),
+                is(Arrays.asList("int", "long", "java.lang.String", "de.qaware.qav.A")));
+        assertThat(AsmUtil.getParameterTypeNames("(I[JLjava/lang/String;[[Lde/qaware/qav/A$1;)V", false),
+                is(Arrays.asList("int", "long", "java.lang.String", "de.qaware.qav.A$1")));
+    }
+}
@@ -0,0 +1,93 @@
+package de.qaware.qav.input.javacode.impl;
+
+import de.qaware.qav.graph.io.GraphReaderWriter;
+import de.qaware.qav.util.FileSystemUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.qaware.qav.input.javacode.impl.JavaScopeReaderTest.TEST_CLASSES_ROOT;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ClassCache}.
+ *
+ * @author QAware GmbH
+ */
+public class ClassCacheTest {
+
+    private static final String CACHE_DIR = "build/test-output/class-cache";
+    private static final String CLASS_FILE = TEST_CLASSES_ROOT + "/de/qaware/qav/test/inner/MyInner.class";
+
+    private byte[] classAsBytes;
+    private AtomicInteger readerCalls;
+
+    @Before
+    public void setup() {
+        FileSystemUtil.deleteDirectoryQuietly(CACHE_DIR);
+        classAsBytes = FileSystemUtil.readBytesFromFile(CLASS_FILE);
+        readerCalls = new AtomicInteger();
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        ClassCache classCache = new ClassCache(new File(CACHE_DIR), "collapsed");
+
+        ClassGraph first = classCache.get(classAsBytes, this::read);
+        ClassGraph second = classCache.get(classAsBytes, this::read);
+
+        assertThat(readerCalls.get(), is(1));
+        assertThat(classCache.getMisses(), is(1));
+        assertThat(classCache.getHits(), is(1));
+        assertThat(second.getClassName(), is(first.getClassName()));
+        assertSameGraph(first, second);
+
+        // a new cache instance finds the entry on disk:
+        ClassCache newClassCache = new ClassCache(new File(CACHE_DIR), "collapsed");
+        newClassCache.get(classAsBytes, this::read);
+        assertThat(readerCalls.get(), is(1));
+        assertThat(newClassCache.getHits(), is(1));
+    }
+
+    @Test
+    public void testVariantIsPartOfTheKey() {
+        new ClassCache(new File(CACHE_DIR), "collapsed").get(classAsBytes, this::read);
+        ClassCache classCache = new ClassCache(new File(CACHE_DIR), "full");
+        classCache.get(classAsBytes, this::read);
+
+        assertThat(readerCalls.get(), is(2));
+        assertThat(classCache.getMisses(), is(1));
+    }
+
+    @Test
+    public void testInvalidEntryIsIgnored() {
+        ClassCache classCache = new ClassCache(new File(CACHE_DIR), "collapsed");
+        classCache.get(classAsBytes, this::read);
+
+        File[] hashDirs = new File(CACHE_DIR).listFiles();
+        assertThat(hashDirs.length, is(1));
+        File[] entries = hashDirs[0].listFiles();
+        assertThat(entries.length, is(1));
+        FileSystemUtil.writeStringToFile("garbage", entries[0].getAbsolutePath());
+
+        ClassGraph classGraph = classCache.get(classAsBytes, this::read);
+        assertThat(readerCalls.get(), is(2));
+        assertThat(classCache.getMisses(), is(2));
+        assertThat(classGraph.getClassName(), is("de.qaware.qav.test.inner.MyInner"));
+    }
+
+    private ClassGraph read(byte[] bytes) {
+        readerCalls.incrementAndGet();
+        return ClassGraph.read(bytes, true);
+    }
+
+    private void assertSameGraph(ClassGraph expected, ClassGraph actual) {
+        GraphReaderWriter.write(expected.getDependencyGraph(), "build/test-output/class-cache-expected.json");
+        GraphReaderWriter.write(actual.getDependencyGraph(), "build/test-output/class-cache-actual.json");
+        assertThat(FileSystemUtil.readFileAsText("build/test-output/class-cache-actual.json"),
+                is(FileSystemUtil.readFileAsText("build/test-output/class-cache-expected.json")));
+    }
+}
@@ -9,6 +9,7 @@ import de.qaware.qav.graph.api.DependencyGraph;
 import de.qaware.qav.graph.api.DependencyType;
 import de.qaware.qav.graph.api.Node;
 import de.qaware.qav.graph.factory.DependencyGraphFactory;
+import de.qaware.qav.graph.io.GraphReaderWriter;
 import de.qaware.qav.test.annotations.MyAnnotations;
 import de.qaware.qav.test.exceptions.MyClass;
 import de.qaware.qav.test.fields.MyField;
@@ -20,14 +21,27 @@ import de.qaware.qav.test.instructions.MyInstructions;
 import de.qaware.qav.test.methods.MyMethods;
 import de.qaware.qav.test.primitives.MyPrimitives;
 import de.qaware.qav.test.reference.MyReference;
+import de.qaware.qav.util.FileSystemUtil;
 import de.qaware.qav.visualization.api.GraphExporter;
 import de.qaware.qav.visualization.model.Abbreviation;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.qaware.qav.graph.api.Constants.LINE_NO;
+import static de.qaware.qav.graph.api.Constants.TYPE;
+import static de.qaware.qav.graph.api.Constants.TYPE_METHOD;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -287,6 +301,89 @@ public class JavaScopeReaderTest {
         assertRelation(c, a, DependencyType.REFERENCE);
     }
 
+    @Test
+    public void testParallelReadIsSameAsSerialRead() throws IOException {
+        DependencyGraph serialGraph = readTestClasses(false, null);
+        DependencyGraph parallelGraph = readTestClasses(true, null);
+
+        assertThat(parallelGraph.getAllNodes().size(), is(serialGraph.getAllNodes().size()));
+        assertThat(parallelGraph.getAllEdges().size(), is(serialGraph.getAllEdges().size()));
+        assertSameGraph(serialGraph, parallelGraph);
+    }
+
+    @Test
+    public void testCachedReadIsSameAsUncachedRead() throws IOException {
+        String cacheDir = BUILD_TEST_OUTPUT_DIR + "/class-cache-reader";
+        FileSystemUtil.deleteDirectoryQuietly(cacheDir);
+
+        DependencyGraph uncachedGraph = readTestClasses(false, null);
+        DependencyGraph fillingGraph = readTestClasses(false, cacheDir);
+        DependencyGraph cachedGraph = readTestClasses(false, cacheDir);
+        DependencyGraph parallelCachedGraph = readTestClasses(true, cacheDir);
+
+        assertSameGraph(uncachedGraph, fillingGraph);
+        assertSameGraph(uncachedGraph, cachedGraph);
+        assertSameGraph(uncachedGraph, parallelCachedGraph);
+    }
+
+    @Test
+    public void testArtifactCachedReadIsSameAsUncachedRead() throws IOException {
+        String inputDir = BUILD_TEST_OUTPUT_DIR + "/artifact-input";
+        String cacheDir = BUILD_TEST_OUTPUT_DIR + "/artifact-cache-reader";
+        FileSystemUtil.deleteDirectoryQuietly(inputDir);
+        FileSystemUtil.deleteDirectoryQuietly(cacheDir);
+        writeJarFile("inheritance", inputDir + "/a.jar");
+        writeJarFile("inner", inputDir + "/b.jar");
+        writeJarFile("methods", inputDir + "/c.jar");
+
+        DependencyGraph uncachedGraph = readJarFiles(inputDir, false, null);
+        DependencyGraph fillingGraph = readJarFiles(inputDir, false, cacheDir);
+        DependencyGraph cachedGraph = readJarFiles(inputDir, false, cacheDir);
+        DependencyGraph parallelCachedGraph = readJarFiles(inputDir, true, cacheDir);
+
+        assertThat(uncachedGraph.getNode("de.qaware.qav.test.inner.MyInner$Inner"), notNullValue());
+        assertSameGraph(uncachedGraph, fillingGraph);
+        assertSameGraph(uncachedGraph, cachedGraph);
+        assertSameGraph(uncachedGraph, parallelCachedGraph);
+    }
+
+    @Test
+    public void testClassesModeFindsSameClassDependencies() {
+        DependencyGraph fullGraph = readTestClasses(InputMode.FULL);
+        DependencyGraph classesGraph = readTestClasses(InputMode.CLASSES);
+
+        assertThat(classesGraph.getAllNodes().stream().filter(node -> TYPE_METHOD.equals(node.getProperty(TYPE))).count(), is(0L));
+        assertThat(classesGraph.getAllEdges().stream().filter(edge -> edge.getProperty(LINE_NO) != null).count(), is(0L));
+        assertThat(classesGraph.getAllEdges().stream().filter(edge -> edge.getDependencyType() == DependencyType.CONTAINS).count(), is(0L));
+
+        List<String> expected = fullGraph.getAllEdges().stream()
+                .filter(edge -> edge.getDependencyType() != DependencyType.CONTAINS)
+                .filter(edge -> !TYPE_METHOD.equals(edge.getSource().getProperty(TYPE)))
+                .map(Dependency::toString)
+                .sorted()
+                .collect(Collectors.toList());
+        List<String> actual = classesGraph.getAllEdges().stream().map(Dependency::toString).sorted().collect(Collectors.toList());
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void testSignaturesModeSkipsMethodBodies() {
+        dependencyGraph = readTestClasses(InputMode.SIGNATURES);
+
+        Node my = getNode("de.qaware.qav.test.instructions.MyInstructions");
+        Node a = getNode("de.qaware.qav.test.instructions.A");
+        Node b = getNode("de.qaware.qav.test.instructions.B");
+        Node c = getNode("de.qaware.qav.test.instructions.C");
+        assertRelation(my, a, DependencyType.REFERENCE); // method parameter
+        assertNoRelation(my, b); // instanceof in a method body
+        assertNoRelation(my, c); // constructor call in a method body
+        assertRelation(b, a, DependencyType.INHERIT);
+
+        Node myAnnotations = getNode("de.qaware.qav.test.annotations.MyAnnotations");
+        Node annotationA = getNode("de.qaware.qav.test.annotations.A");
+        assertRelation(myAnnotations, annotationA, DependencyType.ANNOTATED_BY);
+    }
+
     @Test
     public void testWrongInputDir() {
         dependencyGraph = DependencyGraphFactory.createGraph();
@@ -322,6 +419,73 @@ public class JavaScopeReaderTest {
         return dependencyGraph;
     }
 
+    private DependencyGraph readTestClasses(boolean parallel, String cacheDir) {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Map<String, Object> parameters = Maps.newHashMap();
+        parameters.put("baseDir", TEST_CLASSES_ROOT + "/de/qaware/qav/test");
+        parameters.put(JavaScopeReader.PARALLEL_KEY, parallel);
+        parameters.put(JavaScopeReader.CACHE_DIR_KEY, cacheDir);
+        new JavaScopeReader(graph, false).read(parameters);
+        return graph;
+    }
+
+    private DependencyGraph readTestClasses(InputMode inputMode) {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Map<String, Object> parameters = Maps.newHashMap();
+        parameters.put("baseDir", TEST_CLASSES_ROOT + "/de/qaware/qav/test");
+        new JavaScopeReader(graph, true, inputMode).read(parameters);
+        return graph;
+    }
+
+    private DependencyGraph readJarFiles(String baseDir, boolean parallel, String artifactCacheDir) {
+        DependencyGraph graph = DependencyGraphFactory.createGraph();
+        Map<String, Object> parameters = Maps.newHashMap();
+        parameters.put("baseDir", baseDir);
+        parameters.put(JavaScopeReader.PARALLEL_KEY, parallel);
+        parameters.put(JavaScopeReader.ARTIFACT_CACHE_DIR_KEY, artifactCacheDir);
+        new JavaScopeReader(graph, false).read(parameters);
+        return graph;
+    }
+
+    /**
+     * Packs the test classes of the given package into a JAR file.
+     *
+     * @param packageName the last part of the package name, below <tt>de.qaware.qav.test</tt>
+     * @param jarFileName the JAR file to write
+     */
+    static void writeJarFile(String packageName, String jarFileName) throws IOException {
+        Path root = Paths.get(TEST_CLASSES_ROOT);
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(root.resolve("de/qaware/qav/test/" + packageName))) {
+            classFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        Files.createDirectories(Paths.get(jarFileName).getParent());
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(Paths.get(jarFileName)))) {
+            for (Path classFile : classFiles) {
+                out.putNextEntry(new JarEntry(root.relativize(classFile).toString().replace('\\', '/')));
+                out.write(Files.readAllBytes(classFile));
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void assertSameGraph(DependencyGraph expected, DependencyGraph actual) throws IOException {
+        assertThat(toNames(actual), is(toNames(expected)));
+
+        new File(BUILD_TEST_OUTPUT_DIR).mkdirs();
+        String expectedFile = BUILD_TEST_OUTPUT_DIR + "/expected.json";
+        String actualFile = BUILD_TEST_OUTPUT_DIR + "/actual.json";
+        GraphReaderWriter.write(expected, expectedFile);
+        GraphReaderWriter.write(actual, actualFile);
+        assertThat(Files.readAllBytes(Paths.get(actualFile)), is(Files.readAllBytes(Paths.get(expectedFile))));
+    }
+
+    private static String toNames(DependencyGraph graph) {
+        return graph.getAllNodes().stream().map(Node::getName).collect(Collectors.joining(","))
+                + graph.getAllEdges().stream().map(Dependency::toString).collect(Collectors.joining(","));
+    }
+
     private Node getNode(String name) {
         Node result = dependencyGraph.getNode(name);
         assertThat("Node " + name + " not in the graph", result, notNullValue());
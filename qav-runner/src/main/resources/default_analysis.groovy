@@ -14,5 +14,6 @@ analysis("Step 1: Analyze Package Architecture") {
     writeGraphLegend()
 
     printNodes(packageCycleGraph, "packageCycleNodes.txt")
+    writeCycleBreakers(packageGraph, "packageCycleBreakers.txt")
     writeFile(dependencyGraph, "dependencyGraph.json")
 }
@@ -1,7 +1,6 @@
 package de.qaware.qav.visualization.impl;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import de.qaware.qav.architecture.dsl.model.Architecture;
 import de.qaware.qav.graph.api.Constants;
 import de.qaware.qav.graph.api.Dependency;
@@ -22,7 +21,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 
 /**
@@ -135,16 +133,17 @@ public class DotExporter {
         clusterST.setAttribute(URL_ATT, DotExportStyles.getNodeUrl(node.getName()));
 
         // only draw API node if it is used explicitly:
-        Set<Dependency> relevantEdges = Sets.newHashSet();
-        relevantEdges.addAll(dependencyGraph.getIncomingEdges(node));
-        relevantEdges.addAll(dependencyGraph.getOutgoingEdges(node));
-        relevantEdges.removeAll(dependencyGraph.getIncomingEdges(node, DependencyType.CONTAINS));
-        relevantEdges.removeAll(dependencyGraph.getOutgoingEdges(node, DependencyType.CONTAINS));
-        clusterST.setAttribute("setAPINode", !relevantEdges.isEmpty());
+        boolean hasRelevantEdges = dependencyGraph.getIncomingEdges(node).stream().anyMatch(DotExporter::isNotContains)
+                || dependencyGraph.getOutgoingEdges(node).stream().anyMatch(DotExporter::isNotContains);
+        clusterST.setAttribute("setAPINode", hasRelevantEdges);
 
         return clusterST;
     }
 
+    private static boolean isNotContains(Dependency dependency) {
+        return dependency.getDependencyType() != DependencyType.CONTAINS;
+    }
+
     // === Nodes ===
 
     private void writeNodes() {
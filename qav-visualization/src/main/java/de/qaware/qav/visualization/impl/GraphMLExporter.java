@@ -19,7 +19,6 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Export the given {@link DependencyGraph} into a GraphML file.
@@ -155,11 +154,13 @@ public class GraphMLExporter {
 
     private List<Node> getChildren(String componentName) {
         Node node = dependencyGraph.getNode(componentName);
-        Set<Dependency> outgoingEdges = dependencyGraph.getOutgoingEdges(node, DependencyType.CONTAINS);
-        return outgoingEdges.stream()
-                .map(Dependency::getTarget)
-                .filter(n -> !"architecture".equals(n.getProperty(Constants.TYPE)))
-                .collect(Collectors.toList());
+        List<Node> result = new ArrayList<>();
+        dependencyGraph.forEachOutgoingEdge(node, DependencyType.CONTAINS, dep -> {
+            if (!"architecture".equals(dep.getTarget().getProperty(Constants.TYPE))) {
+                result.add(dep.getTarget());
+            }
+        });
+        return result;
     }
 
     // === Nodes ===
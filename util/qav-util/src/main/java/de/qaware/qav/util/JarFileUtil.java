@@ -4,30 +4,36 @@ import com.google.common.io.ByteStreams;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.util.Enumeration;
 import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Work with JAR files: Find class files and nested JAR files.
  * <p>
- * This class writes nested JAR files as temporary files, as the {@link JarFile} class does not support nested jars.
- * Deletes them after reading. Therefore, we need access to the "temp" directory, but this class will clean up and not
- * leave any files on disk.
- * <p>
- * Alternatives like the Spring Boot JarFile class can't work with compressed nested JARs.
+ * The outermost JAR file is opened as {@link JarFile}. Nested JAR files are streamed with a {@link ZipInputStream}
+ * directly from the entry of the enclosing archive, so nothing is written to disk, however deep the nesting is. Only
+ * the bytes of the class file which is currently handled are held in memory; each nesting level adds nothing but
+ * the (small, fixed-size) buffers of its {@link ZipInputStream}.
  *
  * @author QAware GmbH
  */
 @Slf4j
 public final class JarFileUtil {
 
+    /**
+     * Separator between the name of an archive and the name of an entry within that archive, as used for logging.
+     */
+    private static final String NESTED_SEPARATOR = "!/";
+
     /**
      * util class, no instances.
      */
@@ -49,8 +55,8 @@ public final class JarFileUtil {
         checkNotNull(base, "Jar file must be given");
         LOGGER.info("Reading JAR file: {}", FileNameUtil.getCanonicalPath(base.getAbsolutePath()));
 
-        try {
-            readJarFile(new JarFile(base), parameters, classHandler);
+        try (JarFile jarFile = new JarFile(base)) {
+            readJarFile(jarFile, parameters, classHandler);
         } catch (IOException e) {
             LOGGER.error("Error reading jar file: {}: {}", FileNameUtil.getCanonicalPath(base.getAbsolutePath()), e.getMessage());
         }
@@ -62,12 +68,9 @@ public final class JarFileUtil {
      * @param jarFile      the {@link JarFile}
      * @param parameters   the parameters map. Has one entry for "includes" and one for "excludes" patterns.
      * @param classHandler the {@link ClassHandler} which will handle the class files.
-     * @throws IOException if any IO doesn't work: writing or deleting temp dirs or files, or opening the nested jars.
+     * @throws IOException if reading an entry fails.
      */
     private static void readJarFile(JarFile jarFile, Map parameters, ClassHandler classHandler) throws IOException {
-        File tempDirectory = Files.createTempDirectory(null).toFile();
-        LOGGER.debug("Created temp dir: {}", tempDirectory.getAbsolutePath());
-
         int noNestedJars = 0;
         int noClasses = 0;
         for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
@@ -75,26 +78,54 @@ public final class JarFileUtil {
             LOGGER.debug("Entry: {}", entry.getName());
 
             if (FileNameUtil.isIncluded(entry.getName(), parameters)) {
-                if (isJarEntry(entry.getName())) {
-                    // write temp file and recurse
-                    File tempFile = writeNestedJarToTempFile(jarFile, entry, tempDirectory);
-                    JarFile nestedJarFile = new JarFile(tempFile);
-                    readJarFile(nestedJarFile, parameters, classHandler);
-                    nestedJarFile.close();
-                    delete(tempFile);
-                    noNestedJars++;
-                } else {
-                    // read bytes and do analysis
-                    InputStream inputStream = jarFile.getInputStream(entry);
-                    byte[] bytes = ByteStreams.toByteArray(inputStream);
-                    classHandler.handleClass(entry.getName(), bytes);
-                    noClasses++;
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    if (isJarEntry(entry.getName())) {
+                        readNestedJarFile(jarFile.getName() + NESTED_SEPARATOR + entry.getName(), inputStream, parameters, classHandler);
+                        noNestedJars++;
+                    } else {
+                        classHandler.handleClass(entry.getName(), ByteStreams.toByteArray(inputStream));
+                        noClasses++;
+                    }
                 }
             }
         }
 
         LOGGER.info("Read {}: {} classes and {} jar files", jarFile.getName(), noClasses, noNestedJars);
-        delete(tempDirectory);
+    }
+
+    /**
+     * Reads a nested JAR file from the given stream, and recurses into further nested JAR files.
+     * <p>
+     * Does not close the given stream.
+     *
+     * @param path         the path of the nested JAR file, starting at the outermost JAR file. Used for logging.
+     * @param inputStream  the content of the nested JAR file
+     * @param parameters   the parameters map. Has one entry for "includes" and one for "excludes" patterns.
+     * @param classHandler the {@link ClassHandler} which will handle the class files.
+     */
+    @SuppressWarnings("squid:S1166") // wants log or rethrow exception. It's logged well enough here.
+    private static void readNestedJarFile(String path, InputStream inputStream, Map parameters, ClassHandler classHandler) {
+        int noNestedJars = 0;
+        int noClasses = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(new NonClosingInputStream(inputStream))) {
+            for (ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+                LOGGER.debug("Entry: {}{}{}", path, NESTED_SEPARATOR, entry.getName());
+
+                if (FileNameUtil.isIncluded(entry.getName(), parameters)) {
+                    if (isJarEntry(entry.getName())) {
+                        readNestedJarFile(path + NESTED_SEPARATOR + entry.getName(), zipInputStream, parameters, classHandler);
+                        noNestedJars++;
+                    } else {
+                        classHandler.handleClass(entry.getName(), ByteStreams.toByteArray(zipInputStream));
+                        noClasses++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error reading nested jar file: {}: {}", path, e.getMessage());
+        }
+
+        LOGGER.info("Read {}: {} classes and {} jar files", path, noClasses, noNestedJars);
     }
 
     /**
@@ -110,19 +141,19 @@ public final class JarFileUtil {
                 || name.endsWith(".ear");
     }
 
-    private static File writeNestedJarToTempFile(JarFile jarFile, JarEntry entry, File tempDirectory) throws IOException {
-        InputStream inputStream = jarFile.getInputStream(entry);
-        byte[] entryAsBytes = ByteStreams.toByteArray(inputStream);
-        File tempFile = new File(tempDirectory, entry.getName());
-        tempFile.getParentFile().mkdirs();
-        com.google.common.io.Files.write(entryAsBytes, tempFile);
-        LOGGER.debug("Created temp file: {}", tempFile.getAbsolutePath());
-        return tempFile;
-    }
+    /**
+     * Protects the stream of the enclosing archive: closing the {@link ZipInputStream} of a nested JAR file releases
+     * its resources, but must not close the stream it reads from.
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
 
-    private static void delete(File tempFile) {
-        FileSystemUtil.deleteDirectoryQuietly(tempFile.getAbsolutePath());
-        LOGGER.debug("Deleted: {}", tempFile.getAbsolutePath());
-    }
+        private NonClosingInputStream(InputStream in) {
+            super(in);
+        }
 
+        @Override
+        public void close() {
+            // don't close the enclosing stream.
+        }
+    }
 }
@@ -0,0 +1,240 @@
+package de.qaware.qav.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Finds the first of many Ant-style name patterns which matches a given name, in one pass over the name.
+ * <p>
+ * The patterns are compiled into a trie over the segments of their literal prefix, i.e. the segments up to the first
+ * wildcard. A lookup walks down the trie along the segments of the name, and only looks at the patterns on that path:
+ * <ul>
+ * <li>Patterns without wildcards, like <tt>com.my.MyClass</tt>, and patterns like <tt>com.my.**</tt> are decided by
+ * the position in the trie alone.</li>
+ * <li>All other patterns, like <tt>com.my.*Impl</tt>, are checked with the {@link QavNameMatcher}, but only if the
+ * name starts with their literal prefix.</li>
+ * </ul>
+ * The result is exactly the same as checking each pattern with the {@link QavNameMatcher}, in the order in which the
+ * patterns were added.
+ * <p>
+ * Instances are not thread safe while patterns are added. After that, lookups may run concurrently.
+ *
+ * @param <T> type of the values associated with the patterns
+ * @author QAware GmbH
+ */
+public class NamePatternIndex<T> {
+
+    /**
+     * One trie per path separator.
+     */
+    private final Map<String, Trie<T>> tries = new LinkedHashMap<>();
+    private int size = 0;
+
+    /**
+     * Adds a pattern. Patterns added earlier take precedence.
+     *
+     * @param pattern       the pattern, Ant-style
+     * @param pathSeparator the path separator of the pattern
+     * @param value         the value to return if the pattern matches
+     */
+    public void add(String pattern, String pathSeparator, T value) {
+        checkNotNull(pattern, "pattern");
+        checkNotNull(pathSeparator, "pathSeparator");
+        tries.computeIfAbsent(pathSeparator, Trie::new).add(pattern, size++, value);
+    }
+
+    /**
+     * @return the number of patterns
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the value of the first added pattern which matches the given name.
+     *
+     * @param name the name
+     * @return the value, or <tt>null</tt> if no pattern matches, or if the name is <tt>null</tt> or empty
+     */
+    public T findFirst(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        Entry<T> best = null;
+        for (Trie<T> trie : tries.values()) {
+            Entry<T> entry = trie.findFirst(name, best == null ? Integer.MAX_VALUE : best.priority);
+            if (entry != null) {
+                best = entry;
+            }
+        }
+        return best == null ? null : best.value;
+    }
+
+    /**
+     * Checks if any pattern matches the given name.
+     *
+     * @param name the name
+     * @return <tt>true</tt> if any pattern matches
+     */
+    public boolean matchesAny(String name) {
+        return findFirst(name) != null;
+    }
+
+    private enum Kind {
+        /**
+         * a pattern without wildcards: matches if the name has exactly the same segments.
+         */
+        EXACT,
+
+        /**
+         * a literal prefix plus <tt>.**</tt>: matches if the name starts with the segments of the prefix.
+         */
+        PREFIX,
+
+        /**
+         * everything else: check with the {@link QavNameMatcher}.
+         */
+        OTHER
+    }
+
+    private static final class Entry<T> {
+        private final String pattern;
+        private final Kind kind;
+        private final int priority;
+        private final T value;
+
+        private Entry(String pattern, Kind kind, int priority, T value) {
+            this.pattern = pattern;
+            this.kind = kind;
+            this.priority = priority;
+            this.value = value;
+        }
+    }
+
+    private static final class TrieNode<T> {
+        private final Map<String, TrieNode<T>> children = new HashMap<>();
+        private final List<Entry<T>> entries = new ArrayList<>();
+    }
+
+    /**
+     * The patterns for one path separator.
+     */
+    private static final class Trie<T> {
+        private final String pathSeparator;
+        private final QavNameMatcher nameMatcher;
+        private final TrieNode<T> root = new TrieNode<>();
+
+        private Trie(String pathSeparator) {
+            this.pathSeparator = pathSeparator;
+            this.nameMatcher = new QavNameMatcher(pathSeparator);
+        }
+
+        private void add(String pattern, int priority, T value) {
+            List<String> segments = tokenize(pattern);
+            int literal = 0;
+            while (literal < segments.size() && isLiteral(segments.get(literal))) {
+                literal++;
+            }
+
+            Kind kind;
+            if (pattern.startsWith(pathSeparator) || pattern.endsWith(pathSeparator)) {
+                // the Ant path matcher compares leading and trailing separators; leave that to it
+                kind = Kind.OTHER;
+                literal = 0;
+            } else if (literal == segments.size()) {
+                kind = Kind.EXACT;
+            } else if (literal == segments.size() - 1 && "**".equals(segments.get(literal))) {
+                kind = Kind.PREFIX;
+            } else {
+                kind = Kind.OTHER;
+            }
+
+            TrieNode<T> node = root;
+            for (int i = 0; i < literal; i++) {
+                node = node.children.computeIfAbsent(segments.get(i), key -> new TrieNode<>());
+            }
+            node.entries.add(new Entry<>(pattern, kind, priority, value));
+        }
+
+        /**
+         * Walks down the trie along the segments of the name, and stops as soon as there is no matching child.
+         *
+         * @param name  the name
+         * @param limit only look for entries with a lower priority number
+         * @return the matching entry with the lowest priority number below the limit, or <tt>null</tt>
+         */
+        private Entry<T> findFirst(String name, int limit) {
+            boolean leadingSeparator = name.startsWith(pathSeparator);
+            boolean trailingSeparator = name.endsWith(pathSeparator);
+            Entry<T> best = null;
+            int bestPriority = limit;
+
+            TrieNode<T> node = root;
+            int pos = skipSeparators(name, 0);
+            while (node != null) {
+                boolean atEnd = pos >= name.length();
+                for (Entry<T> entry : node.entries) {
+                    if (entry.priority < bestPriority && matches(entry, name, atEnd, leadingSeparator, trailingSeparator)) {
+                        best = entry;
+                        bestPriority = entry.priority;
+                    }
+                }
+                if (atEnd) {
+                    break;
+                }
+                int end = name.indexOf(pathSeparator, pos);
+                if (end < 0) {
+                    end = name.length();
+                }
+                node = node.children.isEmpty() ? null : node.children.get(name.substring(pos, end));
+                pos = skipSeparators(name, end);
+            }
+            return best;
+        }
+
+        private boolean matches(Entry<T> entry, String name, boolean atEnd, boolean leadingSeparator, boolean trailingSeparator) {
+            switch (entry.kind) {
+                case EXACT:
+                    return atEnd && !leadingSeparator && !trailingSeparator;
+                case PREFIX:
+                    return !leadingSeparator;
+                default:
+                    return nameMatcher.matches(entry.pattern, name);
+            }
+        }
+
+        private int skipSeparators(String name, int pos) {
+            int result = pos;
+            while (name.startsWith(pathSeparator, result)) {
+                result += pathSeparator.length();
+            }
+            return result;
+        }
+
+        /**
+         * Splits like the Ant path matcher: empty segments are skipped.
+         */
+        private List<String> tokenize(String pattern) {
+            List<String> result = new ArrayList<>();
+            int pos = skipSeparators(pattern, 0);
+            while (pos < pattern.length()) {
+                int end = pattern.indexOf(pathSeparator, pos);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                result.add(pattern.substring(pos, end));
+                pos = skipSeparators(pattern, end);
+            }
+            return result;
+        }
+
+        private static boolean isLiteral(String segment) {
+            return segment.indexOf('*') < 0 && segment.indexOf('?') < 0 && segment.indexOf('{') < 0;
+        }
+    }
+}
@@ -3,10 +3,16 @@ package de.qaware.qav.util;
 import com.google.common.collect.Lists;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
@@ -43,6 +49,47 @@ public class JarFileUtilTest {
         assertThat(entries.get("WEB-INF/classes/my-resource.txt"), is(24));
     }
 
+    @Test
+    public void testFindDeeplyNestedJarFiles() throws IOException {
+        byte[] innerJar = zip("a/b/Inner.class", "inner", "readme.txt", "ignored");
+        byte[] middleWar = zip("WEB-INF/classes/Middle.class", "middle!", "WEB-INF/lib/inner.jar", innerJar);
+        byte[] outerEar = zip("Outer.class", "outer", "lib/middle.war", middleWar);
+
+        File earFile = new File("build/test-output/jars/deep-nesting.ear");
+        earFile.getParentFile().mkdirs();
+        Files.write(earFile.toPath(), outerEar);
+
+        Map<Object, Object> parameters = new HashMap<>();
+        parameters.put("includes", Lists.newArrayList("**/*.class", "**/*.jar", "**/*.war"));
+
+        final Map<String, String> entries = new HashMap<>();
+        ClassHandler classHandler = (name, content) -> entries.put(name, new String(content, StandardCharsets.UTF_8));
+        JarFileUtil.readJarFile(earFile, parameters, classHandler);
+        assertThat(entries.size(), is(3));
+        assertThat(entries.get("Outer.class"), is("outer"));
+        assertThat(entries.get("WEB-INF/classes/Middle.class"), is("middle!"));
+        assertThat(entries.get("a/b/Inner.class"), is("inner"));
+    }
+
+    /**
+     * creates a ZIP archive in memory.
+     *
+     * @param nameContentPairs entry names, each followed by the content: either a String or a byte array.
+     * @return the archive as byte array
+     */
+    private byte[] zip(Object... nameContentPairs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < nameContentPairs.length; i += 2) {
+                Object content = nameContentPairs[i + 1];
+                zip.putNextEntry(new ZipEntry((String) nameContentPairs[i]));
+                zip.write(content instanceof byte[] ? (byte[]) content : ((String) content).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
     /**
      * checks that the JAR file exists.
      *
@@ -0,0 +1,114 @@
+package de.qaware.qav.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests for {@link NamePatternIndex}.
+ *
+ * @author QAware GmbH
+ */
+public class NamePatternIndexTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "com.my.project.module.a.**",
+            "com.my.project.module.*Impl",
+            "com.my.project.module.**",
+            "com.my.project.util.Helper",
+            "com.my.project.*.api.*",
+            "com.my.project",
+            "v*",
+            "xy.*",
+            "xy.**.Z",
+            ".lead.**",
+            "trail.",
+            "com.{name}.X",
+            "**.Test*",
+            "com.my.?.B");
+
+    private static final List<String> NAMES = Arrays.asList(
+            "com.my.project.module.a.A1",
+            "com.my.project.module.a",
+            "com.my.project.module.MyImpl",
+            "com.my.project.module.b.MyImpl",
+            "com.my.project.module",
+            "com.my.project.module.",
+            "com.my.project.util.Helper",
+            "com.my.project.util.Helper.Inner",
+            "com.my.project.util.api.A",
+            "com.my.project",
+            "com.my.projectX",
+            "com.my",
+            "com..my.project",
+            "v1",
+            "x1",
+            "xy",
+            "xy.a",
+            "xy.a.b.Z",
+            ".lead.A",
+            "lead.A",
+            "trail.",
+            "trail",
+            "com.other.X",
+            "org.TestA",
+            "com.my.q.B",
+            "com.my.qq.B",
+            ".com.my.project",
+            "com.my.project.",
+            ".");
+
+    @Test
+    public void testSameAsNameMatcher() {
+        NamePatternIndex<String> index = new NamePatternIndex<>();
+        PATTERNS.forEach(pattern -> index.add(pattern, ".", pattern));
+        assertThat(index.size(), is(PATTERNS.size()));
+
+        QavNameMatcher nameMatcher = new QavNameMatcher();
+        for (String name : NAMES) {
+            String expected = PATTERNS.stream().filter(pattern -> nameMatcher.matches(pattern, name)).findFirst().orElse(null);
+            assertThat(name, index.findFirst(name), is(expected));
+            assertThat(name, index.matchesAny(name), is(expected != null));
+        }
+    }
+
+    @Test
+    public void testFirstAddedWins() {
+        NamePatternIndex<Integer> index = new NamePatternIndex<>();
+        index.add("com.my.project.module.**", ".", 1);
+        index.add("com.my.project.module.a.**", ".", 2);
+        index.add("com.**", ".", 3);
+
+        assertThat(index.findFirst("com.my.project.module.a.A1"), is(1));
+        assertThat(index.findFirst("com.other.A1"), is(3));
+        assertThat(index.findFirst("org.A1"), nullValue());
+    }
+
+    @Test
+    public void testNullAndEmptyNames() {
+        NamePatternIndex<String> index = new NamePatternIndex<>();
+        index.add("**", ".", "all");
+
+        assertThat(index.findFirst(null), nullValue());
+        assertThat(index.findFirst(""), nullValue());
+        assertThat(index.findFirst("a"), is("all"));
+    }
+
+    @Test
+    public void testPathSeparators() {
+        NamePatternIndex<String> index = new NamePatternIndex<>();
+        index.add("com#my#**", "#", "hash");
+        index.add("com.my.**", ".", "dot");
+        index.add("**", "/", "slash");
+
+        assertThat(index.findFirst("com#my#A"), is("hash"));
+        assertThat(index.findFirst("com.my.A"), is("dot"));
+        assertThat(index.findFirst("org.A"), is("slash"));
+        assertThat(index.findFirst("/org/A"), nullValue());
+    }
+}